@@ -0,0 +1,23 @@
+package com.openclassrooms.mddapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param compressionThreshold minimum UTF-8 size, in bytes, of a post or comment body stored compressed
+ * @param dictionary           shared Deflate dictionary settings
+ */
+@ConfigurationProperties(prefix = "app.content-storage")
+public record ContentStorageProperties(
+		int compressionThreshold,
+		Dictionary dictionary
+) {
+
+	/**
+	 * @param enabled    compress new bodies with a dictionary trained from stored ones (trained once, at the first
+	 *                   startup with the option on)
+	 * @param maxSize    dictionary size in bytes, at most 32 KiB
+	 * @param sampleSize number of recent posts and comments the dictionary is trained on
+	 */
+	public record Dictionary(boolean enabled, int maxSize, int sampleSize) {
+	}
+}
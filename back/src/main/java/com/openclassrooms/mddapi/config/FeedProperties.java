@@ -0,0 +1,67 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.feed")
+public record FeedProperties(
+		int defaultPageSize,
+		int maxPageSize,
+		Timeline timeline,
+		RecentCache recentCache,
+		PageCache pageCache,
+		Stream stream,
+		SubjectQuery subjectQuery
+) {
+
+	/**
+	 * @param fanOutThreshold   subscriber count above which a subject switches to fan-out-on-read
+	 * @param fanOutBatchSize   number of subscriber timelines written per transaction during fan-out
+	 * @param backfillBatchSize number of subject posts copied per transaction into the timeline of a new subscriber
+	 */
+	public record Timeline(int fanOutThreshold, int fanOutBatchSize, int backfillBatchSize) {
+	}
+
+	/**
+	 * @param enabled  serve the first descending page from in-memory rings
+	 * @param capacity number of recent posts kept per subject
+	 */
+	public record RecentCache(boolean enabled, int capacity) {
+	}
+
+	/**
+	 * @param enabled     cache assembled feed pages per user
+	 * @param maximumSize maximum number of cached pages
+	 * @param ttl         time after which a cached page expires even without invalidation
+	 */
+	public record PageCache(boolean enabled, long maximumSize, Duration ttl) {
+	}
+
+	/**
+	 * @param timeout           lifetime of an SSE connection before the client has to reconnect
+	 * @param heartbeatInterval interval between keep-alive comments sent to idle connections
+	 * @param sendQueueCapacity events buffered per connection before a slow client is disconnected
+	 */
+	public record Stream(Duration timeout, Duration heartbeatInterval, int sendQueueCapacity) {
+	}
+
+	/**
+	 * @param strategy       how posts of several subjects are read
+	 * @param maxConcurrency maximum number of per-subject queries in flight across all requests; keep it below the
+	 *                       connection pool size
+	 */
+	public record SubjectQuery(SubjectQueryStrategy strategy, int maxConcurrency) {
+	}
+
+	public enum SubjectQueryStrategy {
+		/**
+		 * One {@code subject_id IN (...)} query; the database sorts the union of the subjects.
+		 */
+		IN_LIST,
+		/**
+		 * One bounded top-N query per subject on virtual threads, each an index range scan, merged in memory.
+		 */
+		PARALLEL
+	}
+}
@@ -0,0 +1,14 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param ttl           how long a stored response is replayed for its key
+ * @param maximumSize   maximum number of responses kept in memory; older ones are still found in the database
+ * @param purgeInterval delay between two deletions of expired keys from the database
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(Duration ttl, long maximumSize, Duration purgeInterval) {
+}
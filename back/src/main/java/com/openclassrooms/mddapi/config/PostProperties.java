@@ -0,0 +1,79 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.post")
+public record PostProperties(
+		int commentPageSize,
+		int maxCommentPageSize,
+		DetailCache detailCache,
+		ActivityFlush activityFlush,
+		BulkImport bulkImport,
+		CommentQueue commentQueue,
+		NearDuplicate nearDuplicate
+) {
+
+	/**
+	 * @param enabled     cache post details (post, first comment page, comment count) per post
+	 * @param maximumSize maximum number of cached posts
+	 * @param ttl         time after which a cached post expires, counted from its load; bounds how long writes made
+	 *                    through another node stay unseen
+	 */
+	public record DetailCache(boolean enabled, long maximumSize, Duration ttl) {
+	}
+
+	/**
+	 * @param interval  delay between two flushes of the pending comment counters to the post rows
+	 * @param batchSize number of post rows per JDBC batch
+	 */
+	public record ActivityFlush(Duration interval, int batchSize) {
+	}
+
+	/**
+	 * @param enabled     expose the NDJSON import endpoint (migration tool, off by default)
+	 * @param operatorIds ids of the users allowed to import: lines are written under any author, so nobody else is
+	 * @param chunkSize   number of input lines committed per transaction
+	 * @param batchSize   number of rows per JDBC batch
+	 */
+	public record BulkImport(boolean enabled, List<Long> operatorIds, int chunkSize, int batchSize) {
+	}
+
+	/**
+	 * @param enabled      acknowledge comments with 202 and write them behind, in group-committed batches; queued
+	 *                     comments are lost if the process dies before writing them
+	 * @param capacity     maximum number of comments waiting to be written
+	 * @param batchSize    maximum number of comments committed in one transaction
+	 * @param offerTimeout how long a request waits for room in a full queue before getting a 503
+	 */
+	public record CommentQueue(boolean enabled, int capacity, int batchSize, Duration offerTimeout) {
+	}
+
+	/**
+	 * @param enabled       check new posts against the SimHash of existing posts
+	 * @param action        what happens to a new post close to an existing one
+	 * @param maxDistance   maximum number of differing SimHash bits (out of 64) for two posts to be near-duplicates
+	 * @param scanBatchSize number of posts read per query when the index is loaded or synced
+	 * @param syncInterval  delay between two reads of the posts created through other nodes
+	 */
+	public record NearDuplicate(
+			boolean enabled,
+			NearDuplicateAction action,
+			int maxDistance,
+			int scanBatchSize,
+			Duration syncInterval) {
+	}
+
+	public enum NearDuplicateAction {
+		/**
+		 * Refuse the post with a 409.
+		 */
+		REJECT,
+		/**
+		 * Create the post and record the post it resembles in {@code post.duplicate_of}.
+		 */
+		FLAG
+	}
+}
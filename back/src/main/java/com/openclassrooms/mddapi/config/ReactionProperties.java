@@ -0,0 +1,16 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.reaction")
+public record ReactionProperties(Flush flush) {
+
+	/**
+	 * @param interval  delay between two flushes of the pending reaction counters to the post and comment rows
+	 * @param batchSize number of rows per JDBC batch
+	 */
+	public record Flush(Duration interval, int batchSize) {
+	}
+}
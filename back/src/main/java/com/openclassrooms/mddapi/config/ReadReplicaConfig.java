@@ -0,0 +1,75 @@
+package com.openclassrooms.mddapi.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+	/**
+	 * Wraps the auto-configured primary data source, so its connection settings (properties or Docker Compose)
+	 * are left untouched, into a replica-routing data source.
+	 *
+	 * @param properties replica settings, resolved lazily since post-processors are created early
+	 * @return the post-processor replacing the {@code dataSource} bean
+	 */
+	@Bean
+	public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(
+			ObjectProvider<ReadReplicaProperties> properties) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+					return bean;
+				}
+				ReadReplicaProperties settings = properties.getObject();
+				List<DataSource> replicas = settings.replicas().stream()
+						.map(ReadReplicaConfig::replicaDataSource)
+						.toList();
+				return new RoutingDataSourceProxy(
+						new ReplicaRoutingDataSource(primary, replicas, settings.stickyWindow()));
+			}
+		};
+	}
+
+	private static DataSource replicaDataSource(ReadReplicaProperties.Replica replica) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(replica.url())
+				.username(replica.username())
+				.password(replica.password())
+				.build();
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	/**
+	 * Defers fetching the routed connection to the first statement, and closes the pools on shutdown.
+	 */
+	private static final class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+		private final ReplicaRoutingDataSource routing;
+
+		private RoutingDataSourceProxy(ReplicaRoutingDataSource routing) {
+			super(routing);
+			this.routing = routing;
+		}
+
+		@Override
+		public void close() throws Exception {
+			routing.close();
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param enabled      route read-only transactions to the replicas
+ * @param replicas     replica connection settings, used in round-robin
+ * @param stickyWindow time during which a user's reads stay on the primary after that user committed a write
+ */
+@ConfigurationProperties(prefix = "app.datasource.read-replica")
+public record ReadReplicaProperties(
+		boolean enabled,
+		List<Replica> replicas,
+		Duration stickyWindow
+) {
+
+	public record Replica(String url, String username, String password) {
+	}
+}
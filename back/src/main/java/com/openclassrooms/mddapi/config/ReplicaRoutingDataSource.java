@@ -0,0 +1,102 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Sends connections of read-only transactions to the replicas (round-robin) and everything else to the primary.
+ * <p>
+ * The lookup key is resolved when the connection is fetched, so this data source must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: by the first statement the transaction read-only flag is known.
+ * <p>
+ * Read-your-writes: when a read-write transaction of an authenticated user commits, that user's reads stay on the
+ * primary for the sticky window, long enough for the replicas to catch up.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+	static final String PRIMARY = "primary";
+	private static final String REPLICA_PREFIX = "replica-";
+
+	private final List<DataSource> targets;
+	private final int replicaCount;
+	private final AtomicInteger nextReplica = new AtomicInteger();
+	private final Cache<Long, Boolean> recentWriters;
+
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration stickyWindow) {
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			targets.put(REPLICA_PREFIX + i, replicas.get(i));
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+		this.targets = targets.values().stream().map(DataSource.class::cast).toList();
+		this.replicaCount = replicas.size();
+		this.recentWriters = Caffeine.newBuilder()
+				.expireAfterWrite(stickyWindow)
+				.maximumSize(100_000)
+				.build();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Long userId = currentUserId();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						recentWriters.put(userId, Boolean.TRUE);
+					}
+				});
+			}
+			return PRIMARY;
+		}
+		if (replicaCount == 0 || (userId != null && recentWriters.getIfPresent(userId) != null)) {
+			return PRIMARY;
+		}
+		return REPLICA_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+	}
+
+	/**
+	 * Closes the primary and replica pools, since only this data source is registered as a bean.
+	 */
+	@Override
+	public void close() throws Exception {
+		for (DataSource target : targets) {
+			if (target instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads the user id from the JWT subject of the current authentication, if any.
+	 */
+	private static Long currentUserId() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()) {
+			return null;
+		}
+		try {
+			return Long.valueOf(authentication.getName());
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+}
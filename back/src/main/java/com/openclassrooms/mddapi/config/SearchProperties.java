@@ -0,0 +1,38 @@
+package com.openclassrooms.mddapi.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param directory         local directory holding the index segments, rebuilt from the database when missing
+ * @param defaultPageSize   hits per page when the request gives no limit
+ * @param maxPageSize       largest accepted limit
+ * @param commitInterval    delay between writes of newly indexed posts and comments to a segment
+ * @param mergeFactor       number of segments of the same size tier merged into one
+ * @param catchUpBatchSize  rows read per query when indexing posts and comments missing from the index
+ * @param syncInterval      delay between two reads of the posts and comments written through other nodes
+ * @param autocomplete      subject and post title suggestions
+ */
+@ConfigurationProperties(prefix = "app.search")
+public record SearchProperties(
+		Path directory,
+		int defaultPageSize,
+		int maxPageSize,
+		Duration commitInterval,
+		int mergeFactor,
+		int catchUpBatchSize,
+		Duration syncInterval,
+		Autocomplete autocomplete
+) {
+
+	/**
+	 * @param recentPosts      number of newest post titles suggested
+	 * @param compactThreshold new titles kept unsorted before the index is rebuilt
+	 * @param defaultLimit     suggestions returned when the request gives no limit
+	 * @param maxLimit         largest accepted limit
+	 */
+	public record Autocomplete(int recentPosts, int compactThreshold, int defaultLimit, int maxLimit) {
+	}
+}
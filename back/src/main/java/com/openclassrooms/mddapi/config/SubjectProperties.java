@@ -0,0 +1,26 @@
+package com.openclassrooms.mddapi.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.subject")
+public record SubjectProperties(Catalog catalog, SubscriptionIndex subscriptionIndex) {
+
+	/**
+	 * @param versionCheckInterval delay between two checks of the subject table for changes made by other nodes
+	 */
+	public record Catalog(Duration versionCheckInterval) {
+	}
+
+	/**
+	 * @param syncInterval  delay between two reads of the subscription changes made by other nodes
+	 * @param gracePeriod   how long a change stays re-read, so changes committed out of id order are not missed;
+	 *                      longer than any subscription transaction
+	 * @param retention     age after which changes are purged; longer than the grace period
+	 * @param scanBatchSize number of subscriptions read per query when the index is loaded
+	 */
+	public record SubscriptionIndex(Duration syncInterval, Duration gracePeriod, Duration retention,
+			int scanBatchSize) {
+	}
+}
@@ -1,15 +1,16 @@
 package com.openclassrooms.mddapi.domain;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -18,6 +19,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import com.openclassrooms.mddapi.domain.codec.CompressedContentConverter;
+
 @Entity
 @Table(name = "comment")
 @Getter
@@ -38,10 +41,18 @@ public class Comment {
 	@JoinColumn(name = "author_id", nullable = false)
 	private User author;
 
-	@Lob
+	@Convert(converter = CompressedContentConverter.class)
 	@Column(name = "content", nullable = false)
 	private String content;
 
+	/**
+	 * Number of reactions, maintained by the batched updates of {@code ReactionFlusher}; never written by the entity
+	 * itself.
+	 */
+	@Column(name = "reaction_count", nullable = false, updatable = false)
+	@Setter(AccessLevel.NONE)
+	private int reactionCount;
+
 	@Column(name = "created_at", nullable = false)
 	@Setter(AccessLevel.NONE)
 	private Instant createdAt;
@@ -49,7 +60,8 @@ public class Comment {
 	@PrePersist
 	void prePersist() {
 		if (createdAt == null) {
-			createdAt = Instant.now();
+			// Match the column precision so cursors built from in-memory copies equal the stored value.
+			createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
 		}
 	}
 
@@ -1,15 +1,16 @@
 package com.openclassrooms.mddapi.domain;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -18,6 +19,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import com.openclassrooms.mddapi.domain.codec.CompressedContentConverter;
+
 @Entity
 @Table(name = "post")
 @Getter
@@ -25,6 +28,11 @@ import lombok.Setter;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Post {
 
+	/**
+	 * Maximum length of {@link #excerpt}, the preview served by the feed instead of {@link #content}.
+	 */
+	public static final int EXCERPT_LENGTH = 280;
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Setter(AccessLevel.NONE)
@@ -41,10 +49,55 @@ public class Post {
 	@Column(name = "title", nullable = false, length = 255)
 	private String title;
 
-	@Lob
+	@Convert(converter = CompressedContentConverter.class)
 	@Column(name = "content", nullable = false)
 	private String content;
 
+	@Column(name = "excerpt", nullable = false, length = EXCERPT_LENGTH)
+	private String excerpt;
+
+	/**
+	 * Time-decayed activity score, see {@code HotScore}. Only grows, through the batched updates of
+	 * {@code PostActivityFlusher}.
+	 */
+	@Column(name = "hot_score", nullable = false)
+	private double hotScore;
+
+	/**
+	 * Number of comments, incremented by {@code PostActivityFlusher}; never written by the entity itself.
+	 */
+	@Column(name = "comment_count", nullable = false, updatable = false)
+	@Setter(AccessLevel.NONE)
+	private int commentCount;
+
+	/**
+	 * Date of the post or of its latest comment, maintained like {@link #commentCount}.
+	 */
+	@Column(name = "last_activity_at", nullable = false, updatable = false)
+	@Setter(AccessLevel.NONE)
+	private Instant lastActivityAt;
+
+	/**
+	 * Number of reactions, maintained by the batched updates of {@code ReactionFlusher}; never written by the entity
+	 * itself.
+	 */
+	@Column(name = "reaction_count", nullable = false, updatable = false)
+	@Setter(AccessLevel.NONE)
+	private int reactionCount;
+
+	/**
+	 * 64-bit SimHash of title and content, see {@code NearDuplicateDetector}. Null until computed for posts older
+	 * than the column.
+	 */
+	@Column(name = "simhash")
+	private Long simhash;
+
+	/**
+	 * Post this one nearly duplicates, when near-duplicates are flagged instead of rejected.
+	 */
+	@Column(name = "duplicate_of")
+	private Long duplicateOf;
+
 	@Column(name = "created_at", nullable = false)
 	@Setter(AccessLevel.NONE)
 	private Instant createdAt;
@@ -52,14 +105,19 @@ public class Post {
 	@PrePersist
 	void prePersist() {
 		if (createdAt == null) {
-			createdAt = Instant.now();
+			// Match the column precision so in-memory copies (feed caches, cursors) equal the stored value.
+			createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		}
+		if (lastActivityAt == null) {
+			lastActivityAt = createdAt;
 		}
 	}
 
-	public Post(Subject subject, User author, String title, String content) {
+	public Post(Subject subject, User author, String title, String content, String excerpt) {
 		this.subject = subject;
 		this.author = author;
 		this.title = title;
 		this.content = content;
+		this.excerpt = excerpt;
 	}
 }
@@ -0,0 +1,48 @@
+package com.openclassrooms.mddapi.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's reaction (like) on a post or a comment: at most one per user and target.
+ */
+@Entity
+@Table(name = "reaction")
+@IdClass(ReactionId.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Reaction {
+
+	@Id
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "target_type", nullable = false, length = 16)
+	private ReactionTarget targetType;
+
+	@Id
+	@Column(name = "target_id", nullable = false)
+	private Long targetId;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	public Reaction(Long userId, ReactionTarget targetType, Long targetId, Instant createdAt) {
+		this.userId = userId;
+		this.targetType = targetType;
+		this.targetId = targetId;
+		this.createdAt = createdAt;
+	}
+}
@@ -0,0 +1,26 @@
+package com.openclassrooms.mddapi.domain;
+
+import java.io.Serializable;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode
+public class ReactionId implements Serializable {
+
+	private Long userId;
+
+	private ReactionTarget targetType;
+
+	private Long targetId;
+
+	public ReactionId(Long userId, ReactionTarget targetType, Long targetId) {
+		this.userId = userId;
+		this.targetType = targetType;
+		this.targetId = targetId;
+	}
+}
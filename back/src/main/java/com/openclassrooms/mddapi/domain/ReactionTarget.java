@@ -0,0 +1,9 @@
+package com.openclassrooms.mddapi.domain;
+
+/**
+ * Kind of content a {@link Reaction} applies to, stored as its name in {@code reaction.target_type}.
+ */
+public enum ReactionTarget {
+	post,
+	comment
+}
@@ -32,6 +32,14 @@ public class Subject {
 	@Column(name = "description", nullable = false, length = 255)
 	private String description;
 
+	/**
+	 * Set once the subject outgrows the fan-out threshold: its posts are then read from {@code post} at feed time
+	 * instead of being copied into every subscriber timeline. The flag never goes back to false so that no post
+	 * falls between the two strategies.
+	 */
+	@Column(name = "fan_out_on_read", nullable = false)
+	private boolean fanOutOnRead;
+
 	@Column(name = "created_at", nullable = false)
 	@Setter(AccessLevel.NONE)
 	private Instant createdAt;
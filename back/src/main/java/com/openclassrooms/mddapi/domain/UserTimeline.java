@@ -0,0 +1,46 @@
+package com.openclassrooms.mddapi.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized feed entry: one row per (subscriber, post), written at post creation time.
+ */
+@Entity
+@Table(name = "user_timeline",
+		indexes = @Index(name = "idx_user_timeline_user_created_at", columnList = "user_id, created_at, post_id"))
+@IdClass(UserTimelineId.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UserTimeline {
+
+	@Id
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Id
+	@Column(name = "post_id", nullable = false)
+	private Long postId;
+
+	@Column(name = "subject_id", nullable = false)
+	private Long subjectId;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	public UserTimeline(Long userId, Long postId, Long subjectId, Instant createdAt) {
+		this.userId = userId;
+		this.postId = postId;
+		this.subjectId = subjectId;
+		this.createdAt = createdAt;
+	}
+}
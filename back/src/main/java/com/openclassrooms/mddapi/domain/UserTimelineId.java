@@ -0,0 +1,23 @@
+package com.openclassrooms.mddapi.domain;
+
+import java.io.Serializable;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode
+public class UserTimelineId implements Serializable {
+
+	private Long userId;
+
+	private Long postId;
+
+	public UserTimelineId(Long userId, Long postId) {
+		this.userId = userId;
+		this.postId = postId;
+	}
+}
@@ -0,0 +1,28 @@
+package com.openclassrooms.mddapi.domain.codec;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores post and comment bodies with the current {@link ContentCodec}. Bodies are only decoded when the column is
+ * selected: the feed reads {@code post.excerpt}, and adding a comment never loads its post body.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container.
+ */
+@Converter
+@RequiredArgsConstructor
+public class CompressedContentConverter implements AttributeConverter<String, byte[]> {
+
+	private final ContentCodecRegistry codecs;
+
+	@Override
+	public byte[] convertToDatabaseColumn(String content) {
+		return content == null ? null : codecs.codec().encode(content);
+	}
+
+	@Override
+	public String convertToEntityAttribute(byte[] stored) {
+		return stored == null ? null : codecs.codec().decode(stored);
+	}
+}
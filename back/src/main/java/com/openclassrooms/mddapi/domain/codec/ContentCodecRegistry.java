@@ -0,0 +1,89 @@
+package com.openclassrooms.mddapi.domain.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.openclassrooms.mddapi.config.ContentStorageProperties;
+
+/**
+ * Holds the {@link ContentCodec} used for new bodies and the dictionaries of stored ones.
+ * <p>
+ * Dictionaries live in {@code content_dictionary} and are loaded on first use, so an instance can read bodies
+ * written with a dictionary trained by another one. When the dictionary option is on and none exists yet, one is
+ * trained at startup from the most recent bodies.
+ */
+@Component
+public class ContentCodecRegistry {
+
+	private static final int DICTIONARY_ID = 1;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ContentStorageProperties properties;
+	private final ConcurrentMap<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+	private volatile ContentCodec codec;
+
+	public ContentCodecRegistry(JdbcTemplate jdbcTemplate, ContentStorageProperties properties) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.properties = properties;
+		this.codec = new ContentCodec(properties.compressionThreshold(), 0, null, this::dictionary);
+	}
+
+	public ContentCodec codec() {
+		return codec;
+	}
+
+	/**
+	 * Switches new writes to the shared dictionary, training it first if needed.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void activateDictionary() {
+		if (!properties.dictionary().enabled()) {
+			return;
+		}
+		byte[] dictionary = dictionary(DICTIONARY_ID);
+		if (dictionary == null) {
+			dictionary = train();
+		}
+		if (dictionary != null) {
+			codec = new ContentCodec(properties.compressionThreshold(), DICTIONARY_ID, dictionary, this::dictionary);
+		}
+	}
+
+	byte[] dictionary(int id) {
+		return dictionaries.computeIfAbsent(id, key -> jdbcTemplate.query(
+				"select data from content_dictionary where id = ?",
+				rs -> rs.next() ? rs.getBytes(1) : null,
+				key));
+	}
+
+	private byte[] train() {
+		int perTable = Math.max(1, properties.dictionary().sampleSize() / 2);
+		List<String> samples = new ArrayList<>();
+		for (String table : List.of("post", "comment")) {
+			jdbcTemplate.query("select content from " + table + " order by id desc limit ?",
+					rs -> {
+						samples.add(codec.decode(rs.getBytes(1)));
+					},
+					perTable);
+		}
+		byte[] trained = ContentDictionaryTrainer.train(samples, properties.dictionary().maxSize());
+		if (trained.length == 0) {
+			return null;
+		}
+		try {
+			jdbcTemplate.update("insert into content_dictionary (id, data) values (?, ?)", DICTIONARY_ID, trained);
+		} catch (DuplicateKeyException ex) {
+			// Trained concurrently by another instance: use the stored one.
+		}
+		dictionaries.remove(DICTIONARY_ID);
+		return dictionary(DICTIONARY_ID);
+	}
+}
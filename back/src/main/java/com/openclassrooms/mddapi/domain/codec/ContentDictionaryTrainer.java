@@ -0,0 +1,68 @@
+package com.openclassrooms.mddapi.domain.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a Deflate preset dictionary from sample bodies.
+ * <p>
+ * Keeps the tokens found in the most samples, weighted by their length, since those are the matches a short body
+ * cannot find in itself. The best tokens go last: Deflate reaches the end of the dictionary with the shortest
+ * distances.
+ */
+public final class ContentDictionaryTrainer {
+
+	/**
+	 * Deflate cannot look further back than its 32 KiB window.
+	 */
+	public static final int MAX_SIZE = 32 * 1024;
+
+	private static final Pattern TOKENS = Pattern.compile("\\s+");
+	private static final int MIN_TOKEN_LENGTH = 4;
+
+	private ContentDictionaryTrainer() {
+	}
+
+	/**
+	 * @param samples representative bodies
+	 * @param maxSize dictionary size limit in bytes, capped at {@link #MAX_SIZE}
+	 * @return the dictionary, empty if no token appears in two samples
+	 */
+	public static byte[] train(Collection<String> samples, int maxSize) {
+		Map<String, Integer> documentFrequency = new HashMap<>();
+		for (String sample : samples) {
+			Set<String> seen = new HashSet<>();
+			for (String token : TOKENS.split(sample)) {
+				if (token.length() >= MIN_TOKEN_LENGTH && seen.add(token)) {
+					documentFrequency.merge(token, 1, Integer::sum);
+				}
+			}
+		}
+
+		List<Map.Entry<String, Integer>> ranked = new ArrayList<>(documentFrequency.entrySet());
+		ranked.removeIf(entry -> entry.getValue() < 2);
+		ranked.sort(Comparator.comparingLong(
+				(Map.Entry<String, Integer> entry) -> (long) entry.getValue() * entry.getKey().length()).reversed());
+
+		int budget = Math.min(maxSize, MAX_SIZE);
+		List<String> kept = new ArrayList<>();
+		int size = 0;
+		for (Map.Entry<String, Integer> entry : ranked) {
+			int length = entry.getKey().getBytes(StandardCharsets.UTF_8).length + 1;
+			if (size + length > budget) {
+				continue;
+			}
+			kept.add(entry.getKey());
+			size += length;
+		}
+		return (String.join(" ", kept.reversed()) + (kept.isEmpty() ? "" : " ")).getBytes(StandardCharsets.UTF_8);
+	}
+}
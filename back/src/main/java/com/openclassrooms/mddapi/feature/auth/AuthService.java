@@ -62,7 +62,7 @@ public class AuthService {
 	 * Authenticates a user and issues a new access token and refresh token.
 	 * <p>
 	 * The refresh token is returned so the controller can set it in an HttpOnly cookie; only a hash is stored in
-	 * {@code auth_session}.
+	 * {@code auth_session}. Expired sessions of the user are purged on the way.
 	 *
 	 * @param request validated login payload
 	 * @return access token + user data + refresh token (plaintext, for cookie only)
@@ -75,6 +75,8 @@ public class AuthService {
 			throw new UnauthorizedException("Nom d'utilisateur ou mot de passe incorrect");
 		}
 
+		authSessionRepository.deleteExpiredByUserId(user.getId(), Instant.now());
+
 		String refreshToken = refreshTokenService.generateToken();
 		String refreshTokenHash = refreshTokenService.hashToken(refreshToken);
 
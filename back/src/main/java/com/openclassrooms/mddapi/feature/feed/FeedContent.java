@@ -0,0 +1,12 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+/**
+ * What feed items carry besides their title and excerpt.
+ */
+public enum FeedContent {
+	excerpt,
+	/**
+	 * Also the full post content, read for the returned items only: cached pages keep their excerpts.
+	 */
+	full
+}
@@ -2,6 +2,7 @@ package com.openclassrooms.mddapi.feature.feed;
 
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -9,7 +10,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
 import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
 import com.openclassrooms.mddapi.security.CurrentUserService;
 
@@ -21,13 +24,32 @@ import lombok.RequiredArgsConstructor;
 public class FeedController {
 
 	private final FeedService feedService;
+	private final FeedStreamDispatcher feedStreamDispatcher;
 	private final CurrentUserService currentUserService;
 
 	@GetMapping
 	public ResponseEntity<List<FeedPostResponse>> getFeed(
 			@AuthenticationPrincipal Jwt jwt,
-			@RequestParam(name = "sort", defaultValue = "desc") FeedSort sort) {
+			@RequestParam(name = "sort", defaultValue = "desc") FeedSort sort,
+			@RequestParam(name = "content", defaultValue = "excerpt") FeedContent content) {
 		long userId = currentUserService.getUserId(jwt);
-		return ResponseEntity.ok(feedService.getFeed(userId, sort));
+		return ResponseEntity.ok(feedService.getFeed(userId, sort, content));
+	}
+
+	@GetMapping("/page")
+	public ResponseEntity<FeedPageResponse> getFeedPage(
+			@AuthenticationPrincipal Jwt jwt,
+			@RequestParam(name = "sort", defaultValue = "desc") FeedSort sort,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			@RequestParam(name = "content", defaultValue = "excerpt") FeedContent content) {
+		long userId = currentUserService.getUserId(jwt);
+		return ResponseEntity.ok(feedService.getFeedPage(userId, sort, cursor, limit, content));
+	}
+
+	@GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@AuthenticationPrincipal Jwt jwt) {
+		long userId = currentUserService.getUserId(jwt);
+		return feedStreamDispatcher.connect(userId);
 	}
 }
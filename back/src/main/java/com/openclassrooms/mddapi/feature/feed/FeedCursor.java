@@ -0,0 +1,66 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+
+/**
+ * Keyset position in a chronological listing (feed, comment thread): the {@code (createdAt, id)} pair of the last
+ * item returned.
+ * <p>
+ * Clients only see the opaque URL-safe Base64 form produced by {@link #encode()}.
+ */
+public record FeedCursor(Instant createdAt, long id) {
+
+	public static final char SEPARATOR = '|';
+
+	/**
+	 * Builds the cursor pointing right after the given feed item.
+	 *
+	 * @param post the last item of a page
+	 * @return the cursor for the next page
+	 */
+	public static FeedCursor after(FeedPostResponse post) {
+		return new FeedCursor(post.createdAt(), post.id());
+	}
+
+	/**
+	 * Encodes this cursor as an opaque token.
+	 *
+	 * @return a URL-safe Base64 string
+	 */
+	public String encode() {
+		return encodeToken(createdAt.toString() + SEPARATOR + id);
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}.
+	 *
+	 * @param token the opaque cursor, may be null/blank for the first page
+	 * @return the decoded cursor, or {@code null} when no token was provided
+	 * @throws BadRequestException if the token is malformed
+	 */
+	public static FeedCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = decodeToken(token);
+			int separator = raw.indexOf(SEPARATOR);
+			return new FeedCursor(Instant.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+		} catch (RuntimeException ex) {
+			throw new BadRequestException("Curseur invalide");
+		}
+	}
+
+	public static String encodeToken(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String decodeToken(String token) {
+		return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+	}
+}
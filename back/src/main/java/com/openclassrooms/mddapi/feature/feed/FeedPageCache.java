@@ -0,0 +1,214 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.post.PostsImportedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and TTL-bounded cache of assembled feed pages, keyed by {@code (userId, sort, cursor, limit)}.
+ * <p>
+ * Each entry remembers the subscriptions it was built from, so a new post only evicts the pages of users subscribed
+ * to its subject, and a subscription change only evicts the pages of that user, both found through an index of the
+ * cached entries. Index slots are compared by identity, so the late removal of a replaced page never unindexes the
+ * equal page that replaced it. Hits,
+ * misses and evictions are exported under the {@code feed.pages} cache name, targeted invalidations as
+ * {@code feed.page_cache.invalidations}.
+ * <p>
+ * Every invalidation takes a number from a global sequence and records it for its subject or user, in a fixed number
+ * of stripes. A page computed meanwhile is only dropped when its own user or one of its subjects was invalidated
+ * after its stamp; a stripe shared with another id can only cause a spurious drop.
+ */
+@Component
+public class FeedPageCache {
+
+	private static final int STRIPES = 1024;
+
+	private final Cache<Key, Entry> cache;
+	private final Map<Long, Map<Key, Entry>> entriesBySubject = new ConcurrentHashMap<>();
+	private final Map<Long, Map<Key, Entry>> entriesByUser = new ConcurrentHashMap<>();
+	private final AtomicLong invalidations = new AtomicLong();
+	private final AtomicLongArray subjectInvalidations = new AtomicLongArray(STRIPES);
+	private final AtomicLongArray userInvalidations = new AtomicLongArray(STRIPES);
+	private final Counter invalidationCounter;
+
+	public FeedPageCache(FeedProperties feedProperties, MeterRegistry meterRegistry) {
+		FeedProperties.PageCache settings = feedProperties.pageCache();
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(settings.maximumSize())
+				.expireAfterWrite(settings.ttl())
+				.recordStats()
+				.removalListener((Key key, Entry entry, RemovalCause cause) -> unindex(key, entry))
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "feed.pages");
+		this.invalidationCounter = Counter.builder("feed.page_cache.invalidations").register(meterRegistry);
+	}
+
+	/**
+	 * Returns a cached page.
+	 *
+	 * @param key the page key
+	 * @return the page, or null on a miss
+	 */
+	public FeedPageResponse get(Key key) {
+		Entry entry = cache.getIfPresent(key);
+		return entry == null ? null : entry.page();
+	}
+
+	/**
+	 * Returns a stamp to pass to {@link #put} once the page has been computed.
+	 *
+	 * @return the last invalidation number
+	 */
+	public long stamp() {
+		return invalidations.get();
+	}
+
+	/**
+	 * Stores a page unless its user or one of its subjects was invalidated since {@code stamp} was taken, in which
+	 * case the page may already be stale. The check is repeated after the write, for an invalidation that ran
+	 * between the two.
+	 *
+	 * @param key        the page key
+	 * @param subjectIds the subscriptions the page was built from
+	 * @param page       the page
+	 * @param stamp      the value of {@link #stamp()} read before computing the page
+	 */
+	public void put(Key key, List<Long> subjectIds, FeedPageResponse page, long stamp) {
+		if (invalidatedSince(key.userId(), subjectIds, stamp)) {
+			return;
+		}
+		Entry entry = new Entry(subjectIds, page);
+		subjectIds.forEach(subjectId -> index(entriesBySubject, subjectId, key, entry));
+		index(entriesByUser, key.userId(), key, entry);
+		cache.put(key, entry);
+		if (invalidatedSince(key.userId(), subjectIds, stamp)) {
+			cache.asMap().remove(key, entry);
+		}
+	}
+
+	/**
+	 * Evicts the pages of every cached user subscribed to the subject.
+	 *
+	 * @param subjectId the subject that received a post
+	 */
+	public void evictSubject(long subjectId) {
+		record(subjectInvalidations, subjectId);
+		evict(entriesBySubject.remove(subjectId));
+		invalidationCounter.increment();
+	}
+
+	/**
+	 * Evicts every cached page of a user.
+	 *
+	 * @param userId the user id
+	 */
+	public void evictUser(long userId) {
+		record(userInvalidations, userId);
+		evict(entriesByUser.remove(userId));
+		invalidationCounter.increment();
+	}
+
+	private void evict(Map<Key, Entry> entries) {
+		if (entries != null) {
+			entries.forEach(cache.asMap()::remove);
+		}
+	}
+
+	private void record(AtomicLongArray stripes, long id) {
+		long number = invalidations.incrementAndGet();
+		stripes.accumulateAndGet(stripe(id), number, Math::max);
+	}
+
+	private boolean invalidatedSince(long userId, List<Long> subjectIds, long stamp) {
+		if (userInvalidations.get(stripe(userId)) > stamp) {
+			return true;
+		}
+		for (long subjectId : subjectIds) {
+			if (subjectInvalidations.get(stripe(subjectId)) > stamp) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int stripe(long id) {
+		return Long.hashCode(id) & (STRIPES - 1);
+	}
+
+	private void unindex(Key key, Entry entry) {
+		if (key == null || entry == null) {
+			return;
+		}
+		for (long subjectId : entry.subjectIds()) {
+			unindex(entriesBySubject, subjectId, key, entry);
+		}
+		unindex(entriesByUser, key.userId(), key, entry);
+	}
+
+	/**
+	 * Adds an entry to an index slot. Slots are created and dropped within {@code compute}, so an entry is never
+	 * added to a slot that a concurrent {@link #unindex} is dropping.
+	 */
+	private static void index(Map<Long, Map<Key, Entry>> index, long id, Key key, Entry entry) {
+		index.compute(id, (slotId, entries) -> {
+			Map<Key, Entry> slot = entries == null ? new ConcurrentHashMap<>() : entries;
+			slot.put(key, entry);
+			return slot;
+		});
+	}
+
+	private static void unindex(Map<Long, Map<Key, Entry>> index, long id, Key key, Entry entry) {
+		index.computeIfPresent(id, (slotId, entries) -> {
+			entries.computeIfPresent(key, (k, indexed) -> indexed == entry ? null : indexed);
+			return entries.isEmpty() ? null : entries;
+		});
+	}
+
+	/**
+	 * Runs after the other commit listeners so the recent-post rings already contain the post.
+	 *
+	 * @param event the post creation event
+	 */
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		evictSubject(event.subjectId());
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostsImported(PostsImportedEvent event) {
+		event.subjectIds().forEach(this::evictSubject);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+		evictUser(event.userId());
+	}
+
+	public record Key(long userId, FeedSort sort, String cursor, int limit) {
+	}
+
+	private record Entry(List<Long> subjectIds, FeedPageResponse page) {
+	}
+}
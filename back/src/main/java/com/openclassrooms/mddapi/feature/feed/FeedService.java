@@ -1,62 +1,237 @@
 package com.openclassrooms.mddapi.feature.feed;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.exception.BadRequestException;
 import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
 import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
 import com.openclassrooms.mddapi.repository.PostRepository;
-import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
 import com.openclassrooms.mddapi.repository.UserRepository;
+import com.openclassrooms.mddapi.repository.UserTimelineRepository;
 
 import lombok.RequiredArgsConstructor;
 
 /**
  * Handles feed retrieval and sorting for subscribed subjects.
+ * <p>
+ * Feed items are read as {@link FeedPostResponse} projections straight from the queries: no entity is loaded, so
+ * nothing is tracked by the persistence context.
  */
 @Service
 @RequiredArgsConstructor
 public class FeedService {
 
-	private final SubscriptionRepository subscriptionRepository;
+	private final SubscriptionIndex subscriptionIndex;
 	private final PostRepository postRepository;
 	private final UserRepository userRepository;
+	private final SubjectRepository subjectRepository;
+	private final UserTimelineRepository userTimelineRepository;
+	private final SubjectPostFetcher subjectPostFetcher;
+	private final RecentPostCache recentPostCache;
+	private final FeedPageCache feedPageCache;
+	private final FeedProperties feedProperties;
 
 	/**
-	 * Returns the feed for a user, filtered by their subject subscriptions and sorted by creation date.
+	 * Returns the feed for a user, filtered by their subject subscriptions and sorted by creation date or hot score.
 	 *
-	 * @param userId the authenticated user id
-	 * @param sort   sort order (ascending or descending)
+	 * @param userId  the authenticated user id
+	 * @param sort    sort order (ascending, descending or hot)
+	 * @param content whether items carry their full content besides the excerpt
 	 * @return a list of feed items
 	 * @throws NotFoundException if the user does not exist
 	 */
 	@Transactional(readOnly = true)
-	public List<FeedPostResponse> getFeed(long userId, FeedSort sort) {
-		if (!userRepository.existsById(userId)) {
-			throw new NotFoundException("Utilisateur introuvable");
+	public List<FeedPostResponse> getFeed(long userId, FeedSort sort, FeedContent content) {
+		List<Long> subjectIds = getSubscribedSubjectIds(userId);
+		if (subjectIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<FeedPostResponse> items = switch (sort) {
+			case asc -> postRepository.findFeedPostsAsc(subjectIds);
+			case desc -> postRepository.findFeedPostsDesc(subjectIds);
+			case hot -> postRepository.findFeedPostsHot(subjectIds);
+		};
+		return withContent(items, content);
+	}
+
+	/**
+	 * Returns one page of the feed using keyset pagination on {@code (createdAt, id)}, or {@code (hotScore, id)} for
+	 * the {@link FeedSort#hot} ranking.
+	 * <p>
+	 * Chronological pages are read from the user's materialized timeline (a single-user range scan), merged with the
+	 * posts of subscribed subjects that are too large to be fanned out on write. Hot pages walk the
+	 * {@code (subject_id, hot_score, id)} index of the subscribed subjects. The cursor is the position of the last
+	 * item of the previous page, so every page is a seek instead of an offset scan.
+	 * <p>
+	 * Assembled pages are cached per user in {@link FeedPageCache}; on a miss the first descending page is served
+	 * from {@link RecentPostCache} when it is enabled. Cached pages only hold excerpts: the full contents of a page
+	 * requested with {@link FeedContent#full} are read afterwards, by id.
+	 * <p>
+	 * Not transactional: each query runs in its own read-only transaction, so the request holds no connection while
+	 * {@link SubjectPostFetcher} waits for the connections of its per-subject queries.
+	 *
+	 * @param userId the authenticated user id
+	 * @param sort   sort order (ascending, descending or hot)
+	 * @param cursor opaque cursor returned by the previous page, null for the first page
+	 * @param limit   requested page size, clamped to the configured maximum (null for the default)
+	 * @param content whether items carry their full content besides the excerpt
+	 * @return the page items and the cursor of the next page (null when there is none)
+	 * @throws NotFoundException   if the user does not exist
+	 * @throws BadRequestException if the cursor is malformed
+	 */
+	public FeedPageResponse getFeedPage(long userId, FeedSort sort, String cursor, Integer limit,
+			FeedContent content) {
+		int pageSize = resolvePageSize(limit);
+		FeedPageResponse page;
+		if (sort == FeedSort.hot) {
+			HotCursor position = HotCursor.decode(cursor);
+			page = getCachedPage(userId, sort, cursor, pageSize,
+					subjectIds -> loadHotPage(subjectIds, position, pageSize));
+		} else {
+			FeedCursor position = FeedCursor.decode(cursor);
+			page = getCachedPage(userId, sort, cursor, pageSize,
+					subjectIds -> loadFeedPage(userId, subjectIds, sort, position, pageSize));
 		}
+		return content == FeedContent.full
+				? new FeedPageResponse(withContent(page.items(), content), page.nextCursor())
+				: page;
+	}
 
-		List<Long> subjectIds = subscriptionRepository.findSubjectIdsByUserId(userId);
+	private FeedPageResponse getCachedPage(long userId, FeedSort sort, String cursor, int pageSize,
+			Function<List<Long>, FeedPageResponse> loader) {
+		if (!feedProperties.pageCache().enabled()) {
+			return loadPage(getSubscribedSubjectIds(userId), loader);
+		}
+
+		FeedPageCache.Key key = new FeedPageCache.Key(userId, sort, cursor, pageSize);
+		FeedPageResponse cached = feedPageCache.get(key);
+		if (cached != null) {
+			return cached;
+		}
+		long stamp = feedPageCache.stamp();
+		List<Long> subjectIds = getSubscribedSubjectIds(userId);
+		FeedPageResponse page = loadPage(subjectIds, loader);
+		feedPageCache.put(key, subjectIds, page, stamp);
+		return page;
+	}
+
+	private static FeedPageResponse loadPage(List<Long> subjectIds, Function<List<Long>, FeedPageResponse> loader) {
 		if (subjectIds.isEmpty()) {
-			return Collections.emptyList();
+			return new FeedPageResponse(Collections.emptyList(), null);
 		}
+		return loader.apply(subjectIds);
+	}
 
-		List<Post> posts = sort == FeedSort.asc
-				? postRepository.findFeedPostsAsc(subjectIds)
-				: postRepository.findFeedPostsDesc(subjectIds);
+	private FeedPageResponse loadHotPage(List<Long> subjectIds, HotCursor position, int pageSize) {
+		Limit fetchLimit = Limit.of(pageSize + 1);
+		List<RankedFeedPost> fetched = subjectPostFetcher.fetchHot(subjectIds, position, fetchLimit);
+		List<FeedPostResponse> items = fetched.stream().limit(pageSize).map(RankedFeedPost::toResponse).toList();
+		String nextCursor = fetched.size() > pageSize ? HotCursor.after(fetched.get(pageSize - 1)).encode() : null;
+		return new FeedPageResponse(items, nextCursor);
+	}
+
+	private FeedPageResponse loadFeedPage(
+			long userId, List<Long> subjectIds, FeedSort sort, FeedCursor position, int pageSize) {
+		// One extra row tells whether a next page exists without a count query.
+		if (sort == FeedSort.desc && position == null && feedProperties.recentCache().enabled()
+				&& recentPostCache.canServe(pageSize + 1)) {
+			return toPage(recentPostCache.newest(subjectIds, pageSize + 1), pageSize);
+		}
+
+		Limit fetchLimit = Limit.of(pageSize + 1);
+		Map<Long, FeedPostResponse> candidates = new HashMap<>();
+		List<Long> timelinePostIds = findTimelinePostIds(userId, sort, position, fetchLimit);
+		if (!timelinePostIds.isEmpty()) {
+			postRepository.findFeedItemsByIdIn(timelinePostIds).forEach(post -> candidates.put(post.id(), post));
+		}
+		List<Long> fanOutOnReadIds = subjectRepository.findFanOutOnReadIds(subjectIds);
+		if (!fanOutOnReadIds.isEmpty()) {
+			subjectPostFetcher.fetchChronological(fanOutOnReadIds, sort, position, fetchLimit)
+					.forEach(post -> candidates.putIfAbsent(post.id(), post));
+		}
 
-		return posts.stream()
-				.map(post -> new FeedPostResponse(
-						post.getId(),
-						post.getSubject().getId(),
-						post.getAuthor().getUsername(),
-						post.getTitle(),
-						post.getContent(),
-						post.getCreatedAt()))
+		List<FeedPostResponse> posts = candidates.values().stream()
+				.sorted(sort.comparator())
+				.limit(pageSize + 1L)
 				.toList();
+		return toPage(posts, pageSize);
+	}
+
+	/**
+	 * Adds their full content to feed items, in one query, when it is requested.
+	 *
+	 * @param items   feed items carrying their excerpt
+	 * @param content whether the full content is requested
+	 * @return the items, with their content if requested
+	 */
+	private List<FeedPostResponse> withContent(List<FeedPostResponse> items, FeedContent content) {
+		if (content != FeedContent.full || items.isEmpty()) {
+			return items;
+		}
+		Map<Long, String> contents = new HashMap<>();
+		postRepository.findContentsByIdIn(items.stream().map(FeedPostResponse::id).toList())
+				.forEach(post -> contents.put(post.id(), post.content()));
+		return items.stream().map(item -> item.withContent(contents.get(item.id()))).toList();
+	}
+
+	/**
+	 * Cuts the look-ahead row off a fetched slice and derives the next cursor from it.
+	 *
+	 * @param fetched  up to {@code pageSize + 1} items in page order
+	 * @param pageSize the page size
+	 * @return the page
+	 */
+	private static FeedPageResponse toPage(List<FeedPostResponse> fetched, int pageSize) {
+		if (fetched.size() <= pageSize) {
+			return new FeedPageResponse(fetched, null);
+		}
+		List<FeedPostResponse> items = fetched.subList(0, pageSize);
+		return new FeedPageResponse(items, FeedCursor.after(items.get(pageSize - 1)).encode());
+	}
+
+	private List<Long> findTimelinePostIds(long userId, FeedSort sort, FeedCursor position, Limit limit) {
+		if (sort == FeedSort.asc) {
+			return position == null
+					? userTimelineRepository.findPostIdsAsc(userId, limit)
+					: userTimelineRepository.findPostIdsAscAfter(userId, position.createdAt(), position.id(), limit);
+		}
+		return position == null
+				? userTimelineRepository.findPostIdsDesc(userId, limit)
+				: userTimelineRepository.findPostIdsDescAfter(userId, position.createdAt(), position.id(), limit);
+	}
+
+	/**
+	 * Loads the subject ids the user is subscribed to.
+	 *
+	 * @param userId the user id
+	 * @return subscribed subject ids
+	 * @throws NotFoundException if the user does not exist
+	 */
+	private List<Long> getSubscribedSubjectIds(long userId) {
+		if (!userRepository.existsById(userId)) {
+			throw new NotFoundException("Utilisateur introuvable");
+		}
+		return Arrays.stream(subscriptionIndex.subjectIds(userId)).boxed().toList();
+	}
+
+	private int resolvePageSize(Integer limit) {
+		if (limit == null) {
+			return feedProperties.defaultPageSize();
+		}
+		return Math.clamp(limit, 1, feedProperties.maxPageSize());
 	}
 }
@@ -1,6 +1,32 @@
 package com.openclassrooms.mddapi.feature.feed;
 
+import java.util.Comparator;
+
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+
 public enum FeedSort {
 	asc,
-	desc
+	desc,
+	/**
+	 * Ranked by the time-decayed comment activity stored in {@code post.hot_score}, then by id.
+	 */
+	hot;
+
+	private static final Comparator<FeedPostResponse> CHRONOLOGICAL = Comparator
+			.comparing(FeedPostResponse::createdAt)
+			.thenComparing(FeedPostResponse::id);
+
+	/**
+	 * Orders feed items on the {@code (createdAt, id)} keyset in this direction.
+	 *
+	 * @return the comparator matching the feed queries ordering
+	 * @throws IllegalStateException for {@link #hot}, whose score is not carried by feed items
+	 */
+	public Comparator<FeedPostResponse> comparator() {
+		return switch (this) {
+			case asc -> CHRONOLOGICAL;
+			case desc -> CHRONOLOGICAL.reversed();
+			case hot -> throw new IllegalStateException("Hot order is not derivable from feed items");
+		};
+	}
 }
@@ -0,0 +1,105 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * One open SSE connection with its own bounded send queue.
+ * <p>
+ * Events are written by a single drain task at a time, so a slow socket only blocks its own (virtual) thread. When
+ * the queue is full the client is too slow to keep up and {@link #offer} refuses the event.
+ */
+final class FeedStreamConnection {
+
+	private final long userId;
+	private final SseEmitter emitter;
+	private final Executor executor;
+	private final BlockingQueue<SseEventBuilder> queue;
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final Set<Long> subjectIds = ConcurrentHashMap.newKeySet();
+	private volatile Runnable onClose = () -> {
+	};
+
+	FeedStreamConnection(long userId, SseEmitter emitter, int queueCapacity, Executor executor) {
+		this.userId = userId;
+		this.emitter = emitter;
+		this.executor = executor;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+	}
+
+	/**
+	 * Registers the action run when the connection is closed by the server, including after a failed write. The
+	 * container may not report a broken socket through the emitter callbacks, so this is the reliable hook.
+	 */
+	void onClose(Runnable action) {
+		this.onClose = action;
+	}
+
+	long userId() {
+		return userId;
+	}
+
+	SseEmitter emitter() {
+		return emitter;
+	}
+
+	/**
+	 * Subjects this connection is currently registered under in the dispatcher index.
+	 */
+	Set<Long> subjectIds() {
+		return subjectIds;
+	}
+
+	/**
+	 * Queues an event and schedules a drain if none is running.
+	 *
+	 * @param event the event to send
+	 * @return false if the queue is full
+	 */
+	boolean offer(SseEventBuilder event) {
+		if (!queue.offer(event)) {
+			return false;
+		}
+		scheduleDrain();
+		return true;
+	}
+
+	void close() {
+		queue.clear();
+		emitter.complete();
+		onClose.run();
+	}
+
+	private void scheduleDrain() {
+		if (draining.compareAndSet(false, true)) {
+			executor.execute(this::drain);
+		}
+	}
+
+	private void drain() {
+		try {
+			SseEventBuilder event;
+			while ((event = queue.poll()) != null) {
+				emitter.send(event);
+			}
+		} catch (IOException | IllegalStateException ex) {
+			// Client gone or emitter already completed.
+			close();
+			return;
+		} finally {
+			draining.set(false);
+		}
+		// An offer may have landed between the last poll and the flag reset.
+		if (!queue.isEmpty()) {
+			scheduleDrain();
+		}
+	}
+}
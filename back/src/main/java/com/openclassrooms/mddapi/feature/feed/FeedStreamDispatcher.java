@@ -0,0 +1,197 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostNotification;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionChangedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process fan-out of new-post notifications to open {@code GET /api/feed/stream} connections.
+ * <p>
+ * Connections are indexed by subject id, so a post only touches the connections of users subscribed to its
+ * subject. An SSE connection is an async servlet request and holds no thread while idle; writes run on virtual
+ * threads. A client whose send queue fills up is disconnected and is expected to reconnect and reload the feed page.
+ */
+@Component
+public class FeedStreamDispatcher implements DisposableBean {
+
+	private final SubscriptionIndex subscriptionIndex;
+	private final FeedProperties.Stream settings;
+	private final ExecutorService executor;
+
+	private final ConcurrentHashMap<Long, Set<FeedStreamConnection>> bySubject = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, Set<FeedStreamConnection>> byUser = new ConcurrentHashMap<>();
+	private final AtomicInteger openConnections = new AtomicInteger();
+	private final Counter slowClientDrops;
+
+	@Autowired
+	public FeedStreamDispatcher(
+			SubscriptionIndex subscriptionIndex, FeedProperties feedProperties, MeterRegistry meterRegistry) {
+		this(subscriptionIndex, feedProperties, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	FeedStreamDispatcher(SubscriptionIndex subscriptionIndex, FeedProperties feedProperties,
+			MeterRegistry meterRegistry, ExecutorService executor) {
+		this.subscriptionIndex = subscriptionIndex;
+		this.settings = feedProperties.stream();
+		this.executor = executor;
+		meterRegistry.gauge("feed.stream.connections", openConnections);
+		this.slowClientDrops = Counter.builder("feed.stream.slow_client_drops").register(meterRegistry);
+	}
+
+	/**
+	 * Opens a stream for the user, registered under each of their subscribed subjects.
+	 *
+	 * @param userId the authenticated user id
+	 * @return the emitter to return from the controller
+	 */
+	public SseEmitter connect(long userId) {
+		SseEmitter emitter = new SseEmitter(settings.timeout().toMillis());
+		FeedStreamConnection connection = new FeedStreamConnection(
+				userId, emitter, settings.sendQueueCapacity(), executor);
+		register(connection);
+		// Flushes the response headers so the client knows the stream is open.
+		connection.offer(SseEmitter.event().comment("connected"));
+		return emitter;
+	}
+
+	void register(FeedStreamConnection connection) {
+		// Indexed by user first: a subscription change committed while the subjects are read below still reaches it.
+		addTo(byUser, connection.userId(), connection);
+		openConnections.incrementAndGet();
+
+		Runnable unregister = () -> unregister(connection);
+		connection.onClose(unregister);
+		connection.emitter().onCompletion(unregister);
+		connection.emitter().onTimeout(unregister);
+		connection.emitter().onError(ex -> unregister.run());
+
+		for (long subjectId : subscriptionIndex.subjectIds(connection.userId())) {
+			index(connection, subjectId);
+		}
+	}
+
+	/**
+	 * Pushes a compact notification to every connection subscribed to the post's subject.
+	 *
+	 * @param event the post creation event
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		Set<FeedStreamConnection> connections = bySubject.get(event.subjectId());
+		if (connections == null) {
+			return;
+		}
+		FeedPostNotification notification = new FeedPostNotification(
+				event.postId(), event.subjectId(), event.authorUsername(), event.title(), event.createdAt());
+		for (FeedStreamConnection connection : connections) {
+			// Builders are mutated when sent, so each connection gets its own.
+			send(connection, SseEmitter.event()
+					.name("post")
+					.id(Long.toString(event.postId()))
+					.data(notification, MediaType.APPLICATION_JSON));
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+		Set<FeedStreamConnection> connections = byUser.get(event.userId());
+		if (connections == null) {
+			return;
+		}
+		for (FeedStreamConnection connection : connections) {
+			if (event.subscribed()) {
+				index(connection, event.subjectId());
+			} else {
+				unindex(connection, event.subjectId());
+			}
+		}
+	}
+
+	/**
+	 * Keeps idle connections alive through proxies and detects dead clients, which only surface on write.
+	 */
+	@Scheduled(fixedRateString = "${app.feed.stream.heartbeat-interval}")
+	public void sendHeartbeats() {
+		byUser.values().forEach(connections -> connections
+				.forEach(connection -> send(connection, SseEmitter.event().comment("heartbeat"))));
+	}
+
+	int openConnections() {
+		return openConnections.get();
+	}
+
+	@Override
+	public void destroy() {
+		byUser.values().forEach(connections -> connections.forEach(FeedStreamConnection::close));
+		executor.shutdown();
+	}
+
+	private void send(FeedStreamConnection connection, SseEventBuilder event) {
+		if (!connection.offer(event)) {
+			slowClientDrops.increment();
+			connection.close();
+		}
+	}
+
+	private void index(FeedStreamConnection connection, long subjectId) {
+		connection.subjectIds().add(subjectId);
+		addTo(bySubject, subjectId, connection);
+	}
+
+	private void unindex(FeedStreamConnection connection, long subjectId) {
+		connection.subjectIds().remove(subjectId);
+		removeFrom(bySubject, subjectId, connection);
+	}
+
+	private void unregister(FeedStreamConnection connection) {
+		if (removeFrom(byUser, connection.userId(), connection)) {
+			openConnections.decrementAndGet();
+		}
+		connection.subjectIds().forEach(subjectId -> removeFrom(bySubject, subjectId, connection));
+	}
+
+	private static void addTo(
+			ConcurrentHashMap<Long, Set<FeedStreamConnection>> index, long key, FeedStreamConnection connection) {
+		index.compute(key, (id, connections) -> {
+			Set<FeedStreamConnection> target = connections != null ? connections : ConcurrentHashMap.newKeySet();
+			target.add(connection);
+			return target;
+		});
+	}
+
+	/**
+	 * Removes the connection and drops the set once empty, atomically with {@link #addTo} on the same key.
+	 *
+	 * @return true if the connection was present
+	 */
+	private static boolean removeFrom(
+			ConcurrentHashMap<Long, Set<FeedStreamConnection>> index, long key, FeedStreamConnection connection) {
+		boolean[] removed = new boolean[1];
+		index.computeIfPresent(key, (id, connections) -> {
+			removed[0] = connections.remove(connection);
+			return connections.isEmpty() ? null : connections;
+		});
+		return removed[0];
+	}
+}
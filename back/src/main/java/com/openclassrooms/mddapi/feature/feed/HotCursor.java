@@ -0,0 +1,53 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import com.openclassrooms.mddapi.exception.BadRequestException;
+
+/**
+ * Keyset position in the {@link FeedSort#hot} feed: the {@code (hotScore, id)} pair of the last item returned.
+ */
+public record HotCursor(double score, long id) {
+
+	/**
+	 * Builds the cursor pointing right after the given ranked item.
+	 *
+	 * @param post the last item of a page
+	 * @return the cursor for the next page
+	 */
+	public static HotCursor after(RankedFeedPost post) {
+		return new HotCursor(post.hotScore(), post.id());
+	}
+
+	/**
+	 * Encodes this cursor as an opaque token. {@link Double#toString} round-trips exactly, so the seek compares
+	 * against the stored value.
+	 *
+	 * @return a URL-safe Base64 string
+	 */
+	public String encode() {
+		return FeedCursor.encodeToken(Double.toString(score) + FeedCursor.SEPARATOR + id);
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}.
+	 *
+	 * @param token the opaque cursor, may be null/blank for the first page
+	 * @return the decoded cursor, or {@code null} when no token was provided
+	 * @throws BadRequestException if the token is malformed
+	 */
+	public static HotCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = FeedCursor.decodeToken(token);
+			int separator = raw.indexOf(FeedCursor.SEPARATOR);
+			double score = Double.parseDouble(raw.substring(0, separator));
+			if (!Double.isFinite(score)) {
+				throw new NumberFormatException(raw);
+			}
+			return new HotCursor(score, Long.parseLong(raw.substring(separator + 1)));
+		} catch (RuntimeException ex) {
+			throw new BadRequestException("Curseur invalide");
+		}
+	}
+}
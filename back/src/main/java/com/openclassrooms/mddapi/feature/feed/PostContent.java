@@ -0,0 +1,7 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+/**
+ * Full content of a post, read for feed items requested with {@link FeedContent#full}.
+ */
+public record PostContent(Long id, String content) {
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.time.Instant;
+
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+
+/**
+ * Feed item read by the {@link FeedSort#hot} queries, with the score needed to build the next cursor.
+ */
+public record RankedFeedPost(
+		Long id,
+		Long subjectId,
+		String author,
+		String title,
+		String excerpt,
+		Instant createdAt,
+		int commentCount,
+		Instant lastActivityAt,
+		int reactionCount,
+		double hotScore
+) {
+
+	public FeedPostResponse toResponse() {
+		return new FeedPostResponse(id, subjectId, author, title, excerpt, createdAt, commentCount, lastActivityAt,
+				reactionCount);
+	}
+}
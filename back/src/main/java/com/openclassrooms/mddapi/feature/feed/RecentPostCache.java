@@ -0,0 +1,207 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.post.CommentAddedEvent;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.post.PostsImportedEvent;
+import com.openclassrooms.mddapi.feature.reaction.ReactionChangedEvent;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory ring buffers of the newest posts of each subject, used to build the first descending feed page without
+ * querying the database.
+ * <p>
+ * Rings are warmed from {@link PostRepository} at startup (or on first use of a subject) and appended to after each
+ * post creation commits; buffered posts have their comment count bumped after each comment commits. Hits and misses
+ * are exported as {@code feed.recent_cache.requests}.
+ */
+@Component
+public class RecentPostCache {
+
+	private final PostRepository postRepository;
+	private final SubjectRepository subjectRepository;
+	private final boolean enabled;
+	private final int capacity;
+	private final ConcurrentMap<Long, RecentPostRing> rings = new ConcurrentHashMap<>();
+	private final Counter hits;
+	private final Counter misses;
+
+	public RecentPostCache(
+			PostRepository postRepository,
+			SubjectRepository subjectRepository,
+			FeedProperties feedProperties,
+			MeterRegistry meterRegistry) {
+		this.postRepository = postRepository;
+		this.subjectRepository = subjectRepository;
+		this.enabled = feedProperties.recentCache().enabled();
+		// A page plus the look-ahead row must always fit in a single ring.
+		this.capacity = Math.max(feedProperties.recentCache().capacity(), feedProperties.maxPageSize() + 1);
+		this.hits = Counter.builder("feed.recent_cache.requests").tag("result", "hit").register(meterRegistry);
+		this.misses = Counter.builder("feed.recent_cache.requests").tag("result", "miss").register(meterRegistry);
+		Gauge.builder("feed.recent_cache.hit_ratio", this, RecentPostCache::hitRatio).register(meterRegistry);
+	}
+
+	/**
+	 * Tells whether a page of the given size can be served from the rings.
+	 *
+	 * @param count number of items needed (page size plus look-ahead)
+	 * @return true if every ring holds at least that many posts
+	 */
+	public boolean canServe(int count) {
+		return count <= capacity;
+	}
+
+	/**
+	 * Returns the newest posts across the given subjects with a k-way merge of their rings.
+	 * <p>
+	 * Subjects whose ring is not warm yet are loaded from the database first; such a call counts as a miss.
+	 *
+	 * @param subjectIds subscribed subject ids
+	 * @param count      maximum number of items to return, at most the ring capacity
+	 * @return posts sorted by {@code (createdAt, id)} descending
+	 */
+	public List<FeedPostResponse> newest(List<Long> subjectIds, int count) {
+		boolean hit = true;
+		List<List<FeedPostResponse>> sources = new ArrayList<>(subjectIds.size());
+		for (Long subjectId : subjectIds) {
+			RecentPostRing ring = rings.get(subjectId);
+			if (ring == null || !ring.isWarm()) {
+				hit = false;
+				ring = warm(subjectId);
+			}
+			sources.add(ring.snapshot());
+		}
+		(hit ? hits : misses).increment();
+		return SortedMerge.merge(sources, RecentPostRing.NEWEST_FIRST, count);
+	}
+
+	/**
+	 * Appends a committed post to the ring of its subject.
+	 *
+	 * @param event the post creation event
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		FeedPostResponse post = new FeedPostResponse(
+				event.postId(),
+				event.subjectId(),
+				event.authorUsername(),
+				event.title(),
+				event.excerpt(),
+				event.createdAt(),
+				0,
+				event.createdAt(),
+				0);
+		rings.compute(event.subjectId(), (subjectId, ring) -> {
+			RecentPostRing target = ring == null ? new RecentPostRing(capacity) : ring;
+			target.push(post);
+			return target;
+		});
+	}
+
+	/**
+	 * Counts a committed comment on the buffered copy of its post, if the post is still in its subject ring.
+	 *
+	 * @param event the comment creation event
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCommentAdded(CommentAddedEvent event) {
+		rings.computeIfPresent(event.subjectId(), (subjectId, ring) -> {
+			ring.replace(event.postId(), post -> post.withComment(event.comment().createdAt()));
+			return ring;
+		});
+	}
+
+	/**
+	 * Counts a committed reaction on the buffered copy of its post, if the post is still in its subject ring.
+	 *
+	 * @param event the reaction change event
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onReactionChanged(ReactionChangedEvent event) {
+		if (event.target() != ReactionTarget.post) {
+			return;
+		}
+		rings.computeIfPresent(event.subjectId(), (subjectId, ring) -> {
+			ring.replace(event.postId(), post -> post.withReactions(event.delta()));
+			return ring;
+		});
+	}
+
+	/**
+	 * Drops the rings of subjects that received imported posts: imported dates can fall anywhere in the ring, so the
+	 * ring is reloaded on its next read instead of being patched.
+	 *
+	 * @param event the import event
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostsImported(PostsImportedEvent event) {
+		rings.keySet().removeAll(event.subjectIds());
+	}
+
+	/**
+	 * Warms every subject ring once the application is ready, unless the cache is disabled.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmAll() {
+		if (!enabled) {
+			return;
+		}
+		for (Subject subject : subjectRepository.findAll()) {
+			warm(subject.getId());
+		}
+	}
+
+	/**
+	 * Loads the newest posts of a subject and installs them as a warm ring, keeping any post appended meanwhile.
+	 *
+	 * @param subjectId the subject id
+	 * @return the warm ring
+	 */
+	RecentPostRing warm(long subjectId) {
+		List<FeedPostResponse> loaded = postRepository.findFeedPageDesc(List.of(subjectId), Limit.of(capacity));
+		return rings.compute(subjectId, (id, current) -> {
+			RecentPostRing ring = new RecentPostRing(capacity);
+			Set<Long> loadedIds = new HashSet<>();
+			for (FeedPostResponse post : loaded.reversed()) {
+				ring.push(post);
+				loadedIds.add(post.id());
+			}
+			if (current != null) {
+				// Posts committed while the query ran are newer than everything loaded: append them last.
+				current.snapshot().reversed().stream()
+						.filter(post -> !loadedIds.contains(post.id()))
+						.forEach(ring::push);
+			}
+			ring.markWarm();
+			return ring;
+		});
+	}
+
+	private double hitRatio() {
+		double total = hits.count() + misses.count();
+		return total == 0 ? 0 : hits.count() / total;
+	}
+}
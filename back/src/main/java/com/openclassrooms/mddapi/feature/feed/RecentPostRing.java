@@ -0,0 +1,87 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+
+/**
+ * Fixed-size ring of the most recent feed items of one subject.
+ * <p>
+ * Writes are serialized by the owner ({@link RecentPostCache} pushes under the map bin lock); reads never lock. A
+ * reader racing a writer may observe a slot already overwritten by a newer post, which only makes the snapshot
+ * slightly fresher.
+ */
+final class RecentPostRing {
+
+	static final Comparator<FeedPostResponse> NEWEST_FIRST = FeedSort.desc.comparator();
+
+	private final AtomicReferenceArray<FeedPostResponse> slots;
+	private final AtomicLong pushed = new AtomicLong();
+	private volatile boolean warm;
+
+	RecentPostRing(int capacity) {
+		this.slots = new AtomicReferenceArray<>(capacity);
+	}
+
+	/**
+	 * Appends a post, evicting the oldest slot once the ring is full. Single writer only.
+	 *
+	 * @param post the feed item
+	 */
+	void push(FeedPostResponse post) {
+		long sequence = pushed.get();
+		slots.set((int) (sequence % slots.length()), post);
+		pushed.set(sequence + 1);
+	}
+
+	/**
+	 * Replaces the buffered copy of a post, if present. Single writer only.
+	 *
+	 * @param postId  the post id
+	 * @param updater computes the new copy from the current one
+	 */
+	void replace(long postId, UnaryOperator<FeedPostResponse> updater) {
+		for (int slot = 0; slot < slots.length(); slot++) {
+			FeedPostResponse post = slots.get(slot);
+			if (post != null && post.id() == postId) {
+				slots.set(slot, updater.apply(post));
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Copies the ring content, newest first.
+	 *
+	 * @return the buffered posts sorted by {@code (createdAt, id)} descending
+	 */
+	List<FeedPostResponse> snapshot() {
+		long end = pushed.get();
+		long start = Math.max(0, end - slots.length());
+		List<FeedPostResponse> posts = new ArrayList<>((int) (end - start));
+		for (long sequence = end - 1; sequence >= start; sequence--) {
+			FeedPostResponse post = slots.get((int) (sequence % slots.length()));
+			if (post != null) {
+				posts.add(post);
+			}
+		}
+		posts.sort(NEWEST_FIRST);
+		return posts;
+	}
+
+	/**
+	 * A ring is warm once it has been loaded from the database: it then holds the newest posts of its subject.
+	 */
+	boolean isWarm() {
+		return warm;
+	}
+
+	void markWarm() {
+		warm = true;
+	}
+}
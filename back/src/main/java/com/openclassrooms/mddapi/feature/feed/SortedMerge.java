@@ -0,0 +1,49 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Heap-based k-way merge of lists that are each already sorted in the target order.
+ */
+final class SortedMerge {
+
+	private SortedMerge() {
+	}
+
+	/**
+	 * Merges the first {@code count} items of the sources.
+	 *
+	 * @param sources lists sorted by {@code order}
+	 * @param order   the order shared by every source
+	 * @param count   maximum number of items to return
+	 * @return up to {@code count} items sorted by {@code order}
+	 */
+	static <T> List<T> merge(List<List<T>> sources, Comparator<? super T> order, int count) {
+		record Head<T>(List<T> source, int index) {
+			T item() {
+				return source.get(index);
+			}
+		}
+
+		PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+				(left, right) -> order.compare(left.item(), right.item()));
+		for (List<T> source : sources) {
+			if (!source.isEmpty()) {
+				heap.add(new Head<>(source, 0));
+			}
+		}
+
+		List<T> merged = new ArrayList<>(count);
+		while (merged.size() < count && !heap.isEmpty()) {
+			Head<T> head = heap.poll();
+			merged.add(head.item());
+			if (head.index() + 1 < head.source().size()) {
+				heap.add(new Head<>(head.source(), head.index() + 1));
+			}
+		}
+		return merged;
+	}
+}
@@ -0,0 +1,141 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.config.FeedProperties.SubjectQueryStrategy;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.repository.PostRepository;
+
+/**
+ * Reads one bounded page of posts across several subjects, with the strategy selected by
+ * {@code app.feed.subject-query.strategy}.
+ * <p>
+ * {@link SubjectQueryStrategy#IN_LIST} issues a single query; {@link SubjectQueryStrategy#PARALLEL} issues the same
+ * query once per subject, concurrently on virtual threads, and merges the sorted results. Each per-subject query runs
+ * in its own read-only transaction; at most {@code max-concurrency} of them run at once across all requests, and
+ * callers must not hold a connection meanwhile, or requests could hold the whole pool while waiting for more.
+ */
+@Component
+public class SubjectPostFetcher implements DisposableBean {
+
+	private static final Comparator<RankedFeedPost> HOTTEST_FIRST = Comparator
+			.comparingDouble(RankedFeedPost::hotScore)
+			.thenComparing(RankedFeedPost::id)
+			.reversed();
+
+	private final PostRepository postRepository;
+	private final TransactionTemplate readOnlyTransaction;
+	private final FeedProperties.SubjectQuery settings;
+	private final Semaphore permits;
+	// Propagates the caller's security context, which replica routing reads for read-your-writes.
+	private final ExecutorService executor =
+			new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+	public SubjectPostFetcher(
+			PostRepository postRepository, PlatformTransactionManager transactionManager, FeedProperties feedProperties) {
+		this.postRepository = postRepository;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.settings = feedProperties.subjectQuery();
+		this.permits = new Semaphore(settings.maxConcurrency());
+	}
+
+	/**
+	 * Returns posts of the subjects in chronological keyset order.
+	 *
+	 * @param subjectIds subject ids
+	 * @param sort       {@link FeedSort#asc} or {@link FeedSort#desc}
+	 * @param position   keyset position, null for the first page
+	 * @param limit      maximum number of posts
+	 * @return posts sorted by {@code sort}
+	 */
+	public List<FeedPostResponse> fetchChronological(
+			List<Long> subjectIds, FeedSort sort, FeedCursor position, Limit limit) {
+		return fetch(subjectIds, ids -> findChronological(ids, sort, position, limit), sort.comparator(), limit);
+	}
+
+	/**
+	 * Returns posts of the subjects in hot ranking order.
+	 *
+	 * @param subjectIds subject ids
+	 * @param position   keyset position, null for the first page
+	 * @param limit      maximum number of posts
+	 * @return posts sorted by {@code (hotScore, id)} descending
+	 */
+	public List<RankedFeedPost> fetchHot(List<Long> subjectIds, HotCursor position, Limit limit) {
+		return fetch(subjectIds, ids -> position == null
+				? postRepository.findHotPage(ids, limit)
+				: postRepository.findHotPageAfter(ids, position.score(), position.id(), limit),
+				HOTTEST_FIRST, limit);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private <T> List<T> fetch(
+			List<Long> subjectIds, Function<List<Long>, List<T>> query, Comparator<? super T> order, Limit limit) {
+		if (settings.strategy() == SubjectQueryStrategy.IN_LIST || subjectIds.size() == 1) {
+			return query.apply(subjectIds);
+		}
+
+		List<Future<List<T>>> futures = new ArrayList<>(subjectIds.size());
+		for (Long subjectId : subjectIds) {
+			futures.add(executor.submit(() -> {
+				permits.acquire();
+				try {
+					return readOnlyTransaction.execute(status -> query.apply(List.of(subjectId)));
+				} finally {
+					permits.release();
+				}
+			}));
+		}
+
+		List<List<T>> results = new ArrayList<>(futures.size());
+		try {
+			for (Future<List<T>> future : futures) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException ex) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading subject posts", ex);
+		} catch (ExecutionException ex) {
+			futures.forEach(future -> future.cancel(true));
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		return SortedMerge.merge(results, order, limit.max());
+	}
+
+	private List<FeedPostResponse> findChronological(
+			List<Long> subjectIds, FeedSort sort, FeedCursor position, Limit limit) {
+		if (sort == FeedSort.asc) {
+			return position == null
+					? postRepository.findFeedPageAsc(subjectIds, limit)
+					: postRepository.findFeedPageAscAfter(subjectIds, position.createdAt(), position.id(), limit);
+		}
+		return position == null
+				? postRepository.findFeedPageDesc(subjectIds, limit)
+				: postRepository.findFeedPageDescAfter(subjectIds, position.createdAt(), position.id(), limit);
+	}
+}
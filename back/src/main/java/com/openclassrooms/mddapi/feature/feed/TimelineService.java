@@ -0,0 +1,207 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionChangedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserTimelineRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Maintains the materialized {@code user_timeline} table read by {@link FeedService}.
+ * <p>
+ * New posts are fanned out to subscribers asynchronously after commit, in batches of one transaction each. Inserts
+ * ignore entries that already exist, so a failed batch is retried as is; a batch still failing after the last
+ * attempt is counted in {@code feed.timeline.fan_out_failures} and the fan-out goes on with the next one.
+ * <p>
+ * A new subscriber gets the newest posts of the subject within the subscription transaction, then the rest of its
+ * history after commit, in id-keyset batches of one transaction each.
+ * <p>
+ * Subjects above the configured subscriber threshold are flagged as fan-out-on-read and skipped: their posts are
+ * merged into the feed at read time instead.
+ */
+@Service
+public class TimelineService {
+
+	private static final int WRITE_ATTEMPTS = 3;
+
+	private final UserTimelineRepository userTimelineRepository;
+	private final PostRepository postRepository;
+	private final SubscriptionIndex subscriptionIndex;
+	private final SubjectRepository subjectRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final FeedPageCache feedPageCache;
+	private final FeedProperties feedProperties;
+	private final Counter fanOutFailures;
+	private final Counter backfillFailures;
+
+	public TimelineService(
+			UserTimelineRepository userTimelineRepository,
+			PostRepository postRepository,
+			SubscriptionIndex subscriptionIndex,
+			SubjectRepository subjectRepository,
+			TransactionTemplate transactionTemplate,
+			FeedPageCache feedPageCache,
+			FeedProperties feedProperties,
+			MeterRegistry meterRegistry) {
+		this.userTimelineRepository = userTimelineRepository;
+		this.postRepository = postRepository;
+		this.subscriptionIndex = subscriptionIndex;
+		this.subjectRepository = subjectRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.feedPageCache = feedPageCache;
+		this.feedProperties = feedProperties;
+		this.fanOutFailures = Counter.builder("feed.timeline.fan_out_failures").register(meterRegistry);
+		this.backfillFailures = Counter.builder("feed.timeline.backfill_failures").register(meterRegistry);
+	}
+
+	/**
+	 * Fans a committed post out to the subscribers of its subject, then evicts the feed pages cached while the
+	 * fan-out was running.
+	 *
+	 * @param event the post creation event
+	 */
+	@Async
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		fanOut(event.postId(), event.subjectId());
+		feedPageCache.evictSubject(event.subjectId());
+	}
+
+	/**
+	 * Backfills or prunes the user timeline within the subscription transaction, so the next feed read already
+	 * reflects the change. Only the newest batch of posts is copied here; {@link #onSubscribed} copies the rest.
+	 *
+	 * @param event the subscription change event
+	 */
+	@EventListener
+	public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+		if (!event.subscribed()) {
+			userTimelineRepository.prune(event.userId(), event.subjectId());
+			return;
+		}
+		if (subjectRepository.findFanOutOnReadIds(List.of(event.subjectId())).isEmpty()) {
+			userTimelineRepository.backfill(event.userId(), event.subjectId(),
+					feedProperties.timeline().backfillBatchSize());
+		}
+	}
+
+	/**
+	 * Copies the whole history of a newly subscribed subject once the subscription is committed, so that ascending
+	 * pages start at its first post, then evicts the user's feed pages cached while it was running.
+	 *
+	 * @param event the subscription change event
+	 */
+	@Async
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onSubscribed(SubscriptionChangedEvent event) {
+		if (event.subscribed() && subjectRepository.findFanOutOnReadIds(List.of(event.subjectId())).isEmpty()) {
+			backfillHistory(event.userId(), event.subjectId());
+			feedPageCache.evictUser(event.userId());
+		}
+	}
+
+	/**
+	 * Copies every post of a subject into a user timeline, newest id first, one batch per transaction. Posts already
+	 * there are skipped, and nothing is copied once the user unsubscribed. Stops at the first batch that still fails
+	 * after retries, counting it in {@code feed.timeline.backfill_failures}.
+	 *
+	 * @param userId    the subscriber id
+	 * @param subjectId the subject id
+	 */
+	public void backfillHistory(long userId, long subjectId) {
+		int batchSize = feedProperties.timeline().backfillBatchSize();
+		long beforeId = Long.MAX_VALUE;
+		List<Long> postIds;
+		do {
+			postIds = postRepository.findIdsBySubjectIdBefore(subjectId, beforeId, Limit.of(batchSize));
+			if (postIds.isEmpty()) {
+				return;
+			}
+			List<Long> batch = postIds;
+			if (!writeWithRetry(() -> userTimelineRepository.copyPosts(userId, batch))) {
+				backfillFailures.increment();
+				return;
+			}
+			beforeId = postIds.getLast();
+		} while (postIds.size() == batchSize);
+	}
+
+	/**
+	 * Copies a post into the timeline of every current subscriber of its subject, one batch per transaction.
+	 * <p>
+	 * Subscribers come from {@link SubscriptionIndex}, synced first so that every subscription committed before now,
+	 * on any node, is included: later ones backfill the timeline themselves.
+	 *
+	 * @param postId    the post id
+	 * @param subjectId the post subject id
+	 */
+	public void fanOut(long postId, long subjectId) {
+		subscriptionIndex.sync();
+		if (isFanOutOnRead(subjectId)) {
+			return;
+		}
+
+		int batchSize = feedProperties.timeline().fanOutBatchSize();
+		long[] userIds = subscriptionIndex.subscriberIds(subjectId);
+		for (int from = 0; from < userIds.length; from += batchSize) {
+			List<Long> batch = Arrays.stream(userIds, from, Math.min(from + batchSize, userIds.length)).boxed().toList();
+			if (!writeWithRetry(() -> userTimelineRepository.fanOut(postId, batch))) {
+				fanOutFailures.increment();
+			}
+		}
+	}
+
+	/**
+	 * Runs one timeline write in its own transaction, retrying it when the database rejects it.
+	 *
+	 * @param write the write, safe to replay
+	 * @return false when every attempt failed
+	 */
+	private boolean writeWithRetry(Runnable write) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> write.run());
+				return true;
+			} catch (DataAccessException | TransactionException ex) {
+				if (attempt == WRITE_ATTEMPTS) {
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the subject is (or just became) too large to be fanned out on write.
+	 *
+	 * @param subjectId the subject id
+	 * @return true when the subject posts must be read at feed time
+	 */
+	private boolean isFanOutOnRead(long subjectId) {
+		if (!subjectRepository.findFanOutOnReadIds(List.of(subjectId)).isEmpty()) {
+			return true;
+		}
+		if (subscriptionIndex.subscriberCount(subjectId) <= feedProperties.timeline().fanOutThreshold()) {
+			return false;
+		}
+		transactionTemplate.executeWithoutResult(status -> subjectRepository.markFanOutOnRead(subjectId));
+		return true;
+	}
+}
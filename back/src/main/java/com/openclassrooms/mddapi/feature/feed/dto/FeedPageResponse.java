@@ -0,0 +1,6 @@
+package com.openclassrooms.mddapi.feature.feed.dto;
+
+import java.util.List;
+
+public record FeedPageResponse(List<FeedPostResponse> items, String nextCursor) {
+}
@@ -0,0 +1,10 @@
+package com.openclassrooms.mddapi.feature.feed.dto;
+
+import java.time.Instant;
+
+/**
+ * Payload of the {@code post} event pushed on {@code GET /api/feed/stream}: enough to render a "new post" hint,
+ * the item itself is fetched through the feed page.
+ */
+public record FeedPostNotification(Long id, Long subjectId, String author, String title, Instant createdAt) {
+}
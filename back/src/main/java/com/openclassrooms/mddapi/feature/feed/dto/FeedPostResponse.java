@@ -2,5 +2,64 @@ package com.openclassrooms.mddapi.feature.feed.dto;
 
 import java.time.Instant;
 
-public record FeedPostResponse(Long id, Long subjectId, String author, String title, String content, Instant createdAt) {
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Feed item: carries the post excerpt, and the full content only when requested with {@code content=full}; it is
+ * otherwise null and left out of the JSON, the content being served by {@code GET /api/posts/{id}}.
+ * <p>
+ * {@code commentCount}, {@code lastActivityAt} and {@code reactionCount} are read from the post row, which batched
+ * updates keep up to date within a few seconds.
+ */
+public record FeedPostResponse(
+		Long id,
+		Long subjectId,
+		String author,
+		String title,
+		String excerpt,
+		@JsonInclude(JsonInclude.Include.NON_NULL) String content,
+		Instant createdAt,
+		int commentCount,
+		Instant lastActivityAt,
+		int reactionCount
+) {
+
+	public FeedPostResponse(Long id, Long subjectId, String author, String title, String excerpt, Instant createdAt,
+			int commentCount, Instant lastActivityAt, int reactionCount) {
+		this(id, subjectId, author, title, excerpt, null, createdAt, commentCount, lastActivityAt, reactionCount);
+	}
+
+	/**
+	 * Returns this item with its full content.
+	 *
+	 * @param fullContent the post content
+	 * @return the updated item
+	 */
+	public FeedPostResponse withContent(String fullContent) {
+		return new FeedPostResponse(id, subjectId, author, title, excerpt, fullContent, createdAt, commentCount,
+				lastActivityAt, reactionCount);
+	}
+
+	/**
+	 * Returns this item with one more comment made at the given instant.
+	 *
+	 * @param commentedAt the comment date
+	 * @return the updated item
+	 */
+	public FeedPostResponse withComment(Instant commentedAt) {
+		Instant lastActivity = commentedAt.isAfter(lastActivityAt) ? commentedAt : lastActivityAt;
+		return new FeedPostResponse(id, subjectId, author, title, excerpt, content, createdAt, commentCount + 1,
+				lastActivity, reactionCount);
+	}
+
+	/**
+	 * Returns this item with its reaction count changed.
+	 *
+	 * @param delta reactions added (negative when removed)
+	 * @return the updated item
+	 */
+	public FeedPostResponse withReactions(int delta) {
+		return delta == 0 ? this : new FeedPostResponse(id, subjectId, author, title, excerpt, content, createdAt,
+				commentCount, lastActivityAt, reactionCount + delta);
+	}
 }
@@ -0,0 +1,207 @@
+package com.openclassrooms.mddapi.feature.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.mddapi.config.IdempotencyProperties;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.exception.ConflictException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and user, replaying the recorded response to retries.
+ * <p>
+ * Keys are first looked up in a size- and TTL-bounded in-memory map of futures: a duplicate arriving while the first
+ * request is still running waits for its response instead of running again. Otherwise the {@code idempotency_key}
+ * table is checked, so a retry sent to another node is replayed too. The response is recorded in the same
+ * transaction as the request's own writes; when two nodes run the same key concurrently, the second insert fails on
+ * the primary key, its writes roll back and the response committed by the first is returned instead.
+ * <p>
+ * Failed requests are not recorded: the key can be retried. Replays are counted as {@code idempotency.replayed}.
+ */
+@Service
+public class IdempotencyService {
+
+	public static final String HEADER = "Idempotency-Key";
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final JsonMapper jsonMapper;
+	private final Duration ttl;
+	private final Cache<Key, CompletableFuture<StoredResponse>> responses;
+	private final Counter replayed;
+
+	public IdempotencyService(
+			JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager,
+			JsonMapper jsonMapper,
+			IdempotencyProperties properties,
+			MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.jsonMapper = jsonMapper;
+		this.ttl = properties.ttl();
+		this.responses = Caffeine.newBuilder()
+				.maximumSize(properties.maximumSize())
+				.expireAfterWrite(properties.ttl())
+				.build();
+		this.replayed = Counter.builder("idempotency.replayed").register(meterRegistry);
+	}
+
+	private record Key(long userId, String key) {
+	}
+
+	private record Execution<T>(ResponseEntity<T> response, StoredResponse stored) {
+	}
+
+	/**
+	 * Runs {@code action} unless a response was already recorded for this key, in which case that response is
+	 * returned with an {@value #REPLAYED_HEADER} header.
+	 *
+	 * @param userId   the authenticated user id
+	 * @param key      the {@code Idempotency-Key} header value
+	 * @param scope    the endpoint, so the same key sent to two endpoints is detected as a different request
+	 * @param request  the request payload
+	 * @param bodyType type of the response body, to rebuild replayed responses
+	 * @param action   performs the request; runs in a transaction joined by the services it calls
+	 * @return the response of the first execution of this key
+	 * @throws BadRequestException if the key is blank or too long
+	 * @throws ConflictException   if the key was already used for a different request
+	 */
+	public <T> ResponseEntity<T> execute(long userId, String key, String scope, Object request, Class<T> bodyType,
+			Supplier<ResponseEntity<T>> action) {
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new BadRequestException("Clé d'idempotence invalide");
+		}
+		String fingerprint = fingerprint(scope, request);
+		Key cacheKey = new Key(userId, key);
+
+		CompletableFuture<StoredResponse> running = new CompletableFuture<>();
+		CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(cacheKey, running);
+		if (existing != null) {
+			return replay(await(existing), fingerprint, bodyType);
+		}
+		try {
+			Optional<StoredResponse> stored = find(cacheKey);
+			if (stored.isPresent()) {
+				running.complete(stored.get());
+				return replay(stored.get(), fingerprint, bodyType);
+			}
+			return run(cacheKey, fingerprint, bodyType, action, running);
+		} catch (RuntimeException ex) {
+			responses.asMap().remove(cacheKey, running);
+			running.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Deletes expired keys from the database.
+	 *
+	 * @return the number of keys deleted
+	 */
+	@Scheduled(fixedDelayString = "${app.idempotency.purge-interval}")
+	public int purgeExpired() {
+		return jdbcTemplate.update("delete from idempotency_key where created_at < ?",
+				Timestamp.from(Instant.now().minus(ttl)));
+	}
+
+	private <T> ResponseEntity<T> run(Key cacheKey, String fingerprint, Class<T> bodyType,
+			Supplier<ResponseEntity<T>> action, CompletableFuture<StoredResponse> running) {
+		Execution<T> execution;
+		try {
+			execution = transactionTemplate.execute(status -> {
+				ResponseEntity<T> response = action.get();
+				StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(),
+						response.getBody() == null ? null : jsonMapper.writeValueAsString(response.getBody()));
+				Instant now = Instant.now();
+				// An expired row not purged yet would block the insert.
+				jdbcTemplate.update(
+						"delete from idempotency_key where user_id = ? and idempotency_key = ? and created_at < ?",
+						cacheKey.userId(), cacheKey.key(), Timestamp.from(now.minus(ttl)));
+				jdbcTemplate.update("""
+						insert into idempotency_key (user_id, idempotency_key, fingerprint, status, body, created_at)
+						values (?, ?, ?, ?, ?, ?)
+						""", cacheKey.userId(), cacheKey.key(), stored.fingerprint(), stored.status(), stored.body(),
+						Timestamp.from(now));
+				return new Execution<>(response, stored);
+			});
+		} catch (DuplicateKeyException ex) {
+			// Another node committed this key first: our writes were rolled back, its response wins.
+			StoredResponse winner = find(cacheKey).orElseThrow(() -> ex);
+			running.complete(winner);
+			return replay(winner, fingerprint, bodyType);
+		}
+		// Completed once committed, so waiters never replay a response that could still roll back.
+		running.complete(execution.stored());
+		return execution.response();
+	}
+
+	private Optional<StoredResponse> find(Key cacheKey) {
+		List<StoredResponse> rows = jdbcTemplate.query("""
+				select fingerprint, status, body from idempotency_key
+				where user_id = ? and idempotency_key = ? and created_at >= ?
+				""",
+				(rs, row) -> new StoredResponse(rs.getString(1), rs.getInt(2), rs.getString(3)),
+				cacheKey.userId(), cacheKey.key(), Timestamp.from(Instant.now().minus(ttl)));
+		return rows.stream().findFirst();
+	}
+
+	private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, Class<T> bodyType) {
+		if (!stored.fingerprint().equals(fingerprint)) {
+			throw new ConflictException("Cette clé d'idempotence a déjà été utilisée pour une autre requête");
+		}
+		replayed.increment();
+		return ResponseEntity.status(stored.status())
+				.header(REPLAYED_HEADER, "true")
+				.body(stored.body() == null ? null : jsonMapper.readValue(stored.body(), bodyType));
+	}
+
+	private String fingerprint(String scope, Object request) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(scope.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) '\n');
+			digest.update(jsonMapper.writeValueAsBytes(request));
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static StoredResponse await(CompletableFuture<StoredResponse> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+}
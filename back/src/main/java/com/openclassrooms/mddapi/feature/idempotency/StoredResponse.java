@@ -0,0 +1,11 @@
+package com.openclassrooms.mddapi.feature.idempotency;
+
+/**
+ * Response recorded for an idempotency key.
+ *
+ * @param fingerprint hash of the request that produced it, to detect a key reused for another request
+ * @param status      HTTP status code
+ * @param body        JSON body, or null when the response had none
+ */
+record StoredResponse(String fingerprint, int status, String body) {
+}
@@ -0,0 +1,9 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
+
+/**
+ * Published by {@link PostService#addComment} inside the creating transaction, with the comment as it is served.
+ */
+public record CommentAddedEvent(long postId, long subjectId, CommentResponse comment) {
+}
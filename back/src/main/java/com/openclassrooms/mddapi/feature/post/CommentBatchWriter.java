@@ -0,0 +1,109 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+/**
+ * Group-commits queued comments: one transaction, one JDBC batch insert and one author lookup per batch.
+ * <p>
+ * Publishes a {@link CommentAddedEvent} per comment inside the transaction, so the post detail cache, the activity
+ * counters and the recent-post rings are updated after commit exactly as for a synchronous comment.
+ */
+@Component
+class CommentBatchWriter {
+
+	private static final String INSERT_SQL = """
+			insert into comment (post_id, author_id, content, client_id, created_at)
+			values (?, ?, ?, ?, ?)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ContentCodecRegistry codecs;
+	private final TransactionTemplate transactionTemplate;
+
+	CommentBatchWriter(
+			JdbcTemplate jdbcTemplate,
+			UserRepository userRepository,
+			ApplicationEventPublisher eventPublisher,
+			ContentCodecRegistry codecs,
+			PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.userRepository = userRepository;
+		this.eventPublisher = eventPublisher;
+		this.codecs = codecs;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Writes the batch in a single transaction; nothing is written if any comment fails.
+	 *
+	 * @param batch comments in queue order
+	 */
+	void write(List<QueuedComment> batch) {
+		transactionTemplate.executeWithoutResult(status -> {
+			Map<Long, String> usernames = userRepository.findAllById(
+							batch.stream().map(QueuedComment::authorId).distinct().toList())
+					.stream()
+					.collect(Collectors.toMap(User::getId, User::getUsername));
+			List<Long> ids = insert(batch);
+			for (int i = 0; i < batch.size(); i++) {
+				QueuedComment comment = batch.get(i);
+				eventPublisher.publishEvent(new CommentAddedEvent(comment.postId(), comment.subjectId(),
+						new CommentResponse(ids.get(i), comment.content(), usernames.get(comment.authorId()),
+								comment.createdAt(), 0)));
+			}
+		});
+	}
+
+	private List<Long> insert(List<QueuedComment> batch) {
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(
+				connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement statement, int i) throws SQLException {
+						QueuedComment comment = batch.get(i);
+						statement.setLong(1, comment.postId());
+						statement.setLong(2, comment.authorId());
+						statement.setBytes(3, codecs.codec().encode(comment.content()));
+						statement.setString(4, comment.clientId().toString());
+						statement.setObject(5, comment.createdAt().atOffset(ZoneOffset.UTC));
+					}
+
+					@Override
+					public int getBatchSize() {
+						return batch.size();
+					}
+				},
+				keys);
+
+		List<Map<String, Object>> generated = keys.getKeyList();
+		if (generated.size() != batch.size()) {
+			throw new IllegalStateException(
+					"Expected " + batch.size() + " generated comment ids, got " + generated.size());
+		}
+		return generated.stream()
+				.map(key -> ((Number) key.values().iterator().next()).longValue())
+				.toList();
+	}
+}
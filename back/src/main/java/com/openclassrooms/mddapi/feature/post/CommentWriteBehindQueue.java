@@ -0,0 +1,268 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.exception.ServiceUnavailableException;
+import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
+import com.openclassrooms.mddapi.feature.post.dto.QueuedCommentResponse;
+import com.openclassrooms.mddapi.repository.PostRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Optional write-behind path for comments ({@code app.post.comment-queue.enabled}).
+ * <p>
+ * A request only checks that the post exists, then puts the comment in a bounded queue and is acknowledged with a
+ * client id. A single writer thread takes whatever has accumulated, up to {@code batch-size} comments, and commits it
+ * through {@link CommentBatchWriter}: under a burst, the next batch fills while the previous one commits. When the
+ * queue stays full for {@code offer-timeout} the request is refused with a 503, so a slow database pushes back on
+ * clients instead of growing memory.
+ * <p>
+ * If a batch fails, its comments are retried one by one so that a single bad comment does not hold back the others.
+ * A comment rejected by a constraint (deleted post or author) is dropped and counted as
+ * {@code post.comment_queue.dropped}; a duplicate client id means an earlier attempt committed it. Any other failure
+ * is taken as transient: the writer keeps retrying the failed comments with an exponential backoff, while the queue
+ * fills up and pushes back on requests.
+ * <p>
+ * The queue stops after the web server, so no request is still enqueuing, and writes everything left before the
+ * context closes. Acknowledged comments are lost in two cases: the process dies with comments still queued, or the
+ * database still refuses them when the application stops, in which case they are counted as dropped.
+ */
+@Component
+public class CommentWriteBehindQueue implements SmartLifecycle {
+
+	/**
+	 * Lower than the web server phases: started before and stopped after it.
+	 */
+	private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+	private static final long POLL_MILLIS = 100;
+
+	private static final long MAX_RETRY_BACKOFF_MILLIS = 5_000;
+
+	private final PostRepository postRepository;
+	private final CommentBatchWriter writer;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long offerTimeoutNanos;
+	private final BlockingQueue<QueuedComment> queue;
+	private final Counter rejected;
+	private final Counter dropped;
+	private final DistributionSummary batchSizes;
+
+	private volatile boolean running;
+	private Thread writerThread;
+
+	public CommentWriteBehindQueue(
+			PostRepository postRepository,
+			CommentBatchWriter writer,
+			PostProperties postProperties,
+			MeterRegistry meterRegistry) {
+		PostProperties.CommentQueue settings = postProperties.commentQueue();
+		this.postRepository = postRepository;
+		this.writer = writer;
+		this.enabled = settings.enabled();
+		this.batchSize = settings.batchSize();
+		this.offerTimeoutNanos = settings.offerTimeout().toNanos();
+		this.queue = new ArrayBlockingQueue<>(settings.capacity());
+		Gauge.builder("post.comment_queue.size", queue, BlockingQueue::size).register(meterRegistry);
+		this.rejected = Counter.builder("post.comment_queue.rejected").register(meterRegistry);
+		this.dropped = Counter.builder("post.comment_queue.dropped").register(meterRegistry);
+		this.batchSizes = DistributionSummary.builder("post.comment_queue.batch").register(meterRegistry);
+	}
+
+	/**
+	 * @return true when comments must go through {@link #enqueue} instead of {@link PostService#addComment}
+	 */
+	public boolean enabled() {
+		return enabled;
+	}
+
+	/**
+	 * Accepts a comment for write-behind.
+	 *
+	 * @param userId  the authenticated user id
+	 * @param postId  the post id
+	 * @param request comment payload
+	 * @return the acknowledgement carrying the comment client id
+	 * @throws NotFoundException           if the post does not exist
+	 * @throws ServiceUnavailableException if the queue is stopped or stays full
+	 */
+	public QueuedCommentResponse enqueue(long userId, long postId, CreateCommentRequest request) {
+		if (!running) {
+			throw new ServiceUnavailableException("Commentaires momentanément indisponibles");
+		}
+		long subjectId = postRepository.findSubjectIdById(postId)
+				.orElseThrow(() -> new NotFoundException("Article introuvable"));
+
+		QueuedComment comment = new QueuedComment(UUID.randomUUID(), postId, subjectId, userId, request.content(),
+				Instant.now().truncatedTo(ChronoUnit.MICROS));
+		boolean accepted;
+		try {
+			accepted = queue.offer(comment, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			accepted = false;
+		}
+		if (!accepted) {
+			rejected.increment();
+			throw new ServiceUnavailableException("Trop de commentaires en attente, réessayez plus tard");
+		}
+		return new QueuedCommentResponse(comment.clientId().toString(), postId);
+	}
+
+	@Override
+	public void start() {
+		if (!enabled || running) {
+			return;
+		}
+		running = true;
+		writerThread = Thread.ofVirtual().name("comment-write-behind").start(this::writeLoop);
+	}
+
+	/**
+	 * Refuses new comments, lets the writer finish its batch, then writes what is left in the queue.
+	 */
+	@Override
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		try {
+			writerThread.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		drain();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	/**
+	 * Writes everything queued, batch by batch, on the calling thread.
+	 */
+	void drain() {
+		List<QueuedComment> batch = new ArrayList<>(batchSize);
+		while (queue.drainTo(batch, batchSize) > 0) {
+			write(batch);
+			batch = new ArrayList<>(batchSize);
+		}
+	}
+
+	private void writeLoop() {
+		while (running) {
+			QueuedComment first;
+			try {
+				first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ex) {
+				return;
+			}
+			if (first == null) {
+				continue;
+			}
+			List<QueuedComment> batch = new ArrayList<>(batchSize);
+			batch.add(first);
+			queue.drainTo(batch, batchSize - 1);
+			write(batch);
+		}
+	}
+
+	/**
+	 * Writes a batch, retrying its transient failures until they succeed or the queue stops.
+	 */
+	private void write(List<QueuedComment> batch) {
+		batchSizes.record(batch.size());
+		List<QueuedComment> failed = attempt(batch);
+		long backoff = POLL_MILLIS;
+		while (!failed.isEmpty() && running) {
+			pause(backoff);
+			backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+			failed = attempt(failed);
+		}
+		dropped.increment(failed.size());
+	}
+
+	/**
+	 * Writes the batch, or its comments one by one if the batch fails.
+	 *
+	 * @return the comments that failed for a reason that may not last
+	 */
+	private List<QueuedComment> attempt(List<QueuedComment> batch) {
+		try {
+			writer.write(batch);
+			return List.of();
+		} catch (RuntimeException ex) {
+			if (batch.size() == 1) {
+				return isTransient(ex) ? batch : List.of();
+			}
+		}
+		List<QueuedComment> failed = new ArrayList<>();
+		for (QueuedComment comment : batch) {
+			try {
+				writer.write(List.of(comment));
+			} catch (RuntimeException ex) {
+				if (isTransient(ex)) {
+					failed.add(comment);
+				}
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * Tells whether a single comment failure is worth retrying, counting the comment as dropped when it is not and it
+	 * was not written by an earlier attempt.
+	 */
+	private boolean isTransient(RuntimeException ex) {
+		if (ex instanceof DuplicateKeyException) {
+			return false;
+		}
+		if (ex instanceof DataIntegrityViolationException) {
+			dropped.increment();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Sleeps for the given time, waking up early when the queue stops.
+	 */
+	private void pause(long millis) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		long remaining;
+		while (running && (remaining = deadline - System.nanoTime()) > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+}
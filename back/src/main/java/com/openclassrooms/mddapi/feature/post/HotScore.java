@@ -0,0 +1,51 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Time-decayed activity score stored in {@code post.hot_score}.
+ * <p>
+ * The decayed score {@code sum(2^-(now - t) / HALF_LIFE)} over the post creation and its comments ranks posts in
+ * the same order as {@code ln(sum(e^((t - EPOCH) / tau)))}, because every post is decayed by the same factor at a
+ * given instant. The stored form never decays, so it only changes when activity happens, and it only ever grows:
+ * a post can move up past a keyset cursor but never back below it, so pages never repeat an item.
+ * <p>
+ * Changing {@link #HALF_LIFE} or the epoch requires recomputing every stored score.
+ */
+public final class HotScore {
+
+	/**
+	 * Time after which an activity weighs half as much as a new one.
+	 */
+	public static final Duration HALF_LIFE = Duration.ofHours(12);
+
+	private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+	private static final double TAU_SECONDS = HALF_LIFE.toSeconds() / Math.log(2);
+
+	private HotScore() {
+	}
+
+	/**
+	 * Log-weight of one activity at the given instant; also the initial score of a post created then.
+	 *
+	 * @param instant when the activity happened
+	 * @return the activity weight, in the units of the stored score
+	 */
+	public static double at(Instant instant) {
+		double seconds = (instant.getEpochSecond() - EPOCH.getEpochSecond()) + instant.getNano() / 1e9;
+		return seconds / TAU_SECONDS;
+	}
+
+	/**
+	 * Combines two weights into the weight of both activities, {@code ln(e^a + e^b)}, without overflowing.
+	 *
+	 * @param a a score or activity weight
+	 * @param b another one
+	 * @return the combined weight
+	 */
+	public static double combine(double a, double b) {
+		double max = Math.max(a, b);
+		return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+	}
+}
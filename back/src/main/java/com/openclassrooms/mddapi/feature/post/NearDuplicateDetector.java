@@ -0,0 +1,155 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.exception.ConflictException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Detects new posts that nearly duplicate an existing one, from the {@link SimHash} of their title and content.
+ * <p>
+ * Fingerprints are stored in {@code post.simhash} and kept in memory in a {@link NearDuplicateIndex}, loaded at
+ * startup by reading {@code post} in id order, {@code scan-batch-size} rows per query; rows from before the column
+ * get their fingerprint computed and stored on the way. Created posts are indexed once committed, and imported ones
+ * from their chunk's event, with the fingerprint computed before insert. Posts created through other nodes are read
+ * every {@code sync-interval}, from the highest id read so far. A duplicate of a post created on another node since
+ * the last sync may therefore go through, as may one of a post committed there after a higher id was read.
+ * <p>
+ * Detected duplicates are counted as {@code post.near_duplicates}, tagged with the configured action.
+ */
+@Component
+public class NearDuplicateDetector {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ContentCodecRegistry codecs;
+	private final PostProperties.NearDuplicate properties;
+	private final NearDuplicateIndex index;
+	private final MeterRegistry meterRegistry;
+	private long lastIndexedId;
+
+	private record Row(long id, Long simhash) {
+	}
+
+	public NearDuplicateDetector(
+			JdbcTemplate jdbcTemplate,
+			ContentCodecRegistry codecs,
+			PostProperties postProperties,
+			MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.codecs = codecs;
+		this.properties = postProperties.nearDuplicate();
+		this.index = new NearDuplicateIndex(properties.maxDistance());
+		this.meterRegistry = meterRegistry;
+		Gauge.builder("post.near_duplicate.index.size", index, NearDuplicateIndex::size).register(meterRegistry);
+	}
+
+	/**
+	 * Looks for an existing post close to a new one.
+	 *
+	 * @param simhash fingerprint of the new post
+	 * @return the post it resembles when duplicates are flagged, empty if there is none or detection is disabled
+	 * @throws ConflictException if it resembles a post and duplicates are rejected
+	 */
+	public OptionalLong check(long simhash) {
+		if (!properties.enabled()) {
+			return OptionalLong.empty();
+		}
+		OptionalLong original = index.nearest(simhash);
+		if (original.isPresent()) {
+			meterRegistry.counter("post.near_duplicates", "action", properties.action().name().toLowerCase())
+					.increment();
+			if (properties.action() == PostProperties.NearDuplicateAction.REJECT) {
+				throw new ConflictException("Un article quasi identique existe déjà");
+			}
+		}
+		return original;
+	}
+
+	/**
+	 * Indexes the posts with an id above the highest one read so far, computing the missing fingerprints: every post
+	 * at startup, then those created since, whichever node created them.
+	 *
+	 * @return the number of posts added to the index
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized int load() {
+		if (!properties.enabled()) {
+			return 0;
+		}
+		int added = 0;
+		long lastId = lastIndexedId;
+		List<Row> page;
+		do {
+			page = jdbcTemplate.query(
+					"select id, simhash from post where id > ? order by id limit ?",
+					(rs, row) -> new Row(rs.getLong(1), rs.getObject(2, Long.class)),
+					lastId, properties.scanBatchSize());
+			List<Long> missing = page.stream().filter(row -> row.simhash() == null).map(Row::id).toList();
+			Map<Long, Long> computed = missing.isEmpty() ? Map.of() : fingerprint(missing);
+			for (Row row : page) {
+				long simhash = row.simhash() != null ? row.simhash() : computed.get(row.id());
+				added += index.add(row.id(), simhash) ? 1 : 0;
+				lastId = row.id();
+			}
+		} while (page.size() == properties.scanBatchSize());
+		lastIndexedId = lastId;
+		return added;
+	}
+
+	@Scheduled(fixedDelayString = "${app.post.near-duplicate.sync-interval}")
+	public void sync() {
+		load();
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		if (properties.enabled()) {
+			index.add(event.postId(), SimHash.of(event.title(), event.content()));
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostsImported(PostsImportedEvent event) {
+		if (properties.enabled()) {
+			event.posts().forEach(post -> index.add(post.id(), post.simhash()));
+		}
+	}
+
+	/**
+	 * Computes and stores the fingerprints of posts created before the {@code simhash} column.
+	 */
+	private Map<Long, Long> fingerprint(List<Long> ids) {
+		Map<Long, Long> fingerprints = new HashMap<>();
+		jdbcTemplate.query(
+				"select id, title, content from post where id in (" + placeholders(ids) + ")",
+				rs -> {
+					fingerprints.put(rs.getLong(1), SimHash.of(rs.getString(2), codecs.codec().decode(rs.getBytes(3))));
+				},
+				ids.toArray());
+		List<Object[]> updates = new ArrayList<>(fingerprints.size());
+		fingerprints.forEach((id, simhash) -> updates.add(new Object[] {simhash, id}));
+		jdbcTemplate.batchUpdate("update post set simhash = ? where id = ?", updates);
+		return fingerprints;
+	}
+
+	private static String placeholders(List<Long> ids) {
+		return String.join(", ", Collections.nCopies(ids.size(), "?"));
+	}
+}
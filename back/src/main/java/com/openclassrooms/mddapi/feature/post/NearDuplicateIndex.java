@@ -0,0 +1,132 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds posts whose {@link SimHash} is within {@code maxDistance} bits of a fingerprint, without comparing it to every
+ * post.
+ * <p>
+ * Fingerprints are cut into {@code ceil((maxDistance + 1) / 2)} bands, each with a table from band value to posts. Two
+ * fingerprints at most {@code maxDistance} bits apart differ by at most one bit in at least one band, so a lookup
+ * probes each band with its exact value and every one-bit variant of it, then checks the distance of the candidates.
+ * Few, wide bands keep the buckets small: 68 probes of 16-bit bands for the default distance of 7, whatever the number
+ * of posts.
+ */
+final class NearDuplicateIndex {
+
+	private final int maxDistance;
+	private final int[] bandStarts;
+	private final List<Map<Long, long[]>> bands;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private int size;
+
+	NearDuplicateIndex(int maxDistance) {
+		if (maxDistance < 0 || maxDistance >= Long.SIZE / 2) {
+			throw new IllegalArgumentException("maxDistance must be between 0 and 31: " + maxDistance);
+		}
+		this.maxDistance = maxDistance;
+		int bandCount = (maxDistance + 2) / 2;
+		this.bandStarts = new int[bandCount + 1];
+		this.bands = new ArrayList<>(bandCount);
+		for (int band = 0; band <= bandCount; band++) {
+			bandStarts[band] = band * Long.SIZE / bandCount;
+		}
+		for (int band = 0; band < bandCount; band++) {
+			bands.add(new HashMap<>());
+		}
+	}
+
+	/**
+	 * Indexes a post, unless it is already indexed.
+	 *
+	 * @return whether the post was added
+	 */
+	boolean add(long postId, long fingerprint) {
+		lock.writeLock().lock();
+		try {
+			long[] first = bands.getFirst().get(bandValue(fingerprint, 0));
+			if (first != null && indexOf(first, postId) >= 0) {
+				return false;
+			}
+			for (int band = 0; band < bands.size(); band++) {
+				// Buckets hold (post id, fingerprint) pairs, so candidates are checked without another lookup.
+				bands.get(band).merge(bandValue(fingerprint, band), new long[] {postId, fingerprint}, (bucket, added) -> {
+					long[] grown = Arrays.copyOf(bucket, bucket.length + 2);
+					grown[bucket.length] = added[0];
+					grown[bucket.length + 1] = added[1];
+					return grown;
+				});
+			}
+			size++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the closest indexed post within {@code maxDistance} bits, the oldest one on ties
+	 */
+	OptionalLong nearest(long fingerprint) {
+		long best = -1;
+		int bestDistance = maxDistance + 1;
+		lock.readLock().lock();
+		try {
+			for (int band = 0; band < bands.size(); band++) {
+				Map<Long, long[]> table = bands.get(band);
+				long value = bandValue(fingerprint, band);
+				for (int flipped = -1; flipped < width(band); flipped++) {
+					long[] bucket = table.get(flipped < 0 ? value : value ^ 1L << flipped);
+					if (bucket == null) {
+						continue;
+					}
+					for (int i = 0; i < bucket.length; i += 2) {
+						int distance = SimHash.distance(fingerprint, bucket[i + 1]);
+						if (distance < bestDistance || distance == bestDistance && bucket[i] < best) {
+							best = bucket[i];
+							bestDistance = distance;
+						}
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return best < 0 ? OptionalLong.empty() : OptionalLong.of(best);
+	}
+
+	int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private int width(int band) {
+		return bandStarts[band + 1] - bandStarts[band];
+	}
+
+	private long bandValue(long fingerprint, int band) {
+		int width = width(band);
+		long shifted = fingerprint >>> bandStarts[band];
+		return width == Long.SIZE ? shifted : shifted & (1L << width) - 1;
+	}
+
+	private static int indexOf(long[] bucket, long postId) {
+		for (int i = 0; i < bucket.length; i += 2) {
+			if (bucket[i] == postId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,26 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.Instant;
+
+/**
+ * Comment activity of one post not yet written to its row.
+ *
+ * @param postId         the post id
+ * @param comments       number of comments to add to {@code comment_count}
+ * @param lastActivityAt latest comment date
+ * @param hotActivity    combined {@link HotScore} weight of the comments
+ */
+record PostActivity(long postId, int comments, Instant lastActivityAt, double hotActivity) {
+
+	static PostActivity comment(long postId, Instant at) {
+		return new PostActivity(postId, 1, at, HotScore.at(at));
+	}
+
+	PostActivity merge(PostActivity other) {
+		return new PostActivity(
+				postId,
+				comments + other.comments,
+				lastActivityAt.isAfter(other.lastActivityAt) ? lastActivityAt : other.lastActivityAt,
+				HotScore.combine(hotActivity, other.hotActivity));
+	}
+}
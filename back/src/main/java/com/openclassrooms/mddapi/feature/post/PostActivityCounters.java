@@ -0,0 +1,133 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory accumulator of committed comments per post, drained by {@link PostActivityFlusher}.
+ * <p>
+ * Posts are spread over independently locked stripes, so concurrent comments on different posts rarely contend and
+ * no comment takes a row lock on {@code post}. Drained activity stays visible to {@link #pending} until its flush
+ * commits, so a post read in between still counts it. Pending activity is lost if the process dies before a flush;
+ * shutdown flushes it.
+ */
+@Component
+public class PostActivityCounters {
+
+	private final Stripe[] stripes;
+
+	public PostActivityCounters() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	PostActivityCounters(int minStripes) {
+		int count = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Records a comment made on a post.
+	 *
+	 * @param postId the post id
+	 * @param at     the comment date
+	 */
+	public void record(long postId, Instant at) {
+		stripe(postId).add(PostActivity.comment(postId, at));
+	}
+
+	/**
+	 * Returns the activity of a post not flushed yet, including activity whose flush has not committed.
+	 *
+	 * @param postId the post id
+	 * @return the pending activity, or null if there is none
+	 */
+	PostActivity pending(long postId) {
+		return stripe(postId).get(postId);
+	}
+
+	/**
+	 * Moves all pending activity in flight and returns it. It is still reported by {@link #pending} until
+	 * {@link #settle} or {@link #restore} is called.
+	 *
+	 * @return one entry per post with activity in flight
+	 */
+	List<PostActivity> drain() {
+		List<PostActivity> drained = new ArrayList<>();
+		for (Stripe stripe : stripes) {
+			drained.addAll(stripe.drain());
+		}
+		return drained;
+	}
+
+	/**
+	 * Forgets the activity in flight once its flush has committed.
+	 */
+	void settle() {
+		for (Stripe stripe : stripes) {
+			stripe.settle();
+		}
+	}
+
+	/**
+	 * Puts back the activity in flight after its flush failed, merging it with what was recorded since.
+	 */
+	void restore() {
+		for (Stripe stripe : stripes) {
+			stripe.restore();
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCommentAdded(CommentAddedEvent event) {
+		record(event.postId(), event.comment().createdAt());
+	}
+
+	private Stripe stripe(long postId) {
+		return stripes[Long.hashCode(postId) & (stripes.length - 1)];
+	}
+
+	private static final class Stripe {
+
+		private Map<Long, PostActivity> pending = new HashMap<>();
+		private final Map<Long, PostActivity> inFlight = new HashMap<>();
+
+		synchronized void add(PostActivity activity) {
+			pending.merge(activity.postId(), activity, PostActivity::merge);
+		}
+
+		synchronized PostActivity get(long postId) {
+			PostActivity recorded = pending.get(postId);
+			PostActivity flushing = inFlight.get(postId);
+			if (recorded == null || flushing == null) {
+				return recorded == null ? flushing : recorded;
+			}
+			return recorded.merge(flushing);
+		}
+
+		synchronized Collection<PostActivity> drain() {
+			pending.values().forEach(activity -> inFlight.merge(activity.postId(), activity, PostActivity::merge));
+			pending = new HashMap<>();
+			return new ArrayList<>(inFlight.values());
+		}
+
+		synchronized void settle() {
+			inFlight.clear();
+		}
+
+		synchronized void restore() {
+			inFlight.values().forEach(this::add);
+			inFlight.clear();
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically writes the activity accumulated by {@link PostActivityCounters} to the post rows.
+ * <p>
+ * Each flush is one transaction of JDBC-batched relative updates, in post id order so concurrent flushes from
+ * several instances lock rows in the same order. The drained activity stays visible to readers until the transaction
+ * commits, and a failed flush puts it back for the next attempt. Flushed rows are counted as
+ * {@code post.activity.flushed} and flushes are timed as {@code post.activity.flush}.
+ */
+@Component
+public class PostActivityFlusher {
+
+	private static final String UPDATE_SQL = """
+			update post
+			set comment_count = comment_count + ?,
+				last_activity_at = greatest(last_activity_at, ?),
+				hot_score = ? + ln(1 + exp(hot_score - ?))
+			where id = ?
+			""";
+
+	private final PostActivityCounters counters;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final Counter flushedRows;
+	private final Timer flushTimer;
+
+	public PostActivityFlusher(
+			PostActivityCounters counters,
+			JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager,
+			PostProperties postProperties,
+			MeterRegistry meterRegistry) {
+		this.counters = counters;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = postProperties.activityFlush().batchSize();
+		this.flushedRows = Counter.builder("post.activity.flushed").register(meterRegistry);
+		this.flushTimer = Timer.builder("post.activity.flush").register(meterRegistry);
+	}
+
+	/**
+	 * Writes all pending activity.
+	 *
+	 * @return the number of post rows updated
+	 */
+	@Scheduled(fixedDelayString = "${app.post.activity-flush.interval}")
+	public int flush() {
+		flushLock.lock();
+		try {
+			List<PostActivity> pending = counters.drain();
+			if (pending.isEmpty()) {
+				return 0;
+			}
+			pending.sort(Comparator.comparingLong(PostActivity::postId));
+			try {
+				flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(pending)));
+			} catch (RuntimeException ex) {
+				counters.restore();
+				throw ex;
+			}
+			counters.settle();
+			flushedRows.increment(pending.size());
+			return pending.size();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	@PreDestroy
+	void flushOnShutdown() {
+		flush();
+	}
+
+	private void write(List<PostActivity> pending) {
+		jdbcTemplate.batchUpdate(UPDATE_SQL, pending, batchSize, (statement, activity) -> {
+			statement.setInt(1, activity.comments());
+			statement.setObject(2, activity.lastActivityAt().atOffset(ZoneOffset.UTC));
+			statement.setDouble(3, activity.hotActivity());
+			statement.setDouble(4, activity.hotActivity());
+			statement.setLong(5, activity.postId());
+		});
+	}
+}
@@ -8,13 +8,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.openclassrooms.mddapi.feature.idempotency.IdempotencyService;
+import com.openclassrooms.mddapi.feature.post.dto.CommentPageResponse;
 import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostResponse;
 import com.openclassrooms.mddapi.feature.post.dto.PostDetailResponse;
+import com.openclassrooms.mddapi.feature.post.dto.QueuedCommentResponse;
 import com.openclassrooms.mddapi.security.CurrentUserService;
 
 import jakarta.validation.Valid;
@@ -26,15 +31,25 @@ import lombok.RequiredArgsConstructor;
 public class PostController {
 
 	private final PostService postService;
+	private final CommentWriteBehindQueue commentQueue;
+	private final IdempotencyService idempotencyService;
 	private final CurrentUserService currentUserService;
 
+	/**
+	 * Creates a post. With an {@code Idempotency-Key} header, a retry gets the first response back instead of
+	 * creating the post again.
+	 */
 	@PostMapping
 	public ResponseEntity<CreatePostResponse> createPost(
 			@AuthenticationPrincipal Jwt jwt,
+			@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
 			@Valid @RequestBody CreatePostRequest request) {
 		long userId = currentUserService.getUserId(jwt);
-		CreatePostResponse response = postService.createPost(userId, request);
-		return ResponseEntity.status(HttpStatus.CREATED).body(response);
+		if (idempotencyKey == null) {
+			return createPost(userId, request);
+		}
+		return idempotencyService.execute(userId, idempotencyKey, "POST /api/posts", request,
+				CreatePostResponse.class, () -> createPost(userId, request));
 	}
 
 	@GetMapping("/{id}")
@@ -42,12 +57,41 @@ public class PostController {
 		return ResponseEntity.ok(postService.getPost(postId));
 	}
 
+	@GetMapping("/{id}/comments")
+	public ResponseEntity<CommentPageResponse> getComments(
+			@PathVariable("id") long postId,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		return ResponseEntity.ok(postService.getComments(postId, cursor, limit));
+	}
+
+	/**
+	 * Adds a comment: 201 once written, or 202 with the comment client id when comments are written behind. Accepts
+	 * an {@code Idempotency-Key} header like {@link #createPost}.
+	 */
 	@PostMapping("/{id}/comments")
-	public ResponseEntity<Void> addComment(
+	public ResponseEntity<QueuedCommentResponse> addComment(
 			@AuthenticationPrincipal Jwt jwt,
+			@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
 			@PathVariable("id") long postId,
 			@Valid @RequestBody CreateCommentRequest request) {
 		long userId = currentUserService.getUserId(jwt);
+		if (idempotencyKey == null) {
+			return addComment(userId, postId, request);
+		}
+		return idempotencyService.execute(userId, idempotencyKey, "POST /api/posts/" + postId + "/comments", request,
+				QueuedCommentResponse.class, () -> addComment(userId, postId, request));
+	}
+
+	private ResponseEntity<CreatePostResponse> createPost(long userId, CreatePostRequest request) {
+		CreatePostResponse response = postService.createPost(userId, request);
+		return ResponseEntity.status(HttpStatus.CREATED).body(response);
+	}
+
+	private ResponseEntity<QueuedCommentResponse> addComment(long userId, long postId, CreateCommentRequest request) {
+		if (commentQueue.enabled()) {
+			return ResponseEntity.accepted().body(commentQueue.enqueue(userId, postId, request));
+		}
 		postService.addComment(userId, postId, request);
 		return ResponseEntity.status(HttpStatus.CREATED).build();
 	}
@@ -0,0 +1,21 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link PostService#createPost} inside the creating transaction.
+ * <p>
+ * Carries the fields of the post so listeners do not need to reload it; feed listeners use {@code excerpt}, never
+ * {@code content}.
+ */
+public record PostCreatedEvent(
+		long postId,
+		long subjectId,
+		long authorId,
+		String authorUsername,
+		String title,
+		String content,
+		String excerpt,
+		Instant createdAt
+) {
+}
@@ -0,0 +1,203 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.feature.post.dto.CommentPageResponse;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
+import com.openclassrooms.mddapi.feature.post.dto.PostDetailResponse;
+import com.openclassrooms.mddapi.feature.reaction.ReactionChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and TTL-bounded cache of {@link PostDetailResponse}, keyed by post id.
+ * <p>
+ * A miss is loaded once per key: concurrent readers of the same post wait for the first reader's load instead of
+ * querying the database themselves. Committed comments are appended to the cached entry while its first page holds
+ * the whole thread, and committed reactions counted on it, rather than evicting it.
+ * <p>
+ * Those updates only come from writes made through this node. An entry thus expires {@code ttl} after it was loaded,
+ * however often it was updated since, which bounds how long comments and reactions made through another node stay
+ * invisible here: the TTL is kept to a few seconds.
+ * Hits, misses and evictions are exported under the {@code post.details} cache name.
+ */
+@Component
+public class PostDetailCache {
+
+	private static final Comparator<CommentResponse> COMMENT_ORDER =
+			Comparator.comparing(CommentResponse::createdAt).thenComparing(CommentResponse::id);
+
+	private final AsyncCache<Long, PostDetailResponse> cache;
+	private final boolean enabled;
+	private final int commentPageSize;
+
+	public PostDetailCache(PostProperties postProperties, MeterRegistry meterRegistry) {
+		PostProperties.DetailCache settings = postProperties.detailCache();
+		this.enabled = settings.enabled();
+		this.commentPageSize = postProperties.commentPageSize();
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(settings.maximumSize())
+				.expireAfter(Expiry.creating((Long postId, PostDetailResponse details) -> settings.ttl()))
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "post.details");
+	}
+
+	/**
+	 * Returns the details of a post, loading them on a miss.
+	 * <p>
+	 * The first caller for a missing key runs {@code loader} on its own thread, so within its own transaction
+	 * handling; concurrent callers block on that result. A failed load is rethrown to every waiter and not cached.
+	 *
+	 * @param postId the post id
+	 * @param loader loads the details from the database
+	 * @return the cached or freshly loaded details
+	 */
+	public PostDetailResponse get(long postId, Supplier<PostDetailResponse> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		CompletableFuture<PostDetailResponse> loading = new CompletableFuture<>();
+		CompletableFuture<PostDetailResponse> cached = cache.get(postId, (id, executor) -> loading);
+		if (cached != loading) {
+			return await(cached);
+		}
+		try {
+			PostDetailResponse details = loader.get();
+			loading.complete(details);
+			return details;
+		} catch (RuntimeException ex) {
+			loading.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Appends a comment to the cached entry of its post, if any.
+	 * <p>
+	 * The comment joins the embedded first page while that page holds the whole thread. Once the page is full the
+	 * entry is evicted: the comment may be past the page yet already counted by the load. An entry still loading is
+	 * evicted too, as its load may have read the thread before the comment was committed.
+	 *
+	 * @param postId  the post id
+	 * @param comment the committed comment
+	 */
+	public void appendComment(long postId, CommentResponse comment) {
+		cache.asMap().computeIfPresent(postId, (id, future) -> {
+			if (!future.isDone() || future.isCompletedExceptionally()) {
+				return null;
+			}
+			PostDetailResponse updated = withComment(future.join(), comment);
+			return updated == null ? null : CompletableFuture.completedFuture(updated);
+		});
+	}
+
+	/**
+	 * Changes the reaction count of a post, or of one of its comments if it is on the cached first page. An entry
+	 * still loading is evicted, like in {@link #appendComment(long, CommentResponse)}.
+	 *
+	 * @param postId   the post id
+	 * @param target   whether the post or one of its comments was reacted to
+	 * @param targetId the post or comment id
+	 * @param delta    reactions added, negative when removed
+	 */
+	public void applyReaction(long postId, ReactionTarget target, long targetId, int delta) {
+		cache.asMap().computeIfPresent(postId, (id, future) -> {
+			if (!future.isDone() || future.isCompletedExceptionally()) {
+				return null;
+			}
+			return CompletableFuture.completedFuture(withReaction(future.join(), target, targetId, delta));
+		});
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCommentAdded(CommentAddedEvent event) {
+		appendComment(event.postId(), event.comment());
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onReactionChanged(ReactionChangedEvent event) {
+		applyReaction(event.postId(), event.target(), event.targetId(), event.delta());
+	}
+
+	/**
+	 * @return the details with the comment, or null when the first page cannot tell whether it is already counted
+	 */
+	private PostDetailResponse withComment(PostDetailResponse details, CommentResponse comment) {
+		CommentPageResponse page = details.comments();
+		if (page.items().stream().anyMatch(item -> item.id().equals(comment.id()))) {
+			// Loaded after the commit: the comment is already counted.
+			return details;
+		}
+		if (page.nextCursor() != null || page.items().size() >= commentPageSize) {
+			return null;
+		}
+		List<CommentResponse> items = new ArrayList<>(page.items());
+		items.add(comment);
+		items.sort(COMMENT_ORDER);
+		CommentPageResponse updated = new CommentPageResponse(List.copyOf(items), null);
+		return new PostDetailResponse(
+				details.id(),
+				details.subject(),
+				details.title(),
+				details.content(),
+				details.author(),
+				details.createdAt(),
+				updated,
+				details.commentCount() + 1,
+				comment.createdAt().isAfter(details.lastActivityAt()) ? comment.createdAt() : details.lastActivityAt(),
+				details.reactionCount());
+	}
+
+	private static PostDetailResponse withReaction(PostDetailResponse details, ReactionTarget target, long targetId,
+			int delta) {
+		long reactionCount = details.reactionCount();
+		CommentPageResponse comments = details.comments();
+		if (target == ReactionTarget.post) {
+			reactionCount += delta;
+		} else {
+			comments = new CommentPageResponse(
+					comments.items().stream()
+							.map(comment -> comment.id() == targetId ? comment.withReactions(delta) : comment)
+							.toList(),
+					comments.nextCursor());
+		}
+		return new PostDetailResponse(
+				details.id(),
+				details.subject(),
+				details.title(),
+				details.content(),
+				details.author(),
+				details.createdAt(),
+				comments,
+				details.commentCount(),
+				details.lastActivityAt(),
+				reactionCount);
+	}
+
+	private static PostDetailResponse await(CompletableFuture<PostDetailResponse> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+}
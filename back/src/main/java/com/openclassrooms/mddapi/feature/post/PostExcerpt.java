@@ -0,0 +1,38 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import com.openclassrooms.mddapi.domain.Post;
+
+/**
+ * Builds the fixed-length preview stored in {@code post.excerpt} when a post is created. The {@code V17} migration
+ * keeps its own copy of this cut for posts older than the column.
+ */
+public final class PostExcerpt {
+
+	private static final char ELLIPSIS = '…';
+
+	private PostExcerpt() {
+	}
+
+	/**
+	 * Collapses whitespace and cuts the content to at most {@link Post#EXCERPT_LENGTH} characters, on a word
+	 * boundary when one is close enough, ending with an ellipsis when something was cut.
+	 *
+	 * @param content the full post content
+	 * @return the excerpt
+	 */
+	public static String of(String content) {
+		String normalized = content.strip().replaceAll("\\s+", " ");
+		if (normalized.length() <= Post.EXCERPT_LENGTH) {
+			return normalized;
+		}
+
+		int end = Post.EXCERPT_LENGTH - 1;
+		int lastSpace = normalized.lastIndexOf(' ', end);
+		if (lastSpace > end / 2) {
+			end = lastSpace;
+		} else if (Character.isHighSurrogate(normalized.charAt(end - 1))) {
+			end--;
+		}
+		return normalized.substring(0, end).stripTrailing() + ELLIPSIS;
+	}
+}
@@ -0,0 +1,75 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.exception.ForbiddenException;
+import com.openclassrooms.mddapi.feature.post.dto.ImportSummary;
+import com.openclassrooms.mddapi.security.CurrentUserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Bulk import of posts from other forums, only registered when {@code app.post.bulk-import.enabled} is true.
+ * <p>
+ * Lines name their author, so the endpoint is reserved to the users listed in {@code operator-ids}; anyone else gets
+ * a 403.
+ * <p>
+ * The request body is read line by line and the response is written as it goes: one {@code ImportLineResult} per
+ * input line, then the {@link ImportSummary}, all as NDJSON.
+ */
+@RestController
+@RequestMapping("/api/posts/import")
+@ConditionalOnProperty(prefix = "app.post.bulk-import", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PostImportController {
+
+	private final PostImportService postImportService;
+	private final CurrentUserService currentUserService;
+	private final PostProperties postProperties;
+	private final JsonMapper jsonMapper;
+
+	@PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void importPosts(@AuthenticationPrincipal Jwt jwt, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		List<Long> operatorIds = postProperties.bulkImport().operatorIds();
+		if (operatorIds == null || !operatorIds.contains(currentUserService.getUserId(jwt))) {
+			throw new ForbiddenException("Import réservé aux opérateurs");
+		}
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		Writer out = response.getWriter();
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+
+		ImportSummary summary = postImportService.importPosts(reader, result -> writeLine(out, result));
+		writeLine(out, summary);
+		out.flush();
+	}
+
+	private void writeLine(Writer out, Object value) {
+		try {
+			out.write(jsonMapper.writeValueAsString(value));
+			out.write('\n');
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
@@ -0,0 +1,330 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.feature.post.PostImportWriter.CommentRow;
+import com.openclassrooms.mddapi.feature.post.PostImportWriter.PostRow;
+import com.openclassrooms.mddapi.feature.post.dto.ImportCommentLine;
+import com.openclassrooms.mddapi.feature.post.dto.ImportLineResult;
+import com.openclassrooms.mddapi.feature.post.dto.ImportPostLine;
+import com.openclassrooms.mddapi.feature.post.dto.ImportSummary;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Imports posts and their comments from an NDJSON stream, one post per line.
+ * <p>
+ * Lines are read in chunks of {@code app.post.bulk-import.chunk-size}; each chunk resolves its unknown subjects and
+ * authors with one query each (resolved references are kept for the following chunks), then inserts its valid lines
+ * through {@link PostImportWriter} and commits. A rejected line never fails its chunk; a chunk the database refuses is
+ * rolled back and reported line by line, and the import goes on with the next one. Inserted rows are counted as
+ * {@code post.import.rows} (tagged {@code post} or {@code comment}) and rejected lines as
+ * {@code post.import.rejected}.
+ */
+@Service
+public class PostImportService {
+
+	private static final String INVALID_LINE = "Ligne invalide";
+	private static final String INVALID_FIELDS = "Champs invalides : ";
+	private static final String SUBJECT_NOT_FOUND = "Thème introuvable";
+	private static final String USER_NOT_FOUND = "Utilisateur introuvable";
+	private static final String CHUNK_FAILED = "Lot rejeté par la base de données";
+
+	private final SubjectRepository subjectRepository;
+	private final UserRepository userRepository;
+	private final PostImportWriter writer;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final JsonMapper jsonMapper;
+	private final Validator validator;
+	private final int chunkSize;
+	private final Counter importedPosts;
+	private final Counter importedComments;
+	private final Counter rejectedLines;
+
+	public PostImportService(
+			SubjectRepository subjectRepository,
+			UserRepository userRepository,
+			PostImportWriter writer,
+			ApplicationEventPublisher eventPublisher,
+			PlatformTransactionManager transactionManager,
+			JsonMapper jsonMapper,
+			Validator validator,
+			PostProperties postProperties,
+			MeterRegistry meterRegistry) {
+		this.subjectRepository = subjectRepository;
+		this.userRepository = userRepository;
+		this.writer = writer;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.jsonMapper = jsonMapper;
+		this.validator = validator;
+		this.chunkSize = postProperties.bulkImport().chunkSize();
+		this.importedPosts = Counter.builder("post.import.rows").tag("type", "post").register(meterRegistry);
+		this.importedComments = Counter.builder("post.import.rows").tag("type", "comment").register(meterRegistry);
+		this.rejectedLines = Counter.builder("post.import.rejected").register(meterRegistry);
+	}
+
+	/**
+	 * Imports every line of the stream. Blank lines are skipped but still counted in line numbers.
+	 *
+	 * @param reader  the NDJSON input
+	 * @param results receives one result per non-blank line, in input order, once its chunk is committed
+	 * @return the import totals and throughput
+	 * @throws IOException if the input cannot be read
+	 */
+	public ImportSummary importPosts(BufferedReader reader, Consumer<ImportLineResult> results) throws IOException {
+		long start = System.nanoTime();
+		Totals totals = new Totals();
+		References references = new References();
+		List<ParsedLine> chunk = new ArrayList<>(chunkSize);
+		long lineNumber = 0;
+		String text;
+		while ((text = reader.readLine()) != null) {
+			lineNumber++;
+			if (text.isBlank()) {
+				continue;
+			}
+			chunk.add(parse(lineNumber, text));
+			if (chunk.size() == chunkSize) {
+				importChunk(chunk, references, totals, results);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, references, totals, results);
+		}
+
+		long elapsedNanos = System.nanoTime() - start;
+		double rowsPerSecond = elapsedNanos == 0 ? 0 : (totals.posts + totals.comments) * 1e9 / elapsedNanos;
+		return new ImportSummary(totals.posts, totals.comments, totals.rejected, elapsedNanos / 1_000_000,
+				rowsPerSecond);
+	}
+
+	private ParsedLine parse(long line, String text) {
+		ImportPostLine post;
+		try {
+			post = jsonMapper.readValue(text, ImportPostLine.class);
+		} catch (JacksonException ex) {
+			return ParsedLine.rejected(line, INVALID_LINE);
+		}
+		if (post == null) {
+			return ParsedLine.rejected(line, INVALID_LINE);
+		}
+		Set<ConstraintViolation<ImportPostLine>> violations = validator.validate(post);
+		if (!violations.isEmpty()) {
+			return ParsedLine.rejected(line, INVALID_FIELDS + violations.stream()
+					.map(violation -> violation.getPropertyPath().toString())
+					.sorted()
+					.distinct()
+					.collect(Collectors.joining(", ")));
+		}
+		return new ParsedLine(line, post, null);
+	}
+
+	private void importChunk(
+			List<ParsedLine> chunk,
+			References references,
+			Totals totals,
+			Consumer<ImportLineResult> results) {
+		ImportLineResult[] outcomes = new ImportLineResult[chunk.size()];
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				references.resolve(chunk);
+				List<Integer> accepted = new ArrayList<>();
+				List<PostRow> rows = new ArrayList<>();
+				Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+				Set<Long> subjectIds = new HashSet<>();
+				for (int i = 0; i < chunk.size(); i++) {
+					ParsedLine parsed = chunk.get(i);
+					String error = parsed.error() != null ? parsed.error() : references.check(parsed.post());
+					if (error != null) {
+						outcomes[i] = ImportLineResult.rejected(parsed.line(), error);
+						continue;
+					}
+					accepted.add(i);
+					rows.add(toRow(parsed.post(), references, now));
+					subjectIds.add(parsed.post().subjectId());
+				}
+				if (rows.isEmpty()) {
+					return;
+				}
+				List<Long> ids = writer.write(rows);
+				List<PostsImportedEvent.ImportedPost> imported = new ArrayList<>(ids.size());
+				for (int k = 0; k < ids.size(); k++) {
+					int i = accepted.get(k);
+					PostRow row = rows.get(k);
+					outcomes[i] = ImportLineResult.imported(chunk.get(i).line(), ids.get(k), row.comments().size());
+					imported.add(new PostsImportedEvent.ImportedPost(
+							ids.get(k), row.subjectId(), row.title(), row.content(), row.simhash()));
+				}
+				eventPublisher.publishEvent(new PostsImportedEvent(subjectIds, imported));
+			});
+		} catch (DataAccessException ex) {
+			// Rolled back: lines already rejected keep their own reason.
+			for (int i = 0; i < outcomes.length; i++) {
+				if (outcomes[i] == null || outcomes[i].error() == null) {
+					outcomes[i] = ImportLineResult.rejected(chunk.get(i).line(), CHUNK_FAILED);
+				}
+			}
+		}
+
+		for (ImportLineResult outcome : outcomes) {
+			if (outcome.error() != null) {
+				totals.rejected++;
+				rejectedLines.increment();
+			} else {
+				totals.posts++;
+				totals.comments += outcome.comments();
+				importedPosts.increment();
+				importedComments.increment(outcome.comments());
+			}
+			results.accept(outcome);
+		}
+	}
+
+	private static PostRow toRow(ImportPostLine post, References references, Instant now) {
+		Instant createdAt = orNow(post.createdAt(), now);
+		double hotScore = HotScore.at(createdAt);
+		Instant lastActivityAt = createdAt;
+		List<CommentRow> comments = new ArrayList<>();
+		for (ImportCommentLine comment : comments(post)) {
+			Instant commentedAt = orNow(comment.createdAt(), now);
+			comments.add(new CommentRow(0, references.authorId(comment.author()), comment.content(), commentedAt));
+			hotScore = HotScore.combine(hotScore, HotScore.at(commentedAt));
+			if (commentedAt.isAfter(lastActivityAt)) {
+				lastActivityAt = commentedAt;
+			}
+		}
+		return new PostRow(
+				post.subjectId(),
+				references.authorId(post.author()),
+				post.title(),
+				post.content(),
+				PostExcerpt.of(post.content()),
+				SimHash.of(post.title(), post.content()),
+				hotScore,
+				lastActivityAt,
+				createdAt,
+				comments);
+	}
+
+	private static Instant orNow(Instant instant, Instant now) {
+		return instant == null ? now : instant.truncatedTo(ChronoUnit.MICROS);
+	}
+
+	private static List<ImportCommentLine> comments(ImportPostLine post) {
+		return post.comments() == null ? List.of() : post.comments();
+	}
+
+	private static String usernameKey(String username) {
+		return username.toLowerCase(Locale.ROOT);
+	}
+
+	private record ParsedLine(long line, ImportPostLine post, String error) {
+
+		static ParsedLine rejected(long line, String error) {
+			return new ParsedLine(line, null, error);
+		}
+	}
+
+	private static final class Totals {
+		long posts;
+		long comments;
+		long rejected;
+	}
+
+	/**
+	 * Subjects and authors already looked up during this import, found or not.
+	 */
+	private final class References {
+
+		private final Map<Long, Boolean> subjects = new HashMap<>();
+		private final Map<String, Long> authorIds = new HashMap<>();
+
+		/**
+		 * Looks up, with one query per kind, the subjects and authors of the chunk not seen in earlier chunks.
+		 */
+		void resolve(Collection<ParsedLine> chunk) {
+			Set<Long> unknownSubjects = new HashSet<>();
+			Set<String> unknownAuthors = new HashSet<>();
+			for (ParsedLine parsed : chunk) {
+				if (parsed.post() == null) {
+					continue;
+				}
+				if (!subjects.containsKey(parsed.post().subjectId())) {
+					unknownSubjects.add(parsed.post().subjectId());
+				}
+				addIfUnknown(unknownAuthors, parsed.post().author());
+				comments(parsed.post()).forEach(comment -> addIfUnknown(unknownAuthors, comment.author()));
+			}
+
+			if (!unknownSubjects.isEmpty()) {
+				unknownSubjects.forEach(subjectId -> subjects.put(subjectId, false));
+				for (Subject subject : subjectRepository.findAllById(unknownSubjects)) {
+					subjects.put(subject.getId(), true);
+				}
+			}
+			if (!unknownAuthors.isEmpty()) {
+				unknownAuthors.forEach(username -> authorIds.put(username, null));
+				for (User user : userRepository.findAllByLowerUsernameIn(unknownAuthors)) {
+					authorIds.put(usernameKey(user.getUsername()), user.getId());
+				}
+			}
+		}
+
+		/**
+		 * @return the reason the post cannot be imported, or null if every reference exists
+		 */
+		String check(ImportPostLine post) {
+			if (!subjects.get(post.subjectId())) {
+				return SUBJECT_NOT_FOUND;
+			}
+			if (authorId(post.author()) == null
+					|| comments(post).stream().anyMatch(comment -> authorId(comment.author()) == null)) {
+				return USER_NOT_FOUND;
+			}
+			return null;
+		}
+
+		Long authorId(String username) {
+			return authorIds.get(usernameKey(username));
+		}
+
+		private void addIfUnknown(Set<String> unknown, String username) {
+			String key = usernameKey(username);
+			if (!authorIds.containsKey(key)) {
+				unknown.add(key);
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.repository.UserTimelineRepository;
+
+/**
+ * Inserts imported posts and comments with plain JDBC batches, bypassing the persistence context.
+ * <p>
+ * {@code post} and {@code comment} ids are {@code AUTO_INCREMENT}, which rules out Hibernate insert batching: the
+ * ids of a whole post batch are instead read back from the batch generated keys, one round trip per batch, so the
+ * comments can reference their post without any lookup. Must run inside a transaction.
+ */
+@Component
+class PostImportWriter {
+
+	private static final String POST_SQL = """
+			insert into post (subject_id, author_id, title, content, excerpt, hot_score, comment_count,
+				last_activity_at, created_at, simhash)
+			values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+
+	private static final String COMMENT_SQL = """
+			insert into comment (post_id, author_id, content, created_at)
+			values (?, ?, ?, ?)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final UserTimelineRepository userTimelineRepository;
+	private final ContentCodecRegistry codecs;
+	private final int batchSize;
+
+	PostImportWriter(
+			JdbcTemplate jdbcTemplate,
+			UserTimelineRepository userTimelineRepository,
+			ContentCodecRegistry codecs,
+			PostProperties postProperties) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.userTimelineRepository = userTimelineRepository;
+		this.codecs = codecs;
+		this.batchSize = postProperties.bulkImport().batchSize();
+	}
+
+	/**
+	 * Inserts the posts, then their comments, then copies the posts into their subscribers' timelines.
+	 *
+	 * @param posts posts to insert, with their comments
+	 * @return the generated post ids, in input order
+	 */
+	List<Long> write(List<PostRow> posts) {
+		List<Long> ids = new ArrayList<>(posts.size());
+		for (int from = 0; from < posts.size(); from += batchSize) {
+			List<PostRow> batch = posts.subList(from, Math.min(from + batchSize, posts.size()));
+			List<Long> batchIds = insertPosts(batch);
+			userTimelineRepository.fanOutAll(batchIds);
+			ids.addAll(batchIds);
+		}
+
+		List<CommentRow> comments = new ArrayList<>();
+		for (int i = 0; i < posts.size(); i++) {
+			long postId = ids.get(i);
+			posts.get(i).comments().forEach(comment -> comments.add(comment.withPostId(postId)));
+		}
+		jdbcTemplate.batchUpdate(COMMENT_SQL, comments, batchSize, (statement, comment) -> {
+			statement.setLong(1, comment.postId());
+			statement.setLong(2, comment.authorId());
+			statement.setBytes(3, codecs.codec().encode(comment.content()));
+			statement.setObject(4, utc(comment.createdAt()));
+		});
+		return ids;
+	}
+
+	private List<Long> insertPosts(List<PostRow> batch) {
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(
+				connection -> connection.prepareStatement(POST_SQL, new String[] {"id"}),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement statement, int i) throws SQLException {
+						PostRow post = batch.get(i);
+						statement.setLong(1, post.subjectId());
+						statement.setLong(2, post.authorId());
+						statement.setString(3, post.title());
+						statement.setBytes(4, codecs.codec().encode(post.content()));
+						statement.setString(5, post.excerpt());
+						statement.setDouble(6, post.hotScore());
+						statement.setInt(7, post.comments().size());
+						statement.setObject(8, utc(post.lastActivityAt()));
+						statement.setObject(9, utc(post.createdAt()));
+						statement.setLong(10, post.simhash());
+					}
+
+					@Override
+					public int getBatchSize() {
+						return batch.size();
+					}
+				},
+				keys);
+
+		List<Map<String, Object>> generated = keys.getKeyList();
+		if (generated.size() != batch.size()) {
+			throw new IllegalStateException(
+					"Expected " + batch.size() + " generated post ids, got " + generated.size());
+		}
+		return generated.stream()
+				.map(key -> ((Number) key.values().iterator().next()).longValue())
+				.toList();
+	}
+
+	private static Object utc(Instant instant) {
+		return instant.atOffset(ZoneOffset.UTC);
+	}
+
+	/**
+	 * A post ready to be inserted: references resolved, excerpt, fingerprint and hot score computed.
+	 */
+	record PostRow(
+			long subjectId,
+			long authorId,
+			String title,
+			String content,
+			String excerpt,
+			long simhash,
+			double hotScore,
+			Instant lastActivityAt,
+			Instant createdAt,
+			List<CommentRow> comments) {
+	}
+
+	/**
+	 * A comment ready to be inserted; {@code postId} is only known once its post is.
+	 */
+	record CommentRow(long postId, long authorId, String content, Instant createdAt) {
+
+		CommentRow withPostId(long postId) {
+			return new CommentRow(postId, authorId, content, createdAt);
+		}
+	}
+}
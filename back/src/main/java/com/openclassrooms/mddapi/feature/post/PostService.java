@@ -1,91 +1,178 @@
 package com.openclassrooms.mddapi.feature.post;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.OptionalLong;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.openclassrooms.mddapi.config.PostProperties;
 import com.openclassrooms.mddapi.domain.Comment;
 import com.openclassrooms.mddapi.domain.Post;
-import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
 import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.exception.ConflictException;
 import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.feed.FeedCursor;
+import com.openclassrooms.mddapi.feature.post.dto.CommentPageResponse;
 import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
 import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostResponse;
 import com.openclassrooms.mddapi.feature.post.dto.PostDetailResponse;
 import com.openclassrooms.mddapi.feature.post.dto.PostSubjectResponse;
+import com.openclassrooms.mddapi.feature.reaction.ReactionCounters;
+import com.openclassrooms.mddapi.feature.subject.SubjectCatalog;
 import com.openclassrooms.mddapi.repository.CommentRepository;
 import com.openclassrooms.mddapi.repository.PostRepository;
 import com.openclassrooms.mddapi.repository.SubjectRepository;
 import com.openclassrooms.mddapi.repository.UserRepository;
 
-import lombok.RequiredArgsConstructor;
-
 /**
  * Handles post creation and comment management.
  */
 @Service
-@RequiredArgsConstructor
 public class PostService {
 
 	private final PostRepository postRepository;
 	private final SubjectRepository subjectRepository;
+	private final SubjectCatalog subjectCatalog;
 	private final UserRepository userRepository;
 	private final CommentRepository commentRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PostDetailCache postDetailCache;
+	private final PostActivityCounters activityCounters;
+	private final ReactionCounters reactionCounters;
+	private final NearDuplicateDetector nearDuplicates;
+	private final TransactionTemplate readOnlyTransaction;
+	private final PostProperties postProperties;
+
+	public PostService(
+			PostRepository postRepository,
+			SubjectRepository subjectRepository,
+			SubjectCatalog subjectCatalog,
+			UserRepository userRepository,
+			CommentRepository commentRepository,
+			ApplicationEventPublisher eventPublisher,
+			PostDetailCache postDetailCache,
+			PostActivityCounters activityCounters,
+			ReactionCounters reactionCounters,
+			NearDuplicateDetector nearDuplicates,
+			PlatformTransactionManager transactionManager,
+			PostProperties postProperties) {
+		this.postRepository = postRepository;
+		this.subjectRepository = subjectRepository;
+		this.subjectCatalog = subjectCatalog;
+		this.userRepository = userRepository;
+		this.commentRepository = commentRepository;
+		this.eventPublisher = eventPublisher;
+		this.postDetailCache = postDetailCache;
+		this.activityCounters = activityCounters;
+		this.reactionCounters = reactionCounters;
+		this.nearDuplicates = nearDuplicates;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.postProperties = postProperties;
+	}
 
 	/**
-	 * Creates a new post for the given subject and author: both must exist.
+	 * Creates a new post for the given subject and author: both must exist. The subject is checked against
+	 * {@link SubjectCatalog}, without a query.
+	 * <p>
+	 * The feed excerpt is computed here once, so feed reads never touch the content column.
+	 * <p>
+	 * Near-duplicates of an existing post are rejected or flagged depending on configuration, see
+	 * {@link NearDuplicateDetector}.
+	 * <p>
+	 * Publishes a {@link PostCreatedEvent} so subscriber timelines and feed caches are updated once the transaction
+	 * commits.
 	 *
 	 * @param userId  the authenticated user id
 	 * @param request post creation payload
 	 * @return the created post id
 	 * @throws NotFoundException if the subject or user does not exist
+	 * @throws ConflictException if the post nearly duplicates an existing one and duplicates are rejected
 	 */
 	@Transactional
 	public CreatePostResponse createPost(long userId, CreatePostRequest request) {
-		Subject subject = subjectRepository.findById(request.subjectId())
+		SubjectCatalog.Entry subject = subjectCatalog.find(request.subjectId())
 				.orElseThrow(() -> new NotFoundException("Thème introuvable"));
 		User author = userRepository.findById(userId)
 				.orElseThrow(() -> new NotFoundException("Utilisateur introuvable"));
 
-		Post saved = postRepository.save(new Post(subject, author, request.title(), request.content()));
+		long simhash = SimHash.of(request.title(), request.content());
+		OptionalLong duplicateOf = nearDuplicates.check(simhash);
+
+		Post post = new Post(
+				subjectRepository.getReferenceById(subject.id()),
+				author,
+				request.title(),
+				request.content(),
+				PostExcerpt.of(request.content()));
+		post.setHotScore(HotScore.at(Instant.now()));
+		post.setSimhash(simhash);
+		duplicateOf.ifPresent(post::setDuplicateOf);
+		Post saved = postRepository.save(post);
+		eventPublisher.publishEvent(new PostCreatedEvent(
+				saved.getId(),
+				subject.id(),
+				author.getId(),
+				author.getUsername(),
+				saved.getTitle(),
+				saved.getContent(),
+				saved.getExcerpt(),
+				saved.getCreatedAt()));
 		return new CreatePostResponse(saved.getId());
 	}
 
 	/**
-	 * Loads a post with its author, subject, and comments.
+	 * Returns a post with its author, subject, the first page of comments, the total comment count and the reaction
+	 * counts. The subject name comes from {@link SubjectCatalog}.
+	 * <p>
+	 * Served from {@link PostDetailCache}; a miss is loaded in a read-only transaction, once per post however many
+	 * readers are waiting. Further comments are read through {@link #getComments(long, String, Integer)} with the
+	 * returned cursor.
 	 *
 	 * @param postId the post id
-	 * @return post details including comments
+	 * @return post details including the first comment page
 	 * @throws NotFoundException if the post does not exist
 	 */
-	@Transactional(readOnly = true)
 	public PostDetailResponse getPost(long postId) {
-		Post post = postRepository.findByIdWithAuthorAndSubject(postId)
-				.orElseThrow(() -> new NotFoundException("Article introuvable"));
-
-		List<CommentResponse> comments = commentRepository.findByPostIdWithAuthor(postId).stream()
-				.map(comment -> new CommentResponse(
-						comment.getId(),
-						comment.getContent(),
-						comment.getAuthor().getUsername(),
-						comment.getCreatedAt()))
-				.toList();
+		return postDetailCache.get(postId, () -> readOnlyTransaction.execute(status -> loadPost(postId)));
+	}
 
-		return new PostDetailResponse(
-				post.getId(),
-				new PostSubjectResponse(post.getSubject().getId(), post.getSubject().getName()),
-				post.getTitle(),
-				post.getContent(),
-				post.getAuthor().getUsername(),
-				post.getCreatedAt(),
-				comments);
+	/**
+	 * Returns one page of a post's comments, oldest first, using a keyset seek on {@code (createdAt, id)}.
+	 *
+	 * @param postId the post id
+	 * @param cursor opaque cursor from a previous page, or null for the first page
+	 * @param limit  requested page size, or null for the default (capped at the configured maximum)
+	 * @return the page and the cursor of the next one ({@code null} on the last page)
+	 * @throws BadRequestException if the cursor is malformed
+	 * @throws NotFoundException   if the post does not exist
+	 */
+	@Transactional(readOnly = true)
+	public CommentPageResponse getComments(long postId, String cursor, Integer limit) {
+		FeedCursor position = FeedCursor.decode(cursor);
+		CommentPageResponse page = loadComments(postId, position, resolveCommentPageSize(limit));
+		if (page.items().isEmpty() && !postRepository.existsById(postId)) {
+			throw new NotFoundException("Article introuvable");
+		}
+		return page;
 	}
 
 	/**
 	 * Adds a comment to a post by a given user.
+	 * <p>
+	 * Publishes a {@link CommentAddedEvent}: once the transaction commits, the cached post details are appended to and
+	 * the comment is counted in {@link PostActivityCounters}, which batch the comment count, last activity date and
+	 * hot score updates of the post row instead of locking it here.
 	 *
 	 * @param userId  the authenticated user id
 	 * @param postId  the post id
@@ -94,11 +181,67 @@ public class PostService {
 	 */
 	@Transactional
 	public void addComment(long userId, long postId, CreateCommentRequest request) {
-		Post post = postRepository.findById(postId)
+		// Only the subject id is read: loading the post would decode its whole body for nothing.
+		long subjectId = postRepository.findSubjectIdById(postId)
 				.orElseThrow(() -> new NotFoundException("Article introuvable"));
 		User author = userRepository.findById(userId)
 				.orElseThrow(() -> new NotFoundException("Utilisateur introuvable"));
 
-		commentRepository.save(new Comment(post, author, request.content()));
+		Comment saved = commentRepository.save(
+				new Comment(postRepository.getReferenceById(postId), author, request.content()));
+		eventPublisher.publishEvent(new CommentAddedEvent(postId, subjectId, new CommentResponse(
+				saved.getId(),
+				saved.getContent(),
+				author.getUsername(),
+				saved.getCreatedAt(),
+				0)));
+	}
+
+	private PostDetailResponse loadPost(long postId) {
+		Post post = postRepository.findByIdWithAuthor(postId)
+				.orElseThrow(() -> new NotFoundException("Article introuvable"));
+		long subjectId = post.getSubject().getId();
+		// Comments and reactions committed since the last flush are not on the rows yet.
+		PostActivity pending = activityCounters.pending(postId);
+
+		return new PostDetailResponse(
+				post.getId(),
+				new PostSubjectResponse(subjectId, subjectCatalog.find(subjectId)
+						.map(SubjectCatalog.Entry::name)
+						.orElseThrow(() -> new IllegalStateException("Unknown subject " + subjectId))),
+				post.getTitle(),
+				post.getContent(),
+				post.getAuthor().getUsername(),
+				post.getCreatedAt(),
+				loadComments(postId, null, postProperties.commentPageSize()),
+				post.getCommentCount() + (pending == null ? 0 : pending.comments()),
+				pending == null || post.getLastActivityAt().isAfter(pending.lastActivityAt())
+						? post.getLastActivityAt()
+						: pending.lastActivityAt(),
+				post.getReactionCount() + reactionCounters.pending(ReactionTarget.post, postId));
+	}
+
+	private CommentPageResponse loadComments(long postId, FeedCursor position, int pageSize) {
+		Limit fetchLimit = Limit.of(pageSize + 1);
+		List<CommentResponse> fetched = position == null
+				? commentRepository.findPage(postId, fetchLimit)
+				: commentRepository.findPageAfter(postId, position.createdAt(), position.id(), fetchLimit);
+		List<CommentResponse> items = fetched.stream()
+				.limit(pageSize)
+				.map(comment -> comment.withReactions(
+						(int) reactionCounters.pending(ReactionTarget.comment, comment.id())))
+				.toList();
+		if (fetched.size() <= pageSize) {
+			return new CommentPageResponse(items, null);
+		}
+		CommentResponse last = items.getLast();
+		return new CommentPageResponse(items, new FeedCursor(last.createdAt(), last.id()).encode());
+	}
+
+	private int resolveCommentPageSize(Integer limit) {
+		if (limit == null) {
+			return postProperties.commentPageSize();
+		}
+		return Math.clamp(limit, 1, postProperties.maxCommentPageSize());
 	}
 }
@@ -0,0 +1,22 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published once per committed bulk import chunk, instead of one {@link PostCreatedEvent} per post: imported posts
+ * are history, so they are neither streamed to connected clients nor fanned out one by one.
+ *
+ * @param subjectIds subjects that received posts
+ * @param posts      the posts of the chunk, so listeners need not read them back
+ */
+public record PostsImportedEvent(Set<Long> subjectIds, List<ImportedPost> posts) {
+
+	/**
+	 * An imported post; its comments are in the {@code comment} table under its id.
+	 *
+	 * @param simhash the {@link SimHash} stored in {@code post.simhash}
+	 */
+	public record ImportedPost(long id, long subjectId, String title, String content, long simhash) {
+	}
+}
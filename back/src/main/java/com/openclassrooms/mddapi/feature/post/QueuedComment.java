@@ -0,0 +1,11 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A validated comment waiting in {@link CommentWriteBehindQueue}. Its date is the acknowledgement date, so comment
+ * order follows request order rather than write order.
+ */
+record QueuedComment(UUID clientId, long postId, long subjectId, long authorId, String content, Instant createdAt) {
+}
@@ -0,0 +1,95 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 64-bit SimHash of a post: similar texts get fingerprints a few bits apart.
+ * <p>
+ * Text is lowercased, stripped of accents and split into words; each pair of consecutive words votes on the 64 bits
+ * with its own hash, and each bit of the fingerprint is the majority vote. Editing a few words only changes the votes
+ * of the pairs they belong to, so near-duplicates differ in few bits, measured by {@link #distance(long, long)}.
+ * Pairs rather than single words keep unrelated posts apart even when they share their vocabulary: they typically
+ * differ in 20 bits or more, while a one-word edit of a hundred-word post usually moves 7 or fewer.
+ */
+final class SimHash {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private SimHash() {
+	}
+
+	static long of(String title, String content) {
+		List<Long> words = words(title + ' ' + content);
+		if (words.isEmpty()) {
+			return 0;
+		}
+		int[] votes = new int[Long.SIZE];
+		if (words.size() == 1) {
+			vote(votes, mix(words.getFirst()));
+		}
+		for (int i = 1; i < words.size(); i++) {
+			vote(votes, mix(words.get(i - 1) * 31 + words.get(i)));
+		}
+		long fingerprint = 0;
+		for (int bit = 0; bit < Long.SIZE; bit++) {
+			if (votes[bit] > 0) {
+				fingerprint |= 1L << bit;
+			}
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * @return the number of differing bits
+	 */
+	static int distance(long a, long b) {
+		return Long.bitCount(a ^ b);
+	}
+
+	private static void vote(int[] votes, long hash) {
+		for (int bit = 0; bit < Long.SIZE; bit++) {
+			votes[bit] += (hash >>> bit & 1) == 1 ? 1 : -1;
+		}
+	}
+
+	/**
+	 * @return the FNV-1a hash of each word
+	 */
+	private static List<Long> words(String text) {
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+		List<Long> words = new ArrayList<>();
+		long hash = FNV_OFFSET;
+		boolean inWord = false;
+		for (int i = 0; i < normalized.length(); i++) {
+			char c = normalized.charAt(i);
+			if (Character.getType(c) == Character.NON_SPACING_MARK) {
+				continue;
+			}
+			if (Character.isLetterOrDigit(c)) {
+				hash = (hash ^ c) * FNV_PRIME;
+				inWord = true;
+			} else if (inWord) {
+				words.add(hash);
+				hash = FNV_OFFSET;
+				inWord = false;
+			}
+		}
+		if (inWord) {
+			words.add(hash);
+		}
+		return words;
+	}
+
+	/**
+	 * Finalizer of SplitMix64: spreads FNV hashes, whose high bits vary little for short words, over all 64 bits.
+	 */
+	private static long mix(long hash) {
+		hash = (hash ^ hash >>> 30) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ hash >>> 27) * 0x94d049bb133111ebL;
+		return hash ^ hash >>> 31;
+	}
+}
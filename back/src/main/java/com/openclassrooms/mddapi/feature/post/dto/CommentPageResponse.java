@@ -0,0 +1,6 @@
+package com.openclassrooms.mddapi.feature.post.dto;
+
+import java.util.List;
+
+public record CommentPageResponse(List<CommentResponse> items, String nextCursor) {
+}
@@ -2,5 +2,15 @@ package com.openclassrooms.mddapi.feature.post.dto;
 
 import java.time.Instant;
 
-public record CommentResponse(Long id, String content, String author, Instant createdAt) {
+public record CommentResponse(Long id, String content, String author, Instant createdAt, int reactionCount) {
+
+	/**
+	 * Returns this comment with its reaction count changed.
+	 *
+	 * @param delta reactions added (negative when removed)
+	 * @return the updated comment
+	 */
+	public CommentResponse withReactions(int delta) {
+		return delta == 0 ? this : new CommentResponse(id, content, author, createdAt, reactionCount + delta);
+	}
 }
@@ -0,0 +1,12 @@
+package com.openclassrooms.mddapi.feature.post.dto;
+
+import java.time.Instant;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ImportCommentLine(
+		@NotBlank String author,
+		@NotBlank String content,
+		Instant createdAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.openclassrooms.mddapi.feature.post.dto;
+
+/**
+ * Outcome of one import line: the created post id and comment count, or the reason the line was rejected.
+ */
+public record ImportLineResult(long line, Long postId, int comments, String error) {
+
+	public static ImportLineResult imported(long line, long postId, int comments) {
+		return new ImportLineResult(line, postId, comments, null);
+	}
+
+	public static ImportLineResult rejected(long line, String error) {
+		return new ImportLineResult(line, null, 0, error);
+	}
+}
@@ -0,0 +1,23 @@
+package com.openclassrooms.mddapi.feature.post.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One line of a bulk import: a post and its comments. Authors are referenced by username; missing dates default to
+ * the import time.
+ */
+public record ImportPostLine(
+		@NotNull Long subjectId,
+		@NotBlank String author,
+		@NotBlank @Size(max = 255) String title,
+		@NotBlank String content,
+		Instant createdAt,
+		List<@Valid @NotNull ImportCommentLine> comments
+) {
+}
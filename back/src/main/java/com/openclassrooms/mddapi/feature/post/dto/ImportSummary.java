@@ -0,0 +1,13 @@
+package com.openclassrooms.mddapi.feature.post.dto;
+
+/**
+ * Totals of a bulk import, written as the last line of the result stream.
+ *
+ * @param posts         imported posts
+ * @param comments      imported comments
+ * @param rejected      rejected lines
+ * @param elapsedMillis wall-clock duration of the import
+ * @param rowsPerSecond inserted post and comment rows per second
+ */
+public record ImportSummary(long posts, long comments, long rejected, long elapsedMillis, double rowsPerSecond) {
+}
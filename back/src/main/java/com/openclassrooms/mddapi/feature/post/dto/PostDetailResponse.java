@@ -1,7 +1,6 @@
 package com.openclassrooms.mddapi.feature.post.dto;
 
 import java.time.Instant;
-import java.util.List;
 
 public record PostDetailResponse(
 		Long id,
@@ -10,6 +9,9 @@ public record PostDetailResponse(
 		String content,
 		String author,
 		Instant createdAt,
-		List<CommentResponse> comments
+		CommentPageResponse comments,
+		long commentCount,
+		Instant lastActivityAt,
+		long reactionCount
 ) {
 }
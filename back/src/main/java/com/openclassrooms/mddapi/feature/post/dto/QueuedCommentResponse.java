@@ -0,0 +1,7 @@
+package com.openclassrooms.mddapi.feature.post.dto;
+
+/**
+ * Acknowledgement of a comment accepted for write-behind; {@code id} is stored with the comment once written.
+ */
+public record QueuedCommentResponse(String id, long postId) {
+}
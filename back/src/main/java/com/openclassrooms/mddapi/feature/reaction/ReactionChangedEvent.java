@@ -0,0 +1,15 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+
+/**
+ * Published by {@link ReactionService} inside the transaction that added or removed a reaction.
+ *
+ * @param target    kind of content reacted to
+ * @param targetId  id of the post or comment
+ * @param postId    the post, or the post of the comment
+ * @param subjectId the subject of the post
+ * @param delta     1 for an added reaction, -1 for a removed one
+ */
+public record ReactionChangedEvent(ReactionTarget target, long targetId, long postId, long subjectId, int delta) {
+}
@@ -0,0 +1,58 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.openclassrooms.mddapi.feature.reaction.dto.ReactionStatusResponse;
+import com.openclassrooms.mddapi.security.CurrentUserService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/posts/{id}")
+@RequiredArgsConstructor
+public class ReactionController {
+
+	private final ReactionService reactionService;
+	private final CurrentUserService currentUserService;
+
+	@PostMapping("/reaction")
+	public ResponseEntity<ReactionStatusResponse> addPostReaction(
+			@AuthenticationPrincipal Jwt jwt,
+			@PathVariable("id") long postId) {
+		long userId = currentUserService.getUserId(jwt);
+		return ResponseEntity.ok(reactionService.addPostReaction(userId, postId));
+	}
+
+	@DeleteMapping("/reaction")
+	public ResponseEntity<ReactionStatusResponse> removePostReaction(
+			@AuthenticationPrincipal Jwt jwt,
+			@PathVariable("id") long postId) {
+		long userId = currentUserService.getUserId(jwt);
+		return ResponseEntity.ok(reactionService.removePostReaction(userId, postId));
+	}
+
+	@PostMapping("/comments/{commentId}/reaction")
+	public ResponseEntity<ReactionStatusResponse> addCommentReaction(
+			@AuthenticationPrincipal Jwt jwt,
+			@PathVariable("id") long postId,
+			@PathVariable("commentId") long commentId) {
+		long userId = currentUserService.getUserId(jwt);
+		return ResponseEntity.ok(reactionService.addCommentReaction(userId, postId, commentId));
+	}
+
+	@DeleteMapping("/comments/{commentId}/reaction")
+	public ResponseEntity<ReactionStatusResponse> removeCommentReaction(
+			@AuthenticationPrincipal Jwt jwt,
+			@PathVariable("id") long postId,
+			@PathVariable("commentId") long commentId) {
+		long userId = currentUserService.getUserId(jwt);
+		return ResponseEntity.ok(reactionService.removeCommentReaction(userId, postId, commentId));
+	}
+}
@@ -0,0 +1,106 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+
+/**
+ * In-memory accumulator of committed reaction changes per post and comment, drained by {@link ReactionFlusher}.
+ * <p>
+ * Each target gets a {@link LongAdder}: concurrent reactions to the same viral post add to separate cells instead of
+ * contending on one lock or one row. Draining removes the adders from the map and retires them; a writer that still
+ * added to a retired adder moves what is left of it to the current one, so no reaction is lost or counted twice.
+ * Pending reactions are lost if the process dies before a flush; shutdown flushes them.
+ */
+@Component
+public class ReactionCounters {
+
+	private final Map<ReactionTarget, ConcurrentHashMap<Long, Cell>> cells = new EnumMap<>(ReactionTarget.class);
+
+	public ReactionCounters() {
+		for (ReactionTarget target : ReactionTarget.values()) {
+			cells.put(target, new ConcurrentHashMap<>());
+		}
+	}
+
+	/**
+	 * Records reactions added to (or removed from) a post or comment.
+	 *
+	 * @param target   kind of content
+	 * @param targetId id of the post or comment
+	 * @param delta    reactions added, negative when removed
+	 */
+	public void record(ReactionTarget target, long targetId, long delta) {
+		ConcurrentHashMap<Long, Cell> map = cells.get(target);
+		long remaining = delta;
+		while (remaining != 0) {
+			Cell cell = map.computeIfAbsent(targetId, id -> new Cell());
+			cell.adder.add(remaining);
+			if (!cell.retired) {
+				return;
+			}
+			// Drained concurrently: whatever the drain did not see is still in the adder.
+			remaining = cell.adder.sumThenReset();
+		}
+	}
+
+	/**
+	 * Returns the reactions of a post or comment not flushed yet.
+	 *
+	 * @param target   kind of content
+	 * @param targetId id of the post or comment
+	 * @return the pending delta, 0 if there is none
+	 */
+	public long pending(ReactionTarget target, long targetId) {
+		Cell cell = cells.get(target).get(targetId);
+		return cell == null ? 0 : cell.adder.sum();
+	}
+
+	/**
+	 * Removes and returns all pending reactions.
+	 *
+	 * @return one entry per target with a non-zero delta
+	 */
+	List<ReactionDelta> drain() {
+		List<ReactionDelta> drained = new ArrayList<>();
+		cells.forEach((target, map) -> map.forEach((targetId, cell) -> {
+			map.remove(targetId, cell);
+			cell.retired = true;
+			long delta = cell.adder.sumThenReset();
+			if (delta != 0) {
+				drained.add(new ReactionDelta(target, targetId, delta));
+			}
+		}));
+		return drained;
+	}
+
+	/**
+	 * Puts back reactions whose flush failed, merging them with what was recorded since.
+	 *
+	 * @param deltas previously drained entries
+	 */
+	void restore(Collection<ReactionDelta> deltas) {
+		deltas.forEach(delta -> record(delta.target(), delta.targetId(), delta.delta()));
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onReactionChanged(ReactionChangedEvent event) {
+		record(event.target(), event.targetId(), event.delta());
+	}
+
+	private static final class Cell {
+
+		private final LongAdder adder = new LongAdder();
+		private volatile boolean retired;
+	}
+}
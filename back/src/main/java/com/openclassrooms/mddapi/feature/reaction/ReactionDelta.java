@@ -0,0 +1,13 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+
+/**
+ * Reactions of one post or comment not yet written to its row.
+ *
+ * @param target   kind of content
+ * @param targetId id of the post or comment
+ * @param delta    amount to add to {@code reaction_count}
+ */
+record ReactionDelta(ReactionTarget target, long targetId, long delta) {
+}
@@ -0,0 +1,103 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.config.ReactionProperties;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically writes the reactions accumulated by {@link ReactionCounters} to the post and comment rows.
+ * <p>
+ * Each flush is one transaction of JDBC-batched relative updates, posts then comments, each in id order so
+ * concurrent flushes from several instances lock rows in the same order. A failed flush puts its deltas back for the
+ * next attempt. Flushed rows are counted as {@code reaction.flushed} and flushes are timed as
+ * {@code reaction.flush}.
+ */
+@Component
+public class ReactionFlusher {
+
+	private static final String UPDATE_POST_SQL = "update post set reaction_count = reaction_count + ? where id = ?";
+	private static final String UPDATE_COMMENT_SQL =
+			"update comment set reaction_count = reaction_count + ? where id = ?";
+
+	private final ReactionCounters counters;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final Counter flushedRows;
+	private final Timer flushTimer;
+
+	public ReactionFlusher(
+			ReactionCounters counters,
+			JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager,
+			ReactionProperties reactionProperties,
+			MeterRegistry meterRegistry) {
+		this.counters = counters;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = reactionProperties.flush().batchSize();
+		this.flushedRows = Counter.builder("reaction.flushed").register(meterRegistry);
+		this.flushTimer = Timer.builder("reaction.flush").register(meterRegistry);
+	}
+
+	/**
+	 * Writes all pending reactions.
+	 *
+	 * @return the number of post and comment rows updated
+	 */
+	@Scheduled(fixedDelayString = "${app.reaction.flush.interval}")
+	public int flush() {
+		flushLock.lock();
+		try {
+			List<ReactionDelta> pending = counters.drain();
+			if (pending.isEmpty()) {
+				return 0;
+			}
+			pending.sort(Comparator.comparing(ReactionDelta::target).thenComparingLong(ReactionDelta::targetId));
+			try {
+				flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+					write(UPDATE_POST_SQL, pending.stream().filter(delta -> delta.target() == ReactionTarget.post).toList());
+					write(UPDATE_COMMENT_SQL,
+							pending.stream().filter(delta -> delta.target() == ReactionTarget.comment).toList());
+				}));
+			} catch (RuntimeException ex) {
+				counters.restore(pending);
+				throw ex;
+			}
+			flushedRows.increment(pending.size());
+			return pending.size();
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	@PreDestroy
+	void flushOnShutdown() {
+		flush();
+	}
+
+	private void write(String sql, List<ReactionDelta> deltas) {
+		if (deltas.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(sql, deltas, batchSize, (statement, delta) -> {
+			statement.setLong(1, delta.delta());
+			statement.setLong(2, delta.targetId());
+		});
+	}
+}
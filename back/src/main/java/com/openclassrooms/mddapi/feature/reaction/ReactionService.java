@@ -0,0 +1,120 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.reaction.dto.ReactionStatusResponse;
+import com.openclassrooms.mddapi.repository.CommentRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.ReactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adds and removes a user's reaction on posts and comments.
+ * <p>
+ * Both operations are idempotent: reacting twice or removing a missing reaction changes nothing. Only the
+ * {@code reaction} row is written here; an effective change publishes a {@link ReactionChangedEvent}, counted in
+ * {@link ReactionCounters} once committed, so no request ever locks the post or comment row.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactionService {
+
+	private final ReactionRepository reactionRepository;
+	private final PostRepository postRepository;
+	private final CommentRepository commentRepository;
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Adds the user's reaction to a post if not already there.
+	 *
+	 * @param userId the authenticated user id
+	 * @param postId the post id
+	 * @return reaction status response
+	 * @throws NotFoundException if the post does not exist
+	 */
+	@Transactional
+	public ReactionStatusResponse addPostReaction(long userId, long postId) {
+		long subjectId = findSubjectId(postId);
+		return add(userId, ReactionTarget.post, postId, postId, subjectId);
+	}
+
+	/**
+	 * Removes the user's reaction from a post if there is one.
+	 *
+	 * @param userId the authenticated user id
+	 * @param postId the post id
+	 * @return reaction status response
+	 * @throws NotFoundException if the post does not exist
+	 */
+	@Transactional
+	public ReactionStatusResponse removePostReaction(long userId, long postId) {
+		long subjectId = findSubjectId(postId);
+		return remove(userId, ReactionTarget.post, postId, postId, subjectId);
+	}
+
+	/**
+	 * Adds the user's reaction to a comment if not already there.
+	 *
+	 * @param userId    the authenticated user id
+	 * @param postId    the post id
+	 * @param commentId the comment id
+	 * @return reaction status response
+	 * @throws NotFoundException if the post does not exist or the comment is not one of its comments
+	 */
+	@Transactional
+	public ReactionStatusResponse addCommentReaction(long userId, long postId, long commentId) {
+		long subjectId = findSubjectId(postId, commentId);
+		return add(userId, ReactionTarget.comment, commentId, postId, subjectId);
+	}
+
+	/**
+	 * Removes the user's reaction from a comment if there is one.
+	 *
+	 * @param userId    the authenticated user id
+	 * @param postId    the post id
+	 * @param commentId the comment id
+	 * @return reaction status response
+	 * @throws NotFoundException if the post does not exist or the comment is not one of its comments
+	 */
+	@Transactional
+	public ReactionStatusResponse removeCommentReaction(long userId, long postId, long commentId) {
+		long subjectId = findSubjectId(postId, commentId);
+		return remove(userId, ReactionTarget.comment, commentId, postId, subjectId);
+	}
+
+	private ReactionStatusResponse add(long userId, ReactionTarget target, long targetId, long postId, long subjectId) {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		if (reactionRepository.insertIfAbsent(userId, target.name(), targetId, now) > 0) {
+			eventPublisher.publishEvent(new ReactionChangedEvent(target, targetId, postId, subjectId, 1));
+		}
+		return new ReactionStatusResponse(true);
+	}
+
+	private ReactionStatusResponse remove(long userId, ReactionTarget target, long targetId, long postId, long subjectId) {
+		if (reactionRepository.remove(userId, target, targetId) > 0) {
+			eventPublisher.publishEvent(new ReactionChangedEvent(target, targetId, postId, subjectId, -1));
+		}
+		return new ReactionStatusResponse(false);
+	}
+
+	private long findSubjectId(long postId) {
+		return postRepository.findSubjectIdById(postId)
+				.orElseThrow(() -> new NotFoundException("Article introuvable"));
+	}
+
+	private long findSubjectId(long postId, long commentId) {
+		long subjectId = findSubjectId(postId);
+		if (!commentRepository.existsByIdAndPostId(commentId, postId)) {
+			throw new NotFoundException("Commentaire introuvable");
+		}
+		return subjectId;
+	}
+}
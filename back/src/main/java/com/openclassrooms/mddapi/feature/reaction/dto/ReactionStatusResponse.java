@@ -0,0 +1,4 @@
+package com.openclassrooms.mddapi.feature.reaction.dto;
+
+public record ReactionStatusResponse(boolean reacted) {
+}
@@ -0,0 +1,33 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A document reduced to its term frequencies, as kept in the in-memory buffer until the next commit.
+ *
+ * @param document    the indexed post or comment
+ * @param frequencies weighted frequency of each term
+ * @param length      weighted number of terms, the BM25 document length
+ */
+record AnalyzedDocument(IndexedDocument document, Map<String, Integer> frequencies, int length) {
+
+	/**
+	 * Title terms count this many times: a word in the title says more about the post than one in its body.
+	 */
+	static final int TITLE_WEIGHT = 3;
+
+	static AnalyzedDocument of(IndexedDocument document, String title, String body) {
+		Map<String, Integer> frequencies = new HashMap<>();
+		int length = 0;
+		for (String term : FrenchAnalyzer.analyze(title)) {
+			frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+			length += TITLE_WEIGHT;
+		}
+		for (String term : FrenchAnalyzer.analyze(body)) {
+			frequencies.merge(term, 1, Integer::sum);
+			length++;
+		}
+		return new AnalyzedDocument(document, Map.copyOf(frequencies), length);
+	}
+}
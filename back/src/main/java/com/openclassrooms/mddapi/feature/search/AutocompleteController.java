@@ -0,0 +1,28 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+@RequiredArgsConstructor
+public class AutocompleteController {
+
+	private final AutocompleteService autocompleteService;
+
+	@GetMapping
+	public ResponseEntity<List<SuggestionResponse>> suggest(
+			@RequestParam(name = "q", required = false) String query,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		return ResponseEntity.ok(autocompleteService.suggest(query, limit));
+	}
+}
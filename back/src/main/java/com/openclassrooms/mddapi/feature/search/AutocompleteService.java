@@ -0,0 +1,130 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.openclassrooms.mddapi.config.SearchProperties;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.post.PostsImportedEvent;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionType;
+
+/**
+ * Suggests subject names and recent post titles from an in-memory {@link PrefixIndex}.
+ * <p>
+ * Subjects come first, then posts from the newest. New posts, created or imported, go to a small unsorted tail
+ * scanned on every lookup; once it holds {@code compact-threshold} entries, it is merged into a new sorted index that
+ * only keeps the {@code recent-posts} newest posts. Updates run asynchronously, so rebuilding never delays a request.
+ * Subjects are only created by migrations, so they are loaded at startup.
+ */
+@Service
+public class AutocompleteService {
+
+	private static final long SUBJECT_RANK = Long.MAX_VALUE;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final SearchProperties.Autocomplete properties;
+	private volatile Snapshot snapshot = new Snapshot(PrefixIndex.EMPTY, List.of());
+
+	public AutocompleteService(JdbcTemplate jdbcTemplate, SearchProperties searchProperties) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.properties = searchProperties.autocomplete();
+	}
+
+	private record Snapshot(PrefixIndex index, List<PrefixIndex.Entry> tail) {
+	}
+
+	/**
+	 * @param query typed text, matched as a prefix of the labels and of each of their words
+	 * @param limit requested number of suggestions, clamped to the configured maximum (null for the default)
+	 * @return the best suggestions, empty for a blank query
+	 */
+	public List<SuggestionResponse> suggest(String query, Integer limit) {
+		String prefix = query == null ? "" : PrefixIndex.normalize(query);
+		if (prefix.isEmpty()) {
+			return List.of();
+		}
+		int size = limit == null ? properties.defaultLimit() : Math.clamp(limit, 1, properties.maxLimit());
+
+		Snapshot current = snapshot;
+		List<PrefixIndex.Entry> tail = current.tail().stream()
+				.filter(entry -> PrefixIndex.matches(entry, prefix))
+				.toList();
+		return Stream.concat(current.index().top(prefix, size).stream(), tail.stream())
+				.sorted(PrefixIndex.BEST_FIRST)
+				.limit(size)
+				.map(PrefixIndex.Entry::suggestion)
+				.toList();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<PrefixIndex.Entry> entries = new ArrayList<>(jdbcTemplate.query(
+				"select id, name from subject",
+				(rs, row) -> PrefixIndex.Entry.of(
+						new SuggestionResponse(SuggestionType.subject, rs.getLong(1), rs.getString(2)), SUBJECT_RANK)));
+		entries.addAll(jdbcTemplate.query(
+				"select id, title from post order by id desc limit ?",
+				(rs, row) -> postEntry(rs.getLong(1), rs.getString(2)),
+				properties.recentPosts()));
+		Set<PrefixIndex.Entry> loaded = new HashSet<>(entries);
+		synchronized (this) {
+			// Keeps posts created while the queries ran.
+			List<PrefixIndex.Entry> tail = snapshot.tail().stream().filter(entry -> !loaded.contains(entry)).toList();
+			snapshot = new Snapshot(PrefixIndex.build(entries), tail);
+		}
+	}
+
+	@Async
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		append(List.of(postEntry(event.postId(), event.title())));
+	}
+
+	/**
+	 * Imported posts get new ids, so they rank like created ones: only the titles of the chunk are added.
+	 */
+	@Async
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostsImported(PostsImportedEvent event) {
+		append(event.posts().stream().map(post -> postEntry(post.id(), post.title())).toList());
+	}
+
+	private synchronized void append(List<PrefixIndex.Entry> entries) {
+		List<PrefixIndex.Entry> tail = new ArrayList<>(snapshot.tail());
+		tail.addAll(entries);
+		snapshot = tail.size() < properties.compactThreshold()
+				? new Snapshot(snapshot.index(), List.copyOf(tail))
+				: new Snapshot(compact(snapshot.index(), tail), List.of());
+	}
+
+	private PrefixIndex compact(PrefixIndex index, List<PrefixIndex.Entry> tail) {
+		List<PrefixIndex.Entry> entries = new ArrayList<>(index.entries());
+		entries.addAll(tail);
+		List<PrefixIndex.Entry> posts = entries.stream()
+				.filter(entry -> entry.suggestion().type() == SuggestionType.post)
+				.sorted(Comparator.comparingLong(PrefixIndex.Entry::rank).reversed())
+				.toList();
+		entries.removeAll(new HashSet<>(posts.subList(Math.min(posts.size(), properties.recentPosts()), posts.size())));
+		return PrefixIndex.build(entries);
+	}
+
+	/**
+	 * Posts rank by id: ids grow with creation, and every post ranks below every subject.
+	 */
+	private static PrefixIndex.Entry postEntry(long id, String title) {
+		return PrefixIndex.Entry.of(new SuggestionResponse(SuggestionType.post, id, title), id);
+	}
+}
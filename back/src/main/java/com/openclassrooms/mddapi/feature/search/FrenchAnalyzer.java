@@ -0,0 +1,84 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns French text into index terms: lower case, accents folded, stop words dropped and words reduced to a light
+ * stem, so that "Migrations", "migrer" and "migré" all match the same term.
+ * <p>
+ * The stemmer only strips plural marks and common derivational endings: it favours merging obvious variants over
+ * aggressive conflation, which would make BM25 scores of short posts noisy.
+ */
+final class FrenchAnalyzer {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+	private static final int MIN_STEM_LENGTH = 3;
+
+	private static final Set<String> STOP_WORDS = Set.of(
+			"au", "aux", "avec", "ce", "ces", "cet", "cette", "dans", "de", "des", "du", "elle", "elles", "en", "est",
+			"et", "il", "ils", "je", "la", "le", "les", "leur", "leurs", "lui", "ma", "mais", "me", "mes", "moi", "mon",
+			"ne", "nos", "notre", "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se", "ses",
+			"son", "sont", "sur", "ta", "te", "tes", "toi", "ton", "tu", "un", "une", "vos", "votre", "vous", "ete",
+			"etre", "avoir", "fait", "plus", "tres", "donc", "car", "ni", "si", "comme", "aussi", "tout", "tous");
+
+	/**
+	 * Endings removed once plurals are gone, longest first; the first one leaving a long enough stem wins.
+	 */
+	private static final String[] SUFFIXES = {
+			"issement", "issant", "atrice", "ateur", "ation", "ement", "ment", "ique", "isme", "iste", "able", "ible",
+			"euse", "eur", "ite", "ive", "if", "ee", "er", "ez", "e"};
+
+	private FrenchAnalyzer() {
+	}
+
+	/**
+	 * @param text any text, may be null
+	 * @return the terms in text order, repeated as often as they occur
+	 */
+	static List<String> analyze(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null || text.isBlank()) {
+			return terms;
+		}
+		for (String token : SEPARATORS.split(fold(text))) {
+			if (token.length() < 2 || STOP_WORDS.contains(token)) {
+				continue;
+			}
+			terms.add(stem(token));
+		}
+		return terms;
+	}
+
+	static String fold(String text) {
+		if (text.chars().allMatch(c -> c < 0x80)) {
+			return text.toLowerCase(Locale.ROOT);
+		}
+		String ligatures = text.replace("œ", "oe").replace("Œ", "oe").replace("æ", "ae").replace("Æ", "ae");
+		return MARKS.matcher(Normalizer.normalize(ligatures, Normalizer.Form.NFD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+	}
+
+	static String stem(String word) {
+		if (word.length() <= MIN_STEM_LENGTH || Character.isDigit(word.charAt(word.length() - 1))) {
+			return word;
+		}
+		String stem = word;
+		if (stem.endsWith("aux") && stem.length() > 4) {
+			stem = stem.substring(0, stem.length() - 3) + "al";
+		} else if (stem.endsWith("s") || stem.endsWith("x")) {
+			stem = stem.substring(0, stem.length() - 1);
+		}
+		for (String suffix : SUFFIXES) {
+			if (stem.endsWith(suffix) && stem.length() - suffix.length() >= MIN_STEM_LENGTH) {
+				return stem.substring(0, stem.length() - suffix.length());
+			}
+		}
+		return stem;
+	}
+}
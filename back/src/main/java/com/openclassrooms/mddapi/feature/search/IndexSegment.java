@@ -0,0 +1,284 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Immutable part of the inverted index: a set of documents and, for each term, its postings list.
+ * <p>
+ * A postings list is the document frequency followed by {@code (document gap, term frequency)} varint pairs, in
+ * document order: gaps stay small, so most postings take two bytes. Lists are only decoded while a query walks them.
+ * Segments are written once, then only ever read or merged into a new segment.
+ */
+final class IndexSegment {
+
+	private static final int MAGIC = 0x4D444453;
+	private static final int VERSION = 1;
+
+	private final long[] postIds;
+	private final long[] commentIds;
+	private final long[] subjectIds;
+	private final int[] lengths;
+	private final long totalLength;
+	private final Map<String, byte[]> postings;
+
+	private IndexSegment(long[] postIds, long[] commentIds, long[] subjectIds, int[] lengths,
+			Map<String, byte[]> postings) {
+		this.postIds = postIds;
+		this.commentIds = commentIds;
+		this.subjectIds = subjectIds;
+		this.lengths = lengths;
+		this.postings = postings;
+		long total = 0;
+		for (int length : lengths) {
+			total += length;
+		}
+		this.totalLength = total;
+	}
+
+	@FunctionalInterface
+	interface PostingConsumer {
+		void accept(int document, int frequency);
+	}
+
+	/**
+	 * Builds a segment from buffered documents, numbered in list order.
+	 */
+	static IndexSegment of(List<AnalyzedDocument> documents) {
+		int size = documents.size();
+		long[] postIds = new long[size];
+		long[] commentIds = new long[size];
+		long[] subjectIds = new long[size];
+		int[] lengths = new int[size];
+		Map<String, PostingsWriter> writers = new TreeMap<>();
+		for (int i = 0; i < size; i++) {
+			AnalyzedDocument document = documents.get(i);
+			postIds[i] = document.document().postId();
+			commentIds[i] = document.document().commentId();
+			subjectIds[i] = document.document().subjectId();
+			lengths[i] = document.length();
+			int doc = i;
+			document.frequencies().forEach(
+					(term, frequency) -> writers.computeIfAbsent(term, key -> new PostingsWriter()).add(doc, frequency));
+		}
+		return new IndexSegment(postIds, commentIds, subjectIds, lengths, toPostings(writers));
+	}
+
+	/**
+	 * Concatenates segments: documents keep their order and are renumbered after those of the previous segments.
+	 */
+	static IndexSegment merge(List<IndexSegment> segments) {
+		int size = segments.stream().mapToInt(IndexSegment::size).sum();
+		long[] postIds = new long[size];
+		long[] commentIds = new long[size];
+		long[] subjectIds = new long[size];
+		int[] lengths = new int[size];
+		int offset = 0;
+		for (IndexSegment segment : segments) {
+			System.arraycopy(segment.postIds, 0, postIds, offset, segment.size());
+			System.arraycopy(segment.commentIds, 0, commentIds, offset, segment.size());
+			System.arraycopy(segment.subjectIds, 0, subjectIds, offset, segment.size());
+			System.arraycopy(segment.lengths, 0, lengths, offset, segment.size());
+			offset += segment.size();
+		}
+
+		TreeSet<String> terms = new TreeSet<>();
+		segments.forEach(segment -> terms.addAll(segment.postings.keySet()));
+		Map<String, PostingsWriter> writers = new TreeMap<>();
+		for (String term : terms) {
+			PostingsWriter writer = new PostingsWriter();
+			int base = 0;
+			for (IndexSegment segment : segments) {
+				int shift = base;
+				segment.forEachPosting(term, (doc, frequency) -> writer.add(shift + doc, frequency));
+				base += segment.size();
+			}
+			writers.put(term, writer);
+		}
+		return new IndexSegment(postIds, commentIds, subjectIds, lengths, toPostings(writers));
+	}
+
+	int size() {
+		return postIds.length;
+	}
+
+	long totalLength() {
+		return totalLength;
+	}
+
+	long postId(int document) {
+		return postIds[document];
+	}
+
+	long commentId(int document) {
+		return commentIds[document];
+	}
+
+	long subjectId(int document) {
+		return subjectIds[document];
+	}
+
+	int length(int document) {
+		return lengths[document];
+	}
+
+	/**
+	 * @return the documents of this segment, in document order
+	 */
+	List<IndexedDocument> documents() {
+		List<IndexedDocument> documents = new ArrayList<>(size());
+		for (int i = 0; i < size(); i++) {
+			documents.add(new IndexedDocument(postIds[i], commentIds[i], subjectIds[i]));
+		}
+		return documents;
+	}
+
+	int documentFrequency(String term) {
+		byte[] list = postings.get(term);
+		return list == null ? 0 : new VarintReader(list).next();
+	}
+
+	void forEachPosting(String term, PostingConsumer consumer) {
+		byte[] list = postings.get(term);
+		if (list == null) {
+			return;
+		}
+		VarintReader reader = new VarintReader(list);
+		int count = reader.next();
+		int doc = 0;
+		for (int i = 0; i < count; i++) {
+			doc += reader.next();
+			consumer.accept(doc, reader.next());
+		}
+	}
+
+	void write(Path file) throws IOException {
+		CRC32 checksum = new CRC32();
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+			DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, checksum));
+			data.writeInt(MAGIC);
+			data.writeInt(VERSION);
+			data.writeInt(size());
+			for (int i = 0; i < size(); i++) {
+				data.writeLong(postIds[i]);
+				data.writeLong(commentIds[i]);
+				data.writeLong(subjectIds[i]);
+				data.writeInt(lengths[i]);
+			}
+			data.writeInt(postings.size());
+			for (Map.Entry<String, byte[]> entry : postings.entrySet()) {
+				data.writeUTF(entry.getKey());
+				data.writeInt(entry.getValue().length);
+				data.write(entry.getValue());
+			}
+			data.flush();
+			new DataOutputStream(out).writeLong(checksum.getValue());
+		}
+	}
+
+	static IndexSegment read(Path file) throws IOException {
+		CRC32 checksum = new CRC32();
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			DataInputStream data = new DataInputStream(new CheckedInputStream(in, checksum));
+			if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+				throw new IOException("Not a search segment: " + file);
+			}
+			int size = data.readInt();
+			long[] postIds = new long[size];
+			long[] commentIds = new long[size];
+			long[] subjectIds = new long[size];
+			int[] lengths = new int[size];
+			for (int i = 0; i < size; i++) {
+				postIds[i] = data.readLong();
+				commentIds[i] = data.readLong();
+				subjectIds[i] = data.readLong();
+				lengths[i] = data.readInt();
+			}
+			int termCount = data.readInt();
+			Map<String, byte[]> postings = new TreeMap<>();
+			for (int i = 0; i < termCount; i++) {
+				String term = data.readUTF();
+				byte[] list = new byte[data.readInt()];
+				data.readFully(list);
+				postings.put(term, list);
+			}
+			long expected = checksum.getValue();
+			if (new DataInputStream(in).readLong() != expected) {
+				throw new IOException("Corrupted search segment: " + file);
+			}
+			return new IndexSegment(postIds, commentIds, subjectIds, lengths, postings);
+		}
+	}
+
+	private static Map<String, byte[]> toPostings(Map<String, PostingsWriter> writers) {
+		Map<String, byte[]> postings = new TreeMap<>();
+		writers.forEach((term, writer) -> postings.put(term, writer.toByteArray()));
+		return postings;
+	}
+
+	private static final class PostingsWriter {
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		private int count;
+		private int lastDoc;
+
+		void add(int doc, int frequency) {
+			writeVarint(body, doc - lastDoc);
+			writeVarint(body, frequency);
+			lastDoc = doc;
+			count++;
+		}
+
+		byte[] toByteArray() {
+			ByteArrayOutputStream list = new ByteArrayOutputStream(body.size() + 5);
+			writeVarint(list, count);
+			list.writeBytes(body.toByteArray());
+			return list.toByteArray();
+		}
+
+		private static void writeVarint(ByteArrayOutputStream out, int value) {
+			while ((value & ~0x7F) != 0) {
+				out.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.write(value);
+		}
+	}
+
+	private static final class VarintReader {
+
+		private final byte[] bytes;
+		private int position;
+
+		VarintReader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		int next() {
+			int value = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = bytes[position++];
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+		}
+	}
+}
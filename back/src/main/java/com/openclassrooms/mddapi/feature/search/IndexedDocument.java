@@ -0,0 +1,32 @@
+package com.openclassrooms.mddapi.feature.search;
+
+/**
+ * Identity of an indexed text: a post (title and body) or one of its comments.
+ * <p>
+ * Hits are always reported per post, so a comment carries the post and subject it belongs to.
+ *
+ * @param postId    the post, or the post the comment belongs to
+ * @param commentId the comment id, 0 for the post itself
+ * @param subjectId the post subject
+ */
+record IndexedDocument(long postId, long commentId, long subjectId) {
+
+	static IndexedDocument post(long postId, long subjectId) {
+		return new IndexedDocument(postId, 0, subjectId);
+	}
+
+	static IndexedDocument comment(long commentId, long postId, long subjectId) {
+		return new IndexedDocument(postId, commentId, subjectId);
+	}
+
+	/**
+	 * @return a key unique across posts and comments: the post id, or the negated comment id
+	 */
+	long key() {
+		return key(postId, commentId);
+	}
+
+	static long key(long postId, long commentId) {
+		return commentId == 0 ? postId : -commentId;
+	}
+}
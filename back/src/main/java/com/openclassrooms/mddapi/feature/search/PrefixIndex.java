@@ -0,0 +1,243 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+
+/**
+ * Immutable prefix index: every word suffix of every label (so "Spring Boot" is found from "spr", "spring b" and
+ * "boo"), folded like search terms and kept in one sorted array.
+ * <p>
+ * A key is not copied out of its label: it is the pair of its entry and the offset of its first character in the
+ * normalized label, stored in two {@code int} arrays and compared in place.
+ * <p>
+ * The keys starting with a prefix form one range of the array, found by binary search. A sparse table of range
+ * maxima over the key ranks then yields the best entries of that range one by one, so a lookup costs
+ * {@code O(limit log n)} however many keys match: a one-letter prefix is as fast as a full word.
+ */
+final class PrefixIndex {
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+	/**
+	 * Highest rank first; same rank in label order.
+	 */
+	static final Comparator<Entry> BEST_FIRST = Comparator.comparingLong(Entry::rank).reversed()
+			.thenComparing(entry -> entry.suggestion().label());
+
+	static final PrefixIndex EMPTY = build(List.of());
+
+	private final Entry[] owners;
+	private final int[] offsets;
+	private final long[] ranks;
+	private final List<Entry> entries;
+	/**
+	 * {@code best[level][i]} is the position of the best owner among keys {@code [i, i + 2^level)}.
+	 */
+	private final int[][] best;
+
+	/**
+	 * @param suggestion what is returned
+	 * @param rank       higher ranks are suggested first
+	 * @param normalized the label as given by {@link #normalize(String)}, computed once
+	 */
+	record Entry(SuggestionResponse suggestion, long rank, String normalized) {
+
+		static Entry of(SuggestionResponse suggestion, long rank) {
+			return new Entry(suggestion, rank, normalize(suggestion.label()));
+		}
+	}
+
+	private PrefixIndex(Entry[] owners, int[] offsets, List<Entry> entries) {
+		this.owners = owners;
+		this.offsets = offsets;
+		this.entries = entries;
+		this.ranks = new long[owners.length];
+		for (int i = 0; i < owners.length; i++) {
+			ranks[i] = owners[i].rank();
+		}
+		int levels = 1;
+		while (1 << levels <= owners.length) {
+			levels++;
+		}
+		this.best = new int[levels][];
+		best[0] = new int[owners.length];
+		for (int i = 0; i < owners.length; i++) {
+			best[0][i] = i;
+		}
+		for (int level = 1; level < levels; level++) {
+			int half = 1 << (level - 1);
+			best[level] = new int[owners.length - (1 << level) + 1];
+			for (int i = 0; i < best[level].length; i++) {
+				best[level][i] = better(best[level - 1][i], best[level - 1][i + half]);
+			}
+		}
+	}
+
+	static PrefixIndex build(List<Entry> entries) {
+		List<Entry> all = List.copyOf(entries);
+		int count = 0;
+		for (Entry entry : all) {
+			count += wordStarts(entry.normalized());
+		}
+		// Each key is packed as (entry position << 32 | offset) while sorting.
+		long[] keys = new long[count];
+		int next = 0;
+		for (int e = 0; e < all.size(); e++) {
+			String normalized = all.get(e).normalized();
+			for (int i = 0; i < normalized.length(); i++) {
+				if (isWordStart(normalized, i)) {
+					keys[next++] = (long) e << 32 | i;
+				}
+			}
+		}
+		sort(keys, new long[keys.length], 0, keys.length, all);
+		Entry[] owners = new Entry[keys.length];
+		int[] offsets = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			owners[i] = all.get((int) (keys[i] >>> 32));
+			offsets[i] = (int) keys[i];
+		}
+		return new PrefixIndex(owners, offsets, all);
+	}
+
+	/**
+	 * Stable merge sort of packed keys on their text, so that equal keys keep the order of their entries.
+	 */
+	private static void sort(long[] keys, long[] buffer, int from, int to, List<Entry> entries) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		sort(keys, buffer, from, middle, entries);
+		sort(keys, buffer, middle, to, entries);
+		System.arraycopy(keys, from, buffer, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right == to || left < middle && compare(
+					entries.get((int) (buffer[left] >>> 32)).normalized(), (int) buffer[left],
+					entries.get((int) (buffer[right] >>> 32)).normalized(), (int) buffer[right]) <= 0) {
+				keys[i] = buffer[left++];
+			} else {
+				keys[i] = buffer[right++];
+			}
+		}
+	}
+
+	List<Entry> entries() {
+		return entries;
+	}
+
+	/**
+	 * @param prefix a prefix normalized with {@link #normalize(String)}
+	 * @param limit  maximum number of entries
+	 * @return the best matching entries, best first
+	 */
+	List<Entry> top(String prefix, int limit) {
+		record Range(int from, int to, int best) {
+		}
+		int from = lowerBound(prefix);
+		int to = lowerBound(prefix + Character.MAX_VALUE);
+		PriorityQueue<Range> ranges = new PriorityQueue<>(
+				(left, right) -> left.best() == right.best() ? 0 : better(left.best(), right.best()) == left.best() ? -1 : 1);
+		if (from < to) {
+			ranges.add(new Range(from, to, bestIn(from, to)));
+		}
+		Set<Entry> top = new LinkedHashSet<>();
+		while (top.size() < limit && !ranges.isEmpty()) {
+			Range range = ranges.poll();
+			top.add(owners[range.best()]);
+			if (range.from() < range.best()) {
+				ranges.add(new Range(range.from(), range.best(), bestIn(range.from(), range.best())));
+			}
+			if (range.best() + 1 < range.to()) {
+				ranges.add(new Range(range.best() + 1, range.to(), bestIn(range.best() + 1, range.to())));
+			}
+		}
+		List<Entry> sorted = new ArrayList<>(top);
+		sorted.sort(BEST_FIRST);
+		return sorted;
+	}
+
+	private int bestIn(int from, int to) {
+		int level = 31 - Integer.numberOfLeadingZeros(to - from);
+		return better(best[level][from], best[level][to - (1 << level)]);
+	}
+
+	/**
+	 * @return the position of the higher ranked owner, the first one on a tie
+	 */
+	private int better(int left, int right) {
+		return ranks[left] > ranks[right] || ranks[left] == ranks[right] && left <= right ? left : right;
+	}
+
+	private int lowerBound(String key) {
+		int low = 0;
+		int high = owners.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (compare(owners[middle].normalized(), offsets[middle], key, 0) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return whether the entry label, or one of its words, starts with the normalized prefix
+	 */
+	static boolean matches(Entry entry, String prefix) {
+		String normalized = entry.normalized();
+		for (int i = 0; i < normalized.length(); i++) {
+			if (isWordStart(normalized, i) && normalized.startsWith(prefix, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Folds case and accents and reduces separators to single spaces, as done for the indexed keys.
+	 */
+	static String normalize(String text) {
+		return SEPARATORS.matcher(FrenchAnalyzer.fold(text)).replaceAll(" ").strip();
+	}
+
+	/**
+	 * Compares the suffixes of two strings starting at the given offsets, like {@link String#compareTo}.
+	 */
+	private static int compare(String left, int leftFrom, String right, int rightFrom) {
+		int leftLength = left.length() - leftFrom;
+		int rightLength = right.length() - rightFrom;
+		for (int i = 0; i < Math.min(leftLength, rightLength); i++) {
+			int difference = left.charAt(leftFrom + i) - right.charAt(rightFrom + i);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return leftLength - rightLength;
+	}
+
+	private static int wordStarts(String normalized) {
+		int count = 0;
+		for (int i = 0; i < normalized.length(); i++) {
+			if (isWordStart(normalized, i)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean isWordStart(String normalized, int i) {
+		return i == 0 || normalized.charAt(i - 1) == ' ';
+	}
+}
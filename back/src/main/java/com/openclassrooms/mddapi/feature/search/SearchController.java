@@ -0,0 +1,35 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.openclassrooms.mddapi.feature.search.dto.SearchPageResponse;
+import com.openclassrooms.mddapi.security.CurrentUserService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+	private final SearchService searchService;
+	private final CurrentUserService currentUserService;
+
+	@GetMapping
+	public ResponseEntity<SearchPageResponse> search(
+			@AuthenticationPrincipal Jwt jwt,
+			@RequestParam(name = "q", required = false) String query,
+			@RequestParam(name = "subjectId", required = false) Long subjectId,
+			@RequestParam(name = "subscribed", defaultValue = "false") boolean subscribed,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		long userId = currentUserService.getUserId(jwt);
+		return ResponseEntity.ok(searchService.search(userId, query, subjectId, subscribed, cursor, limit));
+	}
+}
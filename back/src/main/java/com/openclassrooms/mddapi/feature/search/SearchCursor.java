@@ -0,0 +1,58 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.feature.feed.FeedCursor;
+
+/**
+ * Position in a search result list: the {@code (score, postId)} pair of the last hit returned.
+ * <p>
+ * Results are re-scored for every page, so a post whose score changed since the previous page may be skipped or
+ * repeated; hits never move otherwise.
+ */
+record SearchCursor(double score, long postId) {
+
+	static SearchCursor after(SearchHit hit) {
+		return new SearchCursor(hit.score(), hit.postId());
+	}
+
+	/**
+	 * @return whether the hit comes after this position in {@code (score desc, postId desc)} order
+	 */
+	boolean precedes(SearchHit hit) {
+		int byScore = Double.compare(hit.score(), score);
+		return byScore < 0 || byScore == 0 && hit.postId() < postId;
+	}
+
+	/**
+	 * Encodes this cursor as an opaque token. {@link Double#toString} round-trips exactly.
+	 *
+	 * @return a URL-safe Base64 string
+	 */
+	String encode() {
+		return FeedCursor.encodeToken(Double.toString(score) + FeedCursor.SEPARATOR + postId);
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}.
+	 *
+	 * @param token the opaque cursor, may be null/blank for the first page
+	 * @return the decoded cursor, or {@code null} when no token was provided
+	 * @throws BadRequestException if the token is malformed
+	 */
+	static SearchCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = FeedCursor.decodeToken(token);
+			int separator = raw.indexOf(FeedCursor.SEPARATOR);
+			double score = Double.parseDouble(raw.substring(0, separator));
+			if (!Double.isFinite(score)) {
+				throw new NumberFormatException(raw);
+			}
+			return new SearchCursor(score, Long.parseLong(raw.substring(separator + 1)));
+		} catch (RuntimeException ex) {
+			throw new BadRequestException("Curseur invalide");
+		}
+	}
+}
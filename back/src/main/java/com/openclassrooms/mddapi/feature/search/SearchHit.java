@@ -0,0 +1,7 @@
+package com.openclassrooms.mddapi.feature.search;
+
+/**
+ * A matching post and the BM25 score of its best matching document (its own text or one of its comments).
+ */
+record SearchHit(long postId, double score) {
+}
@@ -0,0 +1,376 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.openclassrooms.mddapi.config.SearchProperties;
+
+/**
+ * Inverted index over posts and comments, scored with BM25.
+ * <p>
+ * New documents go to an in-memory buffer, searchable at once. {@link #commit()} writes the buffer as a new
+ * immutable segment file and records it in the {@code segments} manifest, replaced atomically. Segments are grouped
+ * in size tiers, each {@code merge-factor} times larger than the previous one; once a tier holds
+ * {@code merge-factor} segments they are merged into one segment of a higher tier. A document is thus rewritten
+ * once per tier rather than on every merge, and large segments are left alone while small ones accumulate. Only
+ * committed documents survive a restart: the others are indexed again from the database by {@link SearchIndexer}.
+ */
+@Component
+public class SearchIndex {
+
+	static final String MANIFEST = "segments";
+	private static final String SEGMENT_SUFFIX = ".seg";
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+
+	private final Path directory;
+	private final int mergeFactor;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ReentrantLock commitLock = new ReentrantLock();
+	private final Set<Long> keys = new HashSet<>();
+	private List<StoredSegment> segments = List.of();
+	private List<AnalyzedDocument> buffer = new ArrayList<>();
+	private List<AnalyzedDocument> committing = List.of();
+	private long nextGeneration = 1;
+	private boolean open;
+
+	public SearchIndex(SearchProperties properties) {
+		this.directory = properties.directory();
+		this.mergeFactor = properties.mergeFactor();
+	}
+
+	private record StoredSegment(String file, IndexSegment segment) {
+	}
+
+	/**
+	 * Loads the committed segments. A missing or unreadable index is discarded: it is rebuilt from the database.
+	 */
+	public void open() {
+		commitLock.lock();
+		try {
+			Files.createDirectories(directory);
+			List<StoredSegment> loaded = new ArrayList<>();
+			Path manifest = directory.resolve(MANIFEST);
+			if (Files.exists(manifest)) {
+				try {
+					for (String line : Files.readAllLines(manifest)) {
+						if (line.startsWith("next=")) {
+							nextGeneration = Long.parseLong(line.substring(5));
+						} else if (!line.isBlank()) {
+							loaded.add(new StoredSegment(line, IndexSegment.read(directory.resolve(line))));
+						}
+					}
+				} catch (IOException | RuntimeException ex) {
+					loaded.clear();
+					Files.deleteIfExists(manifest);
+				}
+			}
+			deleteUnlisted(loaded);
+
+			lock.writeLock().lock();
+			try {
+				segments = List.copyOf(loaded);
+				loaded.forEach(stored -> stored.segment().documents().forEach(document -> keys.add(document.key())));
+				open = true;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} finally {
+			commitLock.unlock();
+		}
+	}
+
+	/**
+	 * Buffers a document, unless a document with the same key is already indexed.
+	 *
+	 * @return whether the document was added
+	 */
+	boolean add(AnalyzedDocument document) {
+		lock.writeLock().lock();
+		try {
+			if (!keys.add(document.document().key())) {
+				return false;
+			}
+			buffer.add(document);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	boolean contains(long key) {
+		lock.readLock().lock();
+		try {
+			return keys.contains(key);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of indexed posts and comments, committed or not
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return keys.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	int segmentCount() {
+		lock.readLock().lock();
+		try {
+			return segments.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes buffered documents to a new segment, then merges full size tiers. Does nothing before
+	 * {@link #open()}. Buffered documents stay searchable while they are written, and are kept if writing fails.
+	 */
+	public void commit() {
+		commitLock.lock();
+		try {
+			List<AnalyzedDocument> pending;
+			lock.writeLock().lock();
+			try {
+				if (!open || buffer.isEmpty()) {
+					return;
+				}
+				pending = buffer;
+				committing = pending;
+				buffer = new ArrayList<>();
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+			try {
+				StoredSegment written = store(IndexSegment.of(pending));
+				List<StoredSegment> next = new ArrayList<>(segments);
+				next.add(written);
+				install(next);
+			} catch (RuntimeException ex) {
+				lock.writeLock().lock();
+				try {
+					pending.addAll(buffer);
+					buffer = pending;
+				} finally {
+					committing = List.of();
+					lock.writeLock().unlock();
+				}
+				throw ex;
+			}
+
+			for (List<StoredSegment> tier = fullTier(); tier != null; tier = fullTier()) {
+				merge(tier);
+			}
+		} finally {
+			commitLock.unlock();
+		}
+	}
+
+	/**
+	 * Scores every post matching at least one query term.
+	 *
+	 * @param query      free text, analyzed like the indexed text
+	 * @param subjectIds subjects to keep, or null for all
+	 * @param after      position of the last hit of the previous page, or null
+	 * @param limit      maximum number of hits
+	 * @return hits by descending score, then descending post id
+	 */
+	List<SearchHit> search(String query, Set<Long> subjectIds, SearchCursor after, int limit) {
+		List<String> terms = List.copyOf(new LinkedHashSet<>(FrenchAnalyzer.analyze(query)));
+		if (terms.isEmpty() || subjectIds != null && subjectIds.isEmpty()) {
+			return List.of();
+		}
+
+		Map<Long, Double> best = new HashMap<>();
+		lock.readLock().lock();
+		try {
+			long documents = 0;
+			long totalLength = 0;
+			double[] idf = new double[terms.size()];
+			int[] frequencies = new int[terms.size()];
+			for (StoredSegment stored : segments) {
+				documents += stored.segment().size();
+				totalLength += stored.segment().totalLength();
+				for (int t = 0; t < terms.size(); t++) {
+					frequencies[t] += stored.segment().documentFrequency(terms.get(t));
+				}
+			}
+			for (List<AnalyzedDocument> pending : List.of(committing, buffer)) {
+				for (AnalyzedDocument document : pending) {
+					documents++;
+					totalLength += document.length();
+					for (int t = 0; t < terms.size(); t++) {
+						frequencies[t] += document.frequencies().containsKey(terms.get(t)) ? 1 : 0;
+					}
+				}
+			}
+			if (documents == 0) {
+				return List.of();
+			}
+			for (int t = 0; t < terms.size(); t++) {
+				idf[t] = Math.log(1 + (documents - frequencies[t] + 0.5) / (frequencies[t] + 0.5));
+			}
+			double averageLength = Math.max(1, (double) totalLength / documents);
+
+			for (StoredSegment stored : segments) {
+				IndexSegment segment = stored.segment();
+				Map<Integer, Double> scores = new HashMap<>();
+				for (int t = 0; t < terms.size(); t++) {
+					double termIdf = idf[t];
+					segment.forEachPosting(terms.get(t), (doc, frequency) -> scores.merge(doc,
+							bm25(termIdf, frequency, segment.length(doc), averageLength), Double::sum));
+				}
+				scores.forEach((doc, score) -> {
+					if (subjectIds == null || subjectIds.contains(segment.subjectId(doc))) {
+						best.merge(segment.postId(doc), score, Math::max);
+					}
+				});
+			}
+			for (List<AnalyzedDocument> pending : List.of(committing, buffer)) {
+				for (AnalyzedDocument document : pending) {
+					if (subjectIds != null && !subjectIds.contains(document.document().subjectId())) {
+						continue;
+					}
+					double score = 0;
+					for (int t = 0; t < terms.size(); t++) {
+						Integer frequency = document.frequencies().get(terms.get(t));
+						if (frequency != null) {
+							score += bm25(idf[t], frequency, document.length(), averageLength);
+						}
+					}
+					if (score > 0) {
+						best.merge(document.document().postId(), score, Math::max);
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		return best.entrySet().stream()
+				.map(entry -> new SearchHit(entry.getKey(), entry.getValue()))
+				.filter(hit -> after == null || after.precedes(hit))
+				.sorted(Comparator.comparingDouble(SearchHit::score).reversed()
+						.thenComparing(Comparator.comparingLong(SearchHit::postId).reversed()))
+				.limit(limit)
+				.toList();
+	}
+
+	private static double bm25(double idf, int frequency, int length, double averageLength) {
+		return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+	}
+
+	/**
+	 * @return the segments of the smallest tier holding {@code merge-factor} segments, or null if there is none
+	 */
+	private List<StoredSegment> fullTier() {
+		Map<Integer, List<StoredSegment>> tiers = new TreeMap<>();
+		for (StoredSegment stored : segments) {
+			tiers.computeIfAbsent(tier(stored.segment().size()), t -> new ArrayList<>()).add(stored);
+		}
+		return tiers.values().stream().filter(tier -> tier.size() >= mergeFactor).findFirst().orElse(null);
+	}
+
+	/**
+	 * Tier 0 holds segments smaller than {@code merge-factor} documents, tier 1 those smaller than its square, and so
+	 * on: merging a full tier always yields a segment of a higher tier.
+	 */
+	private int tier(int size) {
+		int tier = 0;
+		for (long bound = mergeFactor; size >= bound; bound *= mergeFactor) {
+			tier++;
+		}
+		return tier;
+	}
+
+	private void merge(List<StoredSegment> merged) {
+		List<StoredSegment> next = new ArrayList<>(segments);
+		next.removeAll(merged);
+		next.add(store(IndexSegment.merge(merged.stream().map(StoredSegment::segment).toList())));
+		install(next);
+		for (StoredSegment stored : merged) {
+			try {
+				Files.deleteIfExists(directory.resolve(stored.file()));
+			} catch (IOException ex) {
+				// Unlisted files are removed on the next open.
+			}
+		}
+	}
+
+	private StoredSegment store(IndexSegment segment) {
+		String file = "segment-" + nextGeneration++ + SEGMENT_SUFFIX;
+		try {
+			segment.write(directory.resolve(file));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return new StoredSegment(file, segment);
+	}
+
+	/**
+	 * Records the new segment list in the manifest, then makes it visible to queries. Called with the commit lock
+	 * held, so the segment list cannot change meanwhile.
+	 */
+	private void install(List<StoredSegment> next) {
+		writeManifest(next);
+		lock.writeLock().lock();
+		try {
+			segments = List.copyOf(next);
+			committing = List.of();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void writeManifest(List<StoredSegment> stored) {
+		StringBuilder manifest = new StringBuilder("next=").append(nextGeneration).append('\n');
+		stored.forEach(segment -> manifest.append(segment.file()).append('\n'));
+		Path temporary = directory.resolve(MANIFEST + ".tmp");
+		try {
+			Files.writeString(temporary, manifest);
+			Files.move(temporary, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void deleteUnlisted(List<StoredSegment> listed) throws IOException {
+		Set<String> names = new HashSet<>();
+		listed.forEach(stored -> names.add(stored.file()));
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			for (Path file : files) {
+				if (!names.contains(file.getFileName().toString())) {
+					Files.delete(file);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.openclassrooms.mddapi.config.SearchProperties;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.feature.post.CommentAddedEvent;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.post.PostsImportedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps {@link SearchIndex} in step with the database.
+ * <p>
+ * Posts and comments are indexed from their creation events once committed. Imported posts come with their chunk's
+ * event, and their comments are read back by post id. At startup, rows missing from the index (never committed to a
+ * segment) are read back from the database: documents already indexed are skipped, so this also rebuilds a lost
+ * index.
+ * <p>
+ * The index is local to each node, and events are only published in the process that wrote the row. Every
+ * {@code sync-interval}, posts and comments with an id above the highest one read so far are therefore read from
+ * the database, so those written through another node become searchable without rescanning the tables. A row
+ * committed after a row with a higher id was read is only picked up at the next restart.
+ */
+@Component
+public class SearchIndexer {
+
+	private final SearchIndex index;
+	private final JdbcTemplate jdbcTemplate;
+	private final ContentCodecRegistry codecs;
+	private final int batchSize;
+	private long lastPostId = -1;
+	private long lastCommentId = -1;
+
+	public SearchIndexer(
+			SearchIndex index,
+			JdbcTemplate jdbcTemplate,
+			ContentCodecRegistry codecs,
+			SearchProperties properties,
+			MeterRegistry meterRegistry) {
+		this.index = index;
+		this.jdbcTemplate = jdbcTemplate;
+		this.codecs = codecs;
+		this.batchSize = properties.catchUpBatchSize();
+		Gauge.builder("search.index.documents", index, SearchIndex::size).register(meterRegistry);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void open() {
+		index.open();
+		catchUp();
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostCreated(PostCreatedEvent event) {
+		index.add(AnalyzedDocument.of(
+				IndexedDocument.post(event.postId(), event.subjectId()), event.title(), event.content()));
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCommentAdded(CommentAddedEvent event) {
+		index.add(AnalyzedDocument.of(
+				IndexedDocument.comment(event.comment().id(), event.postId(), event.subjectId()),
+				null,
+				event.comment().content()));
+	}
+
+	/**
+	 * Indexes the posts of an import chunk, then their comments, without scanning the rest of the tables.
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onPostsImported(PostsImportedEvent event) {
+		Map<Long, Long> subjectIds = new HashMap<>();
+		for (PostsImportedEvent.ImportedPost post : event.posts()) {
+			index.add(AnalyzedDocument.of(
+					IndexedDocument.post(post.id(), post.subjectId()), post.title(), post.content()));
+			subjectIds.put(post.id(), post.subjectId());
+		}
+		for (List<Long> ids : batches(List.copyOf(subjectIds.keySet()))) {
+			jdbcTemplate.query(
+					"select id, post_id, content from comment where post_id in (" + placeholders(ids) + ")",
+					rs -> {
+						long postId = rs.getLong(2);
+						index.add(AnalyzedDocument.of(
+								IndexedDocument.comment(rs.getLong(1), postId, subjectIds.get(postId)),
+								null,
+								codecs.codec().decode(rs.getBytes(3))));
+					},
+					ids.toArray());
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.search.commit-interval}")
+	public void commit() {
+		index.commit();
+	}
+
+	@PreDestroy
+	void commitOnShutdown() {
+		index.commit();
+	}
+
+	/**
+	 * Indexes the posts and comments written since the last catch-up or sync, whichever node wrote them. Does
+	 * nothing before the startup catch-up.
+	 */
+	@Scheduled(fixedDelayString = "${app.search.sync-interval}")
+	public synchronized void sync() {
+		if (lastPostId < 0) {
+			return;
+		}
+		lastPostId = indexAfter(lastPostId, """
+				select id, subject_id, title, content from post
+				where id > ?
+				order by id
+				limit ?
+				""", rs -> AnalyzedDocument.of(
+						IndexedDocument.post(rs.getLong(1), rs.getLong(2)),
+						rs.getString(3),
+						codecs.codec().decode(rs.getBytes(4))));
+		lastCommentId = indexAfter(lastCommentId, """
+				select c.id, c.post_id, p.subject_id, c.content
+				from comment c
+				join post p on p.id = c.post_id
+				where c.id > ?
+				order by c.id
+				limit ?
+				""", rs -> AnalyzedDocument.of(
+						IndexedDocument.comment(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+						null,
+						codecs.codec().decode(rs.getBytes(4))));
+	}
+
+	/**
+	 * Indexes every post and comment not indexed yet, then commits. Later rows are left to {@link #sync()}.
+	 *
+	 * @return the number of documents added
+	 */
+	synchronized int catchUp() {
+		long maxPostId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from post", Long.class);
+		long maxCommentId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from comment", Long.class);
+		int added = 0;
+		for (List<Long> ids : batches(missing("select id from post order by id", false))) {
+			added += jdbcTemplate.query(
+					"select id, subject_id, title, content from post where id in (" + placeholders(ids) + ")",
+					(rs, row) -> index.add(AnalyzedDocument.of(
+							IndexedDocument.post(rs.getLong(1), rs.getLong(2)),
+							rs.getString(3),
+							codecs.codec().decode(rs.getBytes(4)))),
+					ids.toArray()).stream().mapToInt(indexed -> indexed ? 1 : 0).sum();
+		}
+		for (List<Long> ids : batches(missing("select id from comment order by id", true))) {
+			added += jdbcTemplate.query("""
+					select c.id, c.post_id, p.subject_id, c.content
+					from comment c
+					join post p on p.id = c.post_id
+					where c.id in (%s)
+					""".formatted(placeholders(ids)),
+					(rs, row) -> index.add(AnalyzedDocument.of(
+							IndexedDocument.comment(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+							null,
+							codecs.codec().decode(rs.getBytes(4)))),
+					ids.toArray()).stream().mapToInt(indexed -> indexed ? 1 : 0).sum();
+		}
+		index.commit();
+		lastPostId = Math.max(lastPostId, maxPostId);
+		lastCommentId = Math.max(lastCommentId, maxCommentId);
+		return added;
+	}
+
+	/**
+	 * Reads the rows with an id above {@code afterId} in batches, the id being the first column.
+	 *
+	 * @return the highest id read, or {@code afterId} if there was none
+	 */
+	private long indexAfter(long afterId, String sql, DocumentMapper mapper) {
+		long last = afterId;
+		int read;
+		do {
+			long from = last;
+			List<Long> ids = jdbcTemplate.query(sql, (rs, row) -> {
+				index.add(mapper.map(rs));
+				return rs.getLong(1);
+			}, from, batchSize);
+			read = ids.size();
+			if (read > 0) {
+				last = ids.getLast();
+			}
+		} while (read == batchSize);
+		return last;
+	}
+
+	@FunctionalInterface
+	private interface DocumentMapper {
+
+		AnalyzedDocument map(ResultSet rs) throws SQLException;
+	}
+
+	private List<Long> missing(String sql, boolean comments) {
+		List<Long> missing = new ArrayList<>();
+		jdbcTemplate.query(sql, rs -> {
+			long id = rs.getLong(1);
+			if (!index.contains(comments ? IndexedDocument.key(0, id) : IndexedDocument.key(id, 0))) {
+				missing.add(id);
+			}
+		});
+		return missing;
+	}
+
+	private List<List<Long>> batches(List<Long> ids) {
+		List<List<Long>> batches = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += batchSize) {
+			batches.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+		}
+		return batches;
+	}
+
+	private static String placeholders(List<Long> ids) {
+		return String.join(", ", Collections.nCopies(ids.size(), "?"));
+	}
+}
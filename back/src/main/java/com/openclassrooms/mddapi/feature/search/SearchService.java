@@ -0,0 +1,91 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.openclassrooms.mddapi.config.SearchProperties;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SearchHitResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SearchPageResponse;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+import com.openclassrooms.mddapi.repository.PostRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+	private static final int MAX_QUERY_LENGTH = 200;
+
+	private final SearchIndex searchIndex;
+	private final PostRepository postRepository;
+	private final SubscriptionIndex subscriptionIndex;
+	private final SearchProperties searchProperties;
+
+	/**
+	 * Searches post titles, bodies and comments; each matching post appears once, ranked by its best BM25 score.
+	 *
+	 * @param userId     the caller
+	 * @param query      free text
+	 * @param subjectId  restricts hits to this subject, or null
+	 * @param subscribed restricts hits to the subjects the caller is subscribed to
+	 * @param cursor     opaque position returned with the previous page, or null
+	 * @param limit      requested page size, clamped to the configured maximum (null for the default)
+	 * @return one page of hits and the cursor of the next one, null on the last page
+	 * @throws BadRequestException if the query is blank or too long, or the cursor is malformed
+	 */
+	public SearchPageResponse search(long userId, String query, Long subjectId, boolean subscribed, String cursor,
+			Integer limit) {
+		if (query == null || query.isBlank()) {
+			throw new BadRequestException("Recherche vide");
+		}
+		if (query.length() > MAX_QUERY_LENGTH) {
+			throw new BadRequestException("Recherche trop longue");
+		}
+		SearchCursor position = SearchCursor.decode(cursor);
+		int pageSize = resolvePageSize(limit);
+
+		List<SearchHit> hits = searchIndex.search(query, subjectFilter(userId, subjectId, subscribed), position,
+				pageSize + 1);
+		List<SearchHit> page = hits.stream().limit(pageSize).toList();
+		if (page.isEmpty()) {
+			return new SearchPageResponse(List.of(), null);
+		}
+
+		Map<Long, FeedPostResponse> posts = postRepository
+				.findFeedItemsByIdIn(page.stream().map(SearchHit::postId).toList())
+				.stream()
+				.collect(Collectors.toMap(FeedPostResponse::id, Function.identity()));
+		List<SearchHitResponse> items = page.stream()
+				.filter(hit -> posts.containsKey(hit.postId()))
+				.map(hit -> new SearchHitResponse(posts.get(hit.postId()), hit.score()))
+				.toList();
+		String nextCursor = hits.size() > pageSize ? SearchCursor.after(page.getLast()).encode() : null;
+		return new SearchPageResponse(items, nextCursor);
+	}
+
+	private Set<Long> subjectFilter(long userId, Long subjectId, boolean subscribed) {
+		if (!subscribed) {
+			return subjectId == null ? null : Set.of(subjectId);
+		}
+		if (subjectId != null) {
+			return subscriptionIndex.isSubscribed(userId, subjectId) ? Set.of(subjectId) : Set.of();
+		}
+		return Arrays.stream(subscriptionIndex.subjectIds(userId)).boxed().collect(Collectors.toSet());
+	}
+
+	private int resolvePageSize(Integer limit) {
+		if (limit == null) {
+			return searchProperties.defaultPageSize();
+		}
+		return Math.clamp(limit, 1, searchProperties.maxPageSize());
+	}
+}
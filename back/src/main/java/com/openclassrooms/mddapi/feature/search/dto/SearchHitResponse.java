@@ -0,0 +1,9 @@
+package com.openclassrooms.mddapi.feature.search.dto;
+
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+
+/**
+ * A matching post, shown like a feed item, with its relevance score.
+ */
+public record SearchHitResponse(FeedPostResponse post, double score) {
+}
@@ -0,0 +1,6 @@
+package com.openclassrooms.mddapi.feature.search.dto;
+
+import java.util.List;
+
+public record SearchPageResponse(List<SearchHitResponse> items, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.openclassrooms.mddapi.feature.search.dto;
+
+/**
+ * A subject or post title starting with the typed prefix, or containing a word that does.
+ */
+public record SuggestionResponse(SuggestionType type, long id, String label) {
+}
@@ -0,0 +1,6 @@
+package com.openclassrooms.mddapi.feature.search.dto;
+
+public enum SuggestionType {
+	subject,
+	post
+}
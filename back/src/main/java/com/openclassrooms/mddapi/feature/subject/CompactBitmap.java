@@ -0,0 +1,198 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints, organized like a Roaring bitmap.
+ * <p>
+ * Values are grouped by their high 16 bits into containers. A container holds its low 16 bits as a sorted
+ * {@code char} array while it has at most 4,096 values (two bytes per value), and as a 65,536-bit bitmap beyond
+ * (8 KiB, less than the array would take). Sparse sets therefore cost about two bytes per value and dense ones one
+ * bit, and membership is a binary search in a small array or a single bit test. Not thread-safe.
+ */
+final class CompactBitmap {
+
+	private static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1024;
+
+	private int[] keys = new int[0];
+	private Container[] containers = new Container[0];
+	private int cardinality;
+
+	boolean add(int value) {
+		int key = value >>> 16;
+		int index = Arrays.binarySearch(keys, key);
+		if (index < 0) {
+			index = -index - 1;
+			keys = insert(keys, index, key);
+			Container[] grown = new Container[containers.length + 1];
+			System.arraycopy(containers, 0, grown, 0, index);
+			System.arraycopy(containers, index, grown, index + 1, containers.length - index);
+			grown[index] = new Container();
+			containers = grown;
+		}
+		boolean added = containers[index].add((char) value);
+		cardinality += added ? 1 : 0;
+		return added;
+	}
+
+	boolean remove(int value) {
+		int index = Arrays.binarySearch(keys, value >>> 16);
+		if (index < 0 || !containers[index].remove((char) value)) {
+			return false;
+		}
+		cardinality--;
+		if (containers[index].cardinality == 0) {
+			keys = delete(keys, index);
+			Container[] shrunk = new Container[containers.length - 1];
+			System.arraycopy(containers, 0, shrunk, 0, index);
+			System.arraycopy(containers, index + 1, shrunk, index, containers.length - index - 1);
+			containers = shrunk;
+		}
+		return true;
+	}
+
+	boolean contains(int value) {
+		int index = Arrays.binarySearch(keys, value >>> 16);
+		return index >= 0 && containers[index].contains((char) value);
+	}
+
+	int cardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * @return the values, in ascending order
+	 */
+	int[] toArray() {
+		int[] values = new int[cardinality];
+		int position = 0;
+		for (int i = 0; i < keys.length; i++) {
+			position = containers[i].copyTo(keys[i] << 16, values, position);
+		}
+		return values;
+	}
+
+	private static int[] insert(int[] array, int index, int value) {
+		int[] grown = new int[array.length + 1];
+		System.arraycopy(array, 0, grown, 0, index);
+		System.arraycopy(array, index, grown, index + 1, array.length - index);
+		grown[index] = value;
+		return grown;
+	}
+
+	private static int[] delete(int[] array, int index) {
+		int[] shrunk = new int[array.length - 1];
+		System.arraycopy(array, 0, shrunk, 0, index);
+		System.arraycopy(array, index + 1, shrunk, index, array.length - index - 1);
+		return shrunk;
+	}
+
+	/**
+	 * The low 16 bits of the values sharing the same high 16 bits: {@code values} (sorted, {@code cardinality} used)
+	 * while sparse, {@code bits} once dense.
+	 */
+	private static final class Container {
+
+		private char[] values = new char[4];
+		private long[] bits;
+		private int cardinality;
+
+		boolean add(char low) {
+			if (bits != null) {
+				long mask = 1L << low;
+				if ((bits[low >>> 6] & mask) != 0) {
+					return false;
+				}
+				bits[low >>> 6] |= mask;
+				cardinality++;
+				return true;
+			}
+			int index = Arrays.binarySearch(values, 0, cardinality, low);
+			if (index >= 0) {
+				return false;
+			}
+			if (cardinality == ARRAY_MAX) {
+				toBitmap();
+				return add(low);
+			}
+			index = -index - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+			}
+			System.arraycopy(values, index, values, index + 1, cardinality - index);
+			values[index] = low;
+			cardinality++;
+			return true;
+		}
+
+		boolean remove(char low) {
+			if (bits != null) {
+				long mask = 1L << low;
+				if ((bits[low >>> 6] & mask) == 0) {
+					return false;
+				}
+				bits[low >>> 6] &= ~mask;
+				cardinality--;
+				// Well below the conversion threshold, so a set hovering around it does not convert back and forth.
+				if (cardinality == ARRAY_MAX / 2) {
+					toArrayContainer();
+				}
+				return true;
+			}
+			int index = Arrays.binarySearch(values, 0, cardinality, low);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+			cardinality--;
+			return true;
+		}
+
+		boolean contains(char low) {
+			if (bits != null) {
+				return (bits[low >>> 6] & 1L << low) != 0;
+			}
+			return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+		}
+
+		int copyTo(int high, int[] target, int position) {
+			if (bits == null) {
+				for (int i = 0; i < cardinality; i++) {
+					target[position++] = high | values[i];
+				}
+				return position;
+			}
+			for (int word = 0; word < BITMAP_WORDS; word++) {
+				long remaining = bits[word];
+				while (remaining != 0) {
+					target[position++] = high | word << 6 | Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+				}
+			}
+			return position;
+		}
+
+		private void toBitmap() {
+			bits = new long[BITMAP_WORDS];
+			for (int i = 0; i < cardinality; i++) {
+				bits[values[i] >>> 6] |= 1L << values[i];
+			}
+			values = null;
+		}
+
+		private void toArrayContainer() {
+			char[] sparse = new char[ARRAY_MAX / 2];
+			int position = 0;
+			for (int word = 0; word < BITMAP_WORDS; word++) {
+				long remaining = bits[word];
+				while (remaining != 0) {
+					sparse[position++] = (char) (word << 6 | Long.numberOfTrailingZeros(remaining));
+					remaining &= remaining - 1;
+				}
+			}
+			values = sparse;
+			bits = null;
+		}
+	}
+}
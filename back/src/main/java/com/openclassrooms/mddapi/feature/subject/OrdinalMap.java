@@ -0,0 +1,89 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense ordinals 0, 1, 2... to ids in order of first appearance, so ids can index arrays and bitmaps.
+ * <p>
+ * Open addressing over primitive arrays, kept at most half full: no boxing, 24 to 48 bytes per id plus 8 for the
+ * reverse lookup. Ordinals are never released. Not thread-safe.
+ */
+final class OrdinalMap {
+
+	private static final int FREE = -1;
+
+	private long[] ids = new long[16];
+	private int[] slots = new int[16];
+	private long[] byOrdinal = new long[8];
+	private int size;
+
+	OrdinalMap() {
+		Arrays.fill(slots, FREE);
+	}
+
+	/**
+	 * @return the ordinal of {@code id}, or -1 if it has none
+	 */
+	int get(long id) {
+		int mask = slots.length - 1;
+		for (int slot = hash(id) & mask; ; slot = slot + 1 & mask) {
+			if (slots[slot] == FREE) {
+				return FREE;
+			}
+			if (ids[slot] == id) {
+				return slots[slot];
+			}
+		}
+	}
+
+	/**
+	 * @return the ordinal of {@code id}, assigned now if it has none
+	 */
+	int getOrAssign(long id) {
+		int existing = get(id);
+		if (existing != FREE) {
+			return existing;
+		}
+		if ((size + 1) * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+		if (size == byOrdinal.length) {
+			byOrdinal = Arrays.copyOf(byOrdinal, size * 2);
+		}
+		byOrdinal[size] = id;
+		place(id, size);
+		return size++;
+	}
+
+	long id(int ordinal) {
+		return byOrdinal[ordinal];
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void place(long id, int ordinal) {
+		int mask = slots.length - 1;
+		int slot = hash(id) & mask;
+		while (slots[slot] != FREE) {
+			slot = slot + 1 & mask;
+		}
+		ids[slot] = id;
+		slots[slot] = ordinal;
+	}
+
+	private void rehash(int capacity) {
+		ids = new long[capacity];
+		slots = new int[capacity];
+		Arrays.fill(slots, FREE);
+		for (int ordinal = 0; ordinal < size; ordinal++) {
+			place(byOrdinal[ordinal], ordinal);
+		}
+	}
+
+	private static int hash(long id) {
+		long mixed = id * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ mixed >>> 32);
+	}
+}
@@ -0,0 +1,119 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory copy of the subject catalog, which changes far less often than it is read.
+ * <p>
+ * The catalog is an immutable snapshot, with subjects in id order in an array searched by id, replaced as a whole
+ * when subjects change: readers never lock and always see a consistent catalog. The snapshot carries the version of
+ * the table it was read from, the row count and latest {@code updated_at}. Every {@code version-check-interval}, and
+ * whenever a lookup misses, that version is read again, a single aggregate over a small table, and the catalog is
+ * reloaded if it changed; a subject created on another node is therefore found at once. Reloads are counted as
+ * {@code subject.catalog.reloads}.
+ * <p>
+ * Only names and descriptions are served from here: {@code fan_out_on_read} must be read from the database.
+ */
+@Component
+public class SubjectCatalog {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Counter reloads;
+	private volatile Snapshot snapshot;
+
+	public SubjectCatalog(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.reloads = Counter.builder("subject.catalog.reloads").register(meterRegistry);
+	}
+
+	public record Entry(long id, String name, String description) {
+	}
+
+	private record Version(long count, Timestamp updatedAt) {
+	}
+
+	private record Snapshot(Version version, long[] ids, List<Entry> entries) {
+
+		Optional<Entry> find(long id) {
+			int index = Arrays.binarySearch(ids, id);
+			return index < 0 ? Optional.empty() : Optional.of(entries.get(index));
+		}
+	}
+
+	/**
+	 * @return every subject, in id order
+	 */
+	public List<Entry> entries() {
+		return current().entries();
+	}
+
+	/**
+	 * @param id the subject id
+	 * @return the subject, empty if it does not exist even after checking for changes
+	 */
+	public Optional<Entry> find(long id) {
+		Optional<Entry> entry = current().find(id);
+		if (entry.isPresent()) {
+			return entry;
+		}
+		return refresh() ? current().find(id) : entry;
+	}
+
+	/**
+	 * Reloads the catalog if the subject table changed since it was read.
+	 *
+	 * @return whether it was reloaded
+	 */
+	@Scheduled(fixedDelayString = "${app.subject.catalog.version-check-interval}")
+	public boolean refresh() {
+		Snapshot current = snapshot;
+		if (current != null && current.version().equals(readVersion())) {
+			return false;
+		}
+		return reload(current);
+	}
+
+	private Snapshot current() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			reload(null);
+			current = snapshot;
+		}
+		return current;
+	}
+
+	/**
+	 * Swaps in a new snapshot, unless another thread already replaced {@code seen} meanwhile.
+	 */
+	private synchronized boolean reload(Snapshot seen) {
+		if (snapshot != seen) {
+			return true;
+		}
+		// Read before the rows: a change in between leaves an older version, caught by the next check.
+		Version version = readVersion();
+		List<Entry> entries = jdbcTemplate.query(
+				"select id, name, description from subject order by id",
+				(rs, row) -> new Entry(rs.getLong(1), rs.getString(2), rs.getString(3)));
+		long[] ids = entries.stream().mapToLong(Entry::id).toArray();
+		snapshot = new Snapshot(version, ids, List.copyOf(entries));
+		reloads.increment();
+		return true;
+	}
+
+	private Version readVersion() {
+		return Objects.requireNonNull(jdbcTemplate.queryForObject(
+				"select count(*), max(updated_at) from subject",
+				(rs, row) -> new Version(rs.getLong(1), rs.getTimestamp(2))));
+	}
+}
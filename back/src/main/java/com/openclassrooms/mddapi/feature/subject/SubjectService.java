@@ -1,9 +1,9 @@
 package com.openclassrooms.mddapi.feature.subject;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,25 +28,27 @@ import lombok.RequiredArgsConstructor;
 public class SubjectService {
 
 	private final SubjectRepository subjectRepository;
+	private final SubjectCatalog subjectCatalog;
+	private final SubscriptionIndex subscriptionIndex;
 	private final SubscriptionRepository subscriptionRepository;
 	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	/**
-	 * Lists all subjects with a subscription flag for the given user.
+	 * Lists all subjects with a subscription flag for the given user. Subjects come from {@link SubjectCatalog} and
+	 * subscriptions from {@link SubscriptionIndex}.
 	 *
 	 * @param userId the authenticated user id
 	 * @return subjects with subscription status
 	 */
-	@Transactional(readOnly = true)
 	public List<SubjectResponse> listSubjects(long userId) {
-		List<Long> subscribedSubjectIds = subscriptionRepository.findSubjectIdsByUserId(userId);
-		Set<Long> subscribedSubjectIdSet = new HashSet<>(subscribedSubjectIds);
-		return subjectRepository.findAll().stream()
+		long[] subscribedSubjectIds = subscriptionIndex.subjectIds(userId);
+		return subjectCatalog.entries().stream()
 				.map(subject -> new SubjectResponse(
-						subject.getId(),
-						subject.getName(),
-						subject.getDescription(),
-						subscribedSubjectIdSet.contains(subject.getId())))
+						subject.id(),
+						subject.name(),
+						subject.description(),
+						Arrays.binarySearch(subscribedSubjectIds, subject.id()) >= 0))
 				.toList();
 	}
 
@@ -67,6 +69,7 @@ public class SubjectService {
 		SubscriptionId id = new SubscriptionId(user.getId(), subject.getId());
 		if (!subscriptionRepository.existsById(id)) {
 			subscriptionRepository.save(new Subscription(user, subject));
+			eventPublisher.publishEvent(new SubscriptionChangedEvent(user.getId(), subject.getId(), true));
 		}
 
 		return new SubscriptionStatusResponse(true);
@@ -89,6 +92,7 @@ public class SubjectService {
 		SubscriptionId id = new SubscriptionId(user.getId(), subject.getId());
 		if (subscriptionRepository.existsById(id)) {
 			subscriptionRepository.deleteById(id);
+			eventPublisher.publishEvent(new SubscriptionChangedEvent(user.getId(), subject.getId(), false));
 		}
 
 		return new SubscriptionStatusResponse(false);
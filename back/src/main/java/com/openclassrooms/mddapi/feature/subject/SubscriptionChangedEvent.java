@@ -0,0 +1,8 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+/**
+ * Published by {@link SubjectService} inside the transaction that adds or removes a subscription.
+ * Only emitted when the subscription state actually changes.
+ */
+public record SubscriptionChangedEvent(long userId, long subjectId, boolean subscribed) {
+}
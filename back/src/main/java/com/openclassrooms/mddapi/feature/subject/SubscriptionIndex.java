@@ -0,0 +1,328 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.openclassrooms.mddapi.config.SubjectProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory subscription graph, read instead of the {@code subscription} table.
+ * <p>
+ * Users and subjects get dense ordinals. Each user has a word bitmap of its subject ordinals (subjects are few, so a
+ * couple of {@code long}s), and each subject a {@link CompactBitmap} of its subscriber ordinals. Membership is a bit
+ * test and listing a subject's subscribers never touches the database.
+ * <p>
+ * The index is loaded at startup by reading {@code subscription} in key order, {@code scan-batch-size} rows per query;
+ * reads wait until then. Subscription changes are applied once committed, before the other commit listeners. Each is
+ * also logged in {@code subscription_change} within its transaction: every {@code sync-interval}, and before a
+ * fan-out, nodes read the log and reload the subscriptions of the users it names, so changes made on other nodes
+ * show up within a second. Log rows stay re-read for {@code grace-period}, which covers transactions committing out
+ * of id order, and are purged after {@code retention}.
+ */
+@Component
+public class SubscriptionIndex {
+
+	private static final long[] NONE = new long[0];
+
+	private final JdbcTemplate jdbcTemplate;
+	private final SubjectProperties.SubscriptionIndex properties;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final CountDownLatch loaded = new CountDownLatch(1);
+	private final OrdinalMap users = new OrdinalMap();
+	private final OrdinalMap subjects = new OrdinalMap();
+	private long[][] subjectsByUser = new long[16][];
+	private CompactBitmap[] usersBySubject = new CompactBitmap[16];
+	private long watermark;
+
+	public SubscriptionIndex(JdbcTemplate jdbcTemplate, SubjectProperties subjectProperties,
+			MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.properties = subjectProperties.subscriptionIndex();
+		Gauge.builder("subscription.index.users", this, SubscriptionIndex::userCount).register(meterRegistry);
+	}
+
+	/**
+	 * @return the subjects the user is subscribed to, in ascending order
+	 */
+	public long[] subjectIds(long userId) {
+		return read(() -> subjectIds(userId, true));
+	}
+
+	public boolean isSubscribed(long userId, long subjectId) {
+		return read(() -> {
+			int user = users.get(userId);
+			int subject = subjects.get(subjectId);
+			if (user < 0 || subject < 0 || subjectsByUser[user] == null || subject >> 6 >= subjectsByUser[user].length) {
+				return false;
+			}
+			return (subjectsByUser[user][subject >> 6] & 1L << subject) != 0;
+		});
+	}
+
+	public int subscriberCount(long subjectId) {
+		return read(() -> {
+			int subject = subjects.get(subjectId);
+			return subject < 0 || usersBySubject[subject] == null ? 0 : usersBySubject[subject].cardinality();
+		});
+	}
+
+	/**
+	 * @return the subscribers of the subject, in ascending order
+	 */
+	public long[] subscriberIds(long subjectId) {
+		return read(() -> {
+			int subject = subjects.get(subjectId);
+			if (subject < 0 || usersBySubject[subject] == null) {
+				return NONE;
+			}
+			int[] ordinals = usersBySubject[subject].toArray();
+			long[] ids = new long[ordinals.length];
+			for (int i = 0; i < ordinals.length; i++) {
+				ids[i] = users.id(ordinals[i]);
+			}
+			Arrays.sort(ids);
+			return ids;
+		});
+	}
+
+	/**
+	 * Loads every subscription, then applies the changes logged meanwhile.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		synchronized (this) {
+			// Changes from the grace period on are read again by sync() below.
+			watermark = settledChangeId();
+			long lastUserId = 0;
+			long lastSubjectId = 0;
+			List<long[]> page;
+			do {
+				page = jdbcTemplate.query("""
+						select user_id, subject_id from subscription
+						where user_id > ? or (user_id = ? and subject_id > ?)
+						order by user_id, subject_id
+						limit ?
+						""",
+						(rs, row) -> new long[] {rs.getLong(1), rs.getLong(2)},
+						lastUserId, lastUserId, lastSubjectId, properties.scanBatchSize());
+				List<long[]> batch = page;
+				write(() -> batch.forEach(pair -> set(pair[0], pair[1], true)));
+				if (!page.isEmpty()) {
+					lastUserId = page.getLast()[0];
+					lastSubjectId = page.getLast()[1];
+				}
+			} while (page.size() == properties.scanBatchSize());
+			loaded.countDown();
+		}
+		sync();
+	}
+
+	/**
+	 * Logs the change in the subscribing transaction, for the other nodes.
+	 */
+	@EventListener
+	public void recordChange(SubscriptionChangedEvent event) {
+		jdbcTemplate.update("insert into subscription_change (user_id, subject_id, created_at) values (?, ?, ?)",
+				event.userId(), event.subjectId(), Timestamp.from(Instant.now()));
+	}
+
+	/**
+	 * Runs before the other commit listeners, which may read the index (feed caches, SSE connections).
+	 */
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+		write(() -> set(event.userId(), event.subjectId(), event.subscribed()));
+	}
+
+	/**
+	 * Reloads the subscriptions of the users named in the change log since the last settled change.
+	 *
+	 * @return the number of users reloaded
+	 */
+	@Scheduled(fixedDelayString = "${app.subject.subscription-index.sync-interval}")
+	public synchronized int sync() {
+		if (loaded.getCount() > 0) {
+			return 0;
+		}
+		long settled = settledChangeId();
+		Set<Long> userIds = new LinkedHashSet<>(jdbcTemplate.queryForList(
+				"select user_id from subscription_change where id > ? order by id", Long.class, watermark));
+		if (!userIds.isEmpty()) {
+			List<Long> ids = List.copyOf(userIds);
+			Map<Long, List<Long>> subscriptions = new HashMap<>();
+			ids.forEach(id -> subscriptions.put(id, new ArrayList<>()));
+			jdbcTemplate.query(
+					"select user_id, subject_id from subscription where user_id in (" + placeholders(ids) + ")",
+					rs -> {
+						subscriptions.get(rs.getLong(1)).add(rs.getLong(2));
+					},
+					ids.toArray());
+			write(() -> subscriptions.forEach(this::replace));
+		}
+		watermark = Math.max(watermark, settled);
+		return userIds.size();
+	}
+
+	/**
+	 * Deletes logged changes older than the retention period.
+	 *
+	 * @return the number of changes deleted
+	 */
+	@Scheduled(fixedDelayString = "${app.subject.subscription-index.retention}")
+	public int purge() {
+		return jdbcTemplate.update("delete from subscription_change where created_at < ?",
+				Timestamp.from(Instant.now().minus(properties.retention())));
+	}
+
+	/**
+	 * @return the last logged change old enough that no change with a smaller id can still commit
+	 */
+	private long settledChangeId() {
+		Long id = jdbcTemplate.queryForObject(
+				"select max(id) from subscription_change where created_at < ?", Long.class,
+				Timestamp.from(Instant.now().minus(properties.gracePeriod())));
+		return id == null ? 0 : id;
+	}
+
+	private void replace(long userId, List<Long> subjectIds) {
+		for (long subjectId : subjectIds(userId, false)) {
+			if (!subjectIds.contains(subjectId)) {
+				set(userId, subjectId, false);
+			}
+		}
+		subjectIds.forEach(subjectId -> set(userId, subjectId, true));
+	}
+
+	/**
+	 * Current subjects of a user, for callers already holding the lock.
+	 */
+	private long[] subjectIds(long userId, boolean sorted) {
+		int user = users.get(userId);
+		long[] words = user < 0 ? null : subjectsByUser[user];
+		if (words == null) {
+			return NONE;
+		}
+		long[] ids = new long[bitCount(words)];
+		int position = 0;
+		for (int word = 0; word < words.length; word++) {
+			for (long remaining = words[word]; remaining != 0; remaining &= remaining - 1) {
+				ids[position++] = subjects.id(word << 6 | Long.numberOfTrailingZeros(remaining));
+			}
+		}
+		if (sorted) {
+			Arrays.sort(ids);
+		}
+		return ids;
+	}
+
+	/**
+	 * Called with the write lock held.
+	 */
+	private void set(long userId, long subjectId, boolean subscribed) {
+		int user = users.getOrAssign(userId);
+		int subject = subjects.getOrAssign(subjectId);
+		if (user >= subjectsByUser.length) {
+			subjectsByUser = Arrays.copyOf(subjectsByUser, Math.max(user + 1, subjectsByUser.length * 2));
+		}
+		if (subject >= usersBySubject.length) {
+			usersBySubject = Arrays.copyOf(usersBySubject, Math.max(subject + 1, usersBySubject.length * 2));
+		}
+		long[] words = subjectsByUser[user];
+		if (subscribed) {
+			if (words == null || subject >> 6 >= words.length) {
+				words = words == null ? new long[(subject >> 6) + 1] : Arrays.copyOf(words, (subject >> 6) + 1);
+				subjectsByUser[user] = words;
+			}
+			words[subject >> 6] |= 1L << subject;
+			if (usersBySubject[subject] == null) {
+				usersBySubject[subject] = new CompactBitmap();
+			}
+			usersBySubject[subject].add(user);
+		} else {
+			if (words != null && subject >> 6 < words.length) {
+				words[subject >> 6] &= ~(1L << subject);
+			}
+			if (usersBySubject[subject] != null) {
+				usersBySubject[subject].remove(user);
+			}
+		}
+	}
+
+	/**
+	 * Users that ever had a subscription, without waiting for the load.
+	 */
+	private double userCount() {
+		lock.readLock().lock();
+		try {
+			return users.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private <T> T read(Supplier<T> reader) {
+		awaitLoaded();
+		lock.readLock().lock();
+		try {
+			return reader.get();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void write(Runnable writer) {
+		lock.writeLock().lock();
+		try {
+			writer.run();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void awaitLoaded() {
+		try {
+			loaded.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while the subscription index loads", ex);
+		}
+	}
+
+	private static int bitCount(long[] words) {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	private static String placeholders(List<Long> ids) {
+		return String.join(", ", Collections.nCopies(ids.size(), "?"));
+	}
+}
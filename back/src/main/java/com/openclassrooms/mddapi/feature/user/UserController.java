@@ -4,12 +4,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.openclassrooms.mddapi.feature.auth.dto.UserDto;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
 import com.openclassrooms.mddapi.feature.user.dto.UpdateUserRequest;
 import com.openclassrooms.mddapi.feature.user.dto.UserProfileResponse;
 import com.openclassrooms.mddapi.security.CurrentUserService;
@@ -36,4 +39,12 @@ public class UserController {
 		long userId = currentUserService.getUserId(jwt);
 		return ResponseEntity.ok(userService.updateProfile(userId, request));
 	}
+
+	@GetMapping("/{id}/posts")
+	public ResponseEntity<FeedPageResponse> posts(
+			@PathVariable("id") long userId,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		return ResponseEntity.ok(userService.getPosts(userId, cursor, limit));
+	}
 }
@@ -1,17 +1,26 @@
 package com.openclassrooms.mddapi.feature.user;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.openclassrooms.mddapi.config.FeedProperties;
 import com.openclassrooms.mddapi.feature.auth.dto.UserDto;
-import com.openclassrooms.mddapi.domain.Subscription;
 import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.exception.BadRequestException;
 import com.openclassrooms.mddapi.exception.ConflictException;
 import com.openclassrooms.mddapi.exception.NotFoundException;
-import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.feature.feed.FeedCursor;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.subject.SubjectCatalog;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+import com.openclassrooms.mddapi.repository.PostRepository;
 import com.openclassrooms.mddapi.repository.UserRepository;
 import com.openclassrooms.mddapi.feature.user.dto.SubscriptionDto;
 import com.openclassrooms.mddapi.feature.user.dto.UpdateUserRequest;
@@ -20,15 +29,18 @@ import com.openclassrooms.mddapi.feature.user.dto.UserProfileResponse;
 import lombok.RequiredArgsConstructor;
 
 /**
- * Provides user profile read/update operations.
+ * Provides user profile read/update operations and the author timeline.
  */
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
 	private final UserRepository userRepository;
-	private final SubscriptionRepository subscriptionRepository;
+	private final SubscriptionIndex subscriptionIndex;
+	private final SubjectCatalog subjectCatalog;
 	private final PasswordEncoder passwordEncoder;
+	private final PostRepository postRepository;
+	private final FeedProperties feedProperties;
 
 	@Transactional(readOnly = true)
 	/**
@@ -42,12 +54,10 @@ public class UserService {
 		User user = userRepository.findById(userId)
 				.orElseThrow(() -> new NotFoundException("Utilisateur introuvable"));
 
-		List<Subscription> subscriptions = subscriptionRepository.findAllByUserIdWithSubject(userId);
-		List<SubscriptionDto> subscriptionDtos = subscriptions.stream()
-				.map(subscription -> new SubscriptionDto(
-						subscription.getSubject().getId(),
-						subscription.getSubject().getName(),
-						subscription.getSubject().getDescription()))
+		List<SubscriptionDto> subscriptionDtos = Arrays.stream(subscriptionIndex.subjectIds(userId))
+				.mapToObj(subjectCatalog::find)
+				.flatMap(Optional::stream)
+				.map(subject -> new SubscriptionDto(subject.id(), subject.name(), subject.description()))
 				.toList();
 
 		return new UserProfileResponse(user.getId(), user.getEmail(), user.getUsername(), subscriptionDtos);
@@ -88,4 +98,36 @@ public class UserService {
 		User saved = userRepository.save(user);
 		return new UserDto(saved.getId(), saved.getEmail(), saved.getUsername());
 	}
+
+	/**
+	 * Returns one page of the posts written by a user, newest first, using keyset pagination on
+	 * {@code (createdAt, id)}.
+	 * <p>
+	 * Items are the feed projection, read by a range scan of the {@code (author_id, created_at, id)} index.
+	 *
+	 * @param authorId the author id
+	 * @param cursor   opaque cursor returned by the previous page, null for the first page
+	 * @param limit    requested page size, clamped to the configured maximum (null for the default)
+	 * @return the page items and the cursor of the next page (null when there is none)
+	 * @throws NotFoundException   if the user does not exist
+	 * @throws BadRequestException if the cursor is malformed
+	 */
+	@Transactional(readOnly = true)
+	public FeedPageResponse getPosts(long authorId, String cursor, Integer limit) {
+		FeedCursor position = FeedCursor.decode(cursor);
+		int pageSize = limit == null ? feedProperties.defaultPageSize() : Math.clamp(limit, 1, feedProperties.maxPageSize());
+		if (!userRepository.existsById(authorId)) {
+			throw new NotFoundException("Utilisateur introuvable");
+		}
+
+		Limit fetchLimit = Limit.of(pageSize + 1);
+		List<FeedPostResponse> fetched = position == null
+				? postRepository.findAuthorPage(authorId, fetchLimit)
+				: postRepository.findAuthorPageAfter(authorId, position.createdAt(), position.id(), fetchLimit);
+		if (fetched.size() <= pageSize) {
+			return new FeedPageResponse(fetched, null);
+		}
+		List<FeedPostResponse> items = fetched.subList(0, pageSize);
+		return new FeedPageResponse(List.copyOf(items), FeedCursor.after(items.get(pageSize - 1)).encode());
+	}
 }
@@ -1,11 +1,23 @@
 package com.openclassrooms.mddapi.repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.openclassrooms.mddapi.domain.AuthSession;
 
 public interface AuthSessionRepository extends JpaRepository<AuthSession, Long> {
 	Optional<AuthSession> findByTokenHash(String tokenHash);
+
+	/**
+	 * Deletes the sessions of a user that expired before {@code now} (served by
+	 * {@code idx_auth_session_user_expires_at}).
+	 */
+	@Modifying
+	@Query("delete from AuthSession s where s.user.id = :userId and s.expiresAt < :now")
+	int deleteExpiredByUserId(@Param("userId") Long userId, @Param("now") Instant now);
 }
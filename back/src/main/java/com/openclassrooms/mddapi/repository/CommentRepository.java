@@ -1,20 +1,42 @@
 package com.openclassrooms.mddapi.repository;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.openclassrooms.mddapi.domain.Comment;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
 	@Query("""
-			select c from Comment c
-			join fetch c.author
+			select new com.openclassrooms.mddapi.feature.post.dto.CommentResponse(
+				c.id, c.content, a.username, c.createdAt, c.reactionCount)
+			from Comment c
+			join c.author a
 			where c.post.id = :postId
-			order by c.createdAt asc
+			order by c.createdAt asc, c.id asc
 			""")
-	List<Comment> findByPostIdWithAuthor(@Param("postId") Long postId);
+	List<CommentResponse> findPage(@Param("postId") Long postId, Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.post.dto.CommentResponse(
+				c.id, c.content, a.username, c.createdAt, c.reactionCount)
+			from Comment c
+			join c.author a
+			where c.post.id = :postId
+			and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id))
+			order by c.createdAt asc, c.id asc
+			""")
+	List<CommentResponse> findPageAfter(
+			@Param("postId") Long postId,
+			@Param("createdAt") Instant createdAt,
+			@Param("id") long id,
+			Limit limit);
+
+	boolean existsByIdAndPostId(Long id, Long postId);
 }
@@ -1,39 +1,193 @@
 package com.openclassrooms.mddapi.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.feature.feed.PostContent;
+import com.openclassrooms.mddapi.feature.feed.RankedFeedPost;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
 
+/**
+ * Feed queries are constructor projections: they select only the columns of {@link FeedPostResponse} and never
+ * hydrate {@link Post} or {@code User} entities into the persistence context. They read the precomputed
+ * {@code excerpt}: the {@code content} LOB is only read by {@link #findContentsByIdIn}, for the items of a feed
+ * requested in full.
+ */
 public interface PostRepository extends JpaRepository<Post, Long> {
 
 	@Query("""
-			select p from Post p
-			join fetch p.author
-			join fetch p.subject
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
 			where p.subject.id in :subjectIds
 			order by p.createdAt asc
 			""")
-	List<Post> findFeedPostsAsc(@Param("subjectIds") List<Long> subjectIds);
+	List<FeedPostResponse> findFeedPostsAsc(@Param("subjectIds") List<Long> subjectIds);
 
 	@Query("""
-			select p from Post p
-			join fetch p.author
-			join fetch p.subject
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
 			where p.subject.id in :subjectIds
 			order by p.createdAt desc
 			""")
-	List<Post> findFeedPostsDesc(@Param("subjectIds") List<Long> subjectIds);
+	List<FeedPostResponse> findFeedPostsDesc(@Param("subjectIds") List<Long> subjectIds);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			order by p.createdAt asc, p.id asc
+			""")
+	List<FeedPostResponse> findFeedPageAsc(@Param("subjectIds") List<Long> subjectIds, Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			and (p.createdAt > :createdAt or (p.createdAt = :createdAt and p.id > :id))
+			order by p.createdAt asc, p.id asc
+			""")
+	List<FeedPostResponse> findFeedPageAscAfter(
+			@Param("subjectIds") List<Long> subjectIds,
+			@Param("createdAt") Instant createdAt,
+			@Param("id") long id,
+			Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			order by p.createdAt desc, p.id desc
+			""")
+	List<FeedPostResponse> findFeedPageDesc(@Param("subjectIds") List<Long> subjectIds, Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+			order by p.createdAt desc, p.id desc
+			""")
+	List<FeedPostResponse> findFeedPageDescAfter(
+			@Param("subjectIds") List<Long> subjectIds,
+			@Param("createdAt") Instant createdAt,
+			@Param("id") long id,
+			Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where a.id = :authorId
+			order by p.createdAt desc, p.id desc
+			""")
+	List<FeedPostResponse> findAuthorPage(@Param("authorId") long authorId, Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where a.id = :authorId
+			and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+			order by p.createdAt desc, p.id desc
+			""")
+	List<FeedPostResponse> findAuthorPageAfter(
+			@Param("authorId") long authorId,
+			@Param("createdAt") Instant createdAt,
+			@Param("id") long id,
+			Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			order by p.hotScore desc, p.id desc
+			""")
+	List<FeedPostResponse> findFeedPostsHot(@Param("subjectIds") List<Long> subjectIds);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.RankedFeedPost(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount,
+				p.hotScore)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			order by p.hotScore desc, p.id desc
+			""")
+	List<RankedFeedPost> findHotPage(@Param("subjectIds") List<Long> subjectIds, Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.RankedFeedPost(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount,
+				p.hotScore)
+			from Post p
+			join p.author a
+			where p.subject.id in :subjectIds
+			and (p.hotScore < :score or (p.hotScore = :score and p.id < :id))
+			order by p.hotScore desc, p.id desc
+			""")
+	List<RankedFeedPost> findHotPageAfter(
+			@Param("subjectIds") List<Long> subjectIds,
+			@Param("score") double score,
+			@Param("id") long id,
+			Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse(
+				p.id, p.subject.id, a.username, p.title, p.excerpt, p.createdAt, p.commentCount, p.lastActivityAt, p.reactionCount)
+			from Post p
+			join p.author a
+			where p.id in :postIds
+			""")
+	List<FeedPostResponse> findFeedItemsByIdIn(@Param("postIds") List<Long> postIds);
+
+	@Query("select p.subject.id from Post p where p.id = :postId")
+	Optional<Long> findSubjectIdById(@Param("postId") Long postId);
 
 	@Query("""
 			select p from Post p
 			join fetch p.author
-			join fetch p.subject
 			where p.id = :postId
 			""")
-	Optional<Post> findByIdWithAuthorAndSubject(@Param("postId") Long postId);
+	Optional<Post> findByIdWithAuthor(@Param("postId") Long postId);
+
+	@Query("""
+			select p.id from Post p
+			where p.subject.id = :subjectId
+			and p.id < :beforeId
+			order by p.id desc
+			""")
+	List<Long> findIdsBySubjectIdBefore(
+			@Param("subjectId") long subjectId,
+			@Param("beforeId") long beforeId,
+			Limit limit);
+
+	@Query("""
+			select new com.openclassrooms.mddapi.feature.feed.PostContent(p.id, p.content)
+			from Post p
+			where p.id in :postIds
+			""")
+	List<PostContent> findContentsByIdIn(@Param("postIds") List<Long> postIds);
 }
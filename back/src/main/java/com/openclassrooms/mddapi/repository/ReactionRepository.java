@@ -0,0 +1,43 @@
+package com.openclassrooms.mddapi.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.openclassrooms.mddapi.domain.Reaction;
+import com.openclassrooms.mddapi.domain.ReactionId;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+
+public interface ReactionRepository extends JpaRepository<Reaction, ReactionId> {
+
+	/**
+	 * Records a reaction unless the user already reacted to the target: concurrent identical requests never fail on
+	 * the primary key, exactly one of them inserts.
+	 *
+	 * @param targetType the {@link ReactionTarget} name
+	 * @return 1 if the reaction was added, 0 if it already existed
+	 */
+	@Modifying
+	@Query(value = """
+			insert ignore into reaction (user_id, target_type, target_id, created_at)
+			values (:userId, :targetType, :targetId, :createdAt)
+			""", nativeQuery = true)
+	int insertIfAbsent(
+			@Param("userId") long userId,
+			@Param("targetType") String targetType,
+			@Param("targetId") long targetId,
+			@Param("createdAt") Instant createdAt);
+
+	@Modifying
+	@Query("""
+			delete from Reaction r
+			where r.userId = :userId and r.targetType = :targetType and r.targetId = :targetId
+			""")
+	int remove(
+			@Param("userId") long userId,
+			@Param("targetType") ReactionTarget targetType,
+			@Param("targetId") long targetId);
+}
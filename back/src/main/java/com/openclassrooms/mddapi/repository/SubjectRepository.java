@@ -1,9 +1,21 @@
 package com.openclassrooms.mddapi.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.openclassrooms.mddapi.domain.Subject;
 
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
-}
 
+	@Query("select s.id from Subject s where s.id in :subjectIds and s.fanOutOnRead = true")
+	List<Long> findFanOutOnReadIds(@Param("subjectIds") Collection<Long> subjectIds);
+
+	@Modifying
+	@Query("update Subject s set s.fanOutOnRead = true where s.id = :subjectId")
+	int markFanOutOnRead(@Param("subjectId") Long subjectId);
+}
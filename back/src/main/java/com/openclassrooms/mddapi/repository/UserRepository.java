@@ -1,8 +1,12 @@
 package com.openclassrooms.mddapi.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.openclassrooms.mddapi.domain.User;
 
@@ -18,4 +22,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	boolean existsByEmailIgnoreCaseAndIdNot(String email, Long id);
 
 	boolean existsByUsernameIgnoreCaseAndIdNot(String username, Long id);
+
+	@Query("select u from User u where lower(u.username) in :usernames")
+	List<User> findAllByLowerUsernameIn(@Param("usernames") Collection<String> usernames);
 }
@@ -0,0 +1,117 @@
+package com.openclassrooms.mddapi.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.openclassrooms.mddapi.domain.UserTimeline;
+import com.openclassrooms.mddapi.domain.UserTimelineId;
+
+public interface UserTimelineRepository extends JpaRepository<UserTimeline, UserTimelineId> {
+
+	@Query("""
+			select t.postId from UserTimeline t
+			where t.userId = :userId
+			order by t.createdAt asc, t.postId asc
+			""")
+	List<Long> findPostIdsAsc(@Param("userId") Long userId, Limit limit);
+
+	@Query("""
+			select t.postId from UserTimeline t
+			where t.userId = :userId
+			and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.postId > :postId))
+			order by t.createdAt asc, t.postId asc
+			""")
+	List<Long> findPostIdsAscAfter(
+			@Param("userId") Long userId,
+			@Param("createdAt") Instant createdAt,
+			@Param("postId") long postId,
+			Limit limit);
+
+	@Query("""
+			select t.postId from UserTimeline t
+			where t.userId = :userId
+			order by t.createdAt desc, t.postId desc
+			""")
+	List<Long> findPostIdsDesc(@Param("userId") Long userId, Limit limit);
+
+	@Query("""
+			select t.postId from UserTimeline t
+			where t.userId = :userId
+			and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.postId < :postId))
+			order by t.createdAt desc, t.postId desc
+			""")
+	List<Long> findPostIdsDescAfter(
+			@Param("userId") Long userId,
+			@Param("createdAt") Instant createdAt,
+			@Param("postId") long postId,
+			Limit limit);
+
+	/**
+	 * Copies a post into the timelines of the given users, skipping users who unsubscribed in the meantime. Entries
+	 * already written by a concurrent backfill or an earlier attempt are ignored, so a batch can be replayed.
+	 */
+	@Modifying
+	@Query(value = """
+			insert ignore into user_timeline (user_id, post_id, subject_id, created_at)
+			select s.user_id, p.id, p.subject_id, p.created_at
+			from subscription s
+			join post p on p.subject_id = s.subject_id
+			where p.id = :postId
+			and s.user_id in (:userIds)
+			""", nativeQuery = true)
+	int fanOut(@Param("postId") Long postId, @Param("userIds") List<Long> userIds);
+
+	/**
+	 * Copies imported posts into the timelines of their subjects' subscribers, except for fan-out-on-read subjects.
+	 */
+	@Modifying
+	@Query(value = """
+			insert ignore into user_timeline (user_id, post_id, subject_id, created_at)
+			select s.user_id, p.id, p.subject_id, p.created_at
+			from subscription s
+			join post p on p.subject_id = s.subject_id
+			join subject sj on sj.id = p.subject_id
+			where p.id in (:postIds)
+			and sj.fan_out_on_read = false
+			""", nativeQuery = true)
+	int fanOutAll(@Param("postIds") Collection<Long> postIds);
+
+	/**
+	 * Copies the most recent posts of a subject into a user timeline, up to {@code limit} posts.
+	 */
+	@Modifying
+	@Query(value = """
+			insert ignore into user_timeline (user_id, post_id, subject_id, created_at)
+			select :userId, p.id, p.subject_id, p.created_at
+			from post p
+			where p.subject_id = :subjectId
+			order by p.created_at desc, p.id desc
+			limit :limit
+			""", nativeQuery = true)
+	int backfill(@Param("userId") Long userId, @Param("subjectId") Long subjectId, @Param("limit") int limit);
+
+	/**
+	 * Copies the given posts into a user timeline, as long as the user is still subscribed to their subject.
+	 */
+	@Modifying
+	@Query(value = """
+			insert ignore into user_timeline (user_id, post_id, subject_id, created_at)
+			select s.user_id, p.id, p.subject_id, p.created_at
+			from subscription s
+			join post p on p.subject_id = s.subject_id
+			where s.user_id = :userId
+			and p.id in (:postIds)
+			""", nativeQuery = true)
+	int copyPosts(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+	@Modifying
+	@Query("delete from UserTimeline t where t.userId = :userId and t.subjectId = :subjectId")
+	int prune(@Param("userId") Long userId, @Param("subjectId") Long subjectId);
+}
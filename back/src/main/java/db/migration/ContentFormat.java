@@ -0,0 +1,149 @@
+package db.migration;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage format of post and comment bodies, as the Java migrations write and read it.
+ * <p>
+ * A frozen copy of the format of {@code ContentCodec} at the time of {@code V17}: migrations must keep producing the
+ * same data once applied, so they never depend on application code, which may change. The first byte tells how the
+ * rest is stored:
+ * <ul>
+ * <li>{@code 0}: UTF-8 text;</li>
+ * <li>{@code 1}: varint length of the UTF-8 text, then raw Deflate;</li>
+ * <li>{@code 2}: varint dictionary id, varint length, then raw Deflate with that preset dictionary.</li>
+ * </ul>
+ */
+final class ContentFormat {
+
+	/**
+	 * Minimum UTF-8 size, in bytes, of a body compressed by {@link #encode(String)}.
+	 */
+	private static final int THRESHOLD = 512;
+
+	private static final byte RAW = 0;
+	private static final byte DEFLATE = 1;
+	private static final byte DEFLATE_DICTIONARY = 2;
+
+	private ContentFormat() {
+	}
+
+	/**
+	 * Encodes a body without dictionary, compressed when it is large enough and shrinks.
+	 */
+	static byte[] encode(String text) {
+		byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+		if (utf8.length >= THRESHOLD) {
+			byte[] compressed = deflate(utf8);
+			if (compressed != null) {
+				return compressed;
+			}
+		}
+		byte[] stored = new byte[utf8.length + 1];
+		stored[0] = RAW;
+		System.arraycopy(utf8, 0, stored, 1, utf8.length);
+		return stored;
+	}
+
+	/**
+	 * Decodes a body in any of the three formats.
+	 *
+	 * @param dictionaries resolves the dictionary named in the header, returning null when unknown
+	 */
+	static String decode(byte[] stored, IntFunction<byte[]> dictionaries) {
+		ByteBuffer buffer = ByteBuffer.wrap(stored);
+		byte format = buffer.get();
+		return switch (format) {
+			case RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+			case DEFLATE -> inflate(buffer, null);
+			case DEFLATE_DICTIONARY -> {
+				int id = readVarint(buffer);
+				byte[] preset = dictionaries.apply(id);
+				if (preset == null) {
+					throw new IllegalStateException("Unknown content dictionary " + id);
+				}
+				yield inflate(buffer, preset);
+			}
+			default -> throw new IllegalStateException("Unknown content format " + format);
+		};
+	}
+
+	/**
+	 * @return the header and compressed body, or null if that is not smaller than the text
+	 */
+	private static byte[] deflate(byte[] utf8) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 2 + 16);
+		out.write(DEFLATE);
+		writeVarint(out, utf8.length);
+
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(utf8);
+			deflater.finish();
+			byte[] chunk = new byte[Math.min(utf8.length, 8192)];
+			while (!deflater.finished()) {
+				int length = deflater.deflate(chunk);
+				out.write(chunk, 0, length);
+				if (out.size() >= utf8.length) {
+					return null;
+				}
+			}
+		} finally {
+			deflater.end();
+		}
+		return out.toByteArray();
+	}
+
+	private static String inflate(ByteBuffer buffer, byte[] preset) {
+		byte[] utf8 = new byte[readVarint(buffer)];
+		Inflater inflater = new Inflater(true);
+		try {
+			if (preset != null) {
+				inflater.setDictionary(preset);
+			}
+			inflater.setInput(buffer);
+			int read = 0;
+			while (read < utf8.length) {
+				int length = inflater.inflate(utf8, read, utf8.length - read);
+				if (length == 0 && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				read += length;
+			}
+			if (read != utf8.length) {
+				throw new IllegalStateException("Truncated content: " + read + " of " + utf8.length + " bytes");
+			}
+		} catch (DataFormatException ex) {
+			throw new IllegalStateException("Corrupted content", ex);
+		} finally {
+			inflater.end();
+		}
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed varint");
+	}
+}
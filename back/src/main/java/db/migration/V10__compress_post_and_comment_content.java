@@ -0,0 +1,64 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Moves {@code post.content} and {@code comment.content} from {@code TEXT} to {@link ContentFormat}-encoded
+ * {@code MEDIUMBLOB}.
+ * <p>
+ * Existing bodies are re-encoded without dictionary, in id order and by batches so that large tables are never
+ * held in memory. Written in Java because the encoding cannot be expressed in SQL.
+ */
+public class V10__compress_post_and_comment_content extends BaseJavaMigration {
+
+	private static final int BATCH_SIZE = 500;
+
+	@Override
+	public void migrate(Context context) throws SQLException {
+		Connection connection = context.getConnection();
+		for (String table : new String[] {"post", "comment"}) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ALTER TABLE `" + table + "` ADD COLUMN `content_packed` MEDIUMBLOB NULL");
+			}
+			encode(connection, table);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ALTER TABLE `" + table + "` DROP COLUMN `content`");
+				statement.execute(
+						"ALTER TABLE `" + table + "` CHANGE `content_packed` `content` MEDIUMBLOB NOT NULL");
+			}
+		}
+	}
+
+	private void encode(Connection connection, String table) throws SQLException {
+		String select = "SELECT `id`, `content` FROM `" + table + "` WHERE `id` > ? ORDER BY `id` LIMIT " + BATCH_SIZE;
+		String update = "UPDATE `" + table + "` SET `content_packed` = ? WHERE `id` = ?";
+		try (PreparedStatement reader = connection.prepareStatement(select);
+				PreparedStatement writer = connection.prepareStatement(update)) {
+			long lastId = 0;
+			int read;
+			do {
+				read = 0;
+				reader.setLong(1, lastId);
+				try (ResultSet rows = reader.executeQuery()) {
+					while (rows.next()) {
+						lastId = rows.getLong(1);
+						writer.setBytes(1, ContentFormat.encode(rows.getString(2)));
+						writer.setLong(2, lastId);
+						writer.addBatch();
+						read++;
+					}
+				}
+				if (read > 0) {
+					writer.executeBatch();
+				}
+			} while (read == BATCH_SIZE);
+		}
+	}
+}
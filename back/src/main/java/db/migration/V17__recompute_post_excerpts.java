@@ -0,0 +1,86 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Recomputes {@code post.excerpt} with the word-boundary cut of {@code PostExcerpt}, replacing the plain
+ * 280-character prefix that {@code V3} gave the posts existing at the time. The cut is copied here rather than
+ * called, so that later changes to {@code PostExcerpt} do not change what this migration writes.
+ * <p>
+ * Bodies are decoded with the dictionary named in their header, in id order and by batches like {@code V10}. Written
+ * in Java because neither the decoding nor the word-boundary cut can be expressed in SQL.
+ */
+public class V17__recompute_post_excerpts extends BaseJavaMigration {
+
+	private static final int BATCH_SIZE = 500;
+	private static final int EXCERPT_LENGTH = 280;
+	private static final char ELLIPSIS = '…';
+
+	@Override
+	public void migrate(Context context) throws SQLException {
+		Connection connection = context.getConnection();
+		Map<Integer, byte[]> dictionaries = new HashMap<>();
+		IntFunction<byte[]> dictionary = id -> dictionaries.computeIfAbsent(id, key -> dictionary(connection, key));
+
+		String select = "SELECT `id`, `content` FROM `post` WHERE `id` > ? ORDER BY `id` LIMIT " + BATCH_SIZE;
+		String update = "UPDATE `post` SET `excerpt` = ? WHERE `id` = ?";
+		try (PreparedStatement reader = connection.prepareStatement(select);
+				PreparedStatement writer = connection.prepareStatement(update)) {
+			long lastId = 0;
+			int read;
+			do {
+				read = 0;
+				reader.setLong(1, lastId);
+				try (ResultSet rows = reader.executeQuery()) {
+					while (rows.next()) {
+						lastId = rows.getLong(1);
+						writer.setString(1, excerpt(ContentFormat.decode(rows.getBytes(2), dictionary)));
+						writer.setLong(2, lastId);
+						writer.addBatch();
+						read++;
+					}
+				}
+				if (read > 0) {
+					writer.executeBatch();
+				}
+			} while (read == BATCH_SIZE);
+		}
+	}
+
+	private static String excerpt(String content) {
+		String normalized = content.strip().replaceAll("\\s+", " ");
+		if (normalized.length() <= EXCERPT_LENGTH) {
+			return normalized;
+		}
+
+		int end = EXCERPT_LENGTH - 1;
+		int lastSpace = normalized.lastIndexOf(' ', end);
+		if (lastSpace > end / 2) {
+			end = lastSpace;
+		} else if (Character.isHighSurrogate(normalized.charAt(end - 1))) {
+			end--;
+		}
+		return normalized.substring(0, end).stripTrailing() + ELLIPSIS;
+	}
+
+	private static byte[] dictionary(Connection connection, int id) {
+		try (PreparedStatement statement = connection.prepareStatement(
+				"SELECT `data` FROM `content_dictionary` WHERE `id` = ?")) {
+			statement.setInt(1, id);
+			try (ResultSet rows = statement.executeQuery()) {
+				return rows.next() ? rows.getBytes(1) : null;
+			}
+		} catch (SQLException ex) {
+			throw new IllegalStateException("Cannot read content dictionary " + id, ex);
+		}
+	}
+}
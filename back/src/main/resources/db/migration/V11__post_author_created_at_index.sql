@@ -0,0 +1,9 @@
+-- Composite index for the author timeline (filter on author, ordered by date, keyset on id). It supersedes the
+-- single-column foreign key index, which could not serve an ordered scan.
+-- The foreign key is re-created around the index swap so it binds to the composite index.
+
+ALTER TABLE `post` ADD KEY `idx_post_author_created_at` (`author_id`, `created_at`, `id`);
+ALTER TABLE `post` DROP FOREIGN KEY `fk_post_author_id`;
+ALTER TABLE `post` DROP INDEX `idx_post_author_id`;
+ALTER TABLE `post` ADD CONSTRAINT `fk_post_author_id`
+  FOREIGN KEY (`author_id`) REFERENCES `user` (`id`);
@@ -0,0 +1,17 @@
+-- Per-user reactions (likes) on posts and comments, and their denormalized counters.
+-- One row per (user, target): reacting twice is a no-op. Targets are identified by type and id, so the table has no
+-- foreign key to post or comment; neither is ever deleted. Counters are maintained by batched updates
+-- (see ReactionFlusher), never by the request that reacts.
+
+CREATE TABLE `reaction` (
+  `user_id` BIGINT NOT NULL,
+  `target_type` VARCHAR(16) NOT NULL,
+  `target_id` BIGINT NOT NULL,
+  `created_at` TIMESTAMP(6) NOT NULL,
+  PRIMARY KEY (`user_id`, `target_type`, `target_id`),
+  CONSTRAINT `fk_reaction_user_id`
+    FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+ALTER TABLE `post` ADD COLUMN `reaction_count` INT NOT NULL DEFAULT 0 AFTER `last_activity_at`;
+ALTER TABLE `comment` ADD COLUMN `reaction_count` INT NOT NULL DEFAULT 0 AFTER `content`;
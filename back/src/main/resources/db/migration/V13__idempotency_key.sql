@@ -0,0 +1,14 @@
+-- Responses of requests sent with an Idempotency-Key header, so a retry replays the first response instead of
+-- creating the resource again. Shared by every node; rows older than app.idempotency.ttl are purged periodically.
+-- No foreign key to user: rows are short-lived and only ever read by key.
+
+CREATE TABLE `idempotency_key` (
+  `user_id` BIGINT NOT NULL,
+  `idempotency_key` VARCHAR(255) NOT NULL,
+  `fingerprint` CHAR(64) NOT NULL,
+  `status` SMALLINT NOT NULL,
+  `body` TEXT NULL,
+  `created_at` TIMESTAMP(6) NOT NULL,
+  PRIMARY KEY (`user_id`, `idempotency_key`),
+  KEY `idx_idempotency_key_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,6 @@
+-- 64-bit SimHash of title and content, used to detect near-duplicate posts (see NearDuplicateDetector). Existing
+-- and imported-before-V14 posts get theirs on the next startup. duplicate_of records the post a flagged near-duplicate
+-- resembles; it is only set when near-duplicates are flagged rather than rejected.
+
+ALTER TABLE `post` ADD COLUMN `simhash` BIGINT NULL AFTER `reaction_count`;
+ALTER TABLE `post` ADD COLUMN `duplicate_of` BIGINT NULL AFTER `simhash`;
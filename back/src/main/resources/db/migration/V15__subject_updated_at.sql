@@ -0,0 +1,6 @@
+-- Last change of each subject, maintained by the database on every update. Together with the row count it versions
+-- the subject catalog, so nodes holding it in memory notice changes made anywhere, including by hand (see
+-- SubjectCatalog).
+
+ALTER TABLE `subject` ADD COLUMN `updated_at` TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+  ON UPDATE CURRENT_TIMESTAMP(6) AFTER `created_at`;
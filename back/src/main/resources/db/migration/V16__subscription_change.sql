@@ -0,0 +1,12 @@
+-- Log of subscription changes, written in the transaction that subscribes or unsubscribes. Nodes read it to keep
+-- their in-memory subscription index in step with changes made elsewhere (see SubscriptionIndex); rows only say which
+-- user changed, the state itself is read back from `subscription`. Purged after a retention period.
+
+CREATE TABLE `subscription_change` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `user_id` BIGINT NOT NULL,
+  `subject_id` BIGINT NOT NULL,
+  `created_at` TIMESTAMP(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_subscription_change_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -1,17 +1,5 @@
--- MySQL init script for the MDD application.
--- Executed by the mysql docker image on first container initialization.
-
-SET NAMES utf8mb4;
-SET time_zone = '+00:00';
-
-SET FOREIGN_KEY_CHECKS = 0;
-DROP TABLE IF EXISTS `auth_session`;
-DROP TABLE IF EXISTS `comment`;
-DROP TABLE IF EXISTS `post`;
-DROP TABLE IF EXISTS `subscription`;
-DROP TABLE IF EXISTS `subject`;
-DROP TABLE IF EXISTS `user`;
-SET FOREIGN_KEY_CHECKS = 1;
+-- Baseline schema of the MDD application.
+-- Databases created by the former db/init.sql are baselined at this version (spring.flyway.baseline-on-migrate).
 
 CREATE TABLE `user` (
   `id` BIGINT NOT NULL AUTO_INCREMENT,
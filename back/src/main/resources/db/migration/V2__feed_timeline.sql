@@ -0,0 +1,25 @@
+-- Feed keyset pagination and materialized per-user timelines.
+-- The subject foreign key is re-created around the index swap so it binds to the composite index.
+
+ALTER TABLE `post` MODIFY `created_at` TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE `post` ADD KEY `idx_post_subject_created_at` (`subject_id`, `created_at`, `id`);
+ALTER TABLE `post` DROP FOREIGN KEY `fk_post_subject_id`;
+ALTER TABLE `post` DROP INDEX `idx_post_subject_id`;
+ALTER TABLE `post` ADD CONSTRAINT `fk_post_subject_id`
+  FOREIGN KEY (`subject_id`) REFERENCES `subject` (`id`);
+
+ALTER TABLE `subject` ADD COLUMN `fan_out_on_read` BOOLEAN NOT NULL DEFAULT FALSE AFTER `description`;
+
+CREATE TABLE `user_timeline` (
+  `user_id` BIGINT NOT NULL,
+  `post_id` BIGINT NOT NULL,
+  `subject_id` BIGINT NOT NULL,
+  `created_at` TIMESTAMP(6) NOT NULL,
+  PRIMARY KEY (`user_id`, `post_id`),
+  KEY `idx_user_timeline_user_created_at` (`user_id`, `created_at`, `post_id`),
+  KEY `idx_user_timeline_post_id` (`post_id`),
+  CONSTRAINT `fk_user_timeline_user_id`
+    FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_user_timeline_post_id`
+    FOREIGN KEY (`post_id`) REFERENCES `post` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
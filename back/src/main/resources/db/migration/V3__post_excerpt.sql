@@ -0,0 +1,6 @@
+-- Precomputed excerpt served by the feed instead of the full post body.
+-- Existing rows get a plain prefix; new posts store the word-boundary excerpt computed by the application.
+
+ALTER TABLE `post` ADD COLUMN `excerpt` VARCHAR(280) NULL AFTER `content`;
+UPDATE `post` SET `excerpt` = LEFT(`content`, 280);
+ALTER TABLE `post` MODIFY `excerpt` VARCHAR(280) NOT NULL;
@@ -0,0 +1,23 @@
+-- Incrementally maintained "hot" ranking score (see HotScore).
+-- score = ln(sum(exp(t))) over the post creation and each comment, t being seconds since 2024-01-01 divided by
+-- 12h / ln(2). The backfill pivots on the largest term so that exp() never overflows.
+
+ALTER TABLE `post` ADD COLUMN `hot_score` DOUBLE NOT NULL DEFAULT 0 AFTER `excerpt`;
+
+UPDATE `post` p
+SET `hot_score` = GREATEST(
+  (UNIX_TIMESTAMP(p.`created_at`) - 1704067200) / (43200 / LN(2)),
+  COALESCE(
+    (SELECT MAX((UNIX_TIMESTAMP(c.`created_at`) - 1704067200) / (43200 / LN(2)))
+     FROM `comment` c WHERE c.`post_id` = p.`id`),
+    (UNIX_TIMESTAMP(p.`created_at`) - 1704067200) / (43200 / LN(2))));
+
+UPDATE `post` p
+SET `hot_score` = p.`hot_score` + LN(
+  EXP((UNIX_TIMESTAMP(p.`created_at`) - 1704067200) / (43200 / LN(2)) - p.`hot_score`)
+  + COALESCE(
+    (SELECT SUM(EXP((UNIX_TIMESTAMP(c.`created_at`) - 1704067200) / (43200 / LN(2)) - p.`hot_score`))
+     FROM `comment` c WHERE c.`post_id` = p.`id`),
+    0));
+
+ALTER TABLE `post` ADD KEY `idx_post_subject_hot_score` (`subject_id`, `hot_score`, `id`);
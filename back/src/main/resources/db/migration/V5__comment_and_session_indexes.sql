@@ -0,0 +1,15 @@
+-- Composite indexes for the comment thread (filter on post, ordered by date) and for per-user session lookups
+-- (filter on user, range on expiry). They supersede the single-column foreign key indexes.
+-- Foreign keys are re-created around each index swap so they bind to the composite index.
+
+ALTER TABLE `comment` ADD KEY `idx_comment_post_created_at` (`post_id`, `created_at`, `id`);
+ALTER TABLE `comment` DROP FOREIGN KEY `fk_comment_post_id`;
+ALTER TABLE `comment` DROP INDEX `idx_comment_post_id`;
+ALTER TABLE `comment` ADD CONSTRAINT `fk_comment_post_id`
+  FOREIGN KEY (`post_id`) REFERENCES `post` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `auth_session` ADD KEY `idx_auth_session_user_expires_at` (`user_id`, `expires_at`);
+ALTER TABLE `auth_session` DROP FOREIGN KEY `fk_auth_session_user_id`;
+ALTER TABLE `auth_session` DROP INDEX `idx_auth_session_user_id`;
+ALTER TABLE `auth_session` ADD CONSTRAINT `fk_auth_session_user_id`
+  FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE;
@@ -0,0 +1,3 @@
+-- Microsecond precision on comment dates so (created_at, id) keyset cursors round-trip exactly.
+
+ALTER TABLE `comment` MODIFY `created_at` TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,10 @@
+-- Denormalized comment counter and last activity date, maintained by batched updates (see PostActivityFlusher).
+
+ALTER TABLE `post` ADD COLUMN `comment_count` INT NOT NULL DEFAULT 0 AFTER `hot_score`;
+ALTER TABLE `post` ADD COLUMN `last_activity_at` TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) AFTER `comment_count`;
+
+UPDATE `post` p
+SET `comment_count` = (SELECT COUNT(*) FROM `comment` c WHERE c.`post_id` = p.`id`),
+    `last_activity_at` = COALESCE(
+      (SELECT MAX(c.`created_at`) FROM `comment` c WHERE c.`post_id` = p.`id`),
+      p.`created_at`);
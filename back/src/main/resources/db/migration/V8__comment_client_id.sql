@@ -0,0 +1,5 @@
+-- Id handed out when a comment is acknowledged before being written (write-behind mode, see CommentWriteBehindQueue).
+-- Unique so that retrying a comment whose batch outcome is unknown cannot insert it twice.
+
+ALTER TABLE `comment` ADD COLUMN `client_id` CHAR(36) NULL AFTER `content`;
+CREATE UNIQUE INDEX `uk_comment_client_id` ON `comment` (`client_id`);
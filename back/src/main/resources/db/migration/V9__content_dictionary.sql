@@ -0,0 +1,9 @@
+-- Shared Deflate dictionaries for post and comment bodies (see ContentCodecRegistry).
+-- Rows are never updated: stored bodies reference their dictionary by id.
+
+CREATE TABLE `content_dictionary` (
+  `id` INT NOT NULL,
+  `data` MEDIUMBLOB NOT NULL,
+  `created_at` TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,68 @@
+package com.openclassrooms.mddapi;
+
+import java.time.Duration;
+
+import com.openclassrooms.mddapi.config.FeedProperties;
+
+/**
+ * Builds {@link FeedProperties} for unit tests: every setting has a small default, and each test only overrides the
+ * settings it exercises.
+ */
+public final class TestFeedProperties {
+
+	private int defaultPageSize = 20;
+	private int maxPageSize = 50;
+	private FeedProperties.Timeline timeline = new FeedProperties.Timeline(10, 2, 100);
+	private FeedProperties.RecentCache recentCache = new FeedProperties.RecentCache(true, 64);
+	private FeedProperties.PageCache pageCache = new FeedProperties.PageCache(true, 100, Duration.ofMinutes(1));
+	private FeedProperties.Stream stream = new FeedProperties.Stream(Duration.ofMinutes(1), Duration.ofSeconds(20), 4);
+	private FeedProperties.SubjectQuery subjectQuery =
+			new FeedProperties.SubjectQuery(FeedProperties.SubjectQueryStrategy.IN_LIST, 4);
+
+	private TestFeedProperties() {
+	}
+
+	public static TestFeedProperties builder() {
+		return new TestFeedProperties();
+	}
+
+	public static FeedProperties defaults() {
+		return builder().build();
+	}
+
+	public TestFeedProperties pageSizes(int defaultPageSize, int maxPageSize) {
+		this.defaultPageSize = defaultPageSize;
+		this.maxPageSize = maxPageSize;
+		return this;
+	}
+
+	public TestFeedProperties timeline(int fanOutThreshold, int fanOutBatchSize, int backfillBatchSize) {
+		this.timeline = new FeedProperties.Timeline(fanOutThreshold, fanOutBatchSize, backfillBatchSize);
+		return this;
+	}
+
+	public TestFeedProperties recentCache(boolean enabled, int capacity) {
+		this.recentCache = new FeedProperties.RecentCache(enabled, capacity);
+		return this;
+	}
+
+	public TestFeedProperties pageCache(boolean enabled) {
+		this.pageCache = new FeedProperties.PageCache(enabled, pageCache.maximumSize(), pageCache.ttl());
+		return this;
+	}
+
+	public TestFeedProperties sendQueueCapacity(int sendQueueCapacity) {
+		this.stream = new FeedProperties.Stream(stream.timeout(), stream.heartbeatInterval(), sendQueueCapacity);
+		return this;
+	}
+
+	public TestFeedProperties subjectQuery(FeedProperties.SubjectQueryStrategy strategy, int maxConcurrency) {
+		this.subjectQuery = new FeedProperties.SubjectQuery(strategy, maxConcurrency);
+		return this;
+	}
+
+	public FeedProperties build() {
+		return new FeedProperties(defaultPageSize, maxPageSize, timeline, recentCache, pageCache, stream,
+				subjectQuery);
+	}
+}
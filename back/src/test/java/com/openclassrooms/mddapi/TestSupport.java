@@ -28,7 +28,7 @@ public final class TestSupport {
 		}
 	}
 
-	private static void setField(Object target, String fieldName, Object value) {
+	public static void setField(Object target, String fieldName, Object value) {
 		try {
 			Field field = target.getClass().getDeclaredField(fieldName);
 			field.setAccessible(true);
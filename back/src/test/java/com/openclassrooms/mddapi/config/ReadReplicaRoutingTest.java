@@ -0,0 +1,103 @@
+package com.openclassrooms.mddapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routes through two H2 instances, each holding an {@code origin.db_origin} row naming itself. The table lives in its
+ * own schema so that Flyway still migrates an empty default schema on the primary. The replica has no application
+ * schema, so the recent-post cache is not warmed at startup.
+ */
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+		"app.feed.recent-cache.enabled=false",
+		"app.datasource.read-replica.enabled=true",
+		"app.datasource.read-replica.sticky-window=1m",
+		"app.datasource.read-replica.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+		"app.datasource.read-replica.replicas[0].username=sa",
+		"app.datasource.read-replica.replicas[0].password="
+})
+class ReadReplicaRoutingTest {
+
+	static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeAll
+	static void createOriginTables() throws SQLException {
+		createOrigin(PRIMARY_URL, "primary");
+		createOrigin(REPLICA_URL, "replica");
+	}
+
+	@AfterEach
+	void clearSecurityContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionUsesReplica() {
+		assertThat(origin(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void readWriteTransactionUsesPrimary() {
+		assertThat(origin(false)).isEqualTo("primary");
+	}
+
+	@Test
+	void readsStickToPrimaryAfterUserWrite() {
+		authenticate("7");
+		origin(false);
+		assertThat(origin(true)).isEqualTo("primary");
+
+		authenticate("8");
+		assertThat(origin(true)).isEqualTo("replica");
+	}
+
+	private String origin(boolean readOnly) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(readOnly);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		return transaction.execute(status -> jdbcTemplate.queryForObject("select name from origin.db_origin", String.class));
+	}
+
+	private static void authenticate(String userId) {
+		SecurityContextHolder.getContext().setAuthentication(
+				UsernamePasswordAuthenticationToken.authenticated(userId, null, List.of()));
+	}
+
+	private static void createOrigin(String url, String name) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute("create schema if not exists origin");
+			statement.execute("create table if not exists origin.db_origin (name varchar(16))");
+			statement.execute("delete from origin.db_origin");
+			statement.execute("insert into origin.db_origin values ('" + name + "')");
+		}
+	}
+}
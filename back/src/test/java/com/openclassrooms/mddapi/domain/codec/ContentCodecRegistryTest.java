@@ -0,0 +1,68 @@
+package com.openclassrooms.mddapi.domain.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.content-storage.compression-threshold=64",
+		"app.content-storage.dictionary.enabled=true",
+		"app.content-storage.dictionary.sample-size=20"
+})
+class ContentCodecRegistryTest {
+
+	@Autowired
+	private ContentCodecRegistry codecs;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void bodiesRoundTripThroughEntitiesAndDictionaryIsTrainedOnce() {
+		User author = userRepository.save(new User("codec@mail.com", "codec", "hashed"));
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Codec");
+		subject.setDescription("Codec subject");
+		subject = subjectRepository.save(subject);
+		String template = "Retour d'expérience sur la configuration de Spring Boot avec Flyway et MySQL, partie %d.";
+		for (int i = 0; i < 5; i++) {
+			postRepository.save(new Post(subject, author, "Titre " + i, template.formatted(i), "Extrait"));
+		}
+
+		codecs.activateDictionary();
+		Post saved = postRepository.save(new Post(subject, author, "Dernier", template.formatted(99), "Extrait"));
+
+		byte[] stored = jdbcTemplate.queryForObject("select content from post where id = ?", byte[].class,
+				saved.getId());
+		assertThat(stored[0]).isEqualTo((byte) 2);
+		assertThat(postRepository.findById(saved.getId())).get()
+				.extracting(Post::getContent)
+				.isEqualTo(template.formatted(99));
+		assertThat(jdbcTemplate.queryForObject("select count(*) from content_dictionary", Integer.class)).isOne();
+
+		codecs.activateDictionary();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from content_dictionary", Integer.class)).isOne();
+	}
+}
@@ -0,0 +1,88 @@
+package com.openclassrooms.mddapi.domain.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ContentCodecTest {
+
+	private static final String LONG_TEXT = "Angular signals remplacent peu à peu les observables pour l'état local. "
+			.repeat(20);
+
+	@Test
+	void keepsShortBodiesAsText() {
+		ContentCodec codec = new ContentCodec(512);
+
+		byte[] stored = codec.encode("Bonjour à tous");
+
+		assertThat(stored[0]).isZero();
+		assertThat(new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8)).isEqualTo("Bonjour à tous");
+		assertThat(codec.decode(stored)).isEqualTo("Bonjour à tous");
+	}
+
+	@Test
+	void compressesLongBodies() {
+		ContentCodec codec = new ContentCodec(512);
+
+		byte[] stored = codec.encode(LONG_TEXT);
+
+		assertThat(stored[0]).isEqualTo((byte) 1);
+		assertThat(stored.length).isLessThan(LONG_TEXT.getBytes(StandardCharsets.UTF_8).length / 4);
+		assertThat(codec.decode(stored)).isEqualTo(LONG_TEXT);
+	}
+
+	@Test
+	void keepsIncompressibleBodiesAsText() {
+		String text = "Ok";
+		ContentCodec codec = new ContentCodec(0);
+
+		byte[] stored = codec.encode(text);
+
+		assertThat(stored[0]).isZero();
+		assertThat(codec.decode(stored)).isEqualTo(text);
+	}
+
+	@Test
+	void dictionaryShrinksBodiesAndIsResolvedOnRead() {
+		List<String> samples = List.of(
+				"Spring Boot configure automatiquement la datasource et les migrations Flyway au démarrage.",
+				"Les migrations Flyway sont appliquées au démarrage quand Spring Boot détecte la datasource.",
+				"Avec Spring Boot, la datasource et Flyway se configurent automatiquement.");
+		byte[] dictionary = ContentDictionaryTrainer.train(samples, ContentDictionaryTrainer.MAX_SIZE);
+		ContentCodec plain = new ContentCodec(0);
+		ContentCodec trained = new ContentCodec(0, 7, dictionary, Map.of(7, dictionary)::get);
+		String body = "Spring Boot applique les migrations Flyway sur la datasource automatiquement au démarrage.";
+
+		byte[] stored = trained.encode(body);
+
+		assertThat(stored[0]).isEqualTo((byte) 2);
+		assertThat(stored.length).isLessThan(plain.encode(body).length);
+		assertThat(trained.decode(stored)).isEqualTo(body);
+		assertThat(new ContentCodec(0, 0, null, Map.of(7, dictionary)::get).decode(stored)).isEqualTo(body);
+	}
+
+	@Test
+	void decodeFailsOnUnknownDictionary() {
+		byte[] dictionary = "datasource Flyway migrations ".getBytes(StandardCharsets.UTF_8);
+		byte[] stored = new ContentCodec(0, 3, dictionary, id -> null).encode(LONG_TEXT);
+
+		assertThatThrownBy(() -> new ContentCodec(0).decode(stored))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("3");
+	}
+
+	@Test
+	void trainerKeepsTokensSharedBySeveralSamplesWithinSize() {
+		byte[] dictionary = ContentDictionaryTrainer.train(
+				List.of("commun unique1 partagé", "commun partagé autre", "solitaire"), 20);
+
+		String text = new String(dictionary, StandardCharsets.UTF_8);
+		assertThat(text).contains("partagé", "commun").doesNotContain("unique1", "solitaire", "autre");
+		assertThat(dictionary.length).isLessThanOrEqualTo(20);
+	}
+}
@@ -0,0 +1,96 @@
+package com.openclassrooms.mddapi.domain.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/**
+ * Measures the bytes stored and the decoding cost per body for text, Deflate and Deflate with a trained dictionary,
+ * on generated posts (long) and comments (short).
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContentCompressionBenchmarkTest {
+
+	private static final int BODIES = 5_000;
+	private static final int ROUNDS = 5;
+	private static final String[] WORDS = ("Spring Boot Angular TypeScript Java composant service injection "
+			+ "dépendances configuration migration Flyway MySQL requête index transaction cache performance "
+			+ "observable signal tests unitaires intégration déploiement conteneur Docker sécurité JWT session "
+			+ "utilisateur article commentaire thème abonnement pagination curseur le la les des une un pour avec "
+			+ "dans sur est sont pas plus très bien aussi mais donc").split(" ");
+
+	private final List<String> posts = new ArrayList<>();
+	private final List<String> comments = new ArrayList<>();
+	private byte[] dictionary;
+
+	@BeforeAll
+	void generate() {
+		Random random = new Random(17);
+		for (int i = 0; i < BODIES; i++) {
+			posts.add(sentence(random, 150 + random.nextInt(600)));
+			comments.add(sentence(random, 8 + random.nextInt(50)));
+		}
+		List<String> samples = new ArrayList<>(posts.subList(0, 1_000));
+		samples.addAll(comments.subList(0, 1_000));
+		dictionary = ContentDictionaryTrainer.train(samples, ContentDictionaryTrainer.MAX_SIZE);
+	}
+
+	@Test
+	void compareStorageFormats() {
+		ContentCodec text = new ContentCodec(Integer.MAX_VALUE);
+		ContentCodec deflate = new ContentCodec(ContentCodec.DEFAULT_THRESHOLD);
+		ContentCodec deflateAll = new ContentCodec(0);
+		ContentCodec trained = new ContentCodec(0, 1, dictionary, Map.of(1, dictionary)::get);
+
+		for (Map.Entry<String, List<String>> corpus : Map.of("posts", posts, "comments", comments).entrySet()) {
+			long utf8 = corpus.getValue().stream().mapToLong(body -> body.getBytes(StandardCharsets.UTF_8).length).sum();
+			System.out.printf("%s: %d bodies, %d UTF-8 bytes%n", corpus.getKey(), corpus.getValue().size(), utf8);
+			long textBytes = report("text", text, corpus.getValue(), utf8);
+			long deflateBytes = report("deflate >= 512 B", deflate, corpus.getValue(), utf8);
+			report("deflate", deflateAll, corpus.getValue(), utf8);
+			long trainedBytes = report("deflate + dictionary", trained, corpus.getValue(), utf8);
+
+			assertThat(deflateBytes).isLessThanOrEqualTo(textBytes);
+			assertThat(trainedBytes).isLessThan(textBytes);
+		}
+	}
+
+	private long report(String label, ContentCodec codec, List<String> bodies, long utf8) {
+		List<byte[]> stored = bodies.stream().map(codec::encode).toList();
+		long bytes = stored.stream().mapToLong(body -> body.length).sum();
+
+		long checksum = 0;
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (byte[] body : stored) {
+				checksum += codec.decode(body).length();
+			}
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		assertThat(checksum).isPositive();
+		System.out.printf("  %-22s %9d bytes (%5.1f %% saved), %6d ns per read%n",
+				label, bytes, 100.0 * (utf8 - bytes) / utf8, best / stored.size());
+		return bytes;
+	}
+
+	private static String sentence(Random random, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			text.append(i == 0 ? "" : i % 14 == 0 ? ". " : " ").append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return text.append('.').toString();
+	}
+}
@@ -10,6 +10,14 @@ class GlobalExceptionHandlerTest {
 
 	private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
 
+	@Test
+	void handleBadRequestReturns400() {
+		var response = handler.handleBadRequest(new BadRequestException("invalid"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(response.getBody().error()).isEqualTo("BAD_REQUEST");
+	}
+
 	@Test
 	void handleUnauthorizedReturns401() {
 		var response = handler.handleUnauthorized(new UnauthorizedException("nope"));
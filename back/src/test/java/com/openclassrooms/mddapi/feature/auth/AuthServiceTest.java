@@ -3,6 +3,7 @@ package com.openclassrooms.mddapi.feature.auth;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -118,6 +119,7 @@ class AuthServiceTest {
 		verify(authSessionRepository).save(captor.capture());
 		assertThat(captor.getValue().getTokenHash()).isEqualTo("hash");
 		assertThat(captor.getValue().getExpiresAt()).isEqualTo(expiresAt);
+		verify(authSessionRepository).deleteExpiredByUserId(eq(user.getId()), any(Instant.class));
 	}
 
 	@Test
@@ -4,18 +4,26 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.openclassrooms.mddapi.TestWebConfig;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
 import com.openclassrooms.mddapi.security.CurrentUserService;
 
 @SpringBootTest(properties = {
@@ -37,28 +45,74 @@ class FeedControllerTest {
 	@MockitoBean
 	private FeedService feedService;
 
+	@MockitoBean
+	private FeedStreamDispatcher feedStreamDispatcher;
+
 	@MockitoBean
 	private CurrentUserService currentUserService;
 
 	@Test
 	void getFeedDefaultsToDesc() throws Exception {
 		when(currentUserService.getUserId(any())).thenReturn(1L);
-		when(feedService.getFeed(1L, FeedSort.desc)).thenReturn(Collections.emptyList());
+		when(feedService.getFeed(1L, FeedSort.desc, FeedContent.excerpt)).thenReturn(Collections.emptyList());
 
 		mockMvc.perform(get("/api/feed"))
 				.andExpect(status().isOk());
 
-		verify(feedService).getFeed(1L, FeedSort.desc);
+		verify(feedService).getFeed(1L, FeedSort.desc, FeedContent.excerpt);
 	}
 
 	@Test
 	void getFeedUsesAscSort() throws Exception {
 		when(currentUserService.getUserId(any())).thenReturn(1L);
-		when(feedService.getFeed(1L, FeedSort.asc)).thenReturn(Collections.emptyList());
+		when(feedService.getFeed(1L, FeedSort.asc, FeedContent.excerpt)).thenReturn(Collections.emptyList());
 
 		mockMvc.perform(get("/api/feed?sort=asc"))
 				.andExpect(status().isOk());
 
-		verify(feedService).getFeed(1L, FeedSort.asc);
+		verify(feedService).getFeed(1L, FeedSort.asc, FeedContent.excerpt);
+	}
+
+	@Test
+	void getFeedPagePassesCursorAndLimit() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(feedService.getFeedPage(1L, FeedSort.desc, "abc", 10, FeedContent.excerpt))
+				.thenReturn(new FeedPageResponse(Collections.emptyList(), "next"));
+
+		mockMvc.perform(get("/api/feed/page?cursor=abc&limit=10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nextCursor").value("next"));
+
+		verify(feedService).getFeedPage(1L, FeedSort.desc, "abc", 10, FeedContent.excerpt);
+	}
+
+	@Test
+	void getFeedPageReturnsFullContentOnlyWhenRequested() throws Exception {
+		FeedPostResponse item = new FeedPostResponse(5L, 2L, "user", "Title", "Excerpt", Instant.EPOCH, 0,
+				Instant.EPOCH, 0);
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(feedService.getFeedPage(1L, FeedSort.desc, null, null, FeedContent.excerpt))
+				.thenReturn(new FeedPageResponse(List.of(item), null));
+		when(feedService.getFeedPage(1L, FeedSort.desc, null, null, FeedContent.full))
+				.thenReturn(new FeedPageResponse(List.of(item.withContent("Content")), null));
+
+		mockMvc.perform(get("/api/feed/page"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].excerpt").value("Excerpt"))
+				.andExpect(jsonPath("$.items[0].content").doesNotExist());
+		mockMvc.perform(get("/api/feed/page?content=full"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].content").value("Content"));
+	}
+
+	@Test
+	void streamOpensEventStreamForUser() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(feedStreamDispatcher.connect(1L)).thenReturn(new SseEmitter());
+
+		mockMvc.perform(get("/api/feed/stream").accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted());
+
+		verify(feedStreamDispatcher).connect(1L);
 	}
 }
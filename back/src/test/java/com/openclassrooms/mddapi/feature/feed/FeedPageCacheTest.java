@@ -0,0 +1,136 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeedPageCacheTest {
+
+	private static final FeedPageResponse PAGE = new FeedPageResponse(Collections.emptyList(), null);
+
+	private SimpleMeterRegistry meterRegistry;
+	private FeedPageCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new FeedPageCache(TestFeedProperties.defaults(), meterRegistry);
+	}
+
+	@Test
+	void getReturnsStoredPage() {
+		FeedPageCache.Key key = key(1L);
+		cache.put(key, List.of(2L), PAGE, cache.stamp());
+
+		assertThat(cache.get(key)).isSameAs(PAGE);
+		assertThat(cache.get(key(3L))).isNull();
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "feed.pages").tag("result", "hit")
+				.functionCounter().count()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "feed.pages").tag("result", "miss")
+				.functionCounter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void postCreatedEvictsOnlySubscribersOfSubject() {
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		cache.put(key(3L), List.of(4L), PAGE, cache.stamp());
+
+		cache.onPostCreated(new PostCreatedEvent(9L, 2L, 5L, "alice", "t", "c", "c", Instant.now()));
+
+		assertThat(cache.get(key(1L))).isNull();
+		assertThat(cache.get(key(3L))).isSameAs(PAGE);
+		assertThat(meterRegistry.get("feed.page_cache.invalidations").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void subscriptionChangeEvictsEveryPageOfUser() {
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		cache.put(new FeedPageCache.Key(1L, FeedSort.asc, "abc", 20), List.of(2L), PAGE, cache.stamp());
+		cache.put(key(3L), List.of(2L), PAGE, cache.stamp());
+
+		cache.onSubscriptionChanged(new SubscriptionChangedEvent(1L, 7L, true));
+
+		assertThat(cache.get(key(1L))).isNull();
+		assertThat(cache.get(new FeedPageCache.Key(1L, FeedSort.asc, "abc", 20))).isNull();
+		assertThat(cache.get(key(3L))).isSameAs(PAGE);
+	}
+
+	@Test
+	void putIsDroppedWhenInvalidatedWhileComputing() {
+		long stamp = cache.stamp();
+		cache.evictSubject(2L);
+
+		cache.put(key(1L), List.of(2L), PAGE, stamp);
+
+		assertThat(cache.get(key(1L))).isNull();
+	}
+
+	@Test
+	void putSurvivesInvalidationOfUnrelatedSubjectAndUser() {
+		long stamp = cache.stamp();
+		cache.onPostCreated(new PostCreatedEvent(9L, 4L, 5L, "alice", "t", "c", "c", Instant.now()));
+		cache.evictUser(3L);
+
+		cache.put(key(1L), List.of(2L), PAGE, stamp);
+
+		assertThat(cache.get(key(1L))).isSameAs(PAGE);
+	}
+
+	@Test
+	void putIsDroppedWhenUserInvalidatedWhileComputing() {
+		long stamp = cache.stamp();
+		cache.evictUser(1L);
+
+		cache.put(key(1L), List.of(2L), PAGE, stamp);
+
+		assertThat(cache.get(key(1L))).isNull();
+	}
+
+	@Test
+	void replacedPageIsEvictedThroughItsNewSubjects() {
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		FeedPageResponse replaced = new FeedPageResponse(Collections.emptyList(), "next");
+		cache.put(key(1L), List.of(4L), replaced, cache.stamp());
+
+		cache.evictSubject(2L);
+		assertThat(cache.get(key(1L))).isSameAs(replaced);
+
+		cache.evictSubject(4L);
+		assertThat(cache.get(key(1L))).isNull();
+	}
+
+	@Test
+	void equalPageReplacedLateIsStillEvicted() {
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		cache.evictSubject(2L);
+		assertThat(cache.get(key(1L))).isNull();
+
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		cache.put(key(1L), List.of(2L), PAGE, cache.stamp());
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		cache.evictUser(1L);
+		assertThat(cache.get(key(1L))).isNull();
+	}
+
+	private static FeedPageCache.Key key(long userId) {
+		return new FeedPageCache.Key(userId, FeedSort.desc, null, 20);
+	}
+}
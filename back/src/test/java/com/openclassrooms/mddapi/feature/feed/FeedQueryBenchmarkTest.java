@@ -0,0 +1,145 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares the entity-hydrating feed query with the projection query used by {@link FeedService}.
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+class FeedQueryBenchmarkTest {
+
+	private static final int SUBJECTS = 10;
+	private static final int POSTS_PER_SUBJECT = 200;
+	private static final int WARMUP = 100;
+	private static final int ITERATIONS = 300;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> subjectIds = new ArrayList<>();
+
+	@BeforeAll
+	void seed() {
+		User author = userRepository.save(new User("bench@mail.com", "bench", "hashed"));
+		List<Post> posts = new ArrayList<>();
+		for (int s = 0; s < SUBJECTS; s++) {
+			Subject subject = TestSupport.newInstance(Subject.class);
+			subject.setName("Bench " + s);
+			subject.setDescription("Benchmark subject");
+			subject = subjectRepository.save(subject);
+			subjectIds.add(subject.getId());
+			for (int p = 0; p < POSTS_PER_SUBJECT; p++) {
+				posts.add(new Post(subject, author, "Title " + p, "Content ".repeat(40), "Content"));
+			}
+		}
+		postRepository.saveAll(posts);
+	}
+
+	@Test
+	void projectionAllocatesLessThanEntityHydration() {
+		for (int pageSize : List.of(20, 1000)) {
+			Result entity = measure(() -> entityPage(pageSize));
+			Result projection = measure(() -> postRepository.findFeedPageDesc(subjectIds, Limit.of(pageSize)));
+
+			System.out.printf("feed page of %4d rows | entity: %8.1f us %10d B/op | projection: %8.1f us %10d B/op%n",
+					pageSize, entity.micros(), entity.bytes(), projection.micros(), projection.bytes());
+			assertThat(projection.bytes()).isLessThan(entity.bytes());
+		}
+	}
+
+	/**
+	 * The feed read path before projections: managed entities with fetched author and subject, mapped afterwards.
+	 */
+	private List<FeedPostResponse> entityPage(int pageSize) {
+		return entityManager.createQuery("""
+				select p from Post p
+				join fetch p.author
+				join fetch p.subject
+				where p.subject.id in :subjectIds
+				order by p.createdAt desc, p.id desc
+				""", Post.class)
+				.setParameter("subjectIds", subjectIds)
+				.setMaxResults(pageSize)
+				.getResultStream()
+				.map(post -> new FeedPostResponse(
+						post.getId(),
+						post.getSubject().getId(),
+						post.getAuthor().getUsername(),
+						post.getTitle(),
+						post.getContent(),
+						post.getCreatedAt(),
+						post.getCommentCount(),
+						post.getLastActivityAt(),
+						post.getReactionCount()))
+				.toList();
+	}
+
+	private Result measure(Supplier<List<FeedPostResponse>> query) {
+		for (int i = 0; i < WARMUP; i++) {
+			inReadOnlyTransaction(query);
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			inReadOnlyTransaction(query);
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+		return new Result(elapsed / 1_000.0 / ITERATIONS, allocated / ITERATIONS);
+	}
+
+	private void inReadOnlyTransaction(Supplier<List<FeedPostResponse>> query) {
+		transactionTemplate.execute(status -> {
+			status.setRollbackOnly();
+			return query.get();
+		});
+	}
+
+	private record Result(double micros, long bytes) {
+	}
+}
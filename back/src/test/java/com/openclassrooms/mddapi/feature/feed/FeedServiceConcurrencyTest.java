@@ -0,0 +1,83 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
+import com.openclassrooms.mddapi.feature.subject.SubjectService;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+/**
+ * Runs more concurrent parallel feed reads than the pool has connections: none may wait on a connection held by
+ * another request that is itself waiting.
+ */
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"spring.datasource.hikari.maximum-pool-size=2",
+		"spring.datasource.hikari.connection-timeout=2000",
+		"app.feed.page-cache.enabled=false",
+		"app.feed.subject-query.strategy=parallel",
+		"app.feed.subject-query.max-concurrency=1"
+})
+class FeedServiceConcurrencyTest {
+
+	private static final int REQUESTS = 8;
+
+	@Autowired
+	private FeedService feedService;
+
+	@Autowired
+	private SubjectService subjectService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void parallelSubjectQueriesDoNotExhaustThePool() throws Exception {
+		User user = userRepository.save(new User("pool@mail.com", "pool", "hashed"));
+		for (int i = 0; i < 3; i++) {
+			Subject subject = TestSupport.newInstance(Subject.class);
+			subject.setName("Pool " + i);
+			subject.setDescription("Pool");
+			subjectService.subscribe(user.getId(), subjectRepository.save(subject).getId());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<FeedPageResponse>> pages = new ArrayList<>();
+			for (int i = 0; i < REQUESTS; i++) {
+				pages.add(executor.submit(() -> {
+					start.await();
+					return feedService.getFeedPage(user.getId(), FeedSort.hot, null, null, FeedContent.excerpt);
+				}));
+			}
+			start.countDown();
+
+			for (Future<FeedPageResponse> page : pages) {
+				assertThat(page.get(30, TimeUnit.SECONDS).items()).isEmpty();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
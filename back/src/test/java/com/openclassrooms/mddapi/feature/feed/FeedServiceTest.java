@@ -2,7 +2,9 @@ package com.openclassrooms.mddapi.feature.feed;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -12,24 +14,29 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import com.openclassrooms.mddapi.TestSupport;
-import com.openclassrooms.mddapi.domain.Post;
-import com.openclassrooms.mddapi.domain.Subject;
-import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.exception.BadRequestException;
 import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
 import com.openclassrooms.mddapi.repository.PostRepository;
-import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
 import com.openclassrooms.mddapi.repository.UserRepository;
+import com.openclassrooms.mddapi.repository.UserTimelineRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class FeedServiceTest {
 
 	@Mock
-	private SubscriptionRepository subscriptionRepository;
+	private SubscriptionIndex subscriptionIndex;
 
 	@Mock
 	private PostRepository postRepository;
@@ -37,36 +44,45 @@ class FeedServiceTest {
 	@Mock
 	private UserRepository userRepository;
 
-	@InjectMocks
+	@Mock
+	private SubjectRepository subjectRepository;
+
+	@Mock
+	private UserTimelineRepository userTimelineRepository;
+
+	@Mock
+	private RecentPostCache recentPostCache;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
 	private FeedService feedService;
 
-	private User author;
-	private Subject subject;
+	private FeedPageCache feedPageCache;
 
 	@BeforeEach
 	void setUp() {
-		author = new User("user@mail.com", "user", "hashed");
-		TestSupport.setId(author, 1L);
-		subject = TestSupport.newInstance(Subject.class);
-		subject.setName("Java");
-		subject.setDescription("Lang");
-		TestSupport.setId(subject, 2L);
+		FeedProperties feedProperties = TestFeedProperties.builder().pageSizes(2, 3).build();
+		feedPageCache = new FeedPageCache(feedProperties, new SimpleMeterRegistry());
+		feedService = new FeedService(subscriptionIndex, postRepository, userRepository, subjectRepository,
+				userTimelineRepository, new SubjectPostFetcher(postRepository, transactionManager, feedProperties),
+				recentPostCache, feedPageCache, feedProperties);
 	}
 
 	@Test
 	void getFeedThrowsWhenUserMissing() {
 		when(userRepository.existsById(1L)).thenReturn(false);
 
-		assertThatThrownBy(() -> feedService.getFeed(1L, FeedSort.desc))
+		assertThatThrownBy(() -> feedService.getFeed(1L, FeedSort.desc, FeedContent.excerpt))
 				.isInstanceOf(NotFoundException.class);
 	}
 
 	@Test
 	void getFeedReturnsEmptyWhenNoSubscriptions() {
 		when(userRepository.existsById(1L)).thenReturn(true);
-		when(subscriptionRepository.findSubjectIdsByUserId(1L)).thenReturn(Collections.emptyList());
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[0]);
 
-		var response = feedService.getFeed(1L, FeedSort.desc);
+		var response = feedService.getFeed(1L, FeedSort.desc, FeedContent.excerpt);
 
 		assertThat(response).isEmpty();
 	}
@@ -74,13 +90,10 @@ class FeedServiceTest {
 	@Test
 	void getFeedUsesAscendingSort() {
 		when(userRepository.existsById(1L)).thenReturn(true);
-		when(subscriptionRepository.findSubjectIdsByUserId(1L)).thenReturn(List.of(2L));
-		Post post = new Post(subject, author, "Title", "Content");
-		TestSupport.setId(post, 5L);
-		TestSupport.setCreatedAt(post, Instant.parse("2024-01-01T10:00:00Z"));
-		when(postRepository.findFeedPostsAsc(List.of(2L))).thenReturn(List.of(post));
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(postRepository.findFeedPostsAsc(List.of(2L))).thenReturn(List.of(post(5L, "2024-01-01T10:00:00Z")));
 
-		var response = feedService.getFeed(1L, FeedSort.asc);
+		var response = feedService.getFeed(1L, FeedSort.asc, FeedContent.excerpt);
 
 		assertThat(response).hasSize(1);
 		verify(postRepository).findFeedPostsAsc(List.of(2L));
@@ -89,14 +102,163 @@ class FeedServiceTest {
 	@Test
 	void getFeedUsesDescendingSort() {
 		when(userRepository.existsById(1L)).thenReturn(true);
-		when(subscriptionRepository.findSubjectIdsByUserId(1L)).thenReturn(List.of(2L));
-		Post post = new Post(subject, author, "Title", "Content");
-		TestSupport.setId(post, 5L);
-		TestSupport.setCreatedAt(post, Instant.parse("2024-01-01T10:00:00Z"));
-		when(postRepository.findFeedPostsDesc(List.of(2L))).thenReturn(List.of(post));
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(postRepository.findFeedPostsDesc(List.of(2L))).thenReturn(List.of(post(5L, "2024-01-01T10:00:00Z")));
 
-		feedService.getFeed(1L, FeedSort.desc);
+		feedService.getFeed(1L, FeedSort.desc, FeedContent.excerpt);
 
 		verify(postRepository).findFeedPostsDesc(List.of(2L));
 	}
+
+	@Test
+	void getFeedPageReadsTimelineAndReturnsNextCursor() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(userTimelineRepository.findPostIdsDesc(1L, Limit.of(3))).thenReturn(List.of(7L, 6L, 5L));
+		when(postRepository.findFeedItemsByIdIn(List.of(7L, 6L, 5L))).thenReturn(List.of(
+				post(5L, "2024-01-01T10:00:00Z"),
+				post(7L, "2024-01-03T10:00:00Z"),
+				post(6L, "2024-01-02T10:00:00Z")));
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+
+		var response = feedService.getFeedPage(1L, FeedSort.desc, null, null, FeedContent.excerpt);
+
+		assertThat(response.items()).extracting("id").containsExactly(7L, 6L);
+		assertThat(FeedCursor.decode(response.nextCursor()))
+				.isEqualTo(new FeedCursor(Instant.parse("2024-01-02T10:00:00Z"), 6L));
+	}
+
+	@Test
+	void getFeedPageSeeksTimelineAfterCursor() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		FeedCursor cursor = new FeedCursor(Instant.parse("2024-01-02T10:00:00Z"), 6L);
+		when(userTimelineRepository.findPostIdsAscAfter(1L, cursor.createdAt(), 6L, Limit.of(4))).thenReturn(List.of(7L));
+		when(postRepository.findFeedItemsByIdIn(List.of(7L))).thenReturn(List.of(post(7L, "2024-01-03T10:00:00Z")));
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+
+		var response = feedService.getFeedPage(1L, FeedSort.asc, cursor.encode(), 10, FeedContent.excerpt);
+
+		assertThat(response.items()).hasSize(1);
+		assertThat(response.nextCursor()).isNull();
+	}
+
+	@Test
+	void getFeedPageServesRepeatedRequestFromPageCacheUntilEvicted() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(userTimelineRepository.findPostIdsAsc(1L, Limit.of(3))).thenReturn(List.of(5L));
+		when(postRepository.findFeedItemsByIdIn(List.of(5L))).thenReturn(List.of(post(5L, "2024-01-01T10:00:00Z")));
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+
+		var first = feedService.getFeedPage(1L, FeedSort.asc, null, null, FeedContent.excerpt);
+		var second = feedService.getFeedPage(1L, FeedSort.asc, null, null, FeedContent.excerpt);
+		feedPageCache.evictSubject(2L);
+		feedService.getFeedPage(1L, FeedSort.asc, null, null, FeedContent.excerpt);
+
+		assertThat(second).isSameAs(first);
+		verify(subscriptionIndex, times(2)).subjectIds(1L);
+	}
+
+	@Test
+	void getFeedPageAddsFullContentWithoutCachingIt() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(userTimelineRepository.findPostIdsAsc(1L, Limit.of(3))).thenReturn(List.of(5L));
+		when(postRepository.findFeedItemsByIdIn(List.of(5L))).thenReturn(List.of(post(5L, "2024-01-01T10:00:00Z")));
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+		when(postRepository.findContentsByIdIn(List.of(5L))).thenReturn(List.of(new PostContent(5L, "Full content")));
+
+		var full = feedService.getFeedPage(1L, FeedSort.asc, null, null, FeedContent.full);
+		var excerpt = feedService.getFeedPage(1L, FeedSort.asc, null, null, FeedContent.excerpt);
+
+		assertThat(full.items()).extracting(FeedPostResponse::content).containsExactly("Full content");
+		assertThat(excerpt.items()).extracting(FeedPostResponse::content).containsOnlyNulls();
+		verify(postRepository, times(1)).findFeedItemsByIdIn(List.of(5L));
+	}
+
+	@Test
+	void getFeedAddsFullContent() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(postRepository.findFeedPostsDesc(List.of(2L))).thenReturn(List.of(post(5L, "2024-01-01T10:00:00Z")));
+		when(postRepository.findContentsByIdIn(List.of(5L))).thenReturn(List.of(new PostContent(5L, "Full content")));
+
+		var response = feedService.getFeed(1L, FeedSort.desc, FeedContent.full);
+
+		assertThat(response).extracting(FeedPostResponse::content).containsExactly("Full content");
+	}
+
+	@Test
+	void getFeedPageMergesFanOutOnReadSubjects() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L, 3L});
+		when(userTimelineRepository.findPostIdsDesc(1L, Limit.of(3))).thenReturn(List.of(7L, 5L));
+		FeedPostResponse timelineNewest = post(7L, "2024-01-03T10:00:00Z");
+		when(postRepository.findFeedItemsByIdIn(List.of(7L, 5L)))
+				.thenReturn(List.of(timelineNewest, post(5L, "2024-01-01T10:00:00Z")));
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L, 3L))).thenReturn(List.of(3L));
+		when(postRepository.findFeedPageDesc(List.of(3L), Limit.of(3)))
+				.thenReturn(List.of(timelineNewest, post(6L, "2024-01-02T10:00:00Z")));
+
+		var response = feedService.getFeedPage(1L, FeedSort.desc, null, null, FeedContent.excerpt);
+
+		assertThat(response.items()).extracting("id").containsExactly(7L, 6L);
+		assertThat(response.nextCursor()).isNotNull();
+	}
+
+	@Test
+	void getFeedPageServesFirstDescPageFromRecentCache() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		when(recentPostCache.canServe(3)).thenReturn(true);
+		when(recentPostCache.newest(List.of(2L), 3)).thenReturn(List.of(
+				post(7L, "2024-01-03T10:00:00Z"),
+				post(6L, "2024-01-02T10:00:00Z")));
+
+		var response = feedService.getFeedPage(1L, FeedSort.desc, null, null, FeedContent.excerpt);
+
+		assertThat(response.items()).extracting("id").containsExactly(7L, 6L);
+		assertThat(response.nextCursor()).isNull();
+		verifyNoInteractions(userTimelineRepository);
+	}
+
+	@Test
+	void getFeedPageHotSeeksAfterScoreCursor() {
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {2L});
+		HotCursor cursor = new HotCursor(12.5, 8L);
+		when(postRepository.findHotPageAfter(List.of(2L), 12.5, 8L, Limit.of(3))).thenReturn(List.of(
+				ranked(4L, 11.0), ranked(9L, 10.0), ranked(3L, 10.0)));
+
+		var response = feedService.getFeedPage(1L, FeedSort.hot, cursor.encode(), null, FeedContent.excerpt);
+
+		assertThat(response.items()).extracting("id").containsExactly(4L, 9L);
+		assertThat(HotCursor.decode(response.nextCursor())).isEqualTo(new HotCursor(10.0, 9L));
+		verifyNoInteractions(userTimelineRepository, recentPostCache);
+	}
+
+	@Test
+	void getFeedPageHotRejectsChronologicalCursor() {
+		String chronological = new FeedCursor(Instant.parse("2024-01-02T10:00:00Z"), 6L).encode();
+
+		assertThatThrownBy(() -> feedService.getFeedPage(1L, FeedSort.hot, chronological, null, FeedContent.excerpt))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void getFeedPageRejectsMalformedCursor() {
+		assertThatThrownBy(() -> feedService.getFeedPage(1L, FeedSort.desc, "not-a-cursor", null, FeedContent.excerpt))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	private RankedFeedPost ranked(long id, double hotScore) {
+		return new RankedFeedPost(id, 2L, "user", "Title " + id, "Content", Instant.parse("2024-01-01T10:00:00Z"),
+				0, Instant.parse("2024-01-01T10:00:00Z"), 0, hotScore);
+	}
+
+	private FeedPostResponse post(long id, String createdAt) {
+		return new FeedPostResponse(id, 2L, "user", "Title " + id, "Content", Instant.parse(createdAt), 0,
+				Instant.parse(createdAt), 0);
+	}
 }
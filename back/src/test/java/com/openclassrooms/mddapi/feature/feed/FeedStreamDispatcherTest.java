@@ -0,0 +1,167 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionChangedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class FeedStreamDispatcherTest {
+
+	@Mock
+	private SubscriptionIndex subscriptionIndex;
+
+	private SimpleMeterRegistry meterRegistry;
+	private ManualExecutor executor;
+	private FeedStreamDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		executor = new ManualExecutor();
+		dispatcher = new FeedStreamDispatcher(subscriptionIndex,
+				TestFeedProperties.builder().sendQueueCapacity(2).build(), meterRegistry, executor);
+	}
+
+	@Test
+	void postIsPushedOnlyToSubscribersOfItsSubject() {
+		RecordingEmitter subscriber = connect(1L, List.of(2L));
+		RecordingEmitter other = connect(3L, List.of(4L));
+
+		dispatcher.onPostCreated(postCreated(9L, 2L));
+		executor.runAll();
+
+		assertThat(subscriber.sent).hasSize(1);
+		assertThat(other.sent).isEmpty();
+	}
+
+	@Test
+	void subscriptionChangeUpdatesIndex() {
+		RecordingEmitter emitter = connect(1L, List.of(2L));
+
+		dispatcher.onSubscriptionChanged(new SubscriptionChangedEvent(1L, 2L, false));
+		dispatcher.onSubscriptionChanged(new SubscriptionChangedEvent(1L, 4L, true));
+		dispatcher.onPostCreated(postCreated(9L, 2L));
+		dispatcher.onPostCreated(postCreated(10L, 4L));
+		executor.runAll();
+
+		assertThat(emitter.sent).hasSize(1);
+	}
+
+	@Test
+	void slowClientIsDisconnectedWhenQueueIsFull() {
+		RecordingEmitter emitter = connect(1L, List.of(2L));
+
+		// Nothing drains: the third event overflows the queue of two.
+		dispatcher.sendHeartbeats();
+		dispatcher.sendHeartbeats();
+		dispatcher.sendHeartbeats();
+
+		assertThat(emitter.completed).isTrue();
+		assertThat(dispatcher.openConnections()).isZero();
+		assertThat(meterRegistry.get("feed.stream.slow_client_drops").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void failedWriteUnregistersConnection() {
+		RecordingEmitter emitter = connect(1L, List.of(2L));
+		emitter.failing = true;
+
+		dispatcher.sendHeartbeats();
+		executor.runAll();
+
+		assertThat(dispatcher.openConnections()).isZero();
+		dispatcher.onPostCreated(postCreated(9L, 2L));
+		assertThat(executor.tasks).isEmpty();
+	}
+
+	private RecordingEmitter connect(long userId, List<Long> subjectIds) {
+		when(subscriptionIndex.subjectIds(userId)).thenReturn(subjectIds.stream().mapToLong(Long::longValue).toArray());
+		RecordingEmitter emitter = new RecordingEmitter();
+		dispatcher.register(new FeedStreamConnection(userId, emitter, 2, executor));
+		return emitter;
+	}
+
+	private static PostCreatedEvent postCreated(long postId, long subjectId) {
+		return new PostCreatedEvent(postId, subjectId, 5L, "alice", "Title", "Content", "Content", Instant.now());
+	}
+
+	private static final class RecordingEmitter extends SseEmitter {
+
+		private final List<SseEventBuilder> sent = new ArrayList<>();
+		private boolean failing;
+		private boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failing) {
+				throw new IOException("Broken pipe");
+			}
+			sent.add(builder);
+		}
+
+		@Override
+		public synchronized void complete() {
+			completed = true;
+		}
+	}
+
+	private static final class ManualExecutor extends AbstractExecutorService {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		void runAll() {
+			while (!tasks.isEmpty()) {
+				tasks.removeFirst().run();
+			}
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return List.of();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return false;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.post.CommentAddedEvent;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
+import com.openclassrooms.mddapi.feature.reaction.ReactionChangedEvent;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RecentPostCacheTest {
+
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private SubjectRepository subjectRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+	private RecentPostCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new RecentPostCache(postRepository, subjectRepository,
+				TestFeedProperties.builder().pageSizes(2, 3).recentCache(true, 4).build(),
+				meterRegistry);
+	}
+
+	@Test
+	void newestWarmsColdSubjectsThenMergesAcrossRings() {
+		when(postRepository.findFeedPageDesc(List.of(2L), Limit.of(4)))
+				.thenReturn(List.of(post(2L, 5L, "2024-01-05T10:00:00Z"), post(2L, 1L, "2024-01-01T10:00:00Z")));
+		when(postRepository.findFeedPageDesc(List.of(3L), Limit.of(4)))
+				.thenReturn(List.of(post(3L, 4L, "2024-01-04T10:00:00Z"), post(3L, 2L, "2024-01-02T10:00:00Z")));
+
+		var first = cache.newest(List.of(2L, 3L), 3);
+		var second = cache.newest(List.of(2L, 3L), 3);
+
+		assertThat(first).extracting("id").containsExactly(5L, 4L, 2L);
+		assertThat(second).extracting("id").containsExactly(5L, 4L, 2L);
+		assertThat(meterRegistry.get("feed.recent_cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("feed.recent_cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("feed.recent_cache.hit_ratio").gauge().value()).isEqualTo(0.5);
+	}
+
+	@Test
+	void postCreatedIsAppendedAndEvictsOldest() {
+		when(postRepository.findFeedPageDesc(List.of(2L), Limit.of(4))).thenReturn(Collections.emptyList());
+		cache.warm(2L);
+
+		for (long id = 1; id <= 5; id++) {
+			cache.onPostCreated(new PostCreatedEvent(id, 2L, 1L, "user", "Title", "Content", "Content",
+					Instant.parse("2024-01-01T10:00:00Z").plusSeconds(id)));
+		}
+
+		assertThat(cache.newest(List.of(2L), 4)).extracting("id").containsExactly(5L, 4L, 3L, 2L);
+	}
+
+	@Test
+	void warmKeepsPostsAppendedBeforeLoadCompleted() {
+		cache.onPostCreated(new PostCreatedEvent(9L, 2L, 1L, "user", "Title", "Content", "Content",
+				Instant.parse("2024-01-09T10:00:00Z")));
+		when(postRepository.findFeedPageDesc(List.of(2L), Limit.of(4)))
+				.thenReturn(List.of(post(2L, 5L, "2024-01-05T10:00:00Z")));
+
+		assertThat(cache.newest(List.of(2L), 4)).extracting("id").containsExactly(9L, 5L);
+	}
+
+	@Test
+	void commentAddedBumpsCountAndActivityOfCachedPost() {
+		when(postRepository.findFeedPageDesc(List.of(2L), Limit.of(4)))
+				.thenReturn(List.of(post(2L, 5L, "2024-01-05T10:00:00Z")));
+		cache.warm(2L);
+
+		cache.onCommentAdded(new CommentAddedEvent(5L, 2L,
+				new CommentResponse(9L, "Hello", "user", Instant.parse("2024-01-06T10:00:00Z"), 0)));
+
+		FeedPostResponse post = cache.newest(List.of(2L), 4).getFirst();
+		assertThat(post.commentCount()).isEqualTo(1);
+		assertThat(post.lastActivityAt()).isEqualTo(Instant.parse("2024-01-06T10:00:00Z"));
+	}
+
+	@Test
+	void reactionChangedCountsOnBufferedPost() {
+		when(postRepository.findFeedPageDesc(List.of(2L), Limit.of(4)))
+				.thenReturn(List.of(post(2L, 5L, "2024-01-05T10:00:00Z")));
+		cache.warm(2L);
+
+		cache.onReactionChanged(new ReactionChangedEvent(ReactionTarget.post, 5L, 5L, 2L, 1));
+		cache.onReactionChanged(new ReactionChangedEvent(ReactionTarget.comment, 9L, 5L, 2L, 1));
+
+		assertThat(cache.newest(List.of(2L), 4).getFirst().reactionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void warmAllLoadsEverySubject() {
+		Subject subject = TestSupport.newInstance(Subject.class);
+		TestSupport.setId(subject, 2L);
+		when(subjectRepository.findAll()).thenReturn(List.of(subject));
+
+		cache.warmAll();
+
+		verify(postRepository).findFeedPageDesc(List.of(2L), Limit.of(4));
+	}
+
+	@Test
+	void capacityCoversLargestPage() {
+		assertThat(cache.canServe(4)).isTrue();
+		assertThat(cache.canServe(5)).isFalse();
+	}
+
+	private FeedPostResponse post(long subjectId, long id, String createdAt) {
+		return new FeedPostResponse(id, subjectId, "user", "Title " + id, "Content", Instant.parse(createdAt), 0,
+				Instant.parse(createdAt), 0);
+	}
+}
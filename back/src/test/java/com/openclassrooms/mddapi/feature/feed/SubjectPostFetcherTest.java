@@ -0,0 +1,96 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.config.FeedProperties.SubjectQueryStrategy;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.repository.PostRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SubjectPostFetcherTest {
+
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private SubjectPostFetcher fetcher;
+
+	@AfterEach
+	void tearDown() {
+		fetcher.destroy();
+	}
+
+	@Test
+	void inListStrategyIssuesSingleQuery() {
+		fetcher = fetcher(SubjectQueryStrategy.IN_LIST);
+		when(postRepository.findFeedPageDesc(List.of(1L, 2L), Limit.of(3))).thenReturn(List.of(post(5L, 1L, 50)));
+
+		var posts = fetcher.fetchChronological(List.of(1L, 2L), FeedSort.desc, null, Limit.of(3));
+
+		assertThat(posts).extracting("id").containsExactly(5L);
+		verify(transactionManager, never()).getTransaction(any());
+	}
+
+	@Test
+	void parallelStrategyMergesPerSubjectQueries() {
+		fetcher = fetcher(SubjectQueryStrategy.PARALLEL);
+		when(postRepository.findFeedPageDesc(List.of(1L), Limit.of(3)))
+				.thenReturn(List.of(post(9L, 1L, 90), post(4L, 1L, 40), post(1L, 1L, 10)));
+		when(postRepository.findFeedPageDesc(List.of(2L), Limit.of(3)))
+				.thenReturn(List.of(post(7L, 2L, 70), post(6L, 2L, 60)));
+		when(postRepository.findFeedPageDesc(List.of(3L), Limit.of(3))).thenReturn(List.of());
+
+		var posts = fetcher.fetchChronological(List.of(1L, 2L, 3L), FeedSort.desc, null, Limit.of(3));
+
+		assertThat(posts).extracting("id").containsExactly(9L, 7L, 6L);
+		verify(transactionManager, times(3)).getTransaction(any());
+	}
+
+	@Test
+	void parallelStrategyMergesHotPagesByScore() {
+		fetcher = fetcher(SubjectQueryStrategy.PARALLEL);
+		HotCursor cursor = new HotCursor(100.0, 50L);
+		when(postRepository.findHotPageAfter(List.of(1L), 100.0, 50L, Limit.of(2)))
+				.thenReturn(List.of(ranked(3L, 1L, 90.0), ranked(2L, 1L, 80.0)));
+		when(postRepository.findHotPageAfter(List.of(2L), 100.0, 50L, Limit.of(2)))
+				.thenReturn(List.of(ranked(8L, 2L, 80.0)));
+
+		var posts = fetcher.fetchHot(List.of(1L, 2L), cursor, Limit.of(2));
+
+		assertThat(posts).extracting("id").containsExactly(3L, 8L);
+	}
+
+	private SubjectPostFetcher fetcher(SubjectQueryStrategy strategy) {
+		return new SubjectPostFetcher(postRepository, transactionManager,
+				TestFeedProperties.builder().subjectQuery(strategy, 2).build());
+	}
+
+	private static FeedPostResponse post(long id, long subjectId, long second) {
+		return new FeedPostResponse(id, subjectId, "user", "Title", "Content", Instant.ofEpochSecond(second), 0,
+				Instant.ofEpochSecond(second), 0);
+	}
+
+	private static RankedFeedPost ranked(long id, long subjectId, double score) {
+		return new RankedFeedPost(id, subjectId, "user", "Title", "Content", Instant.EPOCH, 0, Instant.EPOCH, 0, score);
+	}
+}
@@ -0,0 +1,128 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.config.FeedProperties;
+import com.openclassrooms.mddapi.config.FeedProperties.SubjectQueryStrategy;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+/**
+ * Compares the {@link SubjectQueryStrategy#IN_LIST} and {@link SubjectQueryStrategy#PARALLEL} strategies of
+ * {@link SubjectPostFetcher} for 1, 10 and 100 subscribed subjects.
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}. H2 in memory has no I/O latency, which favours the
+ * single query; against a networked database the per-subject index scans pay off as the subject count grows, until
+ * the round trips and the connection pool become the limit.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+class SubjectQueryBenchmarkTest {
+
+	private static final int SUBJECTS = 100;
+	private static final int POSTS_PER_SUBJECT = 100;
+	private static final int PAGE_SIZE = 21;
+	private static final int WARMUP = 50;
+	private static final int ITERATIONS = 200;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final List<Long> subjectIds = new ArrayList<>();
+	private SubjectPostFetcher inList;
+	private SubjectPostFetcher parallel;
+
+	@BeforeAll
+	void seed() {
+		User author = userRepository.save(new User("subjects@mail.com", "subjects", "hashed"));
+		List<Post> posts = new ArrayList<>();
+		for (int s = 0; s < SUBJECTS; s++) {
+			Subject subject = TestSupport.newInstance(Subject.class);
+			subject.setName("Subject " + s);
+			subject.setDescription("Benchmark subject");
+			subject = subjectRepository.save(subject);
+			subjectIds.add(subject.getId());
+			for (int p = 0; p < POSTS_PER_SUBJECT; p++) {
+				posts.add(new Post(subject, author, "Title " + p, "Content", "Content"));
+			}
+		}
+		postRepository.saveAll(posts);
+		inList = fetcher(SubjectQueryStrategy.IN_LIST);
+		parallel = fetcher(SubjectQueryStrategy.PARALLEL);
+	}
+
+	@AfterAll
+	void shutdown() {
+		inList.destroy();
+		parallel.destroy();
+	}
+
+	@Test
+	void compareStrategiesBySubscriptionCount() {
+		for (int subscriptions : List.of(1, 10, 100)) {
+			List<Long> subscribed = subjectIds.subList(0, subscriptions);
+			assertThat(page(parallel, subscribed)).isEqualTo(page(inList, subscribed));
+
+			double inListMicros = measure(inList, subscribed);
+			double parallelMicros = measure(parallel, subscribed);
+			System.out.printf("%3d subscriptions | in-list: %8.1f us | parallel: %8.1f us%n",
+					subscriptions, inListMicros, parallelMicros);
+		}
+	}
+
+	private SubjectPostFetcher fetcher(SubjectQueryStrategy strategy) {
+		return new SubjectPostFetcher(postRepository, transactionManager, TestFeedProperties.builder()
+				.recentCache(false, 64)
+				.pageCache(false)
+				.subjectQuery(strategy, 8)
+				.build());
+	}
+
+	private List<FeedPostResponse> page(SubjectPostFetcher fetcher, List<Long> subscribed) {
+		return fetcher.fetchChronological(subscribed, FeedSort.desc, null, Limit.of(PAGE_SIZE));
+	}
+
+	private double measure(SubjectPostFetcher fetcher, List<Long> subscribed) {
+		for (int i = 0; i < WARMUP; i++) {
+			page(fetcher, subscribed);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			page(fetcher, subscribed);
+		}
+		return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+	}
+}
@@ -0,0 +1,217 @@
+package com.openclassrooms.mddapi.feature.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.TestFeedProperties;
+import com.openclassrooms.mddapi.feature.post.PostCreatedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionChangedEvent;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserTimelineRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+	@Mock
+	private UserTimelineRepository userTimelineRepository;
+
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private SubscriptionIndex subscriptionIndex;
+
+	@Mock
+	private SubjectRepository subjectRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private FeedPageCache feedPageCache;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private TimelineService timelineService;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		timelineService = new TimelineService(userTimelineRepository, postRepository, subscriptionIndex, subjectRepository,
+				transactionTemplate, feedPageCache, TestFeedProperties.builder().timeline(3, 2, 2).build(),
+				meterRegistry);
+	}
+
+	@Test
+	void fanOutWritesSubscribersInBatches() {
+		runTransactionsInline();
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+		when(subscriptionIndex.subscriberCount(2L)).thenReturn(3);
+		when(subscriptionIndex.subscriberIds(2L)).thenReturn(new long[] {1L, 4L, 9L});
+
+		timelineService.fanOut(5L, 2L);
+
+		verify(subscriptionIndex).sync();
+		verify(userTimelineRepository).fanOut(5L, List.of(1L, 4L));
+		verify(userTimelineRepository).fanOut(5L, List.of(9L));
+	}
+
+	@Test
+	void fanOutRetriesFailedBatchThenGoesOn() {
+		runTransactionsInline();
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+		when(subscriptionIndex.subscriberCount(2L)).thenReturn(3);
+		when(subscriptionIndex.subscriberIds(2L)).thenReturn(new long[] {1L, 4L, 9L});
+		when(userTimelineRepository.fanOut(5L, List.of(1L, 4L))).thenThrow(new QueryTimeoutException("timeout"));
+
+		timelineService.fanOut(5L, 2L);
+
+		verify(userTimelineRepository, times(3)).fanOut(5L, List.of(1L, 4L));
+		verify(userTimelineRepository).fanOut(5L, List.of(9L));
+		assertThat(meterRegistry.get("feed.timeline.fan_out_failures").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void fanOutCountsNothingWhenRetrySucceeds() {
+		runTransactionsInline();
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+		when(subscriptionIndex.subscriberCount(2L)).thenReturn(1);
+		when(subscriptionIndex.subscriberIds(2L)).thenReturn(new long[] {1L});
+		when(userTimelineRepository.fanOut(5L, List.of(1L))).thenThrow(new QueryTimeoutException("timeout")).thenReturn(1);
+
+		timelineService.fanOut(5L, 2L);
+
+		verify(userTimelineRepository, times(2)).fanOut(5L, List.of(1L));
+		assertThat(meterRegistry.get("feed.timeline.fan_out_failures").counter().count()).isZero();
+	}
+
+	@Test
+	void fanOutFlagsSubjectAboveThreshold() {
+		runTransactionsInline();
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+		when(subscriptionIndex.subscriberCount(2L)).thenReturn(4);
+
+		timelineService.fanOut(5L, 2L);
+
+		verify(subjectRepository).markFanOutOnRead(2L);
+		verify(userTimelineRepository, never()).fanOut(anyLong(), any());
+	}
+
+	@Test
+	void fanOutSkipsFlaggedSubject() {
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(List.of(2L));
+
+		timelineService.fanOut(5L, 2L);
+
+		verify(subscriptionIndex, never()).subscriberCount(2L);
+		verify(userTimelineRepository, never()).fanOut(anyLong(), any());
+	}
+
+	@Test
+	void postCreatedEvictsFeedPagesAfterFanOut() {
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(List.of(2L));
+
+		timelineService.onPostCreated(new PostCreatedEvent(5L, 2L, 1L, "alice", "t", "c", "c", Instant.now()));
+
+		var order = inOrder(subjectRepository, feedPageCache);
+		order.verify(subjectRepository).findFanOutOnReadIds(List.of(2L));
+		order.verify(feedPageCache).evictSubject(2L);
+	}
+
+	@Test
+	void subscribeBackfillsTimeline() {
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+
+		timelineService.onSubscriptionChanged(new SubscriptionChangedEvent(1L, 2L, true));
+
+		verify(userTimelineRepository).backfill(1L, 2L, 2);
+	}
+
+	@Test
+	void subscribeSkipsBackfillForFlaggedSubject() {
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(List.of(2L));
+
+		timelineService.onSubscriptionChanged(new SubscriptionChangedEvent(1L, 2L, true));
+
+		verify(userTimelineRepository, never()).backfill(anyLong(), anyLong(), anyInt());
+	}
+
+	@Test
+	void committedSubscriptionCopiesWholeHistoryInBatches() {
+		runTransactionsInline();
+		when(subjectRepository.findFanOutOnReadIds(List.of(2L))).thenReturn(Collections.emptyList());
+		when(postRepository.findIdsBySubjectIdBefore(2L, Long.MAX_VALUE, Limit.of(2))).thenReturn(List.of(9L, 7L));
+		when(postRepository.findIdsBySubjectIdBefore(2L, 7L, Limit.of(2))).thenReturn(List.of(4L, 3L));
+		when(postRepository.findIdsBySubjectIdBefore(2L, 3L, Limit.of(2))).thenReturn(List.of(1L));
+
+		timelineService.onSubscribed(new SubscriptionChangedEvent(1L, 2L, true));
+
+		var order = inOrder(userTimelineRepository);
+		order.verify(userTimelineRepository).copyPosts(1L, List.of(9L, 7L));
+		order.verify(userTimelineRepository).copyPosts(1L, List.of(4L, 3L));
+		order.verify(userTimelineRepository).copyPosts(1L, List.of(1L));
+		verify(feedPageCache).evictUser(1L);
+	}
+
+	@Test
+	void historyBackfillStopsAtBatchStillFailing() {
+		runTransactionsInline();
+		when(postRepository.findIdsBySubjectIdBefore(2L, Long.MAX_VALUE, Limit.of(2))).thenReturn(List.of(9L, 7L));
+		when(userTimelineRepository.copyPosts(1L, List.of(9L, 7L))).thenThrow(new QueryTimeoutException("timeout"));
+
+		timelineService.backfillHistory(1L, 2L);
+
+		verify(userTimelineRepository, times(3)).copyPosts(1L, List.of(9L, 7L));
+		verify(postRepository, never()).findIdsBySubjectIdBefore(2L, 7L, Limit.of(2));
+		assertThat(meterRegistry.get("feed.timeline.backfill_failures").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void unsubscribeDoesNotCopyHistory() {
+		timelineService.onSubscribed(new SubscriptionChangedEvent(1L, 2L, false));
+
+		verify(postRepository, never()).findIdsBySubjectIdBefore(anyLong(), anyLong(), any());
+	}
+
+	@Test
+	void unsubscribePrunesTimeline() {
+		timelineService.onSubscriptionChanged(new SubscriptionChangedEvent(1L, 2L, false));
+
+		verify(userTimelineRepository).prune(1L, 2L);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void runTransactionsInline() {
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+	}
+}
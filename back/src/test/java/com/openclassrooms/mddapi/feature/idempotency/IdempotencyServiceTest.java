@@ -0,0 +1,231 @@
+package com.openclassrooms.mddapi.feature.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.openclassrooms.mddapi.config.IdempotencyProperties;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.exception.ConflictException;
+import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
+import com.openclassrooms.mddapi.feature.post.dto.CreatePostResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+class IdempotencyServiceTest {
+
+	private static final String SCOPE = "POST /api/posts";
+	private static final CreatePostRequest REQUEST = new CreatePostRequest(2L, "Title", "Content");
+
+	@Autowired
+	private IdempotencyService service;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JsonMapper jsonMapper;
+
+	@Autowired
+	private IdempotencyProperties properties;
+
+	@Test
+	void replaysRecordedResponseWithoutRunningAgain() {
+		String key = UUID.randomUUID().toString();
+		AtomicInteger runs = new AtomicInteger();
+
+		ResponseEntity<CreatePostResponse> first = service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class,
+				() -> created(runs.incrementAndGet()));
+		ResponseEntity<CreatePostResponse> second = service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class,
+				() -> created(runs.incrementAndGet()));
+
+		assertThat(runs).hasValue(1);
+		assertThat(first.getHeaders().containsHeader(IdempotencyService.REPLAYED_HEADER)).isFalse();
+		assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(second.getBody()).isEqualTo(new CreatePostResponse(1L));
+		assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+	}
+
+	@Test
+	void sameKeyFromAnotherUserRunsAgain() {
+		String key = UUID.randomUUID().toString();
+		AtomicInteger runs = new AtomicInteger();
+
+		service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class, () -> created(runs.incrementAndGet()));
+		service.execute(2L, key, SCOPE, REQUEST, CreatePostResponse.class, () -> created(runs.incrementAndGet()));
+
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void rejectsKeyReusedForAnotherRequest() {
+		String key = UUID.randomUUID().toString();
+		service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class, () -> created(1L));
+		CreatePostRequest other = new CreatePostRequest(2L, "Other", "Content");
+
+		assertThatThrownBy(() -> service.execute(1L, key, SCOPE, other, CreatePostResponse.class, () -> created(2L)))
+				.isInstanceOf(ConflictException.class);
+		assertThatThrownBy(() -> service.execute(1L, key, "POST /api/posts/1/comments", REQUEST,
+				CreatePostResponse.class, () -> created(2L)))
+				.isInstanceOf(ConflictException.class);
+	}
+
+	@Test
+	void rejectsBlankOrOversizedKey() {
+		assertThatThrownBy(() -> service.execute(1L, " ", SCOPE, REQUEST, CreatePostResponse.class, () -> created(1L)))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> service.execute(1L, "k".repeat(256), SCOPE, REQUEST, CreatePostResponse.class,
+				() -> created(1L)))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void failedRequestIsNotRecorded() {
+		String key = UUID.randomUUID().toString();
+
+		assertThatThrownBy(() -> service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class, () -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class);
+		ResponseEntity<CreatePostResponse> retry = service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class,
+				() -> created(3L));
+
+		assertThat(retry.getBody()).isEqualTo(new CreatePostResponse(3L));
+		assertThat(retry.getHeaders().containsHeader(IdempotencyService.REPLAYED_HEADER)).isFalse();
+	}
+
+	@Test
+	void concurrentDuplicateWaitsForFirstExecution() throws Exception {
+		String key = UUID.randomUUID().toString();
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<ResponseEntity<CreatePostResponse>> first = CompletableFuture.supplyAsync(
+				() -> service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class, () -> {
+					started.countDown();
+					await(release);
+					return created(runs.incrementAndGet());
+				}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<ResponseEntity<CreatePostResponse>> duplicate = CompletableFuture.supplyAsync(
+				() -> service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class,
+						() -> created(runs.incrementAndGet())));
+		Thread.sleep(100);
+		assertThat(duplicate).isNotDone();
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(new CreatePostResponse(1L));
+		ResponseEntity<CreatePostResponse> replayed = duplicate.get(5, TimeUnit.SECONDS);
+		assertThat(replayed.getBody()).isEqualTo(new CreatePostResponse(1L));
+		assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void replaysResponseRecordedByAnotherNode() {
+		String key = UUID.randomUUID().toString();
+		service.execute(1L, key, SCOPE, REQUEST, CreatePostResponse.class, () -> created(4L));
+
+		ResponseEntity<CreatePostResponse> replayed = otherNode().execute(1L, key, SCOPE, REQUEST,
+				CreatePostResponse.class, () -> created(5L));
+
+		assertThat(replayed.getBody()).isEqualTo(new CreatePostResponse(4L));
+		assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+	}
+
+	@Test
+	void concurrentNodeCommittingFirstWinsAndLoserRollsBack() {
+		String key = UUID.randomUUID().toString();
+		String marker = "idempotency-" + key;
+		TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+		otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		ResponseEntity<CreatePostResponse> response = service.execute(1L, key, SCOPE, REQUEST,
+				CreatePostResponse.class, () -> {
+					jdbcTemplate.update("insert into subject (name, description) values (?, ?)", marker, marker);
+					otherTransaction.executeWithoutResult(status -> otherNode().execute(1L, key, SCOPE, REQUEST,
+							CreatePostResponse.class, () -> created(6L)));
+					return created(7L);
+				});
+
+		assertThat(response.getBody()).isEqualTo(new CreatePostResponse(6L));
+		assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(jdbcTemplate.queryForObject("select count(*) from subject where name = ?", Integer.class, marker))
+				.isZero();
+	}
+
+	@Test
+	void purgeDeletesExpiredKeys() {
+		String expired = UUID.randomUUID().toString();
+		String recent = UUID.randomUUID().toString();
+		insertKey(expired, Instant.now().minus(properties.ttl()).minusSeconds(60));
+		insertKey(recent, Instant.now());
+
+		assertThat(service.purgeExpired()).isGreaterThanOrEqualTo(1);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"select count(*) from idempotency_key where idempotency_key in (?, ?)", Integer.class, expired, recent))
+				.isEqualTo(1);
+	}
+
+	@Test
+	void expiredKeyRunsAgain() {
+		String key = UUID.randomUUID().toString();
+		insertKey(key, Instant.now().minus(properties.ttl()).minusSeconds(60));
+
+		ResponseEntity<CreatePostResponse> response = otherNode().execute(1L, key, SCOPE, REQUEST,
+				CreatePostResponse.class, () -> created(8L));
+
+		assertThat(response.getBody()).isEqualTo(new CreatePostResponse(8L));
+	}
+
+	private IdempotencyService otherNode() {
+		return new IdempotencyService(jdbcTemplate, transactionManager, jsonMapper,
+				new IdempotencyProperties(properties.ttl(), 100, Duration.ofHours(1)), new SimpleMeterRegistry());
+	}
+
+	private void insertKey(String key, Instant createdAt) {
+		jdbcTemplate.update("""
+				insert into idempotency_key (user_id, idempotency_key, fingerprint, status, body, created_at)
+				values (?, ?, ?, ?, ?, ?)
+				""", 1L, key, "0".repeat(64), 201, "{\"id\":1}", Timestamp.from(createdAt));
+	}
+
+	private static ResponseEntity<CreatePostResponse> created(long id) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(new CreatePostResponse(id));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
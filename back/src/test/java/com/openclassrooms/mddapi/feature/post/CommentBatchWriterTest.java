@@ -0,0 +1,100 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.post.activity-flush.interval=1h"
+})
+class CommentBatchWriterTest {
+
+	@Autowired
+	private CommentBatchWriter writer;
+
+	@Autowired
+	private PostActivityCounters counters;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ContentCodecRegistry codecs;
+
+	@Test
+	void writeInsertsBatchAndPublishesCommentEvents() {
+		Post post = savePost("batch");
+		Instant at = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		UUID first = UUID.randomUUID();
+
+		writer.write(List.of(
+				comment(first, post, "First", at),
+				comment(UUID.randomUUID(), post, "Second", at.plusMillis(1))));
+
+		assertThat(jdbcTemplate.queryForList("select content from comment where post_id = ? order by id",
+				byte[].class, post.getId()))
+				.extracting(codecs.codec()::decode)
+				.containsExactly("First", "Second");
+		assertThat(jdbcTemplate.queryForObject("select post_id from comment where client_id = ?", Long.class,
+				first.toString())).isEqualTo(post.getId());
+		assertThat(counters.pending(post.getId()).comments()).isEqualTo(2);
+	}
+
+	@Test
+	void writeIsAllOrNothing() {
+		Post post = savePost("rollback");
+		UUID duplicate = UUID.randomUUID();
+		Instant at = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+		assertThatThrownBy(() -> writer.write(List.of(
+				comment(duplicate, post, "First", at),
+				comment(duplicate, post, "Again", at))))
+				.isInstanceOf(RuntimeException.class);
+
+		assertThat(jdbcTemplate.queryForObject("select count(*) from comment where post_id = ?", Integer.class,
+				post.getId())).isZero();
+	}
+
+	private static QueuedComment comment(UUID clientId, Post post, String content, Instant at) {
+		return new QueuedComment(clientId, post.getId(), post.getSubject().getId(), post.getAuthor().getId(), content,
+				at);
+	}
+
+	private Post savePost(String name) {
+		User author = userRepository.save(new User(name + "@mail.com", name, "hashed"));
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Subject " + name);
+		subject.setDescription("Batch subject");
+		subject = subjectRepository.save(subject);
+		return postRepository.save(new Post(subject, author, "Title", "Content", "Content"));
+	}
+}
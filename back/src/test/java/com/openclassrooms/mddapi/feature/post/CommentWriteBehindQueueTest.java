@@ -0,0 +1,186 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.exception.ServiceUnavailableException;
+import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
+import com.openclassrooms.mddapi.feature.post.dto.QueuedCommentResponse;
+import com.openclassrooms.mddapi.repository.PostRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CommentWriteBehindQueueTest {
+
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private CommentBatchWriter writer;
+
+	private SimpleMeterRegistry meterRegistry;
+	private CommentWriteBehindQueue queue;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		PostProperties properties = new PostProperties(2, 3,
+				new PostProperties.DetailCache(true, 100, Duration.ofMinutes(1)),
+				new PostProperties.ActivityFlush(Duration.ofSeconds(2), 500),
+				new PostProperties.BulkImport(false, List.of(), 100, 50),
+				new PostProperties.CommentQueue(true, 2, 10, Duration.ofMillis(10)),
+				new PostProperties.NearDuplicate(true, PostProperties.NearDuplicateAction.REJECT, 7, 100,
+						Duration.ofSeconds(30)));
+		queue = new CommentWriteBehindQueue(postRepository, writer, properties, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		queue.stop();
+	}
+
+	@Test
+	void enqueueRefusedWhenStopped() {
+		assertThatThrownBy(() -> queue.enqueue(1L, 5L, new CreateCommentRequest("Hello")))
+				.isInstanceOf(ServiceUnavailableException.class);
+	}
+
+	@Test
+	void enqueueThrowsWhenPostMissing() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.empty());
+		queue.start();
+
+		assertThatThrownBy(() -> queue.enqueue(1L, 5L, new CreateCommentRequest("Hello")))
+				.isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void fullQueuePushesBackThenPendingCommentsAreGroupCommitted() throws InterruptedException {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			writing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		}).doNothing().when(writer).write(anyList());
+		queue.start();
+
+		QueuedCommentResponse first = queue.enqueue(1L, 5L, new CreateCommentRequest("First"));
+		assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Second"));
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Third"));
+
+		assertThatThrownBy(() -> queue.enqueue(1L, 5L, new CreateCommentRequest("Fourth")))
+				.isInstanceOf(ServiceUnavailableException.class);
+		assertThat(meterRegistry.get("post.comment_queue.rejected").counter().count()).isEqualTo(1);
+
+		release.countDown();
+		queue.stop();
+
+		assertThat(first.id()).isNotBlank();
+		verify(writer).write(argThat(batch -> batch.size() == 1 && batch.getFirst().content().equals("First")));
+		verify(writer).write(argThat(batch -> batch.stream().map(QueuedComment::content).toList()
+				.equals(List.of("Second", "Third"))));
+	}
+
+	@Test
+	void failedBatchIsRetriedCommentByComment() throws InterruptedException {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			List<QueuedComment> batch = invocation.getArgument(0);
+			if (batch.getFirst().content().equals("First")) {
+				writing.countDown();
+				release.await(5, TimeUnit.SECONDS);
+				return null;
+			}
+			if (batch.size() > 1 || batch.getFirst().content().equals("Bad")) {
+				throw new DataIntegrityViolationException("post deleted");
+			}
+			return null;
+		}).when(writer).write(anyList());
+		queue.start();
+
+		queue.enqueue(1L, 5L, new CreateCommentRequest("First"));
+		assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Good"));
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Bad"));
+		release.countDown();
+		queue.stop();
+
+		verify(writer).write(argThat(batch -> batch.size() == 1 && batch.getFirst().content().equals("Good")));
+		assertThat(meterRegistry.get("post.comment_queue.dropped").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void transientFailureIsRetriedUntilWritten() throws InterruptedException {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		CountDownLatch written = new CountDownLatch(1);
+		doThrow(new TransientDataAccessResourceException("database down"))
+				.doThrow(new TransientDataAccessResourceException("database down"))
+				.doAnswer(invocation -> {
+					written.countDown();
+					return null;
+				}).when(writer).write(anyList());
+		queue.start();
+
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Hello"));
+
+		assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+		queue.stop();
+		verify(writer, times(3)).write(anyList());
+		assertThat(meterRegistry.get("post.comment_queue.dropped").counter().count()).isZero();
+	}
+
+	@Test
+	void commentStillFailingAtShutdownIsDropped() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		doThrow(new TransientDataAccessResourceException("database down")).when(writer).write(anyList());
+		queue.start();
+
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Hello"));
+		queue.stop();
+
+		assertThat(meterRegistry.get("post.comment_queue.dropped").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void duplicateClientIdIsTakenAsWritten() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		doThrow(new DuplicateKeyException("uk_comment_client_id")).when(writer).write(anyList());
+		queue.start();
+
+		queue.enqueue(1L, 5L, new CreateCommentRequest("Hello"));
+		queue.stop();
+
+		assertThat(meterRegistry.get("post.comment_queue.dropped").counter().count()).isZero();
+	}
+}
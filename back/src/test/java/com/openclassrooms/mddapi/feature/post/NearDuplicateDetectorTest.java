@@ -0,0 +1,150 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.exception.ConflictException;
+import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
+import com.openclassrooms.mddapi.feature.post.dto.ImportLineResult;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.post.near-duplicate.scan-batch-size=2"
+})
+class NearDuplicateDetectorTest {
+
+	private static final String CONTENT = """
+			Les index composites doivent suivre l'ordre des filtres puis du tri : une requête filtrée sur le thème et
+			triée par date profite d'un index sur le thème, la date et l'identifiant, sans tri en mémoire.
+			""";
+
+	@Autowired
+	private NearDuplicateDetector detector;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostImportService postImportService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ContentCodecRegistry codecs;
+
+	@Test
+	void rejectsNearDuplicateOfCreatedPost() {
+		User author = userRepository.save(new User("simhash@mail.com", "simhash", "hashed"));
+		Subject subject = saveSubject("SimHash");
+		String content = CONTENT.replace("composites", "multicolonnes");
+		postService.createPost(author.getId(), new CreatePostRequest(subject.getId(), "Index multicolonnes", content));
+
+		assertThatThrownBy(() -> postService.createPost(author.getId(),
+				new CreatePostRequest(subject.getId(), "Index multicolonnes !", content.replace("mémoire", "RAM"))))
+				.isInstanceOf(ConflictException.class);
+		assertThat(postService.createPost(author.getId(),
+				new CreatePostRequest(subject.getId(), "Signaux Angular", "Un tout autre sujet, sans rapport.")).id())
+				.isPositive();
+	}
+
+	@Test
+	void loadComputesMissingFingerprintsAndIndexesThem() {
+		User author = userRepository.save(new User("backfill@mail.com", "backfill", "hashed"));
+		Subject subject = saveSubject("Backfill");
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt, hot_score, created_at)
+				values (?, ?, ?, ?, ?, 0, current_timestamp)
+				""", subject.getId(), author.getId(), "Ancien article", codecs.codec().encode(CONTENT), "excerpt");
+		long id = jdbcTemplate.queryForObject("select id from post where title = 'Ancien article'", Long.class);
+
+		assertThat(detector.load()).isGreaterThanOrEqualTo(1);
+
+		long simhash = SimHash.of("Ancien article", CONTENT);
+		assertThat(jdbcTemplate.queryForObject("select simhash from post where id = ?", Long.class, id))
+				.isEqualTo(simhash);
+		assertThatThrownBy(() -> detector.check(simhash)).isInstanceOf(ConflictException.class);
+
+		NearDuplicateDetector flagging = new NearDuplicateDetector(jdbcTemplate, codecs, new PostProperties(2, 3,
+				null, null, null, null,
+				new PostProperties.NearDuplicate(true, PostProperties.NearDuplicateAction.FLAG, 7, 2,
+						Duration.ofSeconds(30))),
+				new SimpleMeterRegistry());
+		flagging.load();
+		assertThat(flagging.check(simhash)).hasValue(id);
+	}
+
+	@Test
+	void syncIndexesPostsCreatedThroughAnotherNode() {
+		User author = userRepository.save(new User("othernode@mail.com", "othernode", "hashed"));
+		Subject subject = saveSubject("Autre nœud");
+		String content = "Un cache local garde ses entrées jusqu'à leur expiration : les écritures faites sur un "
+				+ "autre nœud n'y apparaissent qu'une fois l'entrée expirée ou invalidée par un message.";
+		long simhash = SimHash.of("Cache local", content);
+		detector.sync();
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt, hot_score, simhash)
+				values (?, ?, ?, ?, ?, 0, ?)
+				""", subject.getId(), author.getId(), "Cache local", codecs.codec().encode(content), "excerpt",
+				simhash);
+
+		assertThat(detector.check(SimHash.of("Cache local", content.replace("message", "événement")))).isEmpty();
+		detector.sync();
+
+		assertThatThrownBy(() -> detector.check(simhash)).isInstanceOf(ConflictException.class);
+	}
+
+	@Test
+	void importedPostsAreIndexedWithTheirStoredFingerprint() throws IOException {
+		User author = userRepository.save(new User("imported@mail.com", "imported", "hashed"));
+		Subject subject = saveSubject("Import SimHash");
+		String content = "Les migrations Flyway versionnées s'appliquent dans l'ordre, une seule fois par base, "
+				+ "et un checksum signale toute modification d'un script déjà appliqué.";
+		List<ImportLineResult> results = new ArrayList<>();
+
+		postImportService.importPosts(new BufferedReader(new StringReader("{\"subjectId\":" + subject.getId()
+				+ ",\"author\":\"imported\",\"title\":\"Migrations Flyway\",\"content\":\"" + content + "\"}")),
+				results::add);
+
+		assertThat(jdbcTemplate.queryForObject("select simhash from post where id = ?", Long.class,
+				results.getFirst().postId())).isEqualTo(SimHash.of("Migrations Flyway", content));
+		assertThatThrownBy(() -> postService.createPost(author.getId(),
+				new CreatePostRequest(subject.getId(), "Migrations Flyway", content.replace("script", "fichier"))))
+				.isInstanceOf(ConflictException.class);
+	}
+
+	private Subject saveSubject(String name) {
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName(name);
+		subject.setDescription(name);
+		return subjectRepository.save(subject);
+	}
+}
@@ -0,0 +1,73 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/**
+ * Measures near-duplicate lookups among 500,000 random fingerprints at the default distance of 7, for new posts
+ * without any near-duplicate and for edited copies of indexed posts.
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NearDuplicateIndexBenchmarkTest {
+
+	private static final int POSTS = 500_000;
+	private static final int LOOKUPS = 100_000;
+
+	private final long[] fingerprints = new long[POSTS];
+	private NearDuplicateIndex index;
+
+	@BeforeAll
+	void build() {
+		Random random = new Random(5);
+		for (int i = 0; i < POSTS; i++) {
+			fingerprints[i] = random.nextLong();
+		}
+		long start = System.nanoTime();
+		index = new NearDuplicateIndex(7);
+		for (int i = 0; i < POSTS; i++) {
+			index.add(i + 1, fingerprints[i]);
+		}
+		System.out.printf("build: %d posts in %.1f ms%n", POSTS, (System.nanoTime() - start) / 1e6);
+	}
+
+	@Test
+	void lookupLatency() {
+		Random random = new Random(9);
+		long[] fresh = new long[LOOKUPS];
+		long[] edited = new long[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			fresh[i] = random.nextLong();
+			long copy = fingerprints[random.nextInt(POSTS)];
+			for (int bit = 0; bit < 7; bit++) {
+				copy ^= 1L << random.nextInt(Long.SIZE);
+			}
+			edited[i] = copy;
+		}
+		for (String name : new String[] {"fresh", "edited"}) {
+			long[] queries = name.equals("fresh") ? fresh : edited;
+			int found = 0;
+			for (int i = 0; i < LOOKUPS / 10; i++) {
+				found += index.nearest(queries[i]).isPresent() ? 1 : 0;
+			}
+			found = 0;
+			long start = System.nanoTime();
+			for (long query : queries) {
+				found += index.nearest(query).isPresent() ? 1 : 0;
+			}
+			double micros = (System.nanoTime() - start) / 1e3 / LOOKUPS;
+			System.out.printf("%-6s %.2f µs per lookup, %d found%n", name, micros, found);
+			if (name.equals("edited")) {
+				assertThat(found).isEqualTo(LOOKUPS);
+			}
+		}
+	}
+}
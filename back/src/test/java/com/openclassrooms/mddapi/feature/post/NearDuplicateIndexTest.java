@@ -0,0 +1,67 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NearDuplicateIndexTest {
+
+	@Test
+	void findsFingerprintsWithinMaxDistanceWhateverBitsDiffer() {
+		Random random = new Random(7);
+		for (int maxDistance : new int[] {0, 3, 6, 7}) {
+			NearDuplicateIndex index = new NearDuplicateIndex(maxDistance);
+			for (int i = 0; i < 200; i++) {
+				long fingerprint = random.nextLong();
+				index.add(i + 1, fingerprint);
+
+				assertThat(index.nearest(flip(fingerprint, maxDistance, random))).hasValue(i + 1);
+			}
+		}
+	}
+
+	@Test
+	void ignoresFingerprintsBeyondMaxDistance() {
+		NearDuplicateIndex index = new NearDuplicateIndex(3);
+		index.add(1, 0L);
+
+		assertThat(index.nearest(0b1111L)).isEmpty();
+		assertThat(index.nearest(0b0111L)).hasValue(1);
+	}
+
+	@Test
+	void returnsClosestThenOldestPost() {
+		NearDuplicateIndex index = new NearDuplicateIndex(6);
+		index.add(3, 0b11L);
+		index.add(2, 0b1L);
+		index.add(1, 0b10L);
+
+		assertThat(index.nearest(0L)).hasValue(1);
+		assertThat(index.nearest(0b11L)).hasValue(3);
+	}
+
+	@Test
+	void addsEachPostOnce() {
+		NearDuplicateIndex index = new NearDuplicateIndex(3);
+
+		assertThat(index.add(1, 42L)).isTrue();
+		assertThat(index.add(1, 42L)).isFalse();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsUnsupportedDistance() {
+		assertThatThrownBy(() -> new NearDuplicateIndex(32)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static long flip(long fingerprint, int bits, Random random) {
+		long flipped = fingerprint;
+		while (SimHash.distance(fingerprint, flipped) < bits) {
+			flipped ^= 1L << random.nextInt(Long.SIZE);
+		}
+		return flipped;
+	}
+}
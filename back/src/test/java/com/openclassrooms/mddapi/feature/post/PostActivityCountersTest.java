@@ -0,0 +1,78 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
+
+class PostActivityCountersTest {
+
+	private final PostActivityCounters counters = new PostActivityCounters(4);
+
+	@Test
+	void recordMergesCommentsOfSamePost() {
+		counters.record(5L, Instant.parse("2024-01-02T10:00:00Z"));
+		counters.record(5L, Instant.parse("2024-01-01T10:00:00Z"));
+
+		PostActivity pending = counters.pending(5L);
+
+		assertThat(pending.comments()).isEqualTo(2);
+		assertThat(pending.lastActivityAt()).isEqualTo(Instant.parse("2024-01-02T10:00:00Z"));
+		assertThat(pending.hotActivity()).isEqualTo(HotScore.combine(
+				HotScore.at(Instant.parse("2024-01-02T10:00:00Z")),
+				HotScore.at(Instant.parse("2024-01-01T10:00:00Z"))));
+	}
+
+	@Test
+	void drainEmptiesEveryStripe() {
+		for (long postId = 1; postId <= 20; postId++) {
+			counters.record(postId, Instant.EPOCH);
+		}
+
+		List<PostActivity> drained = counters.drain();
+
+		assertThat(drained).extracting(PostActivity::postId).hasSize(20).doesNotHaveDuplicates();
+		counters.settle();
+		assertThat(counters.pending(1L)).isNull();
+		assertThat(counters.drain()).isEmpty();
+	}
+
+	@Test
+	void drainedActivityStaysPendingUntilSettled() {
+		counters.record(5L, Instant.parse("2024-01-01T10:00:00Z"));
+		counters.drain();
+		counters.record(5L, Instant.parse("2024-01-03T10:00:00Z"));
+
+		assertThat(counters.pending(5L).comments()).isEqualTo(2);
+		assertThat(counters.pending(5L).lastActivityAt()).isEqualTo(Instant.parse("2024-01-03T10:00:00Z"));
+
+		counters.settle();
+
+		assertThat(counters.pending(5L).comments()).isEqualTo(1);
+		assertThat(counters.drain()).extracting(PostActivity::comments).containsExactly(1);
+	}
+
+	@Test
+	void restoreMergesWithActivityRecordedSinceDrain() {
+		counters.record(5L, Instant.parse("2024-01-01T10:00:00Z"));
+		counters.drain();
+		counters.record(5L, Instant.parse("2024-01-03T10:00:00Z"));
+
+		counters.restore();
+
+		assertThat(counters.pending(5L).comments()).isEqualTo(2);
+		assertThat(counters.pending(5L).lastActivityAt()).isEqualTo(Instant.parse("2024-01-03T10:00:00Z"));
+	}
+
+	@Test
+	void commentAddedEventIsRecorded() {
+		counters.onCommentAdded(new CommentAddedEvent(5L, 2L,
+				new CommentResponse(9L, "Hello", "user", Instant.EPOCH, 0)));
+
+		assertThat(counters.pending(5L).comments()).isEqualTo(1);
+	}
+}
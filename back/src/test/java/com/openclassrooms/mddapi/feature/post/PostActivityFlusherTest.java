@@ -0,0 +1,119 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.post.activity-flush.interval=1h"
+})
+class PostActivityFlusherTest {
+
+	@Autowired
+	private PostActivityFlusher flusher;
+
+	@Autowired
+	private PostActivityCounters counters;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostService postService;
+
+	@MockitoSpyBean
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void flushWritesPendingActivityToPostRow() {
+		Post post = savePost();
+		Instant first = post.getCreatedAt().plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+		Instant second = first.plusSeconds(60);
+		counters.record(post.getId(), second);
+		counters.record(post.getId(), first);
+
+		assertThat(flusher.flush()).isEqualTo(1);
+
+		assertThat(jdbcTemplate.queryForObject("select comment_count from post where id = ?", Integer.class,
+				post.getId())).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("select last_activity_at from post where id = ?", Instant.class,
+				post.getId())).isEqualTo(second);
+		double expected = HotScore.combine(post.getHotScore(),
+				HotScore.combine(HotScore.at(first), HotScore.at(second)));
+		assertThat(jdbcTemplate.queryForObject("select hot_score from post where id = ?", Double.class,
+				post.getId())).isEqualTo(expected, within(1e-9));
+		assertThat(counters.pending(post.getId())).isNull();
+	}
+
+	@Test
+	void postLoadedDuringFlushCountsActivityNotCommittedYet() {
+		Post post = savePost();
+		counters.record(post.getId(), post.getCreatedAt().plusSeconds(60));
+		counters.record(post.getId(), post.getCreatedAt().plusSeconds(120));
+		AtomicLong loadedDuringFlush = new AtomicLong(-1);
+		doAnswer(invocation -> {
+			Object updated = invocation.callRealMethod();
+			// Another thread reads the committed row, without this transaction's update.
+			loadedDuringFlush.set(CompletableFuture.supplyAsync(() -> postService.getPost(post.getId()).commentCount())
+					.join());
+			return updated;
+		}).when(jdbcTemplate).batchUpdate(contains("comment_count"), anyCollection(), anyInt(), any());
+
+		flusher.flush();
+
+		assertThat(loadedDuringFlush).hasValue(2);
+		assertThat(counters.pending(post.getId())).isNull();
+		assertThat(jdbcTemplate.queryForObject("select comment_count from post where id = ?", Integer.class,
+				post.getId())).isEqualTo(2);
+	}
+
+	@Test
+	void flushWithoutActivityWritesNothing() {
+		counters.drain();
+		counters.settle();
+
+		assertThat(flusher.flush()).isZero();
+	}
+
+	private Post savePost() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		User author = userRepository.save(new User("flush" + suffix + "@mail.com", "flush" + suffix, "hashed"));
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Flush " + suffix);
+		subject.setDescription("Flush subject");
+		subject = subjectRepository.save(subject);
+		return postRepository.save(new Post(subject, author, "Title", "Content", "Content"));
+	}
+}
@@ -1,15 +1,19 @@
 package com.openclassrooms.mddapi.feature.post;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,11 +24,15 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.openclassrooms.mddapi.TestWebConfig;
+import com.openclassrooms.mddapi.exception.ServiceUnavailableException;
+import com.openclassrooms.mddapi.feature.post.dto.CommentPageResponse;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
 import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostResponse;
 import com.openclassrooms.mddapi.feature.post.dto.PostDetailResponse;
 import com.openclassrooms.mddapi.feature.post.dto.PostSubjectResponse;
+import com.openclassrooms.mddapi.feature.post.dto.QueuedCommentResponse;
 import com.openclassrooms.mddapi.security.CurrentUserService;
 
 @SpringBootTest(properties = {
@@ -49,6 +57,9 @@ class PostControllerTest {
 	@MockitoBean
 	private CurrentUserService currentUserService;
 
+	@MockitoBean
+	private CommentWriteBehindQueue commentQueue;
+
 	@Test
 	void createPostReturnsCreated() throws Exception {
 		when(currentUserService.getUserId(any())).thenReturn(1L);
@@ -62,15 +73,51 @@ class PostControllerTest {
 				.andExpect(jsonPath("$.id").value(5L));
 	}
 
+	@Test
+	void createPostWithIdempotencyKeyReplaysFirstResponse() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		CreatePostRequest request = new CreatePostRequest(2L, "Title", "Content");
+		when(postService.createPost(1L, request)).thenReturn(new CreatePostResponse(5L), new CreatePostResponse(6L));
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/posts")
+					.header("Idempotency-Key", "create-post-replay")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"subjectId\":2,\"title\":\"Title\",\"content\":\"Content\"}"))
+					.andExpect(status().isCreated())
+					.andExpect(jsonPath("$.id").value(5L));
+		}
+
+		verify(postService, times(1)).createPost(1L, request);
+		mockMvc.perform(post("/api/posts")
+				.header("Idempotency-Key", "create-post-replay")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"subjectId\":2,\"title\":\"Other\",\"content\":\"Content\"}"))
+				.andExpect(status().isConflict());
+	}
+
 	@Test
 	void getPostReturnsDetails() throws Exception {
-		PostDetailResponse response = new PostDetailResponse(5L, new PostSubjectResponse(2L, "Java"), "Title", "Content", "user", Instant.parse("2024-01-01T10:00:00Z"), Collections.emptyList());
+		PostDetailResponse response = new PostDetailResponse(5L, new PostSubjectResponse(2L, "Java"), "Title", "Content", "user", Instant.parse("2024-01-01T10:00:00Z"), new CommentPageResponse(Collections.emptyList(), null), 0L, Instant.parse("2024-01-01T10:00:00Z"), 0L);
 		when(postService.getPost(5L)).thenReturn(response);
 
 		mockMvc.perform(get("/api/posts/5"))
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("$.id").value(5L))
-				.andExpect(jsonPath("$.subject.id").value(2L));
+				.andExpect(jsonPath("$.subject.id").value(2L))
+				.andExpect(jsonPath("$.commentCount").value(0));
+	}
+
+	@Test
+	void getCommentsPassesCursorAndLimit() throws Exception {
+		CommentPageResponse page = new CommentPageResponse(
+				List.of(new CommentResponse(7L, "Nice", "user", Instant.parse("2024-01-01T11:00:00Z"), 0)), "next");
+		when(postService.getComments(5L, "abc", 10)).thenReturn(page);
+
+		mockMvc.perform(get("/api/posts/5/comments").param("cursor", "abc").param("limit", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].id").value(7L))
+				.andExpect(jsonPath("$.nextCursor").value("next"));
 	}
 
 	@Test
@@ -85,4 +132,51 @@ class PostControllerTest {
 
 		verify(postService).addComment(1L, 5L, request);
 	}
+
+	@Test
+	void addCommentReturnsAcceptedWhenWrittenBehind() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		CreateCommentRequest request = new CreateCommentRequest("Hello");
+		when(commentQueue.enabled()).thenReturn(true);
+		when(commentQueue.enqueue(1L, 5L, request)).thenReturn(new QueuedCommentResponse("client-id", 5L));
+
+		mockMvc.perform(post("/api/posts/5/comments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"content\":\"Hello\"}"))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.id").value("client-id"));
+
+		verify(postService, never()).addComment(1L, 5L, request);
+	}
+
+	@Test
+	void addCommentWithIdempotencyKeyReplaysFirstResponse() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		CreateCommentRequest request = new CreateCommentRequest("Hello");
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/posts/5/comments")
+					.header("Idempotency-Key", "add-comment-replay")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"content\":\"Hello\"}"))
+					.andExpect(status().isCreated());
+		}
+
+		verify(postService, times(1)).addComment(1L, 5L, request);
+	}
+
+	@Test
+	void addCommentReturnsServiceUnavailableWhenQueueIsFull() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(commentQueue.enabled()).thenReturn(true);
+		when(commentQueue.enqueue(1L, 5L, new CreateCommentRequest("Hello")))
+				.thenThrow(new ServiceUnavailableException("Trop de commentaires en attente, réessayez plus tard"));
+
+		mockMvc.perform(post("/api/posts/5/comments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"content\":\"Hello\"}"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("$.error").value("SERVICE_UNAVAILABLE"));
+	}
 }
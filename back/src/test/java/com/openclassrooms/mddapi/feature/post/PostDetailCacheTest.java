@@ -0,0 +1,234 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.mddapi.config.PostProperties;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.feed.FeedCursor;
+import com.openclassrooms.mddapi.feature.post.dto.CommentPageResponse;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
+import com.openclassrooms.mddapi.feature.post.dto.PostDetailResponse;
+import com.openclassrooms.mddapi.feature.post.dto.PostSubjectResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PostDetailCacheTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private PostDetailCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new PostDetailCache(properties(true), meterRegistry);
+	}
+
+	@Test
+	void getLoadsOnceAndServesHits() {
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		});
+		PostDetailResponse hit = cache.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		});
+
+		assertThat(hit.id()).isEqualTo(5L);
+		assertThat(loads).hasValue(1);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "post.details").tag("result", "hit")
+				.functionCounter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loaderStarted = new CountDownLatch(1);
+		CountDownLatch releaseLoader = new CountDownLatch(1);
+
+		CompletableFuture<PostDetailResponse> first = CompletableFuture.supplyAsync(() -> cache.get(5L, () -> {
+			loads.incrementAndGet();
+			loaderStarted.countDown();
+			await(releaseLoader);
+			return details(List.of(), null, 0);
+		}));
+		assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<PostDetailResponse> second = CompletableFuture.supplyAsync(() -> cache.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		}));
+		releaseLoader.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void failedLoadIsRethrownAndNotCached() {
+		assertThatThrownBy(() -> cache.get(5L, () -> {
+			throw new NotFoundException("Article introuvable");
+		})).isInstanceOf(NotFoundException.class);
+
+		PostDetailResponse loaded = cache.get(5L, () -> details(List.of(), null, 0));
+
+		assertThat(loaded.id()).isEqualTo(5L);
+	}
+
+	@Test
+	void appendAddsCommentToFirstPageWithRoom() {
+		cache.get(5L, () -> details(List.of(comment(1L, 10)), null, 1));
+
+		cache.onCommentAdded(new CommentAddedEvent(5L, 2L, comment(2L, 20)));
+
+		PostDetailResponse cached = cache.get(5L, () -> details(List.of(), null, 0));
+		assertThat(cached.comments().items()).extracting(CommentResponse::id).containsExactly(1L, 2L);
+		assertThat(cached.comments().nextCursor()).isNull();
+		assertThat(cached.commentCount()).isEqualTo(2L);
+	}
+
+	@Test
+	void appendToFullPageEvictsEntry() {
+		cache.get(5L, () -> details(List.of(comment(1L, 10), comment(2L, 20)), null, 2));
+
+		cache.appendComment(5L, comment(3L, 30));
+
+		PostDetailResponse reloaded = details(List.of(comment(1L, 10), comment(2L, 20)),
+				new FeedCursor(Instant.ofEpochSecond(20), 2L).encode(), 3);
+		assertThat(cache.get(5L, () -> reloaded)).isSameAs(reloaded);
+	}
+
+	@Test
+	void appendPastFirstPageDoesNotCountCommentLoadedTwice() {
+		String cursor = new FeedCursor(Instant.ofEpochSecond(20), 2L).encode();
+		cache.get(5L, () -> details(List.of(comment(1L, 10), comment(2L, 20)), cursor, 3));
+
+		// Comment 3 committed before the load, its event arrives after.
+		cache.appendComment(5L, comment(3L, 30));
+
+		assertThat(cache.get(5L, () -> details(List.of(comment(1L, 10), comment(2L, 20)), cursor, 3)).commentCount())
+				.isEqualTo(3L);
+	}
+
+	@Test
+	void appendIgnoresCommentAlreadyLoaded() {
+		cache.get(5L, () -> details(List.of(comment(1L, 10)), null, 1));
+
+		cache.appendComment(5L, comment(1L, 10));
+
+		assertThat(cache.get(5L, () -> details(List.of(), null, 0)).commentCount()).isEqualTo(1L);
+	}
+
+	@Test
+	void appendEvictsEntryStillLoading() throws Exception {
+		CountDownLatch loaderStarted = new CountDownLatch(1);
+		CountDownLatch releaseLoader = new CountDownLatch(1);
+		CompletableFuture<PostDetailResponse> loading = CompletableFuture.supplyAsync(() -> cache.get(5L, () -> {
+			loaderStarted.countDown();
+			await(releaseLoader);
+			return details(List.of(), null, 0);
+		}));
+		assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+		cache.appendComment(5L, comment(1L, 10));
+		releaseLoader.countDown();
+		loading.get(5, TimeUnit.SECONDS);
+
+		PostDetailResponse reloaded = cache.get(5L, () -> details(List.of(comment(1L, 10)), null, 1));
+		assertThat(reloaded.commentCount()).isEqualTo(1L);
+	}
+
+	@Test
+	void updatesDoNotExtendExpiry() throws InterruptedException {
+		PostDetailCache shortLived = new PostDetailCache(properties(true, Duration.ofMillis(500)), meterRegistry);
+		AtomicInteger loads = new AtomicInteger();
+		shortLived.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		});
+
+		Thread.sleep(300);
+		shortLived.onCommentAdded(new CommentAddedEvent(5L, 2L, comment(2L, 20)));
+		Thread.sleep(350);
+		shortLived.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		});
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void applyReactionCountsOnPostAndCachedComment() {
+		cache.get(5L, () -> details(List.of(comment(1L, 10), comment(2L, 20)), null, 2));
+
+		cache.applyReaction(5L, ReactionTarget.post, 5L, 1);
+		cache.applyReaction(5L, ReactionTarget.comment, 2L, 1);
+		cache.applyReaction(5L, ReactionTarget.comment, 2L, 1);
+
+		PostDetailResponse cached = cache.get(5L, () -> details(List.of(), null, 0));
+		assertThat(cached.reactionCount()).isEqualTo(1L);
+		assertThat(cached.comments().items()).extracting(CommentResponse::reactionCount).containsExactly(0, 2);
+	}
+
+	@Test
+	void disabledCacheAlwaysLoads() {
+		PostDetailCache disabled = new PostDetailCache(properties(false), new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+
+		disabled.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		});
+		disabled.get(5L, () -> {
+			loads.incrementAndGet();
+			return details(List.of(), null, 0);
+		});
+
+		assertThat(loads).hasValue(2);
+	}
+
+	private static PostProperties properties(boolean enabled) {
+		return properties(enabled, Duration.ofMinutes(1));
+	}
+
+	private static PostProperties properties(boolean enabled, Duration ttl) {
+		return new PostProperties(2, 3, new PostProperties.DetailCache(enabled, 100, ttl),
+				new PostProperties.ActivityFlush(Duration.ofSeconds(2), 500),
+				new PostProperties.BulkImport(false, List.of(), 100, 50),
+				new PostProperties.CommentQueue(false, 100, 10, Duration.ofMillis(10)),
+				new PostProperties.NearDuplicate(true, PostProperties.NearDuplicateAction.REJECT, 7, 100,
+						Duration.ofSeconds(30)));
+	}
+
+	private static PostDetailResponse details(List<CommentResponse> comments, String nextCursor, long count) {
+		return new PostDetailResponse(5L, new PostSubjectResponse(2L, "Java"), "Title", "Content", "user",
+				Instant.EPOCH, new CommentPageResponse(comments, nextCursor), count, Instant.EPOCH, 0);
+	}
+
+	private static CommentResponse comment(long id, long epochSecond) {
+		return new CommentResponse(id, "Comment " + id, "user", Instant.ofEpochSecond(epochSecond), 0);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
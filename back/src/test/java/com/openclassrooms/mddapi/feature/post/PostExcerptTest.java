@@ -0,0 +1,29 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.mddapi.domain.Post;
+
+class PostExcerptTest {
+
+	@Test
+	void keepsShortContentWithCollapsedWhitespace() {
+		assertThat(PostExcerpt.of("  Hello\n\n  world\t! ")).isEqualTo("Hello world !");
+	}
+
+	@Test
+	void cutsLongContentOnWordBoundary() {
+		String excerpt = PostExcerpt.of("word ".repeat(100));
+
+		assertThat(excerpt).hasSizeLessThanOrEqualTo(Post.EXCERPT_LENGTH).endsWith("word…");
+	}
+
+	@Test
+	void cutsLongWordWithoutSplittingSurrogatePair() {
+		String excerpt = PostExcerpt.of("a".repeat(Post.EXCERPT_LENGTH - 2) + "😀😀");
+
+		assertThat(excerpt).hasSize(Post.EXCERPT_LENGTH - 1).endsWith("a…");
+	}
+}
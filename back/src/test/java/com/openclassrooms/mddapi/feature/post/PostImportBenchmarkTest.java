@@ -0,0 +1,95 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
+import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
+import com.openclassrooms.mddapi.feature.post.dto.ImportSummary;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+/**
+ * Compares the rows per second of the NDJSON bulk import with the same data created through {@link PostService}.
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.post.activity-flush.interval=1h"
+})
+class PostImportBenchmarkTest {
+
+	private static final int POSTS = 5_000;
+	private static final int COMMENTS_PER_POST = 4;
+
+	@Autowired
+	private PostImportService postImportService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private Subject subject;
+	private User author;
+
+	@BeforeAll
+	void seed() {
+		author = userRepository.save(new User("bench@mail.com", "bench", "hashed"));
+		subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Bench");
+		subject.setDescription("Benchmark subject");
+		subject = subjectRepository.save(subject);
+	}
+
+	@Test
+	void bulkImportOutpacesPerPostCreation() throws IOException {
+		String comment = "{\"author\":\"bench\",\"content\":\"" + "Comment ".repeat(10) + "\"}";
+		String line = "{\"subjectId\":" + subject.getId() + ",\"author\":\"bench\",\"title\":\"Title\",\"content\":\""
+				+ "Content ".repeat(40) + "\",\"comments\":["
+				+ IntStream.range(0, COMMENTS_PER_POST).mapToObj(i -> comment).collect(Collectors.joining(","))
+				+ "]}";
+		String input = IntStream.range(0, POSTS).mapToObj(i -> line).collect(Collectors.joining("\n"));
+
+		ImportSummary bulk = postImportService.importPosts(new BufferedReader(new StringReader(input)), result -> {
+		});
+
+		long start = System.nanoTime();
+		for (int i = 0; i < POSTS; i++) {
+			long postId = postService.createPost(author.getId(),
+					new CreatePostRequest(subject.getId(), "Title", "Content ".repeat(40))).id();
+			for (int c = 0; c < COMMENTS_PER_POST; c++) {
+				postService.addComment(author.getId(), postId, new CreateCommentRequest("Comment ".repeat(10)));
+			}
+		}
+		double perPostRowsPerSecond = POSTS * (1 + COMMENTS_PER_POST) * 1e9 / (System.nanoTime() - start);
+
+		System.out.printf("%d posts + %d comments | bulk import: %,.0f rows/s | PostService: %,.0f rows/s%n",
+				POSTS, POSTS * COMMENTS_PER_POST, bulk.rowsPerSecond(), perPostRowsPerSecond);
+		assertThat(bulk.rejected()).isZero();
+		assertThat(bulk.rowsPerSecond()).isGreaterThan(perPostRowsPerSecond);
+	}
+}
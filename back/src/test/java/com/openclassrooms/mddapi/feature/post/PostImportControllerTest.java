@@ -0,0 +1,84 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.BufferedReader;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.mddapi.TestWebConfig;
+import com.openclassrooms.mddapi.feature.post.dto.ImportLineResult;
+import com.openclassrooms.mddapi.feature.post.dto.ImportSummary;
+import com.openclassrooms.mddapi.security.CurrentUserService;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.post.bulk-import.enabled=true",
+		"app.post.bulk-import.operator-ids=1"
+})
+@Import(TestWebConfig.class)
+class PostImportControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private PostImportService postImportService;
+
+	@MockitoBean
+	private CurrentUserService currentUserService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void importStreamsOneResultPerLineThenSummary() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(postImportService.importPosts(any(BufferedReader.class), any(Consumer.class))).thenAnswer(invocation -> {
+			BufferedReader reader = invocation.getArgument(0);
+			Consumer<ImportLineResult> results = invocation.getArgument(1);
+			assertThat(reader.readLine()).isEqualTo("{\"title\":\"Premier\"}");
+			results.accept(ImportLineResult.imported(1, 10L, 2));
+			results.accept(ImportLineResult.rejected(2, "Thème introuvable"));
+			return new ImportSummary(1, 2, 1, 5, 600.0);
+		});
+
+		String body = mockMvc.perform(post("/api/posts/import")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content("{\"title\":\"Premier\"}\n{\"title\":\"Second\"}\n"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body.lines()).containsExactly(
+				"{\"line\":1,\"postId\":10,\"comments\":2,\"error\":null}",
+				"{\"line\":2,\"postId\":null,\"comments\":0,\"error\":\"Thème introuvable\"}",
+				"{\"posts\":1,\"comments\":2,\"rejected\":1,\"elapsedMillis\":5,\"rowsPerSecond\":600.0}");
+	}
+
+	@Test
+	void importIsRefusedToNonOperators() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(2L);
+
+		mockMvc.perform(post("/api/posts/import")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content("{\"title\":\"Premier\"}\n"))
+				.andExpect(status().isForbidden())
+				.andExpect(jsonPath("$.error").value("FORBIDDEN"));
+
+		verifyNoInteractions(postImportService);
+	}
+}
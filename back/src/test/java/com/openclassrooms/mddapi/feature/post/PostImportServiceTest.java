@@ -0,0 +1,159 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.Subscription;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.feature.post.dto.ImportLineResult;
+import com.openclassrooms.mddapi.feature.post.dto.ImportSummary;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.post.bulk-import.chunk-size=2",
+		"app.post.bulk-import.batch-size=2"
+})
+class PostImportServiceTest {
+
+	@Autowired
+	private PostImportService postImportService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SubscriptionRepository subscriptionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Subject subject;
+	private User alice;
+	private User bob;
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+		subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Import " + suffix);
+		subject.setDescription("Import subject");
+		subject = subjectRepository.save(subject);
+		alice = userRepository.save(new User("alice" + suffix + "@mail.com", "Alice" + suffix, "hashed"));
+		bob = userRepository.save(new User("bob" + suffix + "@mail.com", "bob" + suffix, "hashed"));
+	}
+
+	@Test
+	void importInsertsPostsCommentsAndDenormalizedColumns() throws IOException {
+		List<ImportLineResult> results = new ArrayList<>();
+
+		ImportSummary summary = postImportService.importPosts(input(
+				post("Premier", "2024-01-01T10:00:00Z", comment(bob, "2024-01-01T12:00:00Z"),
+						comment(alice, "2024-01-01T11:00:00Z")),
+				post("Second", "2024-01-02T10:00:00Z"),
+				post("Troisième", "2024-01-03T10:00:00Z", comment(bob, "2024-01-03T11:00:00Z"))),
+				results::add);
+
+		assertThat(summary.posts()).isEqualTo(3);
+		assertThat(summary.comments()).isEqualTo(3);
+		assertThat(summary.rejected()).isZero();
+		assertThat(results).extracting(ImportLineResult::line).containsExactly(1L, 2L, 3L);
+		assertThat(results).extracting(ImportLineResult::comments).containsExactly(2, 0, 1);
+
+		long firstId = results.getFirst().postId();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from comment where post_id = ?", Integer.class,
+				firstId)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("select comment_count from post where id = ?", Integer.class,
+				firstId)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("select last_activity_at from post where id = ?", Instant.class,
+				firstId)).isEqualTo(Instant.parse("2024-01-01T12:00:00Z"));
+		assertThat(jdbcTemplate.queryForObject("select hot_score from post where id = ?", Double.class, firstId))
+				.isEqualTo(HotScore.combine(HotScore.combine(HotScore.at(Instant.parse("2024-01-01T10:00:00Z")),
+						HotScore.at(Instant.parse("2024-01-01T12:00:00Z"))),
+						HotScore.at(Instant.parse("2024-01-01T11:00:00Z"))));
+		assertThat(jdbcTemplate.queryForObject("select author_id from post where id = ?", Long.class, firstId))
+				.isEqualTo(alice.getId());
+	}
+
+	@Test
+	void importReportsRejectedLinesWithoutFailingTheirChunk() throws IOException {
+		List<ImportLineResult> results = new ArrayList<>();
+
+		ImportSummary summary = postImportService.importPosts(input(
+				"{not json",
+				"",
+				"{\"subjectId\":999999,\"author\":\"" + alice.getUsername() + "\",\"title\":\"T\",\"content\":\"C\"}",
+				"{\"subjectId\":" + subject.getId() + ",\"author\":\"nobody\",\"title\":\"T\",\"content\":\"C\"}",
+				"{\"subjectId\":" + subject.getId() + ",\"author\":\"" + alice.getUsername()
+						+ "\",\"title\":\"\",\"content\":\"C\"}",
+				post("Valide", "2024-01-01T10:00:00Z")),
+				results::add);
+
+		assertThat(summary.posts()).isEqualTo(1);
+		assertThat(summary.rejected()).isEqualTo(4);
+		assertThat(results).extracting(ImportLineResult::line).containsExactly(1L, 3L, 4L, 5L, 6L);
+		assertThat(results).extracting(ImportLineResult::error).containsExactly(
+				"Ligne invalide",
+				"Thème introuvable",
+				"Utilisateur introuvable",
+				"Champs invalides : title",
+				null);
+	}
+
+	@Test
+	void importMatchesAuthorsIgnoringCase() throws IOException {
+		List<ImportLineResult> results = new ArrayList<>();
+
+		postImportService.importPosts(input("{\"subjectId\":" + subject.getId() + ",\"author\":\""
+				+ alice.getUsername().toUpperCase() + "\",\"title\":\"T\",\"content\":\"C\"}"), results::add);
+
+		assertThat(results.getFirst().error()).isNull();
+	}
+
+	@Test
+	void importFansPostsOutToSubscribers() throws IOException {
+		subscriptionRepository.save(new Subscription(bob, subject));
+		List<ImportLineResult> results = new ArrayList<>();
+
+		postImportService.importPosts(input(post("Premier", "2024-01-01T10:00:00Z")), results::add);
+
+		assertThat(jdbcTemplate.queryForObject("select count(*) from user_timeline where user_id = ? and post_id = ?",
+				Integer.class, bob.getId(), results.getFirst().postId())).isEqualTo(1);
+	}
+
+	private String post(String title, String createdAt, String... comments) {
+		return "{\"subjectId\":" + subject.getId() + ",\"author\":\"" + alice.getUsername() + "\",\"title\":\""
+				+ title + "\",\"content\":\"Contenu " + title + "\",\"createdAt\":\"" + createdAt
+				+ "\",\"comments\":[" + String.join(",", comments) + "]}";
+	}
+
+	private static String comment(User author, String createdAt) {
+		return "{\"author\":\"" + author.getUsername() + "\",\"content\":\"Commentaire\",\"createdAt\":\""
+				+ createdAt + "\"}";
+	}
+
+	private static BufferedReader input(String... lines) {
+		return new BufferedReader(new StringReader(String.join("\n", lines)));
+	}
+}
@@ -2,38 +2,58 @@ package com.openclassrooms.mddapi.feature.post;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.config.PostProperties;
 import com.openclassrooms.mddapi.domain.Comment;
 import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
 import com.openclassrooms.mddapi.domain.Subject;
 import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.exception.ConflictException;
 import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.feed.FeedCursor;
+import com.openclassrooms.mddapi.feature.post.dto.CommentPageResponse;
+import com.openclassrooms.mddapi.feature.post.dto.CommentResponse;
 import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
 import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
+import com.openclassrooms.mddapi.feature.reaction.ReactionCounters;
+import com.openclassrooms.mddapi.feature.subject.SubjectCatalog;
 import com.openclassrooms.mddapi.repository.CommentRepository;
 import com.openclassrooms.mddapi.repository.PostRepository;
 import com.openclassrooms.mddapi.repository.SubjectRepository;
 import com.openclassrooms.mddapi.repository.UserRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class PostServiceTest {
 
+	private static final SubjectCatalog.Entry JAVA = new SubjectCatalog.Entry(2L, "Java", "Lang");
+
 	@Mock
 	private PostRepository postRepository;
 
@@ -46,7 +66,22 @@ class PostServiceTest {
 	@Mock
 	private CommentRepository commentRepository;
 
-	@InjectMocks
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private NearDuplicateDetector nearDuplicates;
+
+	@Mock
+	private SubjectCatalog subjectCatalog;
+
+	private PostActivityCounters activityCounters;
+
+	private ReactionCounters reactionCounters;
+
 	private PostService postService;
 
 	private User author;
@@ -54,6 +89,18 @@ class PostServiceTest {
 
 	@BeforeEach
 	void setUp() {
+		PostProperties properties = new PostProperties(2, 3,
+				new PostProperties.DetailCache(true, 100, Duration.ofMinutes(1)),
+				new PostProperties.ActivityFlush(Duration.ofSeconds(2), 500),
+				new PostProperties.BulkImport(false, List.of(), 100, 50),
+				new PostProperties.CommentQueue(false, 100, 10, Duration.ofMillis(10)),
+				new PostProperties.NearDuplicate(true, PostProperties.NearDuplicateAction.REJECT, 7, 100,
+						Duration.ofSeconds(30)));
+		activityCounters = new PostActivityCounters(4);
+		reactionCounters = new ReactionCounters();
+		postService = new PostService(postRepository, subjectRepository, subjectCatalog, userRepository, commentRepository,
+				eventPublisher, new PostDetailCache(properties, new SimpleMeterRegistry()), activityCounters,
+				reactionCounters, nearDuplicates, transactionManager, properties);
 		author = new User("user@mail.com", "user", "hashed");
 		TestSupport.setId(author, 1L);
 		subject = TestSupport.newInstance(Subject.class);
@@ -65,7 +112,7 @@ class PostServiceTest {
 	@Test
 	void createPostThrowsWhenSubjectMissing() {
 		CreatePostRequest request = new CreatePostRequest(2L, "Title", "Content");
-		when(subjectRepository.findById(2L)).thenReturn(Optional.empty());
+		when(subjectCatalog.find(2L)).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> postService.createPost(1L, request))
 				.isInstanceOf(NotFoundException.class);
@@ -74,7 +121,7 @@ class PostServiceTest {
 	@Test
 	void createPostThrowsWhenUserMissing() {
 		CreatePostRequest request = new CreatePostRequest(2L, "Title", "Content");
-		when(subjectRepository.findById(2L)).thenReturn(Optional.of(subject));
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
 		when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> postService.createPost(1L, request))
@@ -84,48 +131,193 @@ class PostServiceTest {
 	@Test
 	void createPostReturnsId() {
 		CreatePostRequest request = new CreatePostRequest(2L, "Title", "Content");
-		when(subjectRepository.findById(2L)).thenReturn(Optional.of(subject));
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(subjectRepository.getReferenceById(2L)).thenReturn(subject);
 		when(userRepository.findById(1L)).thenReturn(Optional.of(author));
-		Post saved = new Post(subject, author, request.title(), request.content());
+		Post saved = new Post(subject, author, request.title(), request.content(), request.content());
 		TestSupport.setId(saved, 50L);
 		when(postRepository.save(any(Post.class))).thenReturn(saved);
 
 		var response = postService.createPost(1L, request);
 
 		assertThat(response.id()).isEqualTo(50L);
+		ArgumentCaptor<Post> post = ArgumentCaptor.forClass(Post.class);
+		verify(postRepository).save(post.capture());
+		assertThat(post.getValue().getHotScore()).isEqualTo(HotScore.at(Instant.now()), within(60.0 / 3600));
+		ArgumentCaptor<PostCreatedEvent> event = ArgumentCaptor.forClass(PostCreatedEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue().postId()).isEqualTo(50L);
+		assertThat(event.getValue().subjectId()).isEqualTo(2L);
+	}
+
+	@Test
+	void createPostStoresSimHashAndFlaggedOriginal() {
+		CreatePostRequest request = new CreatePostRequest(2L, "Title", "Content");
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(subjectRepository.getReferenceById(2L)).thenReturn(subject);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+		long simhash = SimHash.of("Title", "Content");
+		when(nearDuplicates.check(simhash)).thenReturn(OptionalLong.of(7L));
+		Post saved = new Post(subject, author, request.title(), request.content(), request.content());
+		TestSupport.setId(saved, 50L);
+		when(postRepository.save(any(Post.class))).thenReturn(saved);
+
+		postService.createPost(1L, request);
+
+		ArgumentCaptor<Post> post = ArgumentCaptor.forClass(Post.class);
+		verify(postRepository).save(post.capture());
+		assertThat(post.getValue().getSimhash()).isEqualTo(simhash);
+		assertThat(post.getValue().getDuplicateOf()).isEqualTo(7L);
+	}
+
+	@Test
+	void createPostThrowsWhenRejectedAsNearDuplicate() {
+		CreatePostRequest request = new CreatePostRequest(2L, "Title", "Content");
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+		when(nearDuplicates.check(SimHash.of("Title", "Content")))
+				.thenThrow(new ConflictException("Un article quasi identique existe déjà"));
+
+		assertThatThrownBy(() -> postService.createPost(1L, request))
+				.isInstanceOf(ConflictException.class);
+		verify(postRepository, never()).save(any(Post.class));
 	}
 
 	@Test
 	void getPostThrowsWhenMissing() {
-		when(postRepository.findByIdWithAuthorAndSubject(5L)).thenReturn(Optional.empty());
+		when(postRepository.findByIdWithAuthor(5L)).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> postService.getPost(5L))
 				.isInstanceOf(NotFoundException.class);
 	}
 
 	@Test
-	void getPostMapsDetailsAndComments() {
-		Post post = new Post(subject, author, "Title", "Content");
+	void getPostEmbedsFirstCommentPageAndCount() {
+		Post post = new Post(subject, author, "Title", "Content", "Content");
 		TestSupport.setId(post, 5L);
 		TestSupport.setCreatedAt(post, Instant.parse("2024-01-01T10:00:00Z"));
-		when(postRepository.findByIdWithAuthorAndSubject(5L)).thenReturn(Optional.of(post));
-		Comment comment = new Comment(post, author, "Nice");
-		TestSupport.setId(comment, 7L);
-		TestSupport.setCreatedAt(comment, Instant.parse("2024-01-01T11:00:00Z"));
-		when(commentRepository.findByPostIdWithAuthor(5L)).thenReturn(List.of(comment));
+		when(postRepository.findByIdWithAuthor(5L)).thenReturn(Optional.of(post));
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(commentRepository.findPage(5L, Limit.of(3))).thenReturn(List.of(
+				comment(7L, "2024-01-01T11:00:00Z"),
+				comment(8L, "2024-01-01T12:00:00Z"),
+				comment(9L, "2024-01-01T13:00:00Z")));
+		TestSupport.setField(post, "commentCount", 3);
 
 		var response = postService.getPost(5L);
 
 		assertThat(response.id()).isEqualTo(5L);
 		assertThat(response.subject().id()).isEqualTo(2L);
-		assertThat(response.comments()).hasSize(1);
-		assertThat(response.comments().get(0).content()).isEqualTo("Nice");
+		assertThat(response.subject().name()).isEqualTo("Java");
+		assertThat(response.commentCount()).isEqualTo(3L);
+		assertThat(response.comments().items()).extracting(CommentResponse::id).containsExactly(7L, 8L);
+		assertThat(FeedCursor.decode(response.comments().nextCursor()))
+				.isEqualTo(new FeedCursor(Instant.parse("2024-01-01T12:00:00Z"), 8L));
+	}
+
+	@Test
+	void getPostServesRepeatedReadsFromCache() {
+		Post post = new Post(subject, author, "Title", "Content", "Content");
+		TestSupport.setId(post, 5L);
+		when(postRepository.findByIdWithAuthor(5L)).thenReturn(Optional.of(post));
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(commentRepository.findPage(5L, Limit.of(3))).thenReturn(List.of());
+
+		postService.getPost(5L);
+		var response = postService.getPost(5L);
+
+		assertThat(response.id()).isEqualTo(5L);
+		verify(postRepository, times(1)).findByIdWithAuthor(5L);
+		verify(commentRepository, times(1)).findPage(5L, Limit.of(3));
+	}
+
+	@Test
+	void getPostAddsActivityNotFlushedYet() {
+		Post post = new Post(subject, author, "Title", "Content", "Content");
+		TestSupport.setId(post, 5L);
+		TestSupport.setField(post, "commentCount", 3);
+		TestSupport.setField(post, "lastActivityAt", Instant.parse("2024-01-01T10:00:00Z"));
+		when(postRepository.findByIdWithAuthor(5L)).thenReturn(Optional.of(post));
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(commentRepository.findPage(5L, Limit.of(3))).thenReturn(List.of());
+		activityCounters.record(5L, Instant.parse("2024-01-02T10:00:00Z"));
+		activityCounters.record(5L, Instant.parse("2024-01-01T12:00:00Z"));
+
+		var response = postService.getPost(5L);
+
+		assertThat(response.commentCount()).isEqualTo(5L);
+		assertThat(response.lastActivityAt()).isEqualTo(Instant.parse("2024-01-02T10:00:00Z"));
+	}
+
+	@Test
+	void getPostAddsReactionsNotFlushedYet() {
+		Post post = new Post(subject, author, "Title", "Content", "Content");
+		TestSupport.setId(post, 5L);
+		TestSupport.setField(post, "reactionCount", 4);
+		TestSupport.setField(post, "lastActivityAt", Instant.parse("2024-01-01T10:00:00Z"));
+		when(postRepository.findByIdWithAuthor(5L)).thenReturn(Optional.of(post));
+		when(subjectCatalog.find(2L)).thenReturn(Optional.of(JAVA));
+		when(commentRepository.findPage(5L, Limit.of(3))).thenReturn(List.of(comment(7L, "2024-01-01T11:00:00Z")));
+		reactionCounters.record(ReactionTarget.post, 5L, 2);
+		reactionCounters.record(ReactionTarget.comment, 7L, 1);
+
+		var response = postService.getPost(5L);
+
+		assertThat(response.reactionCount()).isEqualTo(6L);
+		assertThat(response.comments().items().getFirst().reactionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getPostDoesNotCacheMissingPost() {
+		when(postRepository.findByIdWithAuthor(5L)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> postService.getPost(5L)).isInstanceOf(NotFoundException.class);
+		assertThatThrownBy(() -> postService.getPost(5L)).isInstanceOf(NotFoundException.class);
+
+		verify(postRepository, times(2)).findByIdWithAuthor(5L);
+	}
+
+	@Test
+	void getCommentsSeeksAfterCursor() {
+		Instant createdAt = Instant.parse("2024-01-01T12:00:00Z");
+		String cursor = new FeedCursor(createdAt, 8L).encode();
+		when(commentRepository.findPageAfter(5L, createdAt, 8L, Limit.of(3)))
+				.thenReturn(List.of(comment(9L, "2024-01-01T13:00:00Z")));
+
+		CommentPageResponse page = postService.getComments(5L, cursor, null);
+
+		assertThat(page.items()).extracting(CommentResponse::id).containsExactly(9L);
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	@Test
+	void getCommentsClampsLimit() {
+		when(commentRepository.findPage(5L, Limit.of(4))).thenReturn(List.of(comment(7L, "2024-01-01T11:00:00Z")));
+
+		postService.getComments(5L, null, 500);
+
+		verify(commentRepository).findPage(5L, Limit.of(4));
+	}
+
+	@Test
+	void getCommentsThrowsWhenPostMissing() {
+		when(commentRepository.findPage(5L, Limit.of(3))).thenReturn(List.of());
+		when(postRepository.existsById(5L)).thenReturn(false);
+
+		assertThatThrownBy(() -> postService.getComments(5L, null, null))
+				.isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void getCommentsRejectsMalformedCursor() {
+		assertThatThrownBy(() -> postService.getComments(5L, "not-a-cursor", null))
+				.isInstanceOf(BadRequestException.class);
 	}
 
 	@Test
 	void addCommentThrowsWhenPostMissing() {
 		CreateCommentRequest request = new CreateCommentRequest("Hello");
-		when(postRepository.findById(5L)).thenReturn(Optional.empty());
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> postService.addComment(1L, 5L, request))
 				.isInstanceOf(NotFoundException.class);
@@ -134,8 +326,7 @@ class PostServiceTest {
 	@Test
 	void addCommentThrowsWhenUserMissing() {
 		CreateCommentRequest request = new CreateCommentRequest("Hello");
-		Post post = new Post(subject, author, "Title", "Content");
-		when(postRepository.findById(5L)).thenReturn(Optional.of(post));
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
 		when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
 		assertThatThrownBy(() -> postService.addComment(1L, 5L, request))
@@ -145,9 +336,11 @@ class PostServiceTest {
 	@Test
 	void addCommentSavesComment() {
 		CreateCommentRequest request = new CreateCommentRequest("Hello");
-		Post post = new Post(subject, author, "Title", "Content");
-		when(postRepository.findById(5L)).thenReturn(Optional.of(post));
+		Post post = new Post(subject, author, "Title", "Content", "Content");
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(postRepository.getReferenceById(5L)).thenReturn(post);
 		when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+		when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
 		postService.addComment(1L, 5L, request);
 
@@ -157,4 +350,29 @@ class PostServiceTest {
 		assertThat(captor.getValue().getAuthor()).isEqualTo(author);
 		assertThat(captor.getValue().getPost()).isEqualTo(post);
 	}
+
+	@Test
+	void addCommentPublishesCommentAddedEvent() {
+		CreateCommentRequest request = new CreateCommentRequest("Hello");
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+		when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
+			Comment comment = invocation.getArgument(0);
+			TestSupport.setId(comment, 9L);
+			return comment;
+		});
+
+		postService.addComment(1L, 5L, request);
+
+		ArgumentCaptor<CommentAddedEvent> captor = ArgumentCaptor.forClass(CommentAddedEvent.class);
+		verify(eventPublisher).publishEvent(captor.capture());
+		assertThat(captor.getValue().postId()).isEqualTo(5L);
+		assertThat(captor.getValue().subjectId()).isEqualTo(2L);
+		assertThat(captor.getValue().comment().id()).isEqualTo(9L);
+		assertThat(captor.getValue().comment().author()).isEqualTo("user");
+	}
+
+	private static CommentResponse comment(long id, String createdAt) {
+		return new CommentResponse(id, "Comment " + id, "user", Instant.parse(createdAt), 0);
+	}
 }
@@ -0,0 +1,48 @@
+package com.openclassrooms.mddapi.feature.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SimHashTest {
+
+	private static final String CONTENT = """
+			Pour migrer une application Spring Boot vers Java 21, commencez par mettre à jour le plugin Maven et la
+			version du compilateur, puis lancez la suite de tests. Les threads virtuels s'activent ensuite avec une
+			seule propriété, et les pools de connexions doivent être dimensionnés en conséquence. Pensez aussi à
+			vérifier les dépendances qui utilisent encore des API retirées, comme les anciennes versions de Lombok ou
+			de Mockito, avant de passer en production. Enfin, mesurez le temps de démarrage et la mémoire consommée
+			avant et après la migration pour confirmer le gain.
+			""";
+
+	@Test
+	void sameTextGetsSameFingerprint() {
+		assertThat(SimHash.of("Migrer vers Java 21", CONTENT)).isEqualTo(SimHash.of("Migrer vers Java 21", CONTENT));
+	}
+
+	@Test
+	void ignoresCaseAccentsAndPunctuation() {
+		assertThat(SimHash.of("Sécurité", "Les jetons, expirés !"))
+				.isEqualTo(SimHash.of("securite", "les JETONS expires"));
+	}
+
+	@Test
+	void smallEditStaysClose() {
+		long original = SimHash.of("Migrer vers Java 21", CONTENT);
+		long edited = SimHash.of("Migrer vers Java 21 !", CONTENT.replace("production", "prod"));
+
+		assertThat(SimHash.distance(original, edited)).isLessThanOrEqualTo(7);
+	}
+
+	@Test
+	void unrelatedTextIsFar() {
+		long original = SimHash.of("Migrer vers Java 21", CONTENT);
+		long other = SimHash.of("Angular et les signaux", """
+				Les signaux remplacent peu à peu les observables pour l'état local des composants Angular. Un signal
+				calculé se met à jour tout seul quand ses dépendances changent, sans abonnement à gérer ni fuite
+				mémoire, et la détection de changements peut alors se limiter aux composants concernés.
+				""");
+
+		assertThat(SimHash.distance(original, other)).isGreaterThan(12);
+	}
+}
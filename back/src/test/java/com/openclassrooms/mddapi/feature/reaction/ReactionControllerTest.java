@@ -0,0 +1,61 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.mddapi.TestWebConfig;
+import com.openclassrooms.mddapi.feature.reaction.dto.ReactionStatusResponse;
+import com.openclassrooms.mddapi.security.CurrentUserService;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+@Import(TestWebConfig.class)
+class ReactionControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private ReactionService reactionService;
+
+	@MockitoBean
+	private CurrentUserService currentUserService;
+
+	@Test
+	void addPostReactionReturnsStatus() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(reactionService.addPostReaction(1L, 5L)).thenReturn(new ReactionStatusResponse(true));
+
+		mockMvc.perform(post("/api/posts/5/reaction"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reacted").value(true));
+
+		verify(reactionService).addPostReaction(1L, 5L);
+	}
+
+	@Test
+	void removeCommentReactionReturnsStatus() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(reactionService.removeCommentReaction(1L, 5L, 9L)).thenReturn(new ReactionStatusResponse(false));
+
+		mockMvc.perform(delete("/api/posts/5/comments/9/reaction"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reacted").value(false));
+
+		verify(reactionService).removeCommentReaction(1L, 5L, 9L);
+	}
+}
@@ -0,0 +1,97 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+
+class ReactionCountersTest {
+
+	private final ReactionCounters counters = new ReactionCounters();
+
+	@Test
+	void recordSumsDeltasPerTarget() {
+		counters.record(ReactionTarget.post, 5L, 1);
+		counters.record(ReactionTarget.post, 5L, 1);
+		counters.record(ReactionTarget.post, 5L, -1);
+		counters.record(ReactionTarget.comment, 5L, 1);
+
+		assertThat(counters.pending(ReactionTarget.post, 5L)).isEqualTo(1);
+		assertThat(counters.pending(ReactionTarget.comment, 5L)).isEqualTo(1);
+		assertThat(counters.pending(ReactionTarget.post, 6L)).isZero();
+	}
+
+	@Test
+	void drainSkipsTargetsThatCancelledOut() {
+		counters.record(ReactionTarget.post, 5L, 1);
+		counters.record(ReactionTarget.post, 5L, -1);
+		counters.record(ReactionTarget.comment, 9L, 2);
+
+		List<ReactionDelta> drained = counters.drain();
+
+		assertThat(drained).containsExactly(new ReactionDelta(ReactionTarget.comment, 9L, 2));
+		assertThat(counters.pending(ReactionTarget.comment, 9L)).isZero();
+		assertThat(counters.drain()).isEmpty();
+	}
+
+	@Test
+	void restoreMergesWithReactionsRecordedSinceDrain() {
+		counters.record(ReactionTarget.post, 5L, 2);
+		List<ReactionDelta> drained = counters.drain();
+		counters.record(ReactionTarget.post, 5L, 1);
+
+		counters.restore(drained);
+
+		assertThat(counters.pending(ReactionTarget.post, 5L)).isEqualTo(3);
+	}
+
+	@Test
+	void concurrentDrainsLoseNoReaction() throws Exception {
+		int writers = 4;
+		int reactionsPerWriter = 50_000;
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicLong drainedTotal = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+		try {
+			Future<?> drainer = executor.submit(() -> {
+				while (!done.get()) {
+					counters.drain().forEach(delta -> drainedTotal.addAndGet(delta.delta()));
+				}
+			});
+			List<Future<?>> futures = new ArrayList<>();
+			for (int w = 0; w < writers; w++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < reactionsPerWriter; i++) {
+						counters.record(ReactionTarget.post, 5L, 1);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			done.set(true);
+			drainer.get();
+		} finally {
+			executor.shutdown();
+		}
+		counters.drain().forEach(delta -> drainedTotal.addAndGet(delta.delta()));
+
+		assertThat(drainedTotal).hasValue((long) writers * reactionsPerWriter);
+	}
+
+	@Test
+	void reactionChangedEventIsRecorded() {
+		counters.onReactionChanged(new ReactionChangedEvent(ReactionTarget.comment, 9L, 5L, 2L, -1));
+
+		assertThat(counters.pending(ReactionTarget.comment, 9L)).isEqualTo(-1);
+	}
+}
@@ -0,0 +1,77 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Comment;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.repository.CommentRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.reaction.flush.interval=1h"
+})
+class ReactionFlusherTest {
+
+	@Autowired
+	private ReactionFlusher flusher;
+
+	@Autowired
+	private ReactionCounters counters;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void flushWritesPendingReactionsToPostAndCommentRows() {
+		User author = userRepository.save(new User("reaction-flush@mail.com", "reactionflush", "hashed"));
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Reactions");
+		subject.setDescription("Reaction subject");
+		subject = subjectRepository.save(subject);
+		Post post = postRepository.save(new Post(subject, author, "Title", "Content", "Content"));
+		Comment comment = commentRepository.save(new Comment(post, author, "Comment"));
+		counters.record(ReactionTarget.post, post.getId(), 3);
+		counters.record(ReactionTarget.post, post.getId(), -1);
+		counters.record(ReactionTarget.comment, comment.getId(), 1);
+
+		assertThat(flusher.flush()).isEqualTo(2);
+
+		assertThat(jdbcTemplate.queryForObject("select reaction_count from post where id = ?", Integer.class,
+				post.getId())).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("select reaction_count from comment where id = ?", Integer.class,
+				comment.getId())).isEqualTo(1);
+		assertThat(counters.pending(ReactionTarget.post, post.getId())).isZero();
+	}
+
+	@Test
+	void flushWithoutReactionsWritesNothing() {
+		counters.drain();
+
+		assertThat(flusher.flush()).isZero();
+	}
+}
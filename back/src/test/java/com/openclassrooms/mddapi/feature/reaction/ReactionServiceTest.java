@@ -0,0 +1,117 @@
+package com.openclassrooms.mddapi.feature.reaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.repository.CommentRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.ReactionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReactionServiceTest {
+
+	@Mock
+	private ReactionRepository reactionRepository;
+
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private CommentRepository commentRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@InjectMocks
+	private ReactionService reactionService;
+
+	@Test
+	void addPostReactionThrowsWhenPostMissing() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> reactionService.addPostReaction(1L, 5L))
+				.isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void addPostReactionPublishesEventWhenAdded() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(reactionRepository.insertIfAbsent(eq(1L), eq("post"), eq(5L), any())).thenReturn(1);
+
+		var response = reactionService.addPostReaction(1L, 5L);
+
+		assertThat(response.reacted()).isTrue();
+		verify(eventPublisher).publishEvent(new ReactionChangedEvent(ReactionTarget.post, 5L, 5L, 2L, 1));
+	}
+
+	@Test
+	void addPostReactionTwiceChangesNothing() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(reactionRepository.insertIfAbsent(eq(1L), eq("post"), eq(5L), any())).thenReturn(0);
+
+		var response = reactionService.addPostReaction(1L, 5L);
+
+		assertThat(response.reacted()).isTrue();
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	void removePostReactionPublishesEventWhenRemoved() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(reactionRepository.remove(1L, ReactionTarget.post, 5L)).thenReturn(1);
+
+		var response = reactionService.removePostReaction(1L, 5L);
+
+		assertThat(response.reacted()).isFalse();
+		verify(eventPublisher).publishEvent(new ReactionChangedEvent(ReactionTarget.post, 5L, 5L, 2L, -1));
+	}
+
+	@Test
+	void removeMissingReactionChangesNothing() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(reactionRepository.remove(1L, ReactionTarget.post, 5L)).thenReturn(0);
+
+		reactionService.removePostReaction(1L, 5L);
+
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	void addCommentReactionThrowsWhenCommentNotOnPost() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(commentRepository.existsByIdAndPostId(9L, 5L)).thenReturn(false);
+
+		assertThatThrownBy(() -> reactionService.addCommentReaction(1L, 5L, 9L))
+				.isInstanceOf(NotFoundException.class)
+				.hasMessage("Commentaire introuvable");
+		verify(reactionRepository, never()).insertIfAbsent(anyLong(), any(), anyLong(), any());
+	}
+
+	@Test
+	void addCommentReactionPublishesEventWithPostAndSubject() {
+		when(postRepository.findSubjectIdById(5L)).thenReturn(Optional.of(2L));
+		when(commentRepository.existsByIdAndPostId(9L, 5L)).thenReturn(true);
+		when(reactionRepository.insertIfAbsent(eq(1L), eq("comment"), eq(9L), any())).thenReturn(1);
+
+		reactionService.addCommentReaction(1L, 5L, 9L);
+
+		verify(eventPublisher).publishEvent(new ReactionChangedEvent(ReactionTarget.comment, 9L, 5L, 2L, 1));
+	}
+}
@@ -0,0 +1,44 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.mddapi.TestWebConfig;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionType;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+@Import(TestWebConfig.class)
+class AutocompleteControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private AutocompleteService autocompleteService;
+
+	@Test
+	void suggestReturnsSuggestions() throws Exception {
+		when(autocompleteService.suggest("spr", 5))
+				.thenReturn(List.of(new SuggestionResponse(SuggestionType.subject, 1L, "Spring")));
+
+		mockMvc.perform(get("/api/autocomplete?q=spr&limit=5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].type").value("subject"))
+				.andExpect(jsonPath("$[0].label").value("Spring"));
+	}
+}
@@ -0,0 +1,115 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.feature.post.PostImportService;
+import com.openclassrooms.mddapi.feature.post.PostService;
+import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
+import com.openclassrooms.mddapi.feature.post.dto.ImportLineResult;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionType;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.search.autocomplete.recent-posts=3",
+		"app.search.autocomplete.compact-threshold=2"
+})
+class AutocompleteServiceTest {
+
+	@Autowired
+	private AutocompleteService autocompleteService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostImportService postImportService;
+
+	@Autowired
+	private ContentCodecRegistry codecs;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void suggestsSubjectsThenNewestPostsAndKeepsOnlyRecentPosts() {
+		User author = userRepository.save(new User("auto@mail.com", "auto", "hashed"));
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Kotlin");
+		subject.setDescription("Kotlin");
+		subject = subjectRepository.save(subject);
+		autocompleteService.rebuild();
+
+		long subjectId = subject.getId();
+		long[] postIds = IntStream.range(0, 5)
+				.mapToLong(i -> postService.createPost(author.getId(),
+						new CreatePostRequest(subjectId, "Kotlin coroutines " + i, "Contenu")).id())
+				.toArray();
+
+		await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+			assertThat(autocompleteService.suggest("kot", 10))
+					.extracting(SuggestionResponse::type, SuggestionResponse::id)
+					.startsWith(tuple(SuggestionType.subject, subjectId))
+					.contains(tuple(SuggestionType.post, postIds[4]))
+					.doesNotContain(tuple(SuggestionType.post, postIds[0]));
+			assertThat(autocompleteService.suggest("corout", 2))
+					.extracting(SuggestionResponse::id)
+					.containsExactly(postIds[4], postIds[3]);
+		});
+	}
+
+	@Test
+	void importedTitlesAreAddedWithoutReloading() throws IOException {
+		User author = userRepository.save(new User("zig@mail.com", "zig", "hashed"));
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Systèmes");
+		subject.setDescription("Systèmes");
+		subject = subjectRepository.save(subject);
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt, hot_score)
+				values (?, ?, 'Zig allocateurs', ?, 'Zig', 0)
+				""", subject.getId(), author.getId(), codecs.codec().encode("Contenu"));
+
+		List<ImportLineResult> results = new ArrayList<>();
+		postImportService.importPosts(new BufferedReader(new StringReader("{\"subjectId\":" + subject.getId()
+				+ ",\"author\":\"zig\",\"title\":\"Zig comptime\",\"content\":\"Contenu\"}")), results::add);
+
+		await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(autocompleteService.suggest("zig", 10))
+				.extracting(SuggestionResponse::label)
+				.containsExactly("Zig comptime"));
+	}
+
+	@Test
+	void blankQueryHasNoSuggestion() {
+		assertThat(autocompleteService.suggest("  ", null)).isEmpty();
+		assertThat(autocompleteService.suggest(null, null)).isEmpty();
+	}
+}
@@ -0,0 +1,31 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FrenchAnalyzerTest {
+
+	@Test
+	void foldsAccentsCaseAndElisions() {
+		assertThat(FrenchAnalyzer.analyze("L'Écran à Noël, cœur")).containsExactly("ecran", "noel", "coeur");
+	}
+
+	@Test
+	void dropsStopWords() {
+		assertThat(FrenchAnalyzer.analyze("la configuration de Spring et des tests"))
+				.containsExactly("configur", "spring", "test");
+	}
+
+	@Test
+	void conflatesInflectedForms() {
+		assertThat(FrenchAnalyzer.analyze("Migrations migrer migré migrée"))
+				.containsOnly("migr");
+		assertThat(FrenchAnalyzer.analyze("journaux journal")).containsOnly("journal");
+	}
+
+	@Test
+	void keepsShortWordsAndNumbersIntact() {
+		assertThat(FrenchAnalyzer.analyze("Java 21 sql")).containsExactly("java", "21", "sql");
+	}
+}
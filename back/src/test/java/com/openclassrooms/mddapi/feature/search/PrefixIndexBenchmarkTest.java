@@ -0,0 +1,72 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionType;
+
+/**
+ * Measures autocomplete lookups over 5,000 recent titles and 50 subjects, for short and longer prefixes.
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrefixIndexBenchmarkTest {
+
+	private static final String[] WORDS = ("spring boot angular typescript java migration flyway mysql docker "
+			+ "kubernetes sécurité performance tests cache index requête composant signal observable déploiement")
+			.split(" ");
+	private static final int LOOKUPS = 100_000;
+
+	private PrefixIndex index;
+
+	@BeforeAll
+	void build() {
+		Random random = new Random(3);
+		List<PrefixIndex.Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			entries.add(PrefixIndex.Entry.of(
+					new SuggestionResponse(SuggestionType.subject, i, WORDS[i % WORDS.length] + " " + i),
+					Long.MAX_VALUE));
+		}
+		for (int i = 0; i < 5_000; i++) {
+			StringBuilder title = new StringBuilder();
+			for (int w = 0; w < 4 + random.nextInt(6); w++) {
+				title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			entries.add(PrefixIndex.Entry.of(new SuggestionResponse(SuggestionType.post, i, title.toString()), i));
+		}
+		for (int round = 0; round < 5; round++) {
+			long start = System.nanoTime();
+			index = PrefixIndex.build(entries);
+			System.out.printf("build: %d entries in %.1f ms%n", entries.size(), (System.nanoTime() - start) / 1e6);
+		}
+	}
+
+	@Test
+	void lookupLatency() {
+		for (String prefix : List.of("s", "sp", "spring b", "kuber", "securite perf")) {
+			int found = 0;
+			for (int i = 0; i < LOOKUPS / 10; i++) {
+				found += index.top(prefix, 8).size();
+			}
+			long start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				found += index.top(prefix, 8).size();
+			}
+			double micros = (System.nanoTime() - start) / 1e3 / LOOKUPS;
+			System.out.printf("prefix %-14s %.2f µs per lookup%n", "\"" + prefix + "\"", micros);
+			assertThat(found).isPositive();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SuggestionType;
+
+class PrefixIndexTest {
+
+	private final PrefixIndex index = PrefixIndex.build(List.of(
+			entry(SuggestionType.subject, 1, "Spring Boot", Long.MAX_VALUE),
+			entry(SuggestionType.post, 10, "Sécuriser Spring Security", 10),
+			entry(SuggestionType.post, 11, "Débuter avec Angular", 11),
+			entry(SuggestionType.post, 12, "Spring, spring et encore spring", 12)));
+
+	@Test
+	void matchesLabelAndWordPrefixesIgnoringCaseAndAccents() {
+		assertThat(labels(index.top("secu", 10))).containsExactly("Sécuriser Spring Security");
+		assertThat(labels(index.top(PrefixIndex.normalize("DÉBUT"), 10))).containsExactly("Débuter avec Angular");
+		assertThat(labels(index.top("spring b", 10))).containsExactly("Spring Boot");
+	}
+
+	@Test
+	void returnsEachEntryOnceBestFirst() {
+		assertThat(labels(index.top("spring", 10)))
+				.containsExactly("Spring Boot", "Spring, spring et encore spring", "Sécuriser Spring Security");
+	}
+
+	@Test
+	void keepsOnlyTheBestEntriesWithinLimit() {
+		assertThat(labels(index.top("s", 2))).containsExactly("Spring Boot", "Spring, spring et encore spring");
+		assertThat(index.top("zzz", 5)).isEmpty();
+	}
+
+	@Test
+	void agreesWithScanningEveryLabel() {
+		String[] words = {"java", "jakarta", "ja", "spring", "sprint", "angular", "ang", "docker", "do"};
+		List<PrefixIndex.Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			String label = words[i % words.length] + " " + words[i * 7 % words.length] + " " + words[i * 5 % 4];
+			entries.add(entry(SuggestionType.post, i, label, i * 37 % 50));
+		}
+		PrefixIndex large = PrefixIndex.build(entries);
+
+		for (String prefix : List.of("j", "ja", "jav", "java j", "spr", "sprint", "a", "do", "docker ja", "x")) {
+			List<PrefixIndex.Entry> expected = entries.stream()
+					.filter(entry -> PrefixIndex.matches(entry, prefix))
+					.sorted(PrefixIndex.BEST_FIRST)
+					.limit(5)
+					.toList();
+			assertThat(large.top(prefix, 5)).extracting(PrefixIndex.Entry::rank)
+					.containsExactlyElementsOf(expected.stream().map(PrefixIndex.Entry::rank).toList());
+		}
+	}
+
+	private static PrefixIndex.Entry entry(SuggestionType type, long id, String label, long rank) {
+		return PrefixIndex.Entry.of(new SuggestionResponse(type, id, label), rank);
+	}
+
+	private static List<String> labels(List<PrefixIndex.Entry> entries) {
+		return entries.stream().map(entry -> entry.suggestion().label()).toList();
+	}
+}
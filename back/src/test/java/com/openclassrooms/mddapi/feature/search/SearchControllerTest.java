@@ -0,0 +1,62 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.mddapi.TestWebConfig;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.feature.search.dto.SearchPageResponse;
+import com.openclassrooms.mddapi.security.CurrentUserService;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+@Import(TestWebConfig.class)
+class SearchControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private SearchService searchService;
+
+	@MockitoBean
+	private CurrentUserService currentUserService;
+
+	@Test
+	void searchPassesFilters() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(searchService.search(1L, "docker", 2L, true, "abc", 10))
+				.thenReturn(new SearchPageResponse(List.of(), "next"));
+
+		mockMvc.perform(get("/api/search?q=docker&subjectId=2&subscribed=true&cursor=abc&limit=10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nextCursor").value("next"));
+
+		verify(searchService).search(1L, "docker", 2L, true, "abc", 10);
+	}
+
+	@Test
+	void searchReturnsBadRequestForBlankQuery() throws Exception {
+		when(currentUserService.getUserId(any())).thenReturn(1L);
+		when(searchService.search(1L, null, null, false, null, null))
+				.thenThrow(new BadRequestException("Recherche vide"));
+
+		mockMvc.perform(get("/api/search"))
+				.andExpect(status().isBadRequest());
+	}
+}
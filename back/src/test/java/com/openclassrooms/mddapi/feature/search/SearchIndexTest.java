@@ -0,0 +1,141 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.openclassrooms.mddapi.config.SearchProperties;
+
+class SearchIndexTest {
+
+	@TempDir
+	private Path directory;
+
+	private SearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = newIndex(2);
+		index.open();
+	}
+
+	@Test
+	void ranksTitleMatchesAboveBodyMatches() {
+		addPost(1, 10, "Recette de cuisine", "Un article qui parle de migrations en passant.");
+		addPost(2, 10, "Migrations Flyway", "Tout sur les scripts.");
+		addPost(3, 10, "Autre sujet", "Rien à voir.");
+
+		assertThat(index.search("migration", null, null, 10))
+				.extracting(SearchHit::postId)
+				.containsExactly(2L, 1L);
+	}
+
+	@Test
+	void reportsPostsMatchedThroughTheirComments() {
+		addPost(1, 10, "Angular", "Les composants.");
+		index.add(AnalyzedDocument.of(IndexedDocument.comment(7, 1, 10), null, "Et les signaux ?"));
+
+		assertThat(index.search("signal", null, null, 10)).extracting(SearchHit::postId).containsExactly(1L);
+	}
+
+	@Test
+	void filtersBySubjectAndPagesWithCursor() {
+		addPost(1, 10, "Docker", "conteneur");
+		addPost(2, 20, "Docker", "conteneur");
+		addPost(3, 20, "Docker", "conteneur");
+
+		assertThat(index.search("docker", Set.of(20L), null, 10)).extracting(SearchHit::postId)
+				.containsExactly(3L, 2L);
+
+		List<SearchHit> first = index.search("docker", null, null, 2);
+		assertThat(index.search("docker", null, SearchCursor.after(first.getLast()), 2))
+				.extracting(SearchHit::postId)
+				.containsExactly(1L);
+	}
+
+	@Test
+	void ignoresDocumentsAlreadyIndexed() {
+		assertThat(addPost(1, 10, "Docker", "conteneur")).isTrue();
+		assertThat(addPost(1, 10, "Docker", "conteneur")).isFalse();
+		assertThat(index.size()).isOne();
+	}
+
+	@Test
+	void committedSegmentsSurviveReopenAndAreMerged() {
+		addPost(1, 10, "Spring Boot", "configuration");
+		index.commit();
+		addPost(2, 10, "Spring Security", "configuration");
+		index.commit();
+		addPost(3, 10, "Spring Data", "configuration");
+		index.commit();
+		addPost(4, 10, "Spring Batch", "non commité");
+
+		assertThat(index.segmentCount()).isEqualTo(2);
+
+		SearchIndex reopened = newIndex(2);
+		reopened.open();
+		assertThat(reopened.size()).isEqualTo(3);
+		assertThat(reopened.search("spring configurer", null, null, 10))
+				.extracting(SearchHit::postId)
+				.containsExactlyInAnyOrder(1L, 2L, 3L);
+	}
+
+	@Test
+	void onlySegmentsOfTheSameTierAreMerged() {
+		for (long postId = 1; postId <= 4; postId++) {
+			addPost(postId, 10, "Spring", "configuration");
+		}
+		index.commit();
+		addPost(5, 10, "Spring", "configuration");
+		index.commit();
+		assertThat(index.segmentCount()).isEqualTo(2);
+
+		addPost(6, 10, "Spring", "configuration");
+		index.commit();
+		assertThat(index.segmentCount()).isEqualTo(2);
+
+		addPost(7, 10, "Spring", "configuration");
+		index.commit();
+		addPost(8, 10, "Spring", "configuration");
+		index.commit();
+		assertThat(index.segmentCount()).isOne();
+		assertThat(index.search("spring", null, null, 10)).hasSize(8);
+	}
+
+	@Test
+	void corruptedIndexIsDiscarded() throws IOException {
+		addPost(1, 10, "Spring Boot", "configuration");
+		index.commit();
+		try (var files = Files.newDirectoryStream(directory, "*.seg")) {
+			for (Path file : files) {
+				byte[] bytes = Files.readAllBytes(file);
+				bytes[bytes.length / 2] ^= 0x55;
+				Files.write(file, bytes);
+			}
+		}
+
+		SearchIndex reopened = newIndex(2);
+		reopened.open();
+
+		assertThat(reopened.size()).isZero();
+		assertThat(reopened.search("spring", null, null, 10)).isEmpty();
+	}
+
+	private boolean addPost(long postId, long subjectId, String title, String body) {
+		return index.add(AnalyzedDocument.of(IndexedDocument.post(postId, subjectId), title, body));
+	}
+
+	private SearchIndex newIndex(int mergeFactor) {
+		return new SearchIndex(new SearchProperties(directory, 20, 50, Duration.ofSeconds(10), mergeFactor, 100,
+				Duration.ofSeconds(30), new SearchProperties.Autocomplete(100, 4, 5, 10)));
+	}
+}
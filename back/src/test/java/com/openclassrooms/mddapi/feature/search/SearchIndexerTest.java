@@ -0,0 +1,143 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.domain.codec.ContentCodecRegistry;
+import com.openclassrooms.mddapi.feature.post.PostImportService;
+import com.openclassrooms.mddapi.feature.post.PostService;
+import com.openclassrooms.mddapi.feature.post.dto.CreateCommentRequest;
+import com.openclassrooms.mddapi.feature.post.dto.CreatePostRequest;
+import com.openclassrooms.mddapi.feature.post.dto.ImportLineResult;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+class SearchIndexerTest {
+
+	@Autowired
+	private SearchIndexer searchIndexer;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostImportService postImportService;
+
+	@Autowired
+	private ContentCodecRegistry codecs;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void createdPostsAndCommentsAreSearchable() {
+		User author = userRepository.save(new User("search@mail.com", "search", "hashed"));
+		Subject subject = saveSubject("Recherche");
+
+		long postId = postService.createPost(author.getId(),
+				new CreatePostRequest(subject.getId(), "Kubernetes en production", "Retour d'expérience.")).id();
+		postService.addComment(author.getId(), postId, new CreateCommentRequest("Et Helm pour les déploiements ?"));
+
+		assertThat(searchIndex.search("kubernetes", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+		assertThat(searchIndex.search("deploiement", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+	}
+
+	@Test
+	void catchUpIndexesRowsWrittenWithoutEvents() {
+		User author = userRepository.save(new User("catchup@mail.com", "catchup", "hashed"));
+		Subject subject = saveSubject("Rattrapage");
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt, hot_score)
+				values (?, ?, 'Terraform', ?, 'Infra', 0)
+				""", subject.getId(), author.getId(), codecs.codec().encode("Infrastructure déclarative."));
+		long postId = jdbcTemplate.queryForObject("select max(id) from post", Long.class);
+
+		assertThat(searchIndexer.catchUp()).isEqualTo(1);
+		assertThat(searchIndexer.catchUp()).isZero();
+		assertThat(searchIndex.search("infrastructure", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+	}
+
+	@Test
+	void syncIndexesRowsWrittenThroughAnotherNode() {
+		User author = userRepository.save(new User("sync@mail.com", "sync", "hashed"));
+		Subject subject = saveSubject("Synchronisation");
+		searchIndexer.sync();
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt, hot_score)
+				values (?, ?, 'Vault', ?, 'Secrets', 0)
+				""", subject.getId(), author.getId(), codecs.codec().encode("Rotation des secrets."));
+		long postId = jdbcTemplate.queryForObject("select max(id) from post", Long.class);
+		jdbcTemplate.update("insert into comment (post_id, author_id, content) values (?, ?, ?)",
+				postId, author.getId(), codecs.codec().encode("Et les certificats ?"));
+
+		searchIndexer.sync();
+
+		assertThat(searchIndex.search("rotation", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+		assertThat(searchIndex.search("certificat", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+	}
+
+	@Test
+	void importedPostsAndCommentsAreIndexedWithoutScanningOtherRows() throws IOException {
+		User author = userRepository.save(new User("import@mail.com", "importeur", "hashed"));
+		Subject subject = saveSubject("Import");
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt, hot_score)
+				values (?, ?, 'Ansible', ?, 'Playbooks', 0)
+				""", subject.getId(), author.getId(), codecs.codec().encode("Playbooks idempotents."));
+		long strayId = jdbcTemplate.queryForObject("select max(id) from post", Long.class);
+
+		List<ImportLineResult> results = new ArrayList<>();
+		postImportService.importPosts(new BufferedReader(new StringReader("{\"subjectId\":" + subject.getId()
+				+ ",\"author\":\"importeur\",\"title\":\"Prometheus\",\"content\":\"Alertes et métriques.\","
+				+ "\"comments\":[{\"author\":\"importeur\",\"content\":\"Et Grafana pour les tableaux ?\"}]}")),
+				results::add);
+		long postId = results.getFirst().postId();
+
+		assertThat(searchIndex.search("prometheus", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+		assertThat(searchIndex.search("grafana", null, null, 10)).extracting(SearchHit::postId)
+				.containsExactly(postId);
+		assertThat(searchIndex.search("playbooks", null, null, 10)).isEmpty();
+
+		jdbcTemplate.update("delete from post where id = ?", strayId);
+		assertThat(searchIndexer.catchUp()).isZero();
+	}
+
+	private Subject saveSubject(String name) {
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName(name);
+		subject.setDescription(name);
+		return subjectRepository.save(subject);
+	}
+}
@@ -0,0 +1,99 @@
+package com.openclassrooms.mddapi.feature.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.openclassrooms.mddapi.config.SearchProperties;
+import com.openclassrooms.mddapi.exception.BadRequestException;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.search.dto.SearchPageResponse;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
+import com.openclassrooms.mddapi.repository.PostRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+	@Mock
+	private SearchIndex searchIndex;
+
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private SubscriptionIndex subscriptionIndex;
+
+	private SearchService searchService;
+
+	@BeforeEach
+	void setUp() {
+		searchService = new SearchService(searchIndex, postRepository, subscriptionIndex,
+				new SearchProperties(Path.of("unused"), 2, 3, Duration.ofSeconds(10), 8, 100,
+				Duration.ofSeconds(30), new SearchProperties.Autocomplete(100, 4, 5, 10)));
+	}
+
+	@Test
+	void rejectsBlankQuery() {
+		assertThatThrownBy(() -> searchService.search(1L, " ", null, false, null, null))
+				.isInstanceOf(BadRequestException.class);
+		verifyNoInteractions(searchIndex);
+	}
+
+	@Test
+	void returnsHitsInScoreOrderWithNextCursor() {
+		when(searchIndex.search(eq("docker"), isNull(), isNull(), eq(3))).thenReturn(List.of(
+				new SearchHit(5L, 3.0), new SearchHit(9L, 2.0), new SearchHit(1L, 1.0)));
+		when(postRepository.findFeedItemsByIdIn(List.of(5L, 9L))).thenReturn(List.of(post(9L), post(5L)));
+
+		SearchPageResponse page = searchService.search(1L, "docker", null, false, null, null);
+
+		assertThat(page.items()).extracting(hit -> hit.post().id()).containsExactly(5L, 9L);
+		assertThat(SearchCursor.decode(page.nextCursor())).isEqualTo(new SearchCursor(2.0, 9L));
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		when(searchIndex.search(eq("docker"), isNull(), isNull(), eq(3))).thenReturn(List.of(new SearchHit(5L, 3.0)));
+		when(postRepository.findFeedItemsByIdIn(List.of(5L))).thenReturn(List.of(post(5L)));
+
+		assertThat(searchService.search(1L, "docker", null, false, null, null).nextCursor()).isNull();
+	}
+
+	@Test
+	void subscribedRestrictsToSubscriptionsIntersectedWithSubject() {
+		when(subscriptionIndex.isSubscribed(1L, 20L)).thenReturn(true);
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {10L, 20L});
+		when(searchIndex.search(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+		searchService.search(1L, "docker", 20L, true, null, null);
+		searchService.search(1L, "docker", 30L, true, null, null);
+		searchService.search(1L, "docker", null, true, null, 1);
+
+		verify(searchIndex).search("docker", Set.of(20L), null, 3);
+		verify(searchIndex).search("docker", Set.of(), null, 3);
+		verify(searchIndex).search("docker", Set.of(10L, 20L), null, 2);
+	}
+
+	private static FeedPostResponse post(long id) {
+		Instant at = Instant.parse("2026-01-01T00:00:00Z");
+		return new FeedPostResponse(id, 10L, "user", "Titre " + id, "Extrait", at, 0, at, 0);
+	}
+}
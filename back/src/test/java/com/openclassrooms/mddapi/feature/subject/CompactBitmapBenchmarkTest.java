@@ -0,0 +1,54 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures building, probing and enumerating the subscribers of one subject among 1,000,000 users, for a sparse and a
+ * dense subject.
+ * <p>
+ * Run with {@code ./mvnw -f back/pom.xml test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CompactBitmapBenchmarkTest {
+
+	private static final int USERS = 1_000_000;
+	private static final int LOOKUPS = 1_000_000;
+
+	@Test
+	void sparseAndDenseSubjects() {
+		for (int percent : new int[] {1, 30}) {
+			for (int round = 0; round < 5; round++) {
+				Random random = new Random(11);
+				long start = System.nanoTime();
+				CompactBitmap bitmap = new CompactBitmap();
+				for (int user = 0; user < USERS; user++) {
+					if (random.nextInt(100) < percent) {
+						bitmap.add(user);
+					}
+				}
+				double build = (System.nanoTime() - start) / 1e6;
+
+				start = System.nanoTime();
+				int found = 0;
+				for (int i = 0; i < LOOKUPS; i++) {
+					found += bitmap.contains(random.nextInt(USERS)) ? 1 : 0;
+				}
+				double probe = (System.nanoTime() - start) / 1.0 / LOOKUPS;
+
+				start = System.nanoTime();
+				int[] subscribers = bitmap.toArray();
+				double enumerate = (System.nanoTime() - start) / 1e6;
+
+				System.out.printf("%d%% subscribed: build %.1f ms, contains %.1f ns, %d subscribers listed in %.2f ms%n",
+						percent, build, probe, subscribers.length, enumerate);
+				assertThat(found).isPositive();
+				assertThat(subscribers).hasSize(bitmap.cardinality());
+			}
+		}
+	}
+}
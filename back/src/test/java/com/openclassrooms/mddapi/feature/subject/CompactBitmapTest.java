@@ -0,0 +1,70 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class CompactBitmapTest {
+
+	@Test
+	void addsAndRemovesValues() {
+		CompactBitmap bitmap = new CompactBitmap();
+
+		assertThat(bitmap.add(3)).isTrue();
+		assertThat(bitmap.add(3)).isFalse();
+		assertThat(bitmap.add(70_000)).isTrue();
+		assertThat(bitmap.add(1)).isTrue();
+
+		assertThat(bitmap.contains(3)).isTrue();
+		assertThat(bitmap.contains(4)).isFalse();
+		assertThat(bitmap.cardinality()).isEqualTo(3);
+		assertThat(bitmap.toArray()).containsExactly(1, 3, 70_000);
+
+		assertThat(bitmap.remove(3)).isTrue();
+		assertThat(bitmap.remove(3)).isFalse();
+		assertThat(bitmap.remove(123_456)).isFalse();
+		assertThat(bitmap.toArray()).containsExactly(1, 70_000);
+	}
+
+	@Test
+	void switchesBetweenArrayAndBitmapContainers() {
+		CompactBitmap bitmap = new CompactBitmap();
+		for (int value = 0; value < 10_000; value++) {
+			bitmap.add(value * 2);
+		}
+
+		assertThat(bitmap.cardinality()).isEqualTo(10_000);
+		assertThat(bitmap.contains(19_998)).isTrue();
+		assertThat(bitmap.contains(19_999)).isFalse();
+
+		for (int value = 0; value < 10_000; value++) {
+			if (value % 100 != 0) {
+				bitmap.remove(value * 2);
+			}
+		}
+
+		assertThat(bitmap.cardinality()).isEqualTo(100);
+		assertThat(bitmap.toArray()).startsWith(0, 200, 400).endsWith(19_800);
+	}
+
+	@Test
+	void matchesSortedSetOnRandomOperations() {
+		Random random = new Random(7);
+		CompactBitmap bitmap = new CompactBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		for (int i = 0; i < 50_000; i++) {
+			int value = random.nextInt(200_000);
+			if (random.nextInt(3) == 0) {
+				assertThat(bitmap.remove(value)).isEqualTo(expected.remove(value));
+			} else {
+				assertThat(bitmap.add(value)).isEqualTo(expected.add(value));
+			}
+		}
+
+		assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+		assertThat(bitmap.toArray()).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+	}
+}
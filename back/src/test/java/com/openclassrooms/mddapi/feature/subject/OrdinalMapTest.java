@@ -0,0 +1,36 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OrdinalMapTest {
+
+	@Test
+	void assignsDenseOrdinalsInOrderOfFirstAppearance() {
+		OrdinalMap map = new OrdinalMap();
+
+		assertThat(map.getOrAssign(42L)).isZero();
+		assertThat(map.getOrAssign(7L)).isEqualTo(1);
+		assertThat(map.getOrAssign(42L)).isZero();
+
+		assertThat(map.get(7L)).isEqualTo(1);
+		assertThat(map.get(8L)).isEqualTo(-1);
+		assertThat(map.id(1)).isEqualTo(7L);
+		assertThat(map.size()).isEqualTo(2);
+	}
+
+	@Test
+	void keepsOrdinalsWhenGrowing() {
+		OrdinalMap map = new OrdinalMap();
+		for (long id = 0; id < 100_000; id++) {
+			map.getOrAssign(id * 31 + 5);
+		}
+
+		assertThat(map.size()).isEqualTo(100_000);
+		for (int ordinal = 0; ordinal < 100_000; ordinal += 997) {
+			assertThat(map.get(map.id(ordinal))).isEqualTo(ordinal);
+		}
+		assertThat(map.get(6L)).isEqualTo(-1);
+	}
+}
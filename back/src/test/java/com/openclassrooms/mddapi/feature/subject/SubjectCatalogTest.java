@@ -0,0 +1,79 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+class SubjectCatalogTest {
+
+	@Autowired
+	private SubjectCatalog catalog;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void listsSubjectsInIdOrder() {
+		catalog.refresh();
+
+		List<SubjectCatalog.Entry> expected = jdbcTemplate.query(
+				"select id, name, description from subject order by id",
+				(rs, row) -> new SubjectCatalog.Entry(rs.getLong(1), rs.getString(2), rs.getString(3)));
+		assertThat(catalog.entries()).isEqualTo(expected);
+	}
+
+	@Test
+	void servesReadsWithoutReloading() {
+		long id = insertSubject("Lecture");
+		catalog.refresh();
+		double reloads = reloads();
+
+		catalog.entries();
+		assertThat(catalog.find(id)).isPresent();
+
+		assertThat(catalog.refresh()).isFalse();
+		assertThat(reloads()).isEqualTo(reloads);
+	}
+
+	@Test
+	void findsSubjectCreatedAfterLoadingOnMiss() {
+		catalog.refresh();
+		long id = insertSubject("Catalogue");
+
+		assertThat(catalog.find(id)).contains(new SubjectCatalog.Entry(id, "Catalogue", "Catalogue"));
+		assertThat(catalog.find(-1)).isEmpty();
+	}
+
+	@Test
+	void refreshReloadsChangedSubjects() {
+		long id = insertSubject("Modification");
+		catalog.refresh();
+		jdbcTemplate.update("update subject set description = ? where id = ?", "Modifié", id);
+
+		assertThat(catalog.refresh()).isTrue();
+		assertThat(catalog.find(id)).map(SubjectCatalog.Entry::description).contains("Modifié");
+	}
+
+	private long insertSubject(String name) {
+		jdbcTemplate.update("insert into subject (name, description) values (?, ?)", name, name);
+		return jdbcTemplate.queryForObject("select id from subject where name = ?", Long.class, name);
+	}
+
+	private double reloads() {
+		return meterRegistry.get("subject.catalog.reloads").counter().count();
+	}
+}
@@ -16,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.openclassrooms.mddapi.TestSupport;
 import com.openclassrooms.mddapi.domain.Subject;
@@ -33,12 +34,21 @@ class SubjectServiceTest {
 	@Mock
 	private SubjectRepository subjectRepository;
 
+	@Mock
+	private SubjectCatalog subjectCatalog;
+
+	@Mock
+	private SubscriptionIndex subscriptionIndex;
+
 	@Mock
 	private SubscriptionRepository subscriptionRepository;
 
 	@Mock
 	private UserRepository userRepository;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private SubjectService subjectService;
 
@@ -57,16 +67,15 @@ class SubjectServiceTest {
 
 	@Test
 	void listSubjectsMarksSubscribed() {
-		Subject other = TestSupport.newInstance(Subject.class);
-		other.setName("Spring");
-		other.setDescription("Framework");
-		TestSupport.setId(other, 11L);
-		when(subscriptionRepository.findSubjectIdsByUserId(1L)).thenReturn(List.of(10L));
-		when(subjectRepository.findAll()).thenReturn(List.of(subject, other));
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {10L});
+		when(subjectCatalog.entries()).thenReturn(List.of(
+				new SubjectCatalog.Entry(10L, "Java", "Lang"),
+				new SubjectCatalog.Entry(11L, "Spring", "Framework")));
 
 		var response = subjectService.listSubjects(1L);
 
 		assertThat(response).hasSize(2);
+		assertThat(response.get(0).name()).isEqualTo("Java");
 		assertThat(response.get(0).subscribed()).isTrue();
 		assertThat(response.get(1).subscribed()).isFalse();
 	}
@@ -99,6 +108,7 @@ class SubjectServiceTest {
 
 		assertThat(response.subscribed()).isTrue();
 		verify(subscriptionRepository).save(any(Subscription.class));
+		verify(eventPublisher).publishEvent(new SubscriptionChangedEvent(1L, 10L, true));
 	}
 
 	@Test
@@ -111,6 +121,7 @@ class SubjectServiceTest {
 		subjectService.subscribe(1L, 10L);
 
 		verify(subscriptionRepository, never()).save(any(Subscription.class));
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
 	}
 
 	@Test
@@ -124,6 +135,7 @@ class SubjectServiceTest {
 
 		assertThat(response.subscribed()).isFalse();
 		verify(subscriptionRepository).deleteById(id);
+		verify(eventPublisher).publishEvent(new SubscriptionChangedEvent(1L, 10L, false));
 	}
 
 	@Test
@@ -0,0 +1,137 @@
+package com.openclassrooms.mddapi.feature.subject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.repository.SubjectRepository;
+import com.openclassrooms.mddapi.repository.UserRepository;
+
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef",
+		"app.subject.subscription-index.scan-batch-size=2"
+})
+class SubscriptionIndexTest {
+
+	@Autowired
+	private SubscriptionIndex index;
+
+	@Autowired
+	private SubjectService subjectService;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long alice;
+	private long bob;
+	private long java;
+	private long spring;
+
+	@BeforeEach
+	void setUp() {
+		alice = user("alice");
+		bob = user("bob");
+		java = subject("Java");
+		spring = subject("Spring");
+	}
+
+	@Test
+	void subscribeAndUnsubscribeUpdateIndexOnCommit() {
+		subjectService.subscribe(alice, java);
+		subjectService.subscribe(alice, spring);
+		subjectService.subscribe(bob, java);
+
+		assertThat(index.subjectIds(alice)).containsExactly(java, spring);
+		assertThat(index.subscriberIds(java)).containsExactly(alice, bob);
+		assertThat(index.subscriberCount(java)).isEqualTo(2);
+		assertThat(index.isSubscribed(bob, spring)).isFalse();
+
+		subjectService.unsubscribe(alice, java);
+
+		assertThat(index.isSubscribed(alice, java)).isFalse();
+		assertThat(index.subscriberIds(java)).containsExactly(bob);
+		assertThat(jdbcTemplate.queryForObject(
+				"select count(*) from subscription_change where user_id = ?", Integer.class, alice)).isEqualTo(3);
+	}
+
+	@Test
+	void loadReadsExistingSubscriptionsInBatches() {
+		insertSubscription(alice, java);
+		insertSubscription(alice, spring);
+		insertSubscription(bob, spring);
+
+		assertThat(index.subjectIds(alice)).isEmpty();
+
+		index.load();
+
+		assertThat(index.subjectIds(alice)).containsExactly(java, spring);
+		assertThat(index.subscriberIds(spring)).containsExactly(alice, bob);
+	}
+
+	@Test
+	void syncAppliesChangesLoggedByOtherNodes() {
+		subjectService.subscribe(alice, java);
+		jdbcTemplate.update("delete from subscription where user_id = ? and subject_id = ?", alice, java);
+		insertSubscription(alice, spring);
+		logChange(alice, java, Instant.now());
+		logChange(alice, spring, Instant.now());
+
+		assertThat(index.subjectIds(alice)).containsExactly(java);
+
+		assertThat(index.sync()).isPositive();
+
+		assertThat(index.subjectIds(alice)).containsExactly(spring);
+		assertThat(index.subscriberCount(java)).isZero();
+	}
+
+	@Test
+	void purgeDeletesChangesPastRetention() {
+		logChange(bob, java, Instant.now().minus(2, ChronoUnit.HOURS));
+		logChange(bob, spring, Instant.now());
+
+		assertThat(index.purge()).isPositive();
+
+		assertThat(jdbcTemplate.queryForList(
+				"select subject_id from subscription_change where user_id = ?", Long.class, bob)).containsExactly(spring);
+	}
+
+	private void insertSubscription(long userId, long subjectId) {
+		jdbcTemplate.update("insert into subscription (user_id, subject_id) values (?, ?)", userId, subjectId);
+	}
+
+	private void logChange(long userId, long subjectId, Instant at) {
+		jdbcTemplate.update("insert into subscription_change (user_id, subject_id, created_at) values (?, ?, ?)",
+				userId, subjectId, Timestamp.from(at));
+	}
+
+	private long user(String name) {
+		String unique = name + UUID.randomUUID().toString().substring(0, 8);
+		return userRepository.save(new User(unique + "@mail.com", unique, "hashed")).getId();
+	}
+
+	private long subject(String name) {
+		Subject subject = TestSupport.newInstance(Subject.class);
+		subject.setName(name + " " + UUID.randomUUID().toString().substring(0, 8));
+		subject.setDescription(name);
+		return subjectRepository.save(subject).getId();
+	}
+}
@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.openclassrooms.mddapi.TestWebConfig;
 import com.openclassrooms.mddapi.feature.auth.dto.UserDto;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPageResponse;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
 import com.openclassrooms.mddapi.feature.user.dto.SubscriptionDto;
 import com.openclassrooms.mddapi.feature.user.dto.UpdateUserRequest;
 import com.openclassrooms.mddapi.feature.user.dto.UserProfileResponse;
@@ -73,4 +76,17 @@ class UserControllerTest {
 
 		verify(userService).updateProfile(1L, request);
 	}
+
+	@Test
+	void postsReturnsAuthorPage() throws Exception {
+		Instant createdAt = Instant.parse("2026-01-01T00:00:00Z");
+		FeedPostResponse post = new FeedPostResponse(5L, 10L, "user", "Titre", "Extrait", createdAt, 2, createdAt, 0);
+		when(userService.getPosts(1L, "abc", 10)).thenReturn(new FeedPageResponse(List.of(post), "next"));
+
+		mockMvc.perform(get("/api/users/1/posts").param("cursor", "abc").param("limit", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].id").value(5L))
+				.andExpect(jsonPath("$.items[0].excerpt").value("Extrait"))
+				.andExpect(jsonPath("$.nextCursor").value("next"));
+	}
 }
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,16 +16,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.openclassrooms.mddapi.TestSupport;
-import com.openclassrooms.mddapi.domain.Subscription;
-import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.config.FeedProperties;
 import com.openclassrooms.mddapi.domain.User;
+import com.openclassrooms.mddapi.exception.BadRequestException;
 import com.openclassrooms.mddapi.exception.ConflictException;
 import com.openclassrooms.mddapi.exception.NotFoundException;
+import com.openclassrooms.mddapi.feature.feed.FeedCursor;
+import com.openclassrooms.mddapi.feature.feed.dto.FeedPostResponse;
+import com.openclassrooms.mddapi.feature.subject.SubjectCatalog;
+import com.openclassrooms.mddapi.feature.subject.SubscriptionIndex;
 import com.openclassrooms.mddapi.feature.user.dto.UpdateUserRequest;
-import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
 import com.openclassrooms.mddapi.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,11 +40,20 @@ class UserServiceTest {
 	private UserRepository userRepository;
 
 	@Mock
-	private SubscriptionRepository subscriptionRepository;
+	private SubscriptionIndex subscriptionIndex;
+
+	@Mock
+	private SubjectCatalog subjectCatalog;
 
 	@Mock
 	private PasswordEncoder passwordEncoder;
 
+	@Mock
+	private PostRepository postRepository;
+
+	@Mock
+	private FeedProperties feedProperties;
+
 	@InjectMocks
 	private UserService userService;
 
@@ -60,13 +75,9 @@ class UserServiceTest {
 
 	@Test
 	void getProfileMapsSubscriptions() {
-		Subject subject = TestSupport.newInstance(Subject.class);
-		subject.setName("Java");
-		subject.setDescription("Lang");
-		TestSupport.setId(subject, 10L);
-		Subscription subscription = new Subscription(user, subject);
 		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-		when(subscriptionRepository.findAllByUserIdWithSubject(1L)).thenReturn(List.of(subscription));
+		when(subscriptionIndex.subjectIds(1L)).thenReturn(new long[] {10L});
+		when(subjectCatalog.find(10L)).thenReturn(Optional.of(new SubjectCatalog.Entry(10L, "Java", "Lang")));
 
 		var response = userService.getProfile(1L);
 
@@ -110,4 +121,53 @@ class UserServiceTest {
 		assertThat(user.getPassword()).isEqualTo("encoded");
 		verify(userRepository).save(user);
 	}
+
+	@Test
+	void getPostsThrowsWhenUserMissing() {
+		when(feedProperties.defaultPageSize()).thenReturn(2);
+		when(userRepository.existsById(1L)).thenReturn(false);
+
+		assertThatThrownBy(() -> userService.getPosts(1L, null, null))
+				.isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void getPostsRejectsMalformedCursor() {
+		assertThatThrownBy(() -> userService.getPosts(1L, "???", null))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void getPostsReturnsNextCursorWhenMoreRemain() {
+		FeedPostResponse first = post(3L, "2026-01-03T00:00:00Z");
+		FeedPostResponse second = post(2L, "2026-01-02T00:00:00Z");
+		FeedPostResponse third = post(1L, "2026-01-01T00:00:00Z");
+		when(feedProperties.defaultPageSize()).thenReturn(2);
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(postRepository.findAuthorPage(1L, Limit.of(3))).thenReturn(List.of(first, second, third));
+
+		var page = userService.getPosts(1L, null, null);
+
+		assertThat(page.items()).containsExactly(first, second);
+		assertThat(FeedCursor.decode(page.nextCursor())).isEqualTo(FeedCursor.after(second));
+	}
+
+	@Test
+	void getPostsSeeksAfterCursorAndClampsLimit() {
+		FeedPostResponse last = post(1L, "2026-01-01T00:00:00Z");
+		FeedCursor cursor = new FeedCursor(Instant.parse("2026-01-02T00:00:00Z"), 2L);
+		when(feedProperties.maxPageSize()).thenReturn(3);
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(postRepository.findAuthorPageAfter(1L, cursor.createdAt(), 2L, Limit.of(4))).thenReturn(List.of(last));
+
+		var page = userService.getPosts(1L, cursor.encode(), 50);
+
+		assertThat(page.items()).containsExactly(last);
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	private static FeedPostResponse post(long id, String createdAt) {
+		Instant instant = Instant.parse(createdAt);
+		return new FeedPostResponse(id, 10L, "user", "Titre " + id, "Extrait", instant, 0, instant, 0);
+	}
 }
@@ -0,0 +1,45 @@
+package com.openclassrooms.mddapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.openclassrooms.mddapi.domain.codec.ContentCodec;
+
+/**
+ * Runs the migrations up to V9 on a fresh database, adds text rows, then checks that V10 re-encodes them.
+ */
+class ContentCompressionMigrationTest {
+
+	@Test
+	void existingBodiesAreReEncoded() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		Flyway.configure().dataSource(dataSource).target("9").load().migrate();
+
+		String longBody = "Un article assez long pour être compressé par le codec. ".repeat(30);
+		jdbcTemplate.update("insert into `user` (email, username, password) values ('a@mail.com', 'a', 'x')");
+		jdbcTemplate.update("insert into subject (name, description) values ('Java', 'Java')");
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt)
+				values (1, 1, 'Court', 'Court', 'Court'), (1, 1, 'Long', ?, 'Long')
+				""", longBody);
+		jdbcTemplate.update("insert into comment (post_id, author_id, content) values (1, 1, 'Merci !')");
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		ContentCodec codec = new ContentCodec(ContentCodec.DEFAULT_THRESHOLD);
+		List<byte[]> posts = jdbcTemplate.queryForList("select content from post order by id", byte[].class);
+		assertThat(posts).extracting(codec::decode).containsExactly("Court", longBody);
+		assertThat(posts.get(1).length).isLessThan(longBody.length() / 4);
+		assertThat(codec.decode(jdbcTemplate.queryForObject("select content from comment", byte[].class)))
+				.isEqualTo("Merci !");
+	}
+}
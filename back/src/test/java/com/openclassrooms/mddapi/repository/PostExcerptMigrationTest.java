@@ -0,0 +1,50 @@
+package com.openclassrooms.mddapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.openclassrooms.mddapi.domain.codec.ContentCodec;
+import com.openclassrooms.mddapi.domain.codec.ContentDictionaryTrainer;
+import com.openclassrooms.mddapi.feature.post.PostExcerpt;
+
+/**
+ * Runs the migrations up to V16 on a fresh database, adds posts with a prefix excerpt, then checks that V17
+ * recomputes it from the decoded body.
+ */
+class PostExcerptMigrationTest {
+
+	@Test
+	void existingExcerptsAreRecomputed() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		Flyway.configure().dataSource(dataSource).target("16").load().migrate();
+
+		String plain = "Un   article\ncourt";
+		String deflated = "Un article assez long pour être compressé et coupé sur un mot. ".repeat(30);
+		String withDictionary = "Un autre article long, compressé avec le dictionnaire partagé. ".repeat(30);
+		byte[] dictionary = ContentDictionaryTrainer.train(List.of(withDictionary), 4096);
+		jdbcTemplate.update("insert into content_dictionary (id, data) values (1, ?)", (Object) dictionary);
+		ContentCodec codec = new ContentCodec(ContentCodec.DEFAULT_THRESHOLD);
+		ContentCodec dictionaryCodec = new ContentCodec(ContentCodec.DEFAULT_THRESHOLD, 1, dictionary, id -> null);
+		jdbcTemplate.update("insert into `user` (email, username, password) values ('a@mail.com', 'a', 'x')");
+		jdbcTemplate.update("insert into subject (name, description) values ('Java', 'Java')");
+		jdbcTemplate.update("""
+				insert into post (subject_id, author_id, title, content, excerpt)
+				values (1, 1, 'Court', ?, ?), (1, 1, 'Long', ?, ?), (1, 1, 'Dictionnaire', ?, ?)
+				""", codec.encode(plain), plain, codec.encode(deflated), deflated.substring(0, 280),
+				dictionaryCodec.encode(withDictionary), withDictionary.substring(0, 280));
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		assertThat(jdbcTemplate.queryForList("select excerpt from post order by id", String.class)).containsExactly(
+				PostExcerpt.of(plain), PostExcerpt.of(deflated), PostExcerpt.of(withDictionary));
+	}
+}
@@ -0,0 +1,50 @@
+package com.openclassrooms.mddapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.mddapi.domain.ReactionTarget;
+import com.openclassrooms.mddapi.domain.User;
+
+/**
+ * Runs the idempotent reaction writes against the migrated schema.
+ */
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+@Transactional
+class ReactionRepositoryTest {
+
+	@Autowired
+	private ReactionRepository reactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void insertIfAbsentAddsOneReactionPerUserAndTarget() {
+		long userId = userRepository.save(new User("reactor@mail.com", "reactor", "hashed")).getId();
+
+		assertThat(reactionRepository.insertIfAbsent(userId, ReactionTarget.post.name(), 5L, Instant.EPOCH)).isEqualTo(1);
+		assertThat(reactionRepository.insertIfAbsent(userId, ReactionTarget.post.name(), 5L, Instant.EPOCH)).isZero();
+		assertThat(reactionRepository.insertIfAbsent(userId, ReactionTarget.comment.name(), 5L, Instant.EPOCH))
+				.isEqualTo(1);
+		assertThat(reactionRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void removeDeletesOnlyExistingReaction() {
+		long userId = userRepository.save(new User("unreactor@mail.com", "unreactor", "hashed")).getId();
+		reactionRepository.insertIfAbsent(userId, ReactionTarget.post.name(), 5L, Instant.EPOCH);
+
+		assertThat(reactionRepository.remove(userId, ReactionTarget.post, 5L)).isEqualTo(1);
+		assertThat(reactionRepository.remove(userId, ReactionTarget.post, 5L)).isZero();
+	}
+}
@@ -0,0 +1,51 @@
+package com.openclassrooms.mddapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks on the migrated schema that the hot queries are planned on their composite index.
+ */
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+class SchemaIndexTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void subjectFeedUsesSubjectCreatedAtIndex() {
+		assertThat(explain("""
+				select id from post where subject_id = 1 and (created_at, id) < (current_timestamp, 100)
+				order by created_at desc, id desc limit 20
+				""")).contains("idx_post_subject_created_at");
+	}
+
+	@Test
+	void commentThreadUsesPostCreatedAtIndex() {
+		assertThat(explain("select id from comment where post_id = 1 order by created_at, id limit 20"))
+				.contains("idx_comment_post_created_at");
+	}
+
+	@Test
+	void authorTimelineUsesAuthorCreatedAtIndex() {
+		assertThat(explain("select id from post where author_id = 1 order by created_at desc, id desc limit 20"))
+				.contains("idx_post_author_created_at");
+	}
+
+	@Test
+	void expiredSessionPurgeUsesUserExpiresAtIndex() {
+		assertThat(explain("delete from auth_session where user_id = 1 and expires_at < current_timestamp"))
+				.contains("idx_auth_session_user_expires_at");
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class);
+	}
+}
@@ -0,0 +1,107 @@
+package com.openclassrooms.mddapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.mddapi.TestSupport;
+import com.openclassrooms.mddapi.domain.Post;
+import com.openclassrooms.mddapi.domain.Subject;
+import com.openclassrooms.mddapi.domain.Subscription;
+import com.openclassrooms.mddapi.domain.User;
+
+/**
+ * Runs the idempotent timeline writes against the migrated schema.
+ */
+@SpringBootTest(properties = {
+		"spring.docker.compose.enabled=false",
+		"app.auth.jwt-secret=0123456789abcdef0123456789abcdef"
+})
+@Transactional
+class UserTimelineRepositoryTest {
+
+	@Autowired
+	private UserTimelineRepository userTimelineRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private SubjectRepository subjectRepository;
+
+	@Autowired
+	private SubscriptionRepository subscriptionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User reader;
+	private User author;
+	private Subject subject;
+
+	@BeforeEach
+	void setUp() {
+		reader = userRepository.save(new User("timeline-reader@mail.com", "timelineReader", "hashed"));
+		author = userRepository.save(new User("timeline-author@mail.com", "timelineAuthor", "hashed"));
+		subject = TestSupport.newInstance(Subject.class);
+		subject.setName("Timeline");
+		subject.setDescription("Timeline subject");
+		subject = subjectRepository.save(subject);
+	}
+
+	@Test
+	void fanOutCanBeReplayed() {
+		subscriptionRepository.saveAndFlush(new Subscription(reader, subject));
+		long postId = save("Rejoué").getId();
+
+		assertThat(userTimelineRepository.fanOut(postId, List.of(reader.getId()))).isEqualTo(1);
+		assertThat(userTimelineRepository.fanOut(postId, List.of(reader.getId()))).isZero();
+		assertThat(userTimelineRepository.findPostIdsDesc(reader.getId(), Limit.of(10))).containsExactly(postId);
+	}
+
+	@Test
+	void backfillCopiesOnlyTheMostRecentPosts() {
+		save("Ancien");
+		long middle = save("Moyen").getId();
+		long newest = save("Récent").getId();
+
+		assertThat(userTimelineRepository.backfill(reader.getId(), subject.getId(), 2)).isEqualTo(2);
+		assertThat(userTimelineRepository.backfill(reader.getId(), subject.getId(), 2)).isZero();
+		assertThat(userTimelineRepository.findPostIdsDesc(reader.getId(), Limit.of(10)))
+				.containsExactly(newest, middle);
+	}
+
+	@Test
+	void copyPostsSkipsUsersNoLongerSubscribed() {
+		long postId = save("Historique").getId();
+
+		assertThat(userTimelineRepository.copyPosts(reader.getId(), List.of(postId))).isZero();
+
+		subscriptionRepository.saveAndFlush(new Subscription(reader, subject));
+		assertThat(userTimelineRepository.copyPosts(reader.getId(), List.of(postId))).isEqualTo(1);
+		assertThat(userTimelineRepository.copyPosts(reader.getId(), List.of(postId))).isZero();
+	}
+
+	@Test
+	void subjectPostIdsAreReadByIdKeyset() {
+		long first = save("Premier").getId();
+		long second = save("Deuxième").getId();
+		long third = save("Troisième").getId();
+
+		assertThat(postRepository.findIdsBySubjectIdBefore(subject.getId(), Long.MAX_VALUE, Limit.of(2)))
+				.containsExactly(third, second);
+		assertThat(postRepository.findIdsBySubjectIdBefore(subject.getId(), second, Limit.of(2)))
+				.containsExactly(first);
+	}
+
+	private Post save(String title) {
+		return postRepository.saveAndFlush(new Post(subject, author, title, "Contenu", "Contenu"));
+	}
+}
@@ -36,7 +36,7 @@ describe('FeedComponent', () => {
 
   it('loads feed on init', () => {
     feedService.getFeed.mockReturnValue(
-      of([{ id: 1, subjectId: 1, author: 'a', title: 't', content: 'c', createdAt: '2024-01-01T10:00:00Z' }]),
+      of([{ id: 1, subjectId: 1, author: 'a', title: 't', excerpt: 'c', createdAt: '2024-01-01T10:00:00Z', commentCount: 0, lastActivityAt: '2024-01-01T10:00:00Z' }]),
     );
 
     fixture.detectChanges();
@@ -5,6 +5,8 @@ export interface FeedPost {
   subjectId: number;
   author: string;
   title: string;
-  content: string;
+  excerpt: string;
   createdAt: string;
+  commentCount: number;
+  lastActivityAt: string;
 }
@@ -10,7 +10,11 @@ import { describe, beforeEach, it, expect, vi } from 'vitest';
 
 
 describe('PostDetailComponent', () => {
-  let postService: { getPost: ReturnType<typeof vi.fn>; addComment: ReturnType<typeof vi.fn> };
+  let postService: {
+    getPost: ReturnType<typeof vi.fn>;
+    getComments: ReturnType<typeof vi.fn>;
+    addComment: ReturnType<typeof vi.fn>;
+  };
   let snackBar: { open: ReturnType<typeof vi.fn> };
 
   const postResponse = {
@@ -20,12 +24,17 @@ describe('PostDetailComponent', () => {
     content: 'Body',
     author: 'Author',
     createdAt: '2024-01-01',
-    comments: [{ id: 1, content: 'Hi', author: 'A', createdAt: '2024-01-02' }],
+    comments: {
+      items: [{ id: 1, content: 'Hi', author: 'A', createdAt: '2024-01-02' }],
+      nextCursor: 'cursor-1',
+    },
+    commentCount: 2,
+    lastActivityAt: '2024-01-02',
   };
 
   const setup = async (id: string) => {
     TestBed.resetTestingModule();
-    postService = { getPost: vi.fn(), addComment: vi.fn() };
+    postService = { getPost: vi.fn(), getComments: vi.fn(), addComment: vi.fn() };
     snackBar = { open: vi.fn() };
 
     TestBed.overrideComponent(PostDetailComponent, {
@@ -73,6 +82,21 @@ describe('PostDetailComponent', () => {
     expect(postService.getPost).toHaveBeenCalledWith(5);
   });
 
+  it('appends the next comment page', async () => {
+    const { fixture, component } = await setup('5');
+    postService.getPost.mockReturnValue(of(postResponse));
+    postService.getComments.mockReturnValue(
+      of({ items: [{ id: 2, content: 'Yo', author: 'B', createdAt: '2024-01-03' }], nextCursor: null }),
+    );
+
+    fixture.detectChanges();
+    component.loadMoreComments();
+
+    expect(postService.getComments).toHaveBeenCalledWith(5, 'cursor-1');
+    expect(component.comments().map((comment) => comment.id)).toEqual([1, 2]);
+    expect(component.nextCursor()).toBeNull();
+  });
+
   it('submits a comment and reloads', async () => {
     const { fixture, component } = await setup('5');
     postService.getPost.mockReturnValue(of(postResponse));
@@ -41,6 +41,8 @@ export class PostDetailComponent implements OnInit {
   readonly posting = signal(false);
   readonly post = signal<PostDetail | null>(null);
   readonly comments = signal<PostComment[]>([]);
+  readonly nextCursor = signal<string | null>(null);
+  readonly loadingComments = signal(false);
 
   readonly commentForm = this.fb.nonNullable.group({
     content: ['', [Validators.required, Validators.maxLength(1000)]],
@@ -66,7 +68,31 @@ export class PostDetailComponent implements OnInit {
       .subscribe({
         next: (post) => {
           this.post.set(post);
-          this.comments.set(post.comments);
+          this.comments.set(post.comments.items);
+          this.nextCursor.set(post.comments.nextCursor);
+        },
+        error: (error) => this.handleError(error),
+      });
+  }
+
+  loadMoreComments(): void {
+    const postId = this.post()?.id;
+    const cursor = this.nextCursor();
+    if (!postId || !cursor || this.loadingComments()) {
+      return;
+    }
+
+    this.loadingComments.set(true);
+    this.postService
+      .getComments(postId, cursor)
+      .pipe(
+        finalize(() => this.loadingComments.set(false)),
+        takeUntilDestroyed(this.destroyRef),
+      )
+      .subscribe({
+        next: (page) => {
+          this.comments.update((comments) => [...comments, ...page.items]);
+          this.nextCursor.set(page.nextCursor);
         },
         error: (error) => this.handleError(error),
       });
@@ -8,7 +8,14 @@ export interface PostDetail {
   content: string;
   author: string;
   createdAt: string;
-  comments: PostComment[];
+  comments: CommentPage;
+  commentCount: number;
+  lastActivityAt: string;
+}
+
+export interface CommentPage {
+  items: PostComment[];
+  nextCursor: string | null;
 }
 
 export interface PostComment {
@@ -35,10 +35,20 @@ describe('PostDetailService', () => {
       content: 'Body',
       author: 'Me',
       createdAt: '2024-01-01',
-      comments: [],
+      comments: { items: [], nextCursor: null },
+      commentCount: 0,
+      lastActivityAt: '2024-01-01',
     });
   });
 
+  it('gets the next comment page', () => {
+    service.getComments(12, 'abc').subscribe();
+
+    const request = httpMock.expectOne(`${environment.apiBaseUrl}/api/posts/12/comments?cursor=abc`);
+    expect(request.request.method).toBe('GET');
+    request.flush({ items: [], nextCursor: null });
+  });
+
   it('posts a comment', () => {
     service.addComment(12, { content: 'Hello' }).subscribe();
 
@@ -1,8 +1,8 @@
 import { Injectable, inject } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../environments/environment';
-import { CreateCommentRequest, PostDetail } from './post-detail.model';
+import { CommentPage, CreateCommentRequest, PostDetail } from './post-detail.model';
 
 @Injectable({ providedIn: 'root' })
 export class PostDetailService {
@@ -12,6 +12,11 @@ export class PostDetailService {
     return this.http.get<PostDetail>(`${environment.apiBaseUrl}/api/posts/${postId}`);
   }
 
+  getComments(postId: number, cursor: string): Observable<CommentPage> {
+    const params = new HttpParams().set('cursor', cursor);
+    return this.http.get<CommentPage>(`${environment.apiBaseUrl}/api/posts/${postId}/comments`, { params });
+  }
+
   addComment(postId: number, payload: CreateCommentRequest): Observable<void> {
     return this.http.post<void>(`${environment.apiBaseUrl}/api/posts/${postId}/comments`, payload);
   }